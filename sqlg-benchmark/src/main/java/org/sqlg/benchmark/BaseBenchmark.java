@@ -13,7 +13,7 @@ import java.net.URL;
  */
 class BaseBenchmark {
 
-    private Configuration getConfiguration() {
+    protected Configuration getConfiguration() {
         try {
             URL sqlProperties = Thread.currentThread().getContextClassLoader().getResource("sqlg.properties");
             Configuration configuration = new PropertiesConfiguration(sqlProperties);
@@ -0,0 +1,54 @@
+package org.sqlg.benchmark;
+
+import org.apache.commons.configuration.Configuration;
+import org.openjdk.jmh.annotations.*;
+import org.umlg.sqlg.structure.SqlgGraph;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the latency of checking a connection out of, and back into, the pool
+ * with many more threads than connections.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Fork(value = 1)
+@Measurement(iterations = 10, time = 5)
+@Threads(64)
+public class ConnectionCheckoutBenchmark extends BaseBenchmark {
+
+    @Param({"org.umlg.sqlg.structure.ds.C3p0DataSourceFactory", "org.umlg.sqlg.structure.ds.HikariDataSourceFactory"})
+    public String dataSourceFactory;
+
+    @Param({"16"})
+    public int maxPoolSize;
+
+    private SqlgGraph sqlgGraph;
+    private DataSource dataSource;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        Configuration configuration = getConfiguration();
+        configuration.setProperty("jdbc.factory", this.dataSourceFactory);
+        configuration.setProperty("maxPoolSize", this.maxPoolSize);
+        this.sqlgGraph = SqlgGraph.open(configuration);
+        this.dataSource = this.sqlgGraph.getSqlgDataSource().getDatasource();
+    }
+
+    @Benchmark
+    public boolean checkout() throws SQLException {
+        try (Connection connection = this.dataSource.getConnection()) {
+            return connection.getAutoCommit();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        closeSqlgGraph(this.sqlgGraph);
+    }
+}
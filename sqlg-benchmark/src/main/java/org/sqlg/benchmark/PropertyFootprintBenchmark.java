@@ -0,0 +1,69 @@
+package org.sqlg.benchmark;
+
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversalSource;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.openjdk.jmh.annotations.*;
+import org.umlg.sqlg.structure.SqlgGraph;
+import org.umlg.sqlg.util.SqlgUtil;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Loads many vertices with their properties.
+ * Run with the gc profiler to see the bytes allocated per operation, i.e. per {@link #NUMBER_OF_VERTICES} vertices, in the report's
+ * <code>gc.alloc.rate.norm</code> line.
+ * <code>java -jar target/benchmarks.jar org.sqlg.benchmark.PropertyFootprintBenchmark -prof gc</code>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Fork(value = 1)
+@Measurement(iterations = 5, time = 5)
+public class PropertyFootprintBenchmark extends BaseBenchmark {
+
+    private static final int NUMBER_OF_VERTICES = 100_000;
+
+    private SqlgGraph sqlgGraph;
+    private GraphTraversalSource gt;
+
+    @Benchmark
+    public List<Vertex> readVertices() {
+        try {
+            List<Vertex> vertices = this.gt.V().hasLabel("Person").toList();
+            if (vertices.size() != NUMBER_OF_VERTICES)
+                throw new RuntimeException("expected " + NUMBER_OF_VERTICES);
+            return vertices;
+        } finally {
+            this.sqlgGraph.tx().rollback();
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        this.sqlgGraph = getSqlgGraph();
+        SqlgUtil.dropDb(this.sqlgGraph);
+        this.sqlgGraph.tx().commit();
+        this.sqlgGraph.close();
+        this.sqlgGraph = getSqlgGraph();
+        this.gt = this.sqlgGraph.traversal();
+        this.sqlgGraph.tx().normalBatchModeOn();
+        for (int i = 0; i < NUMBER_OF_VERTICES; i++) {
+            Map<String, Object> properties = new HashMap<>();
+            for (int j = 1; j <= 10; j++) {
+                properties.put("a" + j, "aaaaaaaaaa" + j);
+            }
+            properties.put("number", i);
+            this.sqlgGraph.addVertex("Person", properties);
+        }
+        this.sqlgGraph.tx().commit();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        closeSqlgGraph(this.sqlgGraph);
+    }
+}
@@ -0,0 +1,554 @@
+package org.umlg.sqlg.computer;
+
+import org.apache.tinkerpop.gremlin.structure.Direction;
+import org.apache.tinkerpop.gremlin.structure.Element;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.umlg.sqlg.sql.dialect.SqlDialect;
+import org.umlg.sqlg.structure.PropertyType;
+import org.umlg.sqlg.structure.RecordId;
+import org.umlg.sqlg.structure.RowDecoder;
+import org.umlg.sqlg.structure.SchemaTable;
+import org.umlg.sqlg.structure.SqlgGraph;
+import org.umlg.sqlg.structure.topology.Schema;
+import org.umlg.sqlg.util.IntList;
+import org.umlg.sqlg.util.LongList;
+import org.umlg.sqlg.util.SqlgUtil;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import static org.umlg.sqlg.structure.topology.Topology.*;
+
+/**
+ * A read only snapshot of the graph's vertex ids and edges in compressed sparse row (CSR) form.
+ * <p>
+ * The vertices are numbered 0 to n - 1, per vertex label in id order, the edges 0 to m - 1.
+ * The out edges of vertex v are outEdges[outOffsets[v]] to outEdges[outOffsets[v + 1] - 1], the in edges likewise.
+ * The ids, the foreign keys and the vertex properties are loaded up front, the vertex properties only for the requested keys if any.
+ * The edge properties are loaded one edge label at a time when they are first read, on the connection of the computation's transaction.
+ */
+final class CsrSnapshot {
+
+    private static Logger logger = LoggerFactory.getLogger(CsrSnapshot.class);
+
+    //The labels are without their prefix, as in RecordId. The vertices of label i are vertexLabelOffsets[i] to vertexLabelOffsets[i + 1] - 1.
+    private final SchemaTable[] vertexLabels;
+    private final Map<SchemaTable, Integer> vertexLabelIndexes = new HashMap<>();
+    private final int[] vertexLabelOffsets;
+    private final long[] vertexIds;
+    private final Map<String, Object>[] vertexProperties;
+    //null if all the vertex properties are loaded.
+    private final Set<String> vertexPropertyKeys;
+
+    //The edges of label i are edgeLabelOffsets[i] to edgeLabelOffsets[i + 1] - 1, in id order.
+    private final SchemaTable[] edgeLabels;
+    private final int[] edgeLabelOffsets;
+    private final int[] edgeLabelIndexes;
+    private final long[] edgeIds;
+    private final int[] edgeOutVertices;
+    private final int[] edgeInVertices;
+
+    private final int[] outOffsets;
+    private final int[] outEdges;
+    private final int[] inOffsets;
+    private final int[] inEdges;
+
+    //Per edge label the properties of its edges, null until they are read.
+    private final AtomicReferenceArray<Map<String, Object>[]> edgeProperties;
+    private final SqlgGraph sqlgGraph;
+    //The connection to load the edge properties with, null while no computation executes.
+    private Connection connection;
+    private Integer fetchSize;
+
+    @FunctionalInterface
+    interface EdgeConsumer {
+        void accept(int edge, int otherVertex);
+    }
+
+    private CsrSnapshot(SqlgGraph sqlgGraph, SchemaTable[] vertexLabels, int[] vertexLabelOffsets, long[] vertexIds, Map<String, Object>[] vertexProperties, Set<String> vertexPropertyKeys,
+                        SchemaTable[] edgeLabels, int[] edgeLabelOffsets, int[] edgeLabelIndexes, long[] edgeIds, int[] edgeOutVertices, int[] edgeInVertices,
+                        AtomicReferenceArray<Map<String, Object>[]> edgeProperties) {
+        this.sqlgGraph = sqlgGraph;
+        this.vertexLabels = vertexLabels;
+        for (int i = 0; i < vertexLabels.length; i++) {
+            this.vertexLabelIndexes.put(vertexLabels[i], i);
+        }
+        this.vertexLabelOffsets = vertexLabelOffsets;
+        this.vertexIds = vertexIds;
+        this.vertexProperties = vertexProperties;
+        this.vertexPropertyKeys = vertexPropertyKeys;
+        this.edgeLabels = edgeLabels;
+        this.edgeLabelOffsets = edgeLabelOffsets;
+        this.edgeLabelIndexes = edgeLabelIndexes;
+        this.edgeIds = edgeIds;
+        this.edgeOutVertices = edgeOutVertices;
+        this.edgeInVertices = edgeInVertices;
+        this.outOffsets = offsets(vertexIds.length, edgeOutVertices);
+        this.outEdges = adjacency(this.outOffsets, edgeOutVertices);
+        this.inOffsets = offsets(vertexIds.length, edgeInVertices);
+        this.inEdges = adjacency(this.inOffsets, edgeInVertices);
+        this.edgeProperties = edgeProperties;
+    }
+
+    /**
+     * Loads the snapshot on the transaction's connection.
+     *
+     * @param propertyKeys The vertex properties to load, null loads all of them.
+     */
+    @SuppressWarnings("unchecked")
+    static CsrSnapshot load(SqlgGraph sqlgGraph, Set<String> propertyKeys) throws SQLException {
+        long start = System.currentTimeMillis();
+        List<SchemaTable> vertexTables = new ArrayList<>();
+        List<SchemaTable> edgeTables = new ArrayList<>();
+        Map<String, Map<String, PropertyType>> allTables = new TreeMap<>(sqlgGraph.getTopology().getAllTables());
+        for (String table : allTables.keySet()) {
+            SchemaTable schemaTable = SqlgUtil.parseLabel(table);
+            if (schemaTable.getSchema().equals(Schema.GLOBAL_UNIQUE_INDEX_SCHEMA)) {
+                continue;
+            }
+            if (schemaTable.getTable().startsWith(VERTEX_PREFIX)) {
+                vertexTables.add(schemaTable);
+            } else if (schemaTable.getTable().startsWith(EDGE_PREFIX)) {
+                edgeTables.add(schemaTable);
+            }
+        }
+
+        SchemaTable[] vertexLabels = new SchemaTable[vertexTables.size()];
+        int[] vertexLabelOffsets = new int[vertexTables.size() + 1];
+        LongList vertexIds = new LongList();
+        List<Map<String, Object>> vertexProperties = new ArrayList<>();
+        for (int i = 0; i < vertexTables.size(); i++) {
+            SchemaTable vertexTable = vertexTables.get(i);
+            vertexLabels[i] = vertexTable.withOutPrefix();
+            vertexLabelOffsets[i] = vertexIds.size();
+            Map<String, PropertyType> properties = new LinkedHashMap<>(allTables.get(vertexTable.toString()));
+            if (propertyKeys != null) {
+                properties.keySet().retainAll(propertyKeys);
+            }
+            loadVertices(sqlgGraph, vertexTable, properties, vertexIds, vertexProperties);
+        }
+        vertexLabelOffsets[vertexTables.size()] = vertexIds.size();
+
+        CsrSnapshot vertices = new CsrSnapshot(sqlgGraph, vertexLabels, vertexLabelOffsets, vertexIds.toArray(),
+                vertexProperties.toArray(new Map[vertexProperties.size()]), propertyKeys,
+                new SchemaTable[0], new int[1], new int[0], new long[0], new int[0], new int[0], new AtomicReferenceArray<>(0));
+
+        SchemaTable[] edgeLabels = new SchemaTable[edgeTables.size()];
+        int[] edgeLabelOffsets = new int[edgeTables.size() + 1];
+        IntList edgeLabelIndexes = new IntList();
+        LongList edgeIds = new LongList();
+        IntList edgeOutVertices = new IntList();
+        IntList edgeInVertices = new IntList();
+        for (int i = 0; i < edgeTables.size(); i++) {
+            SchemaTable edgeTable = edgeTables.get(i);
+            edgeLabels[i] = edgeTable.withOutPrefix();
+            edgeLabelOffsets[i] = edgeIds.size();
+            Set<String> foreignKeys = sqlgGraph.getTopology().getEdgeForeignKeys(edgeTable.toString());
+            if (foreignKeys != null && !foreignKeys.isEmpty()) {
+                loadEdges(sqlgGraph, vertices, edgeTable, foreignKeys, i, edgeLabelIndexes, edgeIds, edgeOutVertices, edgeInVertices);
+            }
+        }
+        edgeLabelOffsets[edgeTables.size()] = edgeIds.size();
+        CsrSnapshot csrSnapshot = new CsrSnapshot(sqlgGraph, vertexLabels, vertexLabelOffsets, vertices.vertexIds, vertices.vertexProperties, propertyKeys,
+                edgeLabels, edgeLabelOffsets, edgeLabelIndexes.toArray(), edgeIds.toArray(), edgeOutVertices.toArray(), edgeInVertices.toArray(),
+                new AtomicReferenceArray<>(edgeTables.size()));
+        if (logger.isDebugEnabled()) {
+            logger.debug(String.format("loaded snapshot of %d vertices and %d edges in %d ms", csrSnapshot.vertexCount(), csrSnapshot.edgeCount(), System.currentTimeMillis() - start));
+        }
+        return csrSnapshot;
+    }
+
+    /**
+     * A snapshot of the same vertices and edges, for a computation on the result graph of a computation.
+     * The edge properties that are loaded are shared.
+     *
+     * @param vertexProperties   The vertices' properties, including the compute keys of the computation.
+     * @param vertexPropertyKeys The loaded vertex properties, null if all of them are loaded.
+     */
+    CsrSnapshot withVertexProperties(Map<String, Object>[] vertexProperties, Set<String> vertexPropertyKeys) {
+        return new CsrSnapshot(this.sqlgGraph, this.vertexLabels, this.vertexLabelOffsets, this.vertexIds, vertexProperties, vertexPropertyKeys,
+                this.edgeLabels, this.edgeLabelOffsets, this.edgeLabelIndexes, this.edgeIds, this.edgeOutVertices, this.edgeInVertices,
+                this.edgeProperties);
+    }
+
+    /**
+     * The same vertices without the edges, for the result graph of a computation that does not persist the edges.
+     */
+    CsrSnapshot withoutEdges() {
+        return new CsrSnapshot(this.sqlgGraph, this.vertexLabels, this.vertexLabelOffsets, this.vertexIds, this.vertexProperties, this.vertexPropertyKeys,
+                new SchemaTable[0], new int[1], new int[0], new long[0], new int[0], new int[0], new AtomicReferenceArray<>(0));
+    }
+
+    private static void loadVertices(SqlgGraph sqlgGraph, SchemaTable vertexTable, Map<String, PropertyType> properties,
+                                     LongList vertexIds, List<Map<String, Object>> vertexProperties) throws SQLException {
+        String sql = propertiesSql(sqlgGraph.getSqlDialect(), vertexTable, properties);
+        Connection connection = sqlgGraph.tx().getConnection();
+        try (PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
+            if (sqlgGraph.tx().getFetchSize() != null) {
+                preparedStatement.setFetchSize(sqlgGraph.tx().getFetchSize());
+            }
+            ResultSet resultSet = preparedStatement.executeQuery();
+            RowDecoder rowDecoder = rowDecoder(sqlgGraph, resultSet, properties);
+            while (resultSet.next()) {
+                vertexIds.add(resultSet.getLong(1));
+                vertexProperties.add(properties(rowDecoder, resultSet));
+            }
+        }
+    }
+
+    /**
+     * @return the sql to select the ids and the properties of the table's rows in id order.
+     */
+    private static String propertiesSql(SqlDialect sqlDialect, SchemaTable table, Map<String, PropertyType> properties) {
+        StringBuilder sql = new StringBuilder("SELECT ");
+        sql.append(sqlDialect.maybeWrapInQoutes(ID));
+        for (Map.Entry<String, PropertyType> property : properties.entrySet()) {
+            sql.append(", ");
+            sql.append(sqlDialect.maybeWrapInQoutes(property.getKey()));
+            for (String postFix : property.getValue().getPostFixes()) {
+                sql.append(", ");
+                sql.append(sqlDialect.maybeWrapInQoutes(property.getKey() + postFix));
+            }
+        }
+        sql.append(" FROM ");
+        sql.append(sqlDialect.maybeWrapInQoutes(table.getSchema()));
+        sql.append(".");
+        sql.append(sqlDialect.maybeWrapInQoutes(table.getTable()));
+        sql.append(" ORDER BY ");
+        sql.append(sqlDialect.maybeWrapInQoutes(ID));
+        if (sqlDialect.needsSemicolon()) {
+            sql.append(";");
+        }
+        if (logger.isDebugEnabled()) {
+            logger.debug(sql.toString());
+        }
+        return sql.toString();
+    }
+
+    private static RowDecoder rowDecoder(SqlgGraph sqlgGraph, ResultSet resultSet, Map<String, PropertyType> properties) throws SQLException {
+        RowDecoder.Builder builder = RowDecoder.builder(sqlgGraph, resultSet);
+        for (Map.Entry<String, PropertyType> property : properties.entrySet()) {
+            builder.property(property.getKey(), property.getValue(), resultSet.findColumn(property.getKey()));
+        }
+        return builder.build();
+    }
+
+    private static Map<String, Object> properties(RowDecoder rowDecoder, ResultSet resultSet) throws SQLException {
+        Map<String, Object> values = new HashMap<>();
+        rowDecoder.loadProperties(resultSet, values);
+        return values.isEmpty() ? Collections.emptyMap() : values;
+    }
+
+    private static void loadEdges(SqlgGraph sqlgGraph, CsrSnapshot vertices, SchemaTable edgeTable, Set<String> foreignKeys, int edgeLabelIndex,
+                                  IntList edgeLabelIndexes, LongList edgeIds, IntList edgeOutVertices, IntList edgeInVertices) throws SQLException {
+        SqlDialect sqlDialect = sqlgGraph.getSqlDialect();
+        List<SchemaTable> outVertexLabels = new ArrayList<>();
+        List<SchemaTable> inVertexLabels = new ArrayList<>();
+        StringBuilder sql = new StringBuilder("SELECT ");
+        sql.append(sqlDialect.maybeWrapInQoutes(ID));
+        List<String> sortedForeignKeys = new ArrayList<>(foreignKeys);
+        Collections.sort(sortedForeignKeys);
+        for (String foreignKey : sortedForeignKeys) {
+            if (foreignKey.endsWith(OUT_VERTEX_COLUMN_END)) {
+                outVertexLabels.add(SqlgUtil.parseLabel(SqlgUtil.removeTrailingOutId(foreignKey)));
+            } else {
+                inVertexLabels.add(SqlgUtil.parseLabel(SqlgUtil.removeTrailingInId(foreignKey)));
+            }
+        }
+        for (SchemaTable outVertexLabel : outVertexLabels) {
+            sql.append(", ");
+            sql.append(sqlDialect.maybeWrapInQoutes(outVertexLabel + OUT_VERTEX_COLUMN_END));
+        }
+        for (SchemaTable inVertexLabel : inVertexLabels) {
+            sql.append(", ");
+            sql.append(sqlDialect.maybeWrapInQoutes(inVertexLabel + IN_VERTEX_COLUMN_END));
+        }
+        sql.append(" FROM ");
+        sql.append(sqlDialect.maybeWrapInQoutes(edgeTable.getSchema()));
+        sql.append(".");
+        sql.append(sqlDialect.maybeWrapInQoutes(edgeTable.getTable()));
+        //In id order to find the edges when their properties are loaded.
+        sql.append(" ORDER BY ");
+        sql.append(sqlDialect.maybeWrapInQoutes(ID));
+        if (sqlDialect.needsSemicolon()) {
+            sql.append(";");
+        }
+        if (logger.isDebugEnabled()) {
+            logger.debug(sql.toString());
+        }
+        Connection connection = sqlgGraph.tx().getConnection();
+        try (PreparedStatement preparedStatement = connection.prepareStatement(sql.toString())) {
+            if (sqlgGraph.tx().getFetchSize() != null) {
+                preparedStatement.setFetchSize(sqlgGraph.tx().getFetchSize());
+            }
+            ResultSet resultSet = preparedStatement.executeQuery();
+            while (resultSet.next()) {
+                int outVertex = vertexIndex(resultSet, vertices, outVertexLabels, 2);
+                int inVertex = vertexIndex(resultSet, vertices, inVertexLabels, 2 + outVertexLabels.size());
+                //without foreign keys the edge may point to a vertex that is no more.
+                if (outVertex != -1 && inVertex != -1) {
+                    edgeLabelIndexes.add(edgeLabelIndex);
+                    edgeIds.add(resultSet.getLong(1));
+                    edgeOutVertices.add(outVertex);
+                    edgeInVertices.add(inVertex);
+                }
+            }
+        }
+    }
+
+    private static int vertexIndex(ResultSet resultSet, CsrSnapshot vertices, List<SchemaTable> vertexLabels, int firstColumn) throws SQLException {
+        for (int i = 0; i < vertexLabels.size(); i++) {
+            long id = resultSet.getLong(firstColumn + i);
+            if (!resultSet.wasNull()) {
+                return vertices.vertexIndex(vertexLabels.get(i), id);
+            }
+        }
+        return -1;
+    }
+
+    private static int[] offsets(int vertexCount, int[] edgeVertices) {
+        int[] offsets = new int[vertexCount + 1];
+        for (int edgeVertex : edgeVertices) {
+            offsets[edgeVertex + 1]++;
+        }
+        for (int i = 0; i < vertexCount; i++) {
+            offsets[i + 1] += offsets[i];
+        }
+        return offsets;
+    }
+
+    private static int[] adjacency(int[] offsets, int[] edgeVertices) {
+        int[] next = Arrays.copyOf(offsets, offsets.length - 1);
+        int[] adjacency = new int[offsets[offsets.length - 1]];
+        for (int edge = 0; edge < edgeVertices.length; edge++) {
+            adjacency[next[edgeVertices[edge]]++] = edge;
+        }
+        return adjacency;
+    }
+
+    int vertexCount() {
+        return this.vertexIds.length;
+    }
+
+    int edgeCount() {
+        return this.edgeIds.length;
+    }
+
+    /**
+     * @return the index of the vertex with the label and id, -1 if it is not in the snapshot.
+     */
+    int vertexIndex(SchemaTable vertexLabel, long id) {
+        Integer label = this.vertexLabelIndexes.get(vertexLabel);
+        if (label == null) {
+            return -1;
+        }
+        int index = Arrays.binarySearch(this.vertexIds, this.vertexLabelOffsets[label], this.vertexLabelOffsets[label + 1], id);
+        return index < 0 ? -1 : index;
+    }
+
+    /**
+     * @param vertexOrId A vertex, a RecordId or its string form.
+     * @return the index of the vertex, -1 if it is not in the snapshot.
+     */
+    int vertexIndex(Object vertexOrId) {
+        Object id = vertexOrId instanceof Element ? ((Element) vertexOrId).id() : vertexOrId;
+        RecordId recordId = RecordId.from(id);
+        return vertexIndex(recordId.getSchemaTable(), recordId.getIdAsLong());
+    }
+
+    /**
+     * @return the last label that starts at or before the vertex, labels without vertices share their offset with the next label.
+     */
+    private int vertexLabelIndex(int vertex) {
+        int low = 0;
+        int high = this.vertexLabels.length - 1;
+        while (low < high) {
+            int middle = (low + high + 1) >>> 1;
+            if (this.vertexLabelOffsets[middle] <= vertex) {
+                low = middle;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return low;
+    }
+
+    SchemaTable vertexLabel(int vertex) {
+        return this.vertexLabels[vertexLabelIndex(vertex)];
+    }
+
+    RecordId vertexId(int vertex) {
+        return RecordId.from(vertexLabel(vertex), this.vertexIds[vertex]);
+    }
+
+    long vertexRowId(int vertex) {
+        return this.vertexIds[vertex];
+    }
+
+    Map<String, Object> vertexProperties(int vertex) {
+        return this.vertexProperties[vertex];
+    }
+
+    boolean isVertexPropertyLoaded(String key) {
+        return this.vertexPropertyKeys == null || this.vertexPropertyKeys.contains(key);
+    }
+
+    Map<String, Object> edgeProperties(int edge) {
+        int edgeLabel = this.edgeLabelIndexes[edge];
+        Map<String, Object>[] properties = this.edgeProperties.get(edgeLabel);
+        if (properties == null) {
+            properties = loadEdgeProperties(edgeLabel);
+        }
+        return properties[edge - this.edgeLabelOffsets[edgeLabel]];
+    }
+
+    /**
+     * Executes on a worker thread while the computer's thread, which owns the connection, waits for the workers.
+     */
+    @SuppressWarnings("unchecked")
+    private synchronized Map<String, Object>[] loadEdgeProperties(int edgeLabel) {
+        Map<String, Object>[] properties = this.edgeProperties.get(edgeLabel);
+        if (properties != null) {
+            return properties;
+        }
+        SchemaTable edgeTable = this.edgeLabels[edgeLabel];
+        if (this.connection == null) {
+            throw new IllegalStateException("The edge properties are loaded while a computation executes, the properties of " + edgeTable + " were not read then.");
+        }
+        int from = this.edgeLabelOffsets[edgeLabel];
+        int to = this.edgeLabelOffsets[edgeLabel + 1];
+        properties = new Map[to - from];
+        Arrays.fill(properties, Collections.emptyMap());
+        SchemaTable table = edgeTable.withPrefix(EDGE_PREFIX);
+        Map<String, PropertyType> propertyTypes = this.sqlgGraph.getTopology().getAllTables().get(table.toString());
+        if (propertyTypes != null && !propertyTypes.isEmpty() && from < to) {
+            try (PreparedStatement preparedStatement = this.connection.prepareStatement(propertiesSql(this.sqlgGraph.getSqlDialect(), table, propertyTypes))) {
+                if (this.fetchSize != null) {
+                    preparedStatement.setFetchSize(this.fetchSize);
+                }
+                ResultSet resultSet = preparedStatement.executeQuery();
+                RowDecoder rowDecoder = rowDecoder(this.sqlgGraph, resultSet, propertyTypes);
+                while (resultSet.next()) {
+                    int edge = Arrays.binarySearch(this.edgeIds, from, to, resultSet.getLong(1));
+                    //the edges of vertices that are no more are not in the snapshot.
+                    if (edge >= 0) {
+                        properties[edge - from] = properties(rowDecoder, resultSet);
+                    }
+                }
+            } catch (SQLException e) {
+                throw new RuntimeException(e);
+            }
+        }
+        this.edgeProperties.set(edgeLabel, properties);
+        return properties;
+    }
+
+    /**
+     * Loads the properties of the edge labels that were not read, the result graph of the computation has its edges.
+     */
+    void loadEdgeProperties() {
+        for (int edgeLabel = 0; edgeLabel < this.edgeLabels.length; edgeLabel++) {
+            if (this.edgeProperties.get(edgeLabel) == null) {
+                loadEdgeProperties(edgeLabel);
+            }
+        }
+    }
+
+    /**
+     * A computation starts, the edge properties are loaded on the connection of the computer thread's transaction.
+     */
+    synchronized void attach() {
+        this.connection = this.sqlgGraph.tx().getConnection();
+        this.fetchSize = this.sqlgGraph.tx().getFetchSize();
+    }
+
+    /**
+     * The computation is complete, the edge properties that were not read are not loaded anymore.
+     */
+    synchronized void detach() {
+        this.connection = null;
+    }
+
+    SqlgGraph getSqlgGraph() {
+        return this.sqlgGraph;
+    }
+
+    Set<String> getVertexPropertyKeys() {
+        return this.vertexPropertyKeys;
+    }
+
+    SchemaTable[] getVertexLabels() {
+        return this.vertexLabels;
+    }
+
+    /**
+     * @return the first vertex of the label, the last is the first of the next label minus one.
+     */
+    int vertexLabelOffset(int vertexLabel) {
+        return this.vertexLabelOffsets[vertexLabel];
+    }
+
+    SchemaTable edgeLabel(int edge) {
+        return this.edgeLabels[this.edgeLabelIndexes[edge]];
+    }
+
+    RecordId edgeId(int edge) {
+        return RecordId.from(edgeLabel(edge), this.edgeIds[edge]);
+    }
+
+    int edgeOutVertex(int edge) {
+        return this.edgeOutVertices[edge];
+    }
+
+    int edgeInVertex(int edge) {
+        return this.edgeInVertices[edge];
+    }
+
+    /**
+     * @param labels The edge labels, with or without their schema.
+     * @return per edge label whether it is one of the labels, null if there are no labels, i.e. all edges.
+     */
+    boolean[] edgeLabelFilter(String... labels) {
+        if (labels.length == 0) {
+            return null;
+        }
+        boolean[] filter = new boolean[this.edgeLabels.length];
+        for (int i = 0; i < this.edgeLabels.length; i++) {
+            for (String label : labels) {
+                if (label.equals(this.edgeLabels[i].getTable()) || label.equals(this.edgeLabels[i].toString())) {
+                    filter[i] = true;
+                }
+            }
+        }
+        return filter;
+    }
+
+    /**
+     * Visits the vertex's edges in the direction with one of the labels, BOTH visits the out edges and then the in edges.
+     *
+     * @param edgeLabelFilter see {@link #edgeLabelFilter(String...)}
+     */
+    void forEachEdge(int vertex, Direction direction, boolean[] edgeLabelFilter, EdgeConsumer edgeConsumer) {
+        if (direction != Direction.IN) {
+            for (int i = this.outOffsets[vertex]; i < this.outOffsets[vertex + 1]; i++) {
+                int edge = this.outEdges[i];
+                if (edgeLabelFilter == null || edgeLabelFilter[this.edgeLabelIndexes[edge]]) {
+                    edgeConsumer.accept(edge, this.edgeInVertices[edge]);
+                }
+            }
+        }
+        if (direction != Direction.OUT) {
+            for (int i = this.inOffsets[vertex]; i < this.inOffsets[vertex + 1]; i++) {
+                int edge = this.inEdges[i];
+                if (edgeLabelFilter == null || edgeLabelFilter[this.edgeLabelIndexes[edge]]) {
+                    edgeConsumer.accept(edge, this.edgeOutVertices[edge]);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package org.umlg.sqlg.computer;
+
+import org.apache.tinkerpop.gremlin.structure.*;
+import org.apache.tinkerpop.gremlin.structure.util.ElementHelper;
+import org.apache.tinkerpop.gremlin.structure.util.StringFactory;
+
+import java.util.*;
+
+/**
+ * An edge of a {@link CsrSnapshot}, its properties are loaded with the other edges of its label when they are first read.
+ */
+final class SqlgComputerEdge implements Edge {
+
+    private final SqlgGraphComputerView view;
+    private final int index;
+
+    SqlgComputerEdge(SqlgGraphComputerView view, int index) {
+        this.view = view;
+        this.index = index;
+    }
+
+    @Override
+    public Object id() {
+        return this.view.getSnapshot().edgeId(this.index);
+    }
+
+    @Override
+    public String label() {
+        return this.view.getSnapshot().edgeLabel(this.index).getTable();
+    }
+
+    @Override
+    public Graph graph() {
+        return this.view.getGraph();
+    }
+
+    @Override
+    public Iterator<Vertex> vertices(Direction direction) {
+        CsrSnapshot snapshot = this.view.getSnapshot();
+        switch (direction) {
+            case OUT:
+                return Collections.<Vertex>singletonList(this.view.vertex(snapshot.edgeOutVertex(this.index))).iterator();
+            case IN:
+                return Collections.<Vertex>singletonList(this.view.vertex(snapshot.edgeInVertex(this.index))).iterator();
+            default:
+                return Arrays.<Vertex>asList(this.view.vertex(snapshot.edgeOutVertex(this.index)), this.view.vertex(snapshot.edgeInVertex(this.index))).iterator();
+        }
+    }
+
+    @Override
+    public <V> Property<V> property(String key, V value) {
+        throw Element.Exceptions.propertyAdditionNotSupported();
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public <V> Iterator<Property<V>> properties(String... propertyKeys) {
+        Map<String, Object> values = this.view.getSnapshot().edgeProperties(this.index);
+        List<Property<V>> properties = new ArrayList<>();
+        for (String key : propertyKeys.length == 0 ? values.keySet().toArray(new String[0]) : propertyKeys) {
+            V value = (V) values.get(key);
+            if (value != null) {
+                properties.add(new SqlgComputerProperty<>(this, key, value));
+            }
+        }
+        return properties.iterator();
+    }
+
+    @Override
+    public void remove() {
+        throw Edge.Exceptions.edgeRemovalNotSupported();
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return ElementHelper.areEqual(this, other);
+    }
+
+    @Override
+    public int hashCode() {
+        return ElementHelper.hashCode(this);
+    }
+
+    @Override
+    public String toString() {
+        return StringFactory.edgeString(this);
+    }
+}
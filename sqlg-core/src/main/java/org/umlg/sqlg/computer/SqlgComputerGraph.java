@@ -0,0 +1,147 @@
+package org.umlg.sqlg.computer;
+
+import org.apache.commons.configuration.BaseConfiguration;
+import org.apache.commons.configuration.Configuration;
+import org.apache.tinkerpop.gremlin.process.computer.GraphComputer;
+import org.apache.tinkerpop.gremlin.structure.*;
+import org.apache.tinkerpop.gremlin.structure.util.StringFactory;
+import org.umlg.sqlg.structure.RecordId;
+
+import java.util.*;
+
+/**
+ * The read only graph of a computation's {@link CsrSnapshot} and vertex compute keys,
+ * it is the result graph of {@link GraphComputer.ResultGraph#NEW}. It computes on the same snapshot.
+ */
+final class SqlgComputerGraph implements Graph {
+
+    private final SqlgGraphComputerView view;
+
+    SqlgComputerGraph(SqlgGraphComputerView view) {
+        this.view = view;
+    }
+
+    @Override
+    public Vertex addVertex(Object... keyValues) {
+        throw Graph.Exceptions.vertexAdditionsNotSupported();
+    }
+
+    SqlgGraphComputerView getView() {
+        return this.view;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public <C extends GraphComputer> C compute(Class<C> graphComputerClass) throws IllegalArgumentException {
+        if (!graphComputerClass.isAssignableFrom(SqlgGraphComputer.class)) {
+            throw Graph.Exceptions.graphDoesNotSupportProvidedGraphComputer(graphComputerClass);
+        }
+        return (C) compute();
+    }
+
+    @Override
+    public GraphComputer compute() throws IllegalArgumentException {
+        return new SqlgGraphComputer(this.view.getSnapshot().getSqlgGraph(), this);
+    }
+
+    @Override
+    public Iterator<Vertex> vertices(Object... vertexIds) {
+        CsrSnapshot snapshot = this.view.getSnapshot();
+        List<Vertex> vertices = new ArrayList<>();
+        if (vertexIds.length == 0) {
+            for (int vertex = 0; vertex < snapshot.vertexCount(); vertex++) {
+                vertices.add(this.view.vertex(vertex));
+            }
+        } else {
+            for (Object vertexId : vertexIds) {
+                int vertex = snapshot.vertexIndex(vertexId);
+                if (vertex != -1) {
+                    vertices.add(this.view.vertex(vertex));
+                }
+            }
+        }
+        return vertices.iterator();
+    }
+
+    @Override
+    public Iterator<Edge> edges(Object... edgeIds) {
+        CsrSnapshot snapshot = this.view.getSnapshot();
+        Set<RecordId> recordIds = new HashSet<>();
+        for (Object edgeId : edgeIds) {
+            recordIds.add(RecordId.from(edgeId instanceof Element ? ((Element) edgeId).id() : edgeId));
+        }
+        List<Edge> edges = new ArrayList<>();
+        for (int edge = 0; edge < snapshot.edgeCount(); edge++) {
+            if (recordIds.isEmpty() || recordIds.contains(snapshot.edgeId(edge))) {
+                edges.add(this.view.edge(edge));
+            }
+        }
+        return edges.iterator();
+    }
+
+    @Override
+    public Transaction tx() {
+        throw Graph.Exceptions.transactionsNotSupported();
+    }
+
+    @Override
+    public void close() {
+    }
+
+    @Override
+    public Variables variables() {
+        throw Graph.Exceptions.variablesNotSupported();
+    }
+
+    @Override
+    public Configuration configuration() {
+        return new BaseConfiguration();
+    }
+
+    @Override
+    public Features features() {
+        return new SqlgComputerGraphFeatures();
+    }
+
+    @Override
+    public String toString() {
+        return StringFactory.graphString(this, "vertices:" + this.view.getSnapshot().vertexCount() + " edges:" + this.view.getSnapshot().edgeCount());
+    }
+
+    private static class SqlgComputerGraphFeatures implements Features {
+        @Override
+        public GraphFeatures graph() {
+            return new GraphFeatures() {
+                @Override
+                public boolean supportsPersistence() {
+                    return false;
+                }
+
+                @Override
+                public boolean supportsTransactions() {
+                    return false;
+                }
+
+                @Override
+                public boolean supportsThreadedTransactions() {
+                    return false;
+                }
+            };
+        }
+
+        @Override
+        public VertexFeatures vertex() {
+            return new VertexFeatures() {
+                @Override
+                public VertexProperty.Cardinality getCardinality(String key) {
+                    return VertexProperty.Cardinality.single;
+                }
+            };
+        }
+
+        @Override
+        public String toString() {
+            return StringFactory.featureString(this);
+        }
+    }
+}
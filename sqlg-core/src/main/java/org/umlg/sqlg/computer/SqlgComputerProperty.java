@@ -0,0 +1,62 @@
+package org.umlg.sqlg.computer;
+
+import org.apache.tinkerpop.gremlin.structure.Element;
+import org.apache.tinkerpop.gremlin.structure.Property;
+import org.apache.tinkerpop.gremlin.structure.util.ElementHelper;
+import org.apache.tinkerpop.gremlin.structure.util.StringFactory;
+
+/**
+ * A property of a {@link SqlgComputerEdge}, it is read only.
+ */
+final class SqlgComputerProperty<V> implements Property<V> {
+
+    private final SqlgComputerEdge edge;
+    private final String key;
+    private final V value;
+
+    SqlgComputerProperty(SqlgComputerEdge edge, String key, V value) {
+        this.edge = edge;
+        this.key = key;
+        this.value = value;
+    }
+
+    @Override
+    public String key() {
+        return this.key;
+    }
+
+    @Override
+    public V value() {
+        return this.value;
+    }
+
+    @Override
+    public boolean isPresent() {
+        return true;
+    }
+
+    @Override
+    public Element element() {
+        return this.edge;
+    }
+
+    @Override
+    public void remove() {
+        throw Property.Exceptions.propertyRemovalNotSupported();
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return ElementHelper.areEqual(this, other);
+    }
+
+    @Override
+    public int hashCode() {
+        return ElementHelper.hashCode(this);
+    }
+
+    @Override
+    public String toString() {
+        return StringFactory.propertyString(this);
+    }
+}
@@ -0,0 +1,115 @@
+package org.umlg.sqlg.computer;
+
+import org.apache.tinkerpop.gremlin.structure.*;
+import org.apache.tinkerpop.gremlin.structure.util.ElementHelper;
+import org.apache.tinkerpop.gremlin.structure.util.StringFactory;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * A vertex of a {@link CsrSnapshot}, its properties are the loaded properties and the vertex program's compute keys.
+ */
+final class SqlgComputerVertex implements Vertex {
+
+    private final SqlgGraphComputerView view;
+    private final int index;
+
+    SqlgComputerVertex(SqlgGraphComputerView view, int index) {
+        this.view = view;
+        this.index = index;
+    }
+
+    int index() {
+        return this.index;
+    }
+
+    @Override
+    public Object id() {
+        return this.view.getSnapshot().vertexId(this.index);
+    }
+
+    @Override
+    public String label() {
+        return this.view.getSnapshot().vertexLabel(this.index).getTable();
+    }
+
+    @Override
+    public Graph graph() {
+        return this.view.getGraph();
+    }
+
+    @Override
+    public Edge addEdge(String label, Vertex inVertex, Object... keyValues) {
+        throw Vertex.Exceptions.edgeAdditionsNotSupported();
+    }
+
+    @Override
+    public <V> VertexProperty<V> property(VertexProperty.Cardinality cardinality, String key, V value, Object... keyValues) {
+        if (keyValues.length > 0) {
+            throw VertexProperty.Exceptions.metaPropertiesNotSupported();
+        }
+        ElementHelper.validateProperty(key, value);
+        return this.view.setValue(this, key, value);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public <V> VertexProperty<V> property(String key) {
+        V value = (V) this.view.value(this.index, key);
+        return value == null ? VertexProperty.empty() : new SqlgComputerVertexProperty<>(this, key, value);
+    }
+
+    @Override
+    public Iterator<Edge> edges(Direction direction, String... edgeLabels) {
+        List<Edge> edges = new ArrayList<>();
+        CsrSnapshot snapshot = this.view.getSnapshot();
+        snapshot.forEachEdge(this.index, direction, snapshot.edgeLabelFilter(edgeLabels), (edge, otherVertex) -> edges.add(this.view.edge(edge)));
+        return edges.iterator();
+    }
+
+    @Override
+    public Iterator<Vertex> vertices(Direction direction, String... edgeLabels) {
+        List<Vertex> vertices = new ArrayList<>();
+        CsrSnapshot snapshot = this.view.getSnapshot();
+        snapshot.forEachEdge(this.index, direction, snapshot.edgeLabelFilter(edgeLabels), (edge, otherVertex) -> vertices.add(this.view.vertex(otherVertex)));
+        return vertices.iterator();
+    }
+
+    @Override
+    public <V> Iterator<VertexProperty<V>> properties(String... propertyKeys) {
+        List<VertexProperty<V>> properties = new ArrayList<>();
+        for (String key : propertyKeys.length == 0 ? this.view.keys(this.index).toArray(new String[0]) : propertyKeys) {
+            VertexProperty<V> property = property(key);
+            if (property.isPresent()) {
+                properties.add(property);
+            }
+        }
+        return properties.iterator();
+    }
+
+    @Override
+    public void remove() {
+        throw Vertex.Exceptions.vertexRemovalNotSupported();
+    }
+
+    void removeProperty(String key) {
+        this.view.removeValue(this.index, key);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return ElementHelper.areEqual(this, other);
+    }
+
+    @Override
+    public int hashCode() {
+        return ElementHelper.hashCode(this);
+    }
+
+    @Override
+    public String toString() {
+        return StringFactory.vertexString(this);
+    }
+}
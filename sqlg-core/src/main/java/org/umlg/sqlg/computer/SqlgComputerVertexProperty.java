@@ -0,0 +1,85 @@
+package org.umlg.sqlg.computer;
+
+import org.apache.tinkerpop.gremlin.structure.Element;
+import org.apache.tinkerpop.gremlin.structure.Property;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.structure.VertexProperty;
+import org.apache.tinkerpop.gremlin.structure.util.ElementHelper;
+import org.apache.tinkerpop.gremlin.structure.util.StringFactory;
+
+import java.util.Collections;
+import java.util.Iterator;
+
+/**
+ * A property of a {@link SqlgComputerVertex}, it has no meta properties.
+ */
+final class SqlgComputerVertexProperty<V> implements VertexProperty<V> {
+
+    private final SqlgComputerVertex vertex;
+    private final String key;
+    private final V value;
+
+    SqlgComputerVertexProperty(SqlgComputerVertex vertex, String key, V value) {
+        this.vertex = vertex;
+        this.key = key;
+        this.value = value;
+    }
+
+    /**
+     * The same id as the vertex's {@link org.umlg.sqlg.structure.SqlgVertexProperty}.
+     */
+    @Override
+    public Object id() {
+        return (long) (this.key.hashCode() + this.value.hashCode() + this.vertex.id().hashCode());
+    }
+
+    @Override
+    public String key() {
+        return this.key;
+    }
+
+    @Override
+    public V value() {
+        return this.value;
+    }
+
+    @Override
+    public boolean isPresent() {
+        return true;
+    }
+
+    @Override
+    public Vertex element() {
+        return this.vertex;
+    }
+
+    @Override
+    public <U> Property<U> property(String key, U value) {
+        throw VertexProperty.Exceptions.metaPropertiesNotSupported();
+    }
+
+    @Override
+    public <U> Iterator<Property<U>> properties(String... propertyKeys) {
+        return Collections.emptyIterator();
+    }
+
+    @Override
+    public void remove() {
+        this.vertex.removeProperty(this.key);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return ElementHelper.areEqual((Element) this, other);
+    }
+
+    @Override
+    public int hashCode() {
+        return ElementHelper.hashCode((Element) this);
+    }
+
+    @Override
+    public String toString() {
+        return StringFactory.propertyString(this);
+    }
+}
@@ -0,0 +1,382 @@
+package org.umlg.sqlg.computer;
+
+import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.apache.tinkerpop.gremlin.process.computer.*;
+import org.apache.tinkerpop.gremlin.process.computer.traversal.strategy.decoration.VertexProgramStrategy;
+import org.apache.tinkerpop.gremlin.process.computer.traversal.strategy.optimization.GraphFilterStrategy;
+import org.apache.tinkerpop.gremlin.process.computer.util.ComputerGraph;
+import org.apache.tinkerpop.gremlin.process.computer.util.DefaultComputerResult;
+import org.apache.tinkerpop.gremlin.process.traversal.Step;
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.TraversalStrategies;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.PropertiesStep;
+import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalInterruptedException;
+import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.Graph;
+import org.apache.tinkerpop.gremlin.structure.Property;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.structure.util.StringFactory;
+import org.apache.tinkerpop.gremlin.structure.util.empty.EmptyGraph;
+import org.umlg.sqlg.structure.SqlgGraph;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * An OLAP {@link GraphComputer} over an in memory {@link CsrSnapshot} of the graph.
+ * <p>
+ * The snapshot is loaded with one query per vertex and edge label, it holds the vertex ids, their properties and the edges' foreign keys.
+ * The vertex program then executes without going to the database, the vertices are split into one range per worker and the
+ * ranges execute in parallel on a {@link ForkJoinPool}.
+ * <pre>
+ * ComputerResult result = sqlgGraph.compute().program(PageRankVertexProgram.build().create(sqlgGraph)).submit().get();
+ * </pre>
+ * All the vertex properties are loaded, {@link #vertexProperties(Traversal)} restricts them to the requested keys,
+ * i.e. vertexProperties(__.properties("name")). The edge properties are loaded per edge label when the vertex program first reads them.
+ * Local message scopes must be one outE, inE or bothE step. Graph filters are not supported.
+ * {@link ResultGraph#ORIGINAL} with {@link Persist#VERTEX_PROPERTIES} writes the compute keys to the vertices' rows,
+ * {@link ResultGraph#NEW} returns a read only graph of the snapshot, it only has the edges with {@link Persist#EDGES}.
+ * The vertex program can not change the edges so {@link Persist#EDGES} is only supported with {@link ResultGraph#NEW}.
+ * <p>
+ * The graph of {@link ResultGraph#NEW} computes on the same snapshot, i.e. the chained vertex programs of
+ * g.withComputer().V().pageRank(), with the previous computation's persisted compute keys as vertex properties.
+ * Its {@link ResultGraph#ORIGINAL} is that graph, the compute keys are not persisted to the database.
+ */
+public class SqlgGraphComputer implements GraphComputer {
+
+    //GraphFilterStrategy adds edge filters to the traversal's computer, graph filters are not supported.
+    static {
+        TraversalStrategies.GlobalCache.registerStrategies(SqlgGraphComputer.class, TraversalStrategies.GlobalCache.getStrategies(GraphComputer.class)
+                .clone()
+                .removeStrategies(GraphFilterStrategy.class));
+    }
+
+    public static final String WORKERS = VertexProgramStrategy.WORKERS;
+    public static final String VERTEX_PROPERTY_KEYS = "vertexPropertyKeys";
+
+    private final SqlgGraph sqlgGraph;
+    //The graph of a previous computation to compute on, null to compute on the database.
+    private final SqlgComputerGraph computerGraph;
+    private ResultGraph resultGraph;
+    private Persist persist;
+    private VertexProgram<?> vertexProgram;
+    private final Set<MapReduce> mapReducers = new LinkedHashSet<>();
+    private int workers = Runtime.getRuntime().availableProcessors();
+    //Without keys all the vertex properties are loaded.
+    private final Set<String> vertexPropertyKeys = new HashSet<>();
+    private boolean allVertexProperties = false;
+    private boolean executed = false;
+
+    public SqlgGraphComputer(SqlgGraph sqlgGraph) {
+        this(sqlgGraph, null);
+    }
+
+    SqlgGraphComputer(SqlgGraph sqlgGraph, SqlgComputerGraph computerGraph) {
+        this.sqlgGraph = sqlgGraph;
+        this.computerGraph = computerGraph;
+    }
+
+    @Override
+    public GraphComputer result(ResultGraph resultGraph) {
+        this.resultGraph = resultGraph;
+        return this;
+    }
+
+    @Override
+    public GraphComputer persist(Persist persist) {
+        this.persist = persist;
+        return this;
+    }
+
+    @Override
+    public GraphComputer program(VertexProgram vertexProgram) {
+        this.vertexProgram = vertexProgram;
+        return this;
+    }
+
+    @Override
+    public GraphComputer mapReduce(MapReduce mapReduce) {
+        this.mapReducers.add(mapReduce);
+        return this;
+    }
+
+    @Override
+    public GraphComputer workers(int workers) {
+        Preconditions.checkArgument(workers > 0, "workers must be greater than 0, not %s", workers);
+        this.workers = workers;
+        return this;
+    }
+
+    /**
+     * Graph filters are not supported, the snapshot holds all the vertices and edges.
+     */
+    @Override
+    public GraphComputer vertices(Traversal<Vertex, Vertex> vertexFilter) throws IllegalArgumentException {
+        throw GraphComputer.Exceptions.graphFilterNotSupported();
+    }
+
+    /**
+     * Graph filters are not supported, the snapshot holds all the vertices and edges.
+     */
+    @Override
+    public GraphComputer edges(Traversal<Vertex, Edge> edgeFilter) throws IllegalArgumentException {
+        throw GraphComputer.Exceptions.graphFilterNotSupported();
+    }
+
+    /**
+     * Restricts the vertex properties to load, they are the only properties besides the compute keys the vertex program sees.
+     * Reading any other property throws an {@link IllegalStateException}.
+     *
+     * @param vertexPropertyFilter __.properties(keys), without keys all the properties are loaded, which is the default.
+     */
+    public GraphComputer vertexProperties(Traversal<Vertex, ? extends Property<?>> vertexPropertyFilter) {
+        List<Step> steps = vertexPropertyFilter.asAdmin().getSteps();
+        if (steps.size() != 1 || !(steps.get(0) instanceof PropertiesStep)) {
+            throw new IllegalArgumentException("SqlgGraphComputer only supports __.properties(keys) vertex property filters, not " + vertexPropertyFilter);
+        }
+        String[] propertyKeys = ((PropertiesStep<?>) steps.get(0)).getPropertyKeys();
+        if (propertyKeys.length == 0) {
+            this.allVertexProperties = true;
+        } else {
+            this.vertexPropertyKeys.addAll(Arrays.asList(propertyKeys));
+        }
+        return this;
+    }
+
+    /**
+     * Supports {@link #WORKERS}, an int, and {@link #VERTEX_PROPERTY_KEYS}, a collection of the vertex property keys to load.
+     *
+     * @throws IllegalArgumentException for any other key.
+     */
+    @Override
+    public GraphComputer configure(String key, Object value) {
+        switch (key) {
+            case WORKERS:
+                Preconditions.checkArgument(value instanceof Number, "%s must be a number, not %s", WORKERS, value);
+                return workers(((Number) value).intValue());
+            case VERTEX_PROPERTY_KEYS:
+                Preconditions.checkArgument(value instanceof Collection, "%s must be a collection of property keys, not %s", VERTEX_PROPERTY_KEYS, value);
+                for (Object propertyKey : (Collection<?>) value) {
+                    this.vertexPropertyKeys.add((String) propertyKey);
+                }
+                return this;
+            default:
+                throw new IllegalArgumentException("SqlgGraphComputer does not support the configuration key " + key);
+        }
+    }
+
+    @Override
+    public Future<ComputerResult> submit() {
+        if (this.executed) {
+            throw GraphComputer.Exceptions.computerHasAlreadyBeenSubmittedAVertexProgram();
+        }
+        this.executed = true;
+        if (this.vertexProgram == null && this.mapReducers.isEmpty()) {
+            throw GraphComputer.Exceptions.computerHasNoVertexProgramNorMapReducers();
+        }
+        if (this.vertexProgram != null) {
+            this.mapReducers.addAll(this.vertexProgram.getMapReducers());
+        }
+        if (this.resultGraph == null) {
+            this.resultGraph = this.vertexProgram != null ? this.vertexProgram.getPreferredResultGraph() : ResultGraph.ORIGINAL;
+        }
+        if (this.persist == null) {
+            this.persist = this.vertexProgram != null ? this.vertexProgram.getPreferredPersist() : Persist.NOTHING;
+        }
+        if (!features().supportsResultGraphPersistCombination(this.resultGraph, this.persist)) {
+            throw GraphComputer.Exceptions.resultGraphPersistCombinationNotSupported(this.resultGraph, this.persist);
+        }
+        SqlgMemory memory = new SqlgMemory(this.vertexProgram, this.mapReducers);
+        ExecutorService computerService = Executors.newSingleThreadExecutor(
+                new ThreadFactoryBuilder().setNameFormat("sqlg-graph-computer-%d").setDaemon(true).build()
+        );
+        try {
+            return computerService.submit(() -> compute(memory));
+        } finally {
+            computerService.shutdown();
+        }
+    }
+
+    /**
+     * Executes on the computer's own thread and so in a transaction of its own, it is committed once the result is persisted.
+     */
+    private ComputerResult compute(SqlgMemory memory) throws Exception {
+        long start = System.currentTimeMillis();
+        ForkJoinPool forkJoinPool = new ForkJoinPool(this.workers);
+        CsrSnapshot snapshot = null;
+        try {
+            if (this.computerGraph == null) {
+                snapshot = CsrSnapshot.load(this.sqlgGraph, this.allVertexProperties || this.vertexPropertyKeys.isEmpty() ? null : this.vertexPropertyKeys);
+            } else {
+                snapshot = this.computerGraph.getView().snapshot();
+            }
+            snapshot.attach();
+            SqlgGraphComputerView view = new SqlgGraphComputerView(snapshot,
+                    this.vertexProgram != null ? this.vertexProgram.getVertexComputeKeys() : Collections.emptySet());
+            if (this.vertexProgram != null) {
+                executeVertexProgram(this.vertexProgram, view, memory, forkJoinPool);
+            }
+            view.complete();
+            for (MapReduce mapReduce : this.mapReducers) {
+                executeMapReduce(mapReduce, view, memory);
+            }
+            memory.setRuntime(System.currentTimeMillis() - start);
+            memory.complete();
+            Graph graph;
+            if (this.resultGraph == ResultGraph.ORIGINAL && this.computerGraph != null) {
+                graph = this.persist == Persist.NOTHING ? this.computerGraph : view.getGraph();
+            } else if (this.resultGraph == ResultGraph.ORIGINAL) {
+                if (this.persist != Persist.NOTHING) {
+                    view.writeVertexProperties(this.sqlgGraph);
+                }
+                graph = this.sqlgGraph;
+            } else if (this.persist == Persist.NOTHING) {
+                graph = EmptyGraph.instance();
+            } else if (this.persist == Persist.VERTEX_PROPERTIES) {
+                graph = view.withoutEdges().getGraph();
+            } else {
+                graph = view.getGraph();
+            }
+            //The edge properties can not be loaded once the computation is complete.
+            if (graph instanceof SqlgComputerGraph) {
+                ((SqlgComputerGraph) graph).getView().getSnapshot().loadEdgeProperties();
+            }
+            this.sqlgGraph.tx().commit();
+            return new DefaultComputerResult(graph, memory.asImmutable());
+        } catch (Exception e) {
+            this.sqlgGraph.tx().rollback();
+            throw e;
+        } finally {
+            if (snapshot != null) {
+                snapshot.detach();
+            }
+            forkJoinPool.shutdown();
+        }
+    }
+
+    private <M> void executeVertexProgram(VertexProgram<M> vertexProgram, SqlgGraphComputerView view, SqlgMemory memory, ForkJoinPool forkJoinPool) {
+        CsrSnapshot snapshot = view.getSnapshot();
+        SqlgMessageBoard<M> messageBoard = new SqlgMessageBoard<>(snapshot, vertexProgram.getMessageCombiner().orElse(null));
+        int ranges = Math.max(1, Math.min(this.workers, snapshot.vertexCount()));
+        vertexProgram.setup(memory);
+        while (true) {
+            if (Thread.interrupted()) {
+                throw new TraversalInterruptedException();
+            }
+            memory.completeSubRound();
+            List<ForkJoinTask<?>> tasks = new ArrayList<>();
+            for (int range = 0; range < ranges; range++) {
+                int from = (int) ((long) snapshot.vertexCount() * range / ranges);
+                int to = (int) ((long) snapshot.vertexCount() * (range + 1) / ranges);
+                tasks.add(forkJoinPool.submit(() -> {
+                    VertexProgram<M> workerVertexProgram = vertexProgram.clone();
+                    workerVertexProgram.workerIterationStart(memory.asImmutable());
+                    for (int vertex = from; vertex < to; vertex++) {
+                        workerVertexProgram.execute(ComputerGraph.vertexProgram(view.vertex(vertex), workerVertexProgram), new SqlgMessenger<>(view, messageBoard, vertex), memory);
+                    }
+                    workerVertexProgram.workerIterationEnd(memory.asImmutable());
+                }));
+            }
+            for (ForkJoinTask<?> task : tasks) {
+                task.join();
+            }
+            messageBoard.completeIteration();
+            memory.completeSubRound();
+            if (vertexProgram.terminate(memory)) {
+                memory.incrIteration();
+                break;
+            } else {
+                memory.incrIteration();
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void executeMapReduce(MapReduce mapReduce, SqlgGraphComputerView view, SqlgMemory memory) {
+        CsrSnapshot snapshot = view.getSnapshot();
+        boolean reduce = mapReduce.doStage(MapReduce.Stage.REDUCE);
+        Map<Object, List<Object>> reduceMap = new LinkedHashMap<>();
+        List<KeyValue<Object, Object>> mapQueue = new ArrayList<>();
+        MapReduce.MapEmitter<Object, Object> mapEmitter = (key, value) -> {
+            if (reduce) {
+                reduceMap.computeIfAbsent(key, k -> new ArrayList<>()).add(value);
+            } else {
+                mapQueue.add(new KeyValue<>(key, value));
+            }
+        };
+        mapReduce.workerStart(MapReduce.Stage.MAP);
+        for (int vertex = 0; vertex < snapshot.vertexCount(); vertex++) {
+            mapReduce.map(ComputerGraph.mapReduce(view.vertex(vertex)), mapEmitter);
+        }
+        mapReduce.workerEnd(MapReduce.Stage.MAP);
+        if (reduce) {
+            List<Map.Entry<Object, List<Object>>> entries = new ArrayList<>(reduceMap.entrySet());
+            Optional<Comparator<Object>> mapKeySort = mapReduce.getMapKeySort();
+            mapKeySort.ifPresent(comparator -> entries.sort(Map.Entry.comparingByKey(comparator)));
+            List<KeyValue<Object, Object>> reduceQueue = new ArrayList<>();
+            MapReduce.ReduceEmitter<Object, Object> reduceEmitter = (key, value) -> reduceQueue.add(new KeyValue<>(key, value));
+            mapReduce.workerStart(MapReduce.Stage.REDUCE);
+            for (Map.Entry<Object, List<Object>> entry : entries) {
+                mapReduce.reduce(entry.getKey(), entry.getValue().iterator(), reduceEmitter);
+            }
+            mapReduce.workerEnd(MapReduce.Stage.REDUCE);
+            Optional<Comparator<Object>> reduceKeySort = mapReduce.getReduceKeySort();
+            reduceKeySort.ifPresent(comparator -> reduceQueue.sort(Comparator.comparing(KeyValue::getKey, comparator)));
+            mapReduce.addResultToMemory(memory, reduceQueue.iterator());
+        } else {
+            Optional<Comparator<Object>> mapKeySort = mapReduce.getMapKeySort();
+            mapKeySort.ifPresent(comparator -> mapQueue.sort(Comparator.comparing(KeyValue::getKey, comparator)));
+            mapReduce.addResultToMemory(memory, mapQueue.iterator());
+        }
+    }
+
+    @Override
+    public Features features() {
+        return new Features() {
+
+            @Override
+            public boolean supportsVertexAddition() {
+                return false;
+            }
+
+            @Override
+            public boolean supportsVertexRemoval() {
+                return false;
+            }
+
+            @Override
+            public boolean supportsEdgeAddition() {
+                return false;
+            }
+
+            @Override
+            public boolean supportsEdgeRemoval() {
+                return false;
+            }
+
+            @Override
+            public boolean supportsEdgePropertyAddition() {
+                return false;
+            }
+
+            @Override
+            public boolean supportsGraphFilter() {
+                return false;
+            }
+
+            /**
+             * The vertex program can not change the edges so only the graph of {@link ResultGraph#NEW} has them to persist.
+             */
+            @Override
+            public boolean supportsResultGraphPersistCombination(ResultGraph resultGraph, Persist persist) {
+                return resultGraph == ResultGraph.NEW || persist != Persist.EDGES;
+            }
+        };
+    }
+
+    @Override
+    public String toString() {
+        return StringFactory.graphComputerString(this);
+    }
+}
@@ -0,0 +1,258 @@
+package org.umlg.sqlg.computer;
+
+import com.google.common.base.Preconditions;
+import org.apache.commons.lang3.tuple.Pair;
+import org.apache.tinkerpop.gremlin.process.computer.GraphComputer;
+import org.apache.tinkerpop.gremlin.process.computer.VertexComputeKey;
+import org.apache.tinkerpop.gremlin.structure.Property;
+import org.apache.tinkerpop.gremlin.structure.VertexProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.umlg.sqlg.sql.dialect.SqlDialect;
+import org.umlg.sqlg.structure.PropertyType;
+import org.umlg.sqlg.structure.SchemaTable;
+import org.umlg.sqlg.structure.SqlgGraph;
+import org.umlg.sqlg.util.SqlgUtil;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.*;
+
+import static org.umlg.sqlg.structure.topology.Topology.ID;
+import static org.umlg.sqlg.structure.topology.Topology.VERTEX_PREFIX;
+
+/**
+ * The vertex compute keys' values of a computation over a {@link CsrSnapshot}, one array per key indexed by vertex.
+ * While the vertex program executes only the compute keys can be written, afterwards the view is read only.
+ */
+final class SqlgGraphComputerView {
+
+    private static Logger logger = LoggerFactory.getLogger(SqlgGraphComputerView.class);
+    private static final int WRITE_BATCH_SIZE = 10000;
+
+    private final CsrSnapshot snapshot;
+    private final SqlgComputerGraph graph;
+    private final Map<String, Integer> computeKeyIndexes;
+    private final boolean[] transientComputeKeys;
+    private final Object[][] values;
+    private volatile boolean completed = false;
+
+    /**
+     * A compute key that is already a property of the vertex starts with the property's value.
+     */
+    SqlgGraphComputerView(CsrSnapshot snapshot, Set<VertexComputeKey> vertexComputeKeys) {
+        this.snapshot = snapshot;
+        this.graph = new SqlgComputerGraph(this);
+        this.computeKeyIndexes = new LinkedHashMap<>();
+        this.transientComputeKeys = new boolean[vertexComputeKeys.size()];
+        this.values = new Object[vertexComputeKeys.size()][];
+        int i = 0;
+        for (VertexComputeKey vertexComputeKey : vertexComputeKeys) {
+            this.computeKeyIndexes.put(vertexComputeKey.getKey(), i);
+            this.transientComputeKeys[i] = vertexComputeKey.isTransient();
+            this.values[i] = new Object[snapshot.vertexCount()];
+            for (int vertex = 0; vertex < snapshot.vertexCount(); vertex++) {
+                this.values[i][vertex] = snapshot.vertexProperties(vertex).get(vertexComputeKey.getKey());
+            }
+            i++;
+        }
+    }
+
+    private SqlgGraphComputerView(SqlgGraphComputerView view, CsrSnapshot snapshot) {
+        this.snapshot = snapshot;
+        this.graph = new SqlgComputerGraph(this);
+        this.computeKeyIndexes = view.computeKeyIndexes;
+        this.transientComputeKeys = view.transientComputeKeys;
+        this.values = view.values;
+        this.completed = view.completed;
+    }
+
+    CsrSnapshot getSnapshot() {
+        return this.snapshot;
+    }
+
+    SqlgComputerGraph getGraph() {
+        return this.graph;
+    }
+
+    SqlgComputerVertex vertex(int vertex) {
+        return new SqlgComputerVertex(this, vertex);
+    }
+
+    SqlgComputerEdge edge(int edge) {
+        return new SqlgComputerEdge(this, edge);
+    }
+
+    /**
+     * The view of a completed computation without the edges, for the result graph when the edges are not persisted.
+     */
+    SqlgGraphComputerView withoutEdges() {
+        Preconditions.checkState(this.completed, "BUG: the computation must be complete");
+        return new SqlgGraphComputerView(this, this.snapshot.withoutEdges());
+    }
+
+    /**
+     * @return the value of the compute key or else the loaded property, null if the vertex has neither.
+     * Once the computation is complete a transient compute key is the loaded property again.
+     * @throws IllegalStateException if the key is neither a compute key nor a loaded property.
+     */
+    Object value(int vertex, String key) {
+        Integer computeKey = this.computeKeyIndexes.get(key);
+        if (computeKey != null && this.values[computeKey] != null) {
+            return this.values[computeKey][vertex];
+        }
+        if (!this.snapshot.isVertexPropertyLoaded(key)) {
+            throw new IllegalStateException("The vertex property '" + key + "' is not loaded, add it to SqlgGraphComputer.vertexProperties(__.properties(keys)).");
+        }
+        return this.snapshot.vertexProperties(vertex).get(key);
+    }
+
+    Set<String> keys(int vertex) {
+        Set<String> keys = new LinkedHashSet<>(this.snapshot.vertexProperties(vertex).keySet());
+        for (Map.Entry<String, Integer> computeKey : this.computeKeyIndexes.entrySet()) {
+            Object[] values = this.values[computeKey.getValue()];
+            if (values != null && values[vertex] != null) {
+                keys.add(computeKey.getKey());
+            } else if (values != null) {
+                keys.remove(computeKey.getKey());
+            }
+        }
+        return keys;
+    }
+
+    <V> VertexProperty<V> setValue(SqlgComputerVertex vertex, String key, V value) {
+        Integer computeKey = this.computeKeyIndexes.get(key);
+        if (this.completed) {
+            throw new IllegalStateException("The computation is complete, its vertices are read only.");
+        }
+        if (computeKey == null) {
+            throw GraphComputer.Exceptions.providedKeyIsNotAnElementComputeKey(key);
+        }
+        this.values[computeKey][vertex.index()] = value;
+        return new SqlgComputerVertexProperty<>(vertex, key, value);
+    }
+
+    void removeValue(int vertex, String key) {
+        Integer computeKey = this.computeKeyIndexes.get(key);
+        if (this.completed || computeKey == null) {
+            throw Property.Exceptions.propertyRemovalNotSupported();
+        }
+        this.values[computeKey][vertex] = null;
+    }
+
+    /**
+     * @return the snapshot of a computation on this view's graph, its vertex properties include this view's persisted compute keys.
+     */
+    @SuppressWarnings("unchecked")
+    CsrSnapshot snapshot() {
+        Map<String, Object>[] vertexProperties = new Map[this.snapshot.vertexCount()];
+        for (int vertex = 0; vertex < vertexProperties.length; vertex++) {
+            Map<String, Object> properties = new HashMap<>();
+            for (String key : keys(vertex)) {
+                properties.put(key, value(vertex, key));
+            }
+            vertexProperties[vertex] = properties;
+        }
+        Set<String> vertexPropertyKeys = null;
+        if (this.snapshot.getVertexPropertyKeys() != null) {
+            vertexPropertyKeys = new HashSet<>(this.snapshot.getVertexPropertyKeys());
+            vertexPropertyKeys.addAll(this.computeKeyIndexes.keySet());
+        }
+        return this.snapshot.withVertexProperties(vertexProperties, vertexPropertyKeys);
+    }
+
+    /**
+     * Drops the transient compute keys, the view is read only from now on.
+     */
+    void complete() {
+        for (int i = 0; i < this.transientComputeKeys.length; i++) {
+            if (this.transientComputeKeys[i]) {
+                this.values[i] = null;
+            }
+        }
+        this.completed = true;
+    }
+
+    /**
+     * Writes the compute keys' values to the vertices' rows, one batched update statement per vertex label.
+     * The keys' columns are created if they do not exist, their type is the type of the key's first value.
+     */
+    void writeVertexProperties(SqlgGraph sqlgGraph) throws SQLException {
+        SchemaTable[] vertexLabels = this.snapshot.getVertexLabels();
+        for (int label = 0; label < vertexLabels.length; label++) {
+            int from = this.snapshot.vertexLabelOffset(label);
+            int to = this.snapshot.vertexLabelOffset(label + 1);
+            Map<String, PropertyType> columns = new LinkedHashMap<>();
+            for (Map.Entry<String, Integer> computeKey : this.computeKeyIndexes.entrySet()) {
+                Object[] values = this.values[computeKey.getValue()];
+                for (int vertex = from; values != null && vertex < to; vertex++) {
+                    if (values[vertex] != null) {
+                        columns.put(computeKey.getKey(), PropertyType.from(values[vertex]));
+                        break;
+                    }
+                }
+            }
+            if (!columns.isEmpty()) {
+                writeVertexProperties(sqlgGraph, vertexLabels[label], columns, from, to);
+            }
+        }
+    }
+
+    private void writeVertexProperties(SqlgGraph sqlgGraph, SchemaTable vertexLabel, Map<String, PropertyType> columns, int from, int to) throws SQLException {
+        sqlgGraph.getTopology().ensureVertexLabelPropertiesExist(vertexLabel.getSchema(), vertexLabel.getTable(), columns);
+        SqlDialect sqlDialect = sqlgGraph.getSqlDialect();
+        StringBuilder sql = new StringBuilder("UPDATE ");
+        sql.append(sqlDialect.maybeWrapInQoutes(vertexLabel.getSchema()));
+        sql.append(".");
+        sql.append(sqlDialect.maybeWrapInQoutes(VERTEX_PREFIX + vertexLabel.getTable()));
+        sql.append(" SET ");
+        int count = 1;
+        for (Map.Entry<String, PropertyType> column : columns.entrySet()) {
+            sql.append(sqlDialect.maybeWrapInQoutes(column.getKey()));
+            sql.append(" = ?");
+            for (String postFix : column.getValue().getPostFixes()) {
+                sql.append(", ");
+                sql.append(sqlDialect.maybeWrapInQoutes(column.getKey() + postFix));
+                sql.append(" = ?");
+            }
+            if (count++ < columns.size()) {
+                sql.append(", ");
+            }
+        }
+        sql.append(" WHERE ");
+        sql.append(sqlDialect.maybeWrapInQoutes(ID));
+        sql.append(" = ?");
+        if (sqlDialect.needsSemicolon()) {
+            sql.append(";");
+        }
+        if (logger.isDebugEnabled()) {
+            logger.debug(sql.toString());
+        }
+        Connection connection = sqlgGraph.tx().getConnection();
+        try (PreparedStatement preparedStatement = connection.prepareStatement(sql.toString())) {
+            int batchSize = 0;
+            for (int vertex = from; vertex < to; vertex++) {
+                List<Pair<PropertyType, Object>> typeAndValues = new ArrayList<>();
+                boolean hasValue = false;
+                for (Map.Entry<String, PropertyType> column : columns.entrySet()) {
+                    Object value = this.values[this.computeKeyIndexes.get(column.getKey())][vertex];
+                    hasValue = hasValue || value != null;
+                    typeAndValues.add(Pair.of(column.getValue(), value));
+                }
+                if (hasValue) {
+                    int i = SqlgUtil.setKeyValuesAsParameterUsingPropertyColumn(sqlgGraph, true, 1, preparedStatement, typeAndValues);
+                    preparedStatement.setLong(i, this.snapshot.vertexRowId(vertex));
+                    preparedStatement.addBatch();
+                    if (++batchSize == WRITE_BATCH_SIZE) {
+                        preparedStatement.executeBatch();
+                        batchSize = 0;
+                    }
+                }
+            }
+            if (batchSize > 0) {
+                preparedStatement.executeBatch();
+            }
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package org.umlg.sqlg.computer;
+
+import org.apache.tinkerpop.gremlin.process.computer.GraphComputer;
+import org.apache.tinkerpop.gremlin.process.computer.MapReduce;
+import org.apache.tinkerpop.gremlin.process.computer.Memory;
+import org.apache.tinkerpop.gremlin.process.computer.MemoryComputeKey;
+import org.apache.tinkerpop.gremlin.process.computer.VertexProgram;
+import org.apache.tinkerpop.gremlin.process.traversal.Operator;
+import org.apache.tinkerpop.gremlin.structure.util.StringFactory;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BinaryOperator;
+
+/**
+ * The memory of a {@link SqlgGraphComputer}'s computation.
+ * The master sets values in setup and terminate, the workers add values while executing and then only see the previous round's broadcast values.
+ */
+final class SqlgMemory implements Memory.Admin {
+
+    private final Map<String, MemoryComputeKey> memoryKeys = new HashMap<>();
+    private Map<String, Object> previousMap = new ConcurrentHashMap<>();
+    private final Map<String, Object> currentMap = new ConcurrentHashMap<>();
+    private final AtomicInteger iteration = new AtomicInteger(0);
+    private final AtomicLong runtime = new AtomicLong(0L);
+    private volatile boolean inExecute = false;
+
+    SqlgMemory(VertexProgram<?> vertexProgram, Set<MapReduce> mapReducers) {
+        if (vertexProgram != null) {
+            for (MemoryComputeKey memoryComputeKey : vertexProgram.getMemoryComputeKeys()) {
+                this.memoryKeys.put(memoryComputeKey.getKey(), memoryComputeKey);
+            }
+        }
+        for (MapReduce mapReduce : mapReducers) {
+            this.memoryKeys.put(mapReduce.getMemoryKey(), MemoryComputeKey.of(mapReduce.getMemoryKey(), Operator.assign, false, false));
+        }
+    }
+
+    @Override
+    public Set<String> keys() {
+        Set<String> keys = new HashSet<>();
+        for (String key : (this.inExecute ? this.previousMap : this.currentMap).keySet()) {
+            if (!this.inExecute || this.memoryKeys.get(key).isBroadcast()) {
+                keys.add(key);
+            }
+        }
+        return Collections.unmodifiableSet(keys);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public <R> R get(String key) throws IllegalArgumentException {
+        R value = (R) (this.inExecute ? this.previousMap.get(key) : this.currentMap.get(key));
+        if (value == null || (this.inExecute && !this.memoryKeys.get(key).isBroadcast())) {
+            throw Memory.Exceptions.memoryDoesNotExist(key);
+        }
+        return value;
+    }
+
+    @Override
+    public void set(String key, Object value) throws IllegalArgumentException, IllegalStateException {
+        checkKeyValue(key, value);
+        if (this.inExecute) {
+            throw Memory.Exceptions.memorySetOnlyDuringVertexProgramSetUpAndTerminate(key);
+        }
+        this.currentMap.put(key, value);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public void add(String key, Object value) throws IllegalArgumentException, IllegalStateException {
+        checkKeyValue(key, value);
+        if (!this.inExecute) {
+            throw Memory.Exceptions.memoryAddOnlyDuringVertexProgramExecute(key);
+        }
+        BinaryOperator<Object> reducer = this.memoryKeys.get(key).getReducer();
+        this.currentMap.merge(key, value, reducer);
+    }
+
+    private void checkKeyValue(String key, Object value) {
+        if (!this.memoryKeys.containsKey(key)) {
+            throw GraphComputer.Exceptions.providedKeyIsNotAMemoryComputeKey(key);
+        }
+        if (value == null) {
+            throw Memory.Exceptions.memoryValueCanNotBeNull();
+        }
+    }
+
+    @Override
+    public int getIteration() {
+        return this.iteration.get();
+    }
+
+    @Override
+    public void setIteration(int iteration) {
+        this.iteration.set(iteration);
+    }
+
+    @Override
+    public long getRuntime() {
+        return this.runtime.get();
+    }
+
+    @Override
+    public void setRuntime(long runtime) {
+        this.runtime.set(runtime);
+    }
+
+    /**
+     * Called before and after the workers execute, the workers see a copy of the values as they were before they started.
+     */
+    void completeSubRound() {
+        this.previousMap = new ConcurrentHashMap<>(this.currentMap);
+        this.inExecute = !this.inExecute;
+    }
+
+    /**
+     * Drops the transient values at the end of the computation.
+     * The iteration was incremented after the vertex program terminated, it is set back to the last executed iteration.
+     */
+    void complete() {
+        if (this.iteration.get() > 0) {
+            this.iteration.decrementAndGet();
+        }
+        this.previousMap = null;
+        for (MemoryComputeKey memoryComputeKey : this.memoryKeys.values()) {
+            if (memoryComputeKey.isTransient()) {
+                this.currentMap.remove(memoryComputeKey.getKey());
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return StringFactory.memoryString(this);
+    }
+}
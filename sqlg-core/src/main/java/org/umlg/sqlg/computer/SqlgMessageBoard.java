@@ -0,0 +1,106 @@
+package org.umlg.sqlg.computer;
+
+import org.apache.tinkerpop.gremlin.process.computer.MessageCombiner;
+import org.apache.tinkerpop.gremlin.process.computer.MessageScope;
+import org.apache.tinkerpop.gremlin.process.traversal.Step;
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.VertexStep;
+import org.apache.tinkerpop.gremlin.structure.Direction;
+import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * The messages of the current and the previous iteration, per message scope one slot per vertex.
+ * Local messages are kept at their sender, the receiver collects them from the senders at the other end of its incident edges.
+ * Global messages are kept at their receiver.
+ * With a combiner a slot holds the combined message, else a queue of messages.
+ */
+final class SqlgMessageBoard<M> {
+
+    private final CsrSnapshot snapshot;
+    private final MessageCombiner<M> messageCombiner;
+    private final Map<MessageScope, LocalScope> localScopes = new ConcurrentHashMap<>();
+    private Map<MessageScope, AtomicReferenceArray<Object>> sendMessages = new ConcurrentHashMap<>();
+    private Map<MessageScope, AtomicReferenceArray<Object>> receiveMessages = new ConcurrentHashMap<>();
+
+    /**
+     * The direction and edge labels of a local message scope's incident traversal.
+     */
+    static final class LocalScope {
+        final Direction direction;
+        //see CsrSnapshot.edgeLabelFilter
+        final boolean[] edgeLabelFilter;
+
+        private LocalScope(Direction direction, boolean[] edgeLabelFilter) {
+            this.direction = direction;
+            this.edgeLabelFilter = edgeLabelFilter;
+        }
+    }
+
+    SqlgMessageBoard(CsrSnapshot snapshot, MessageCombiner<M> messageCombiner) {
+        this.snapshot = snapshot;
+        this.messageCombiner = messageCombiner;
+    }
+
+    /**
+     * Only incident traversals of one outE, inE or bothE step are supported, they are walked on the snapshot's adjacency.
+     */
+    LocalScope localScope(MessageScope.Local<?> messageScope) {
+        return this.localScopes.computeIfAbsent(messageScope, m -> {
+            Traversal.Admin<Vertex, Edge> incidentTraversal = messageScope.getIncidentTraversal().get().asAdmin();
+            List<Step> steps = incidentTraversal.getSteps();
+            if (steps.size() != 1 || !(steps.get(0) instanceof VertexStep) || !((VertexStep<?>) steps.get(0)).returnsEdge()) {
+                throw new IllegalArgumentException("SqlgGraphComputer only supports local message scopes of one outE, inE or bothE step, not " + incidentTraversal);
+            }
+            VertexStep<?> vertexStep = (VertexStep<?>) steps.get(0);
+            return new LocalScope(vertexStep.getDirection(), this.snapshot.edgeLabelFilter(vertexStep.getEdgeLabels()));
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    void sendMessage(MessageScope messageScope, int vertex, M message) {
+        AtomicReferenceArray<Object> slots = this.sendMessages.computeIfAbsent(messageScope, m -> new AtomicReferenceArray<>(this.snapshot.vertexCount()));
+        if (this.messageCombiner != null) {
+            slots.accumulateAndGet(vertex, message, (a, b) -> a == null ? b : this.messageCombiner.combine((M) a, (M) b));
+        } else {
+            Queue<M> queue = (Queue<M>) slots.get(vertex);
+            if (queue == null) {
+                slots.compareAndSet(vertex, null, new ConcurrentLinkedQueue<M>());
+                queue = (Queue<M>) slots.get(vertex);
+            }
+            queue.add(message);
+        }
+    }
+
+    Set<MessageScope> receiveMessageScopes() {
+        return this.receiveMessages.keySet();
+    }
+
+    /**
+     * @return the messages of the previous iteration in the scope's slot of the vertex.
+     */
+    @SuppressWarnings("unchecked")
+    Collection<M> receiveMessages(MessageScope messageScope, int vertex) {
+        Object slot = this.receiveMessages.get(messageScope).get(vertex);
+        if (slot == null) {
+            return Collections.emptyList();
+        } else if (this.messageCombiner != null) {
+            return Collections.singletonList((M) slot);
+        } else {
+            return (Queue<M>) slot;
+        }
+    }
+
+    /**
+     * The messages sent in this iteration are received in the next.
+     */
+    void completeIteration() {
+        this.receiveMessages = this.sendMessages;
+        this.sendMessages = new ConcurrentHashMap<>();
+    }
+}
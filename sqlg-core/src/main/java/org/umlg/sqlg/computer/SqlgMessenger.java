@@ -0,0 +1,67 @@
+package org.umlg.sqlg.computer;
+
+import org.apache.tinkerpop.gremlin.process.computer.MessageScope;
+import org.apache.tinkerpop.gremlin.process.computer.Messenger;
+import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.BiFunction;
+
+/**
+ * The messenger of one vertex, it receives the messages of the previous iteration.
+ * A local message sent along outE is received along the reverse, inE, and vice versa.
+ */
+final class SqlgMessenger<M> implements Messenger<M> {
+
+    private final SqlgGraphComputerView view;
+    private final SqlgMessageBoard<M> messageBoard;
+    private final int vertex;
+
+    SqlgMessenger(SqlgGraphComputerView view, SqlgMessageBoard<M> messageBoard, int vertex) {
+        this.view = view;
+        this.messageBoard = messageBoard;
+        this.vertex = vertex;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public Iterator<M> receiveMessages() {
+        List<M> messages = new ArrayList<>();
+        CsrSnapshot snapshot = this.view.getSnapshot();
+        for (MessageScope messageScope : this.messageBoard.receiveMessageScopes()) {
+            if (messageScope instanceof MessageScope.Local) {
+                MessageScope.Local<M> localMessageScope = (MessageScope.Local<M>) messageScope;
+                SqlgMessageBoard.LocalScope localScope = this.messageBoard.localScope(localMessageScope);
+                BiFunction<M, Edge, M> edgeFunction = localMessageScope.getEdgeFunction();
+                snapshot.forEachEdge(this.vertex, localScope.direction.opposite(), localScope.edgeLabelFilter, (edge, sender) -> {
+                    for (M message : this.messageBoard.receiveMessages(messageScope, sender)) {
+                        messages.add(edgeFunction.apply(message, this.view.edge(edge)));
+                    }
+                });
+            } else {
+                messages.addAll(this.messageBoard.receiveMessages(messageScope, this.vertex));
+            }
+        }
+        return messages.iterator();
+    }
+
+    @Override
+    public void sendMessage(MessageScope messageScope, M message) {
+        if (messageScope instanceof MessageScope.Local) {
+            this.messageBoard.localScope((MessageScope.Local<?>) messageScope);
+            this.messageBoard.sendMessage(messageScope, this.vertex, message);
+        } else {
+            CsrSnapshot snapshot = this.view.getSnapshot();
+            for (Vertex vertex : ((MessageScope.Global) messageScope).vertices()) {
+                int receiver = snapshot.vertexIndex(vertex);
+                if (receiver == -1) {
+                    throw new IllegalArgumentException("The message's vertex is not in the computation's snapshot: " + vertex);
+                }
+                this.messageBoard.sendMessage(messageScope, receiver, message);
+            }
+        }
+    }
+}
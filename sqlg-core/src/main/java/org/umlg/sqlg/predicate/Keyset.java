@@ -0,0 +1,239 @@
+package org.umlg.sqlg.predicate;
+
+import com.google.common.base.Preconditions;
+import org.apache.tinkerpop.gremlin.process.traversal.Order;
+import org.apache.tinkerpop.gremlin.process.traversal.P;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversal;
+import org.apache.tinkerpop.gremlin.process.traversal.lambda.TokenTraversal;
+import org.apache.tinkerpop.gremlin.structure.Element;
+import org.apache.tinkerpop.gremlin.structure.T;
+import org.umlg.sqlg.structure.PropertyType;
+import org.umlg.sqlg.structure.RecordId;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.BiPredicate;
+
+/**
+ * Keyset (seek) pagination over elements ordered by one or more properties and then by their id.
+ * Instead of skipping the rows of the previous pages with an offset the next page starts right after the last element
+ * of the previous page, i.e. 'WHERE (created, ID) > (?, ?) ORDER BY created, ID LIMIT n'.
+ * <p>
+ * <pre>
+ * Keyset keyset = Keyset.by("created", Order.decr);
+ * List&lt;Vertex&gt; page = keyset.page(sqlgGraph.traversal().V().hasLabel("Post"), null, 20).toList();
+ * String token = keyset.continuationToken(page.get(page.size() - 1));
+ * List&lt;Vertex&gt; nextPage = keyset.page(sqlgGraph.traversal().V().hasLabel("Post"), token, 20).toList();
+ * </pre>
+ * The ordering properties may not be null and must be of a type that has one column.
+ * The predicate is only evaluated by the database, it has no in memory implementation.
+ */
+public class Keyset implements BiPredicate<Object, Object> {
+
+    private final List<String> keys;
+    private final List<Order> orders;
+    private final Order idOrder;
+
+    private Keyset(List<String> keys, List<Order> orders, Order idOrder) {
+        this.keys = Collections.unmodifiableList(keys);
+        this.orders = Collections.unmodifiableList(orders);
+        this.idOrder = idOrder;
+    }
+
+    /**
+     * @param key   The property to order on first.
+     * @param order Order.incr or Order.decr, the id is ordered the same way unless {@link #thenById(Order)} says otherwise.
+     */
+    public static Keyset by(String key, Order order) {
+        return new Keyset(new ArrayList<>(), new ArrayList<>(), order).thenBy(key, order);
+    }
+
+    public Keyset thenBy(String key, Order order) {
+        Preconditions.checkArgument(order == Order.incr || order == Order.decr, "Keyset only handles Order.incr and Order.decr, not %s", order);
+        Preconditions.checkArgument(!T.id.getAccessor().equals(key) && !T.label.getAccessor().equals(key), "Keyset keys must be properties, not %s", key);
+        List<String> keys = new ArrayList<>(this.keys);
+        keys.add(key);
+        List<Order> orders = new ArrayList<>(this.orders);
+        orders.add(order);
+        return new Keyset(keys, orders, this.idOrder);
+    }
+
+    public Keyset thenById(Order order) {
+        Preconditions.checkArgument(order == Order.incr || order == Order.decr, "Keyset only handles Order.incr and Order.decr, not %s", order);
+        return new Keyset(new ArrayList<>(this.keys), new ArrayList<>(this.orders), order);
+    }
+
+    public List<String> getKeys() {
+        return this.keys;
+    }
+
+    public List<Order> getOrders() {
+        return this.orders;
+    }
+
+    public Order getIdOrder() {
+        return this.idOrder;
+    }
+
+    /**
+     * @return true if the keys and the id are all ordered the same way, the seek is then one row value comparison.
+     */
+    public boolean isUniform() {
+        return this.orders.stream().allMatch(o -> o == this.idOrder);
+    }
+
+    /**
+     * Appends the seek predicate, the ordering and the limit of a page to the traversal.
+     *
+     * @param traversal         The traversal of the elements to page through.
+     * @param continuationToken The token of the previous page's last element, null for the first page.
+     * @param pageSize          The number of elements on a page.
+     */
+    public <S, E extends Element> GraphTraversal<S, E> page(GraphTraversal<S, E> traversal, String continuationToken, int pageSize) {
+        if (continuationToken != null) {
+            traversal = traversal.has(this.keys.get(0), after(continuationToken));
+        }
+        traversal = traversal.order();
+        for (int i = 0; i < this.keys.size(); i++) {
+            traversal = traversal.by(this.keys.get(i), this.orders.get(i));
+        }
+        return traversal.by(new TokenTraversal<>(T.id), this.idOrder).limit(pageSize);
+    }
+
+    /**
+     * The predicate must be on the first key, i.e. has(keyset.getKeys().get(0), keyset.after(token)).
+     *
+     * @return a predicate for the elements that come after the element of the continuation token,
+     * its value is the list of the values of the keys followed by the id.
+     */
+    public P<Object> after(String continuationToken) {
+        return new P<>(this, decode(continuationToken));
+    }
+
+    /**
+     * @return an opaque token for the page that starts after the element.
+     */
+    public String continuationToken(Element element) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(this.keys.size());
+            for (String key : this.keys) {
+                Object value = element.value(key);
+                PropertyType propertyType = PropertyType.from(value);
+                writeString(out, key);
+                writeString(out, propertyType.name());
+                writeString(out, toString(propertyType, value));
+            }
+            out.writeLong(((RecordId) element.id()).getIdAsLong());
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes.toByteArray());
+    }
+
+    /**
+     * @return The values of the keys followed by the id.
+     */
+    private List<Object> decode(String continuationToken) {
+        List<Object> result = new ArrayList<>();
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(Base64.getUrlDecoder().decode(continuationToken.getBytes(StandardCharsets.US_ASCII))))) {
+            int size = in.readInt();
+            Preconditions.checkArgument(size == this.keys.size(), "continuation token is not for %s", this);
+            for (String key : this.keys) {
+                Preconditions.checkArgument(key.equals(readString(in)), "continuation token is not for %s", this);
+                PropertyType propertyType = PropertyType.valueOf(readString(in));
+                result.add(fromString(propertyType, readString(in)));
+            }
+            result.add(in.readLong());
+        } catch (IOException | IllegalArgumentException e) {
+            throw new IllegalArgumentException("invalid continuation token '" + continuationToken + "'", e);
+        }
+        return result;
+    }
+
+    /**
+     * Writes the string's utf-8 bytes prefixed with their length, {@link DataOutputStream#writeUTF(String)} is limited to 64KB.
+     */
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0 || length > in.available()) {
+            throw new IOException("invalid string length " + length);
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static String toString(PropertyType propertyType, Object value) {
+        switch (propertyType) {
+            case BOOLEAN:
+            case SHORT:
+            case INTEGER:
+            case LONG:
+            case FLOAT:
+            case DOUBLE:
+            case STRING:
+            case LOCALDATE:
+            case LOCALDATETIME:
+            case LOCALTIME:
+                return value.toString();
+            default:
+                throw new IllegalArgumentException("Keyset does not handle properties of type " + propertyType.name());
+        }
+    }
+
+    private static Object fromString(PropertyType propertyType, String value) {
+        switch (propertyType) {
+            case BOOLEAN:
+                return Boolean.valueOf(value);
+            case SHORT:
+                return Short.valueOf(value);
+            case INTEGER:
+                return Integer.valueOf(value);
+            case LONG:
+                return Long.valueOf(value);
+            case FLOAT:
+                return Float.valueOf(value);
+            case DOUBLE:
+                return Double.valueOf(value);
+            case STRING:
+                return value;
+            case LOCALDATE:
+                return LocalDate.parse(value);
+            case LOCALDATETIME:
+                return LocalDateTime.parse(value);
+            case LOCALTIME:
+                return LocalTime.parse(value);
+            default:
+                throw new IllegalArgumentException("Keyset does not handle properties of type " + propertyType.name());
+        }
+    }
+
+    @Override
+    public boolean test(Object first, Object second) {
+        throw new IllegalStateException("Keyset pagination is only executed by the database, " + this + " could not be optimized.");
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("Keyset(");
+        for (int i = 0; i < this.keys.size(); i++) {
+            sb.append(this.keys.get(i)).append(" ").append(this.orders.get(i)).append(", ");
+        }
+        sb.append(T.id.getAccessor()).append(" ").append(this.idOrder).append(")");
+        return sb.toString();
+    }
+}
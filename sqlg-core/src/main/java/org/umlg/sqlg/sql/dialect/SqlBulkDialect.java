@@ -5,7 +5,6 @@ import org.apache.commons.lang3.tuple.Triple;
 import org.umlg.sqlg.structure.*;
 
 import java.io.IOException;
-import java.io.Writer;
 import java.util.*;
 
 import static javax.swing.JOptionPane.ERROR_MESSAGE;
@@ -74,11 +73,11 @@ public interface SqlBulkDialect extends SqlDialect {
         throw SqlgExceptions.batchModeNotSupported(dialectName());
     }
 
-    default void writeStreamingVertex(Writer writer, Map<String, Object> keyValueMap) {
+    default void writeStreamingVertex(StreamingSink sink, Map<String, Object> keyValueMap) {
         throw SqlgExceptions.batchModeNotSupported(dialectName());
     }
 
-    default void writeStreamingEdge(Writer writer, SqlgEdge sqlgEdge, SqlgVertex outVertex, SqlgVertex inVertex, Map<String, Object> keyValueMap) throws IOException {
+    default void writeStreamingEdge(StreamingSink sink, SqlgEdge sqlgEdge, SqlgVertex outVertex, SqlgVertex inVertex, Map<String, Object> keyValueMap) throws IOException {
         throw SqlgExceptions.batchModeNotSupported(dialectName());
     }
 
@@ -86,7 +85,7 @@ public interface SqlBulkDialect extends SqlDialect {
         throw new UnsupportedOperationException(ERROR_MESSAGE + dialectName());
     }
 
-    default Writer streamSql(SqlgGraph sqlgGraph, String sql) {
+    default StreamingSink streamSql(SqlgGraph sqlgGraph, String sql) {
         throw SqlgExceptions.batchModeNotSupported(dialectName());
     }
 
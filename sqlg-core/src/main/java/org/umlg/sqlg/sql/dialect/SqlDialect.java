@@ -13,6 +13,7 @@ import org.umlg.sqlg.sql.parse.SchemaTableTree;
 import org.umlg.sqlg.strategy.SqlgSqlExecutor;
 import org.umlg.sqlg.structure.*;
 import org.umlg.sqlg.structure.topology.EdgeLabel;
+import org.umlg.sqlg.structure.topology.IndexType;
 import org.umlg.sqlg.structure.topology.Schema;
 import org.umlg.sqlg.structure.topology.Topology;
 import org.umlg.sqlg.structure.topology.VertexLabel;
@@ -456,6 +457,42 @@ public interface SqlDialect {
         return Boolean.FALSE;
     }
 
+    /**
+     * @return true if {@link IndexType#GIN_TRIGRAM} and {@link IndexType#GIST_TRIGRAM} indexes can be created.
+     */
+    default boolean supportsTrigramIndex() {
+        return false;
+    }
+
+    /**
+     * @return true if indexes on an expression, i.e. {@link IndexType#LOWER}, can be created.
+     */
+    default boolean supportsExpressionIndex() {
+        return false;
+    }
+
+    /**
+     * @return the sql to execute before an index of the given type can be created, null if there is nothing to do.
+     * e.g. installing the extension that provides the index's operator class.
+     */
+    default String indexTypePrerequisiteSql(IndexType indexType) {
+        return null;
+    }
+
+    /**
+     * @return the access method, e.g. GIN, to create an index of the given type with, null for the default access method.
+     */
+    default String indexAccessMethod(IndexType indexType) {
+        return null;
+    }
+
+    /**
+     * @return the operator class to index the columns of the given index type with, null for the default operator class.
+     */
+    default String indexOperatorClass(IndexType indexType) {
+        return null;
+    }
+
     default boolean needsTimeZone() {
         return Boolean.FALSE;
     }
@@ -678,6 +715,179 @@ public interface SqlDialect {
         return true;
     }
 
+    /**
+     * Indicates if the rdbms supports 'WITH RECURSIVE' common table expressions with an array column to hold the path.
+     * If so repeat steps are executed as one recursive query.
+     *
+     * @return true if recursive queries and the recursivePath methods are supported.
+     */
+    default boolean supportsRecursiveQueries() {
+        return false;
+    }
+
+    /**
+     * Hsqldb evaluates the recursive part of a 'UNION ALL' recursive query against all the rows found so far and never
+     * stops. With 'UNION' it only adds new rows, the rows must then be made distinct.
+     *
+     * @return true if the recursive query may use 'UNION ALL'.
+     */
+    default boolean supportsRecursiveUnionAll() {
+        return true;
+    }
+
+    /**
+     * With 'query.union.all' the distinct queries of a step are executed as one 'UNION ALL' statement.
+     * Every part selects NULL for the columns of the other parts, see {@link #unionAllNullColumn(PropertyType, int)}.
+     * Dialects whose NULL columns are verified to take the type of the part that has the column override this.
+     *
+     * @return true if the parts of a 'UNION ALL' may select NULL for the columns of the other parts.
+     */
+    default boolean supportsUnionAllNullColumns() {
+        return false;
+    }
+
+    /**
+     * The NULL a part of a 'UNION ALL' selects for a column of another part, see {@link #supportsUnionAllNullColumns()}.
+     *
+     * @param propertyType The type of the column's property.
+     * @param index        0 for the property's column, else the index of its postfix column plus one.
+     * @return The sql of the NULL.
+     */
+    default String unionAllNullColumn(PropertyType propertyType, int index) {
+        return "NULL";
+    }
+
+    /**
+     * Parallel queries run on extra connections, see {@link SqlgTransaction#setParallelQueries(boolean)}.
+     * If the snapshot of the transaction's connection can be exported the extra connections see exactly what it sees,
+     * else every extra connection only has a repeatable read snapshot of its own.
+     *
+     * @return true if a connection's snapshot can be imported by other connections.
+     */
+    default boolean supportsSnapshotExport() {
+        return false;
+    }
+
+    /**
+     * @return The sql that returns the snapshot of the connection's transaction as its only value.
+     */
+    default String exportSnapshotSql() {
+        throw new UnsupportedOperationException("snapshot export is not supported by " + dialectName());
+    }
+
+    /**
+     * @param snapshot The value returned by {@link #exportSnapshotSql()}.
+     * @return The sql that makes a new repeatable read transaction use the snapshot. It must be the transaction's first statement.
+     */
+    default String importSnapshotSql(String snapshot) {
+        throw new UnsupportedOperationException("snapshot export is not supported by " + dialectName());
+    }
+
+    /**
+     * @param column The id column.
+     * @return The sql for a new path array containing only the column's value.
+     */
+    default String recursivePathStart(String column) {
+        throw new UnsupportedOperationException("recursive queries are not supported by " + dialectName());
+    }
+
+    /**
+     * @param path   The path array column.
+     * @param column The id column.
+     * @return The sql for the path array with the column's value appended.
+     */
+    default String recursivePathAppend(String path, String column) {
+        throw new UnsupportedOperationException("recursive queries are not supported by " + dialectName());
+    }
+
+    /**
+     * @param path   The path array column.
+     * @param column The id column.
+     * @return The sql for a condition that is true if the path array contains the column's value.
+     */
+    default String recursivePathContains(String path, String column) {
+        throw new UnsupportedOperationException("recursive queries are not supported by " + dialectName());
+    }
+
+    /**
+     * Indicates if a list of ids can be bound as one BIGINT array parameter, see {@link #arrayParameterIn(String)}.
+     * If not the ids are written into the sql as an 'IN' list.
+     *
+     * @return true if an array parameter can be used in the where clause.
+     */
+    default boolean supportsArrayParameterIn() {
+        return false;
+    }
+
+    /**
+     * @param column The column.
+     * @return The sql for a condition that is true if the column's value is in the array bound to the parameter.
+     */
+    default String arrayParameterIn(String column) {
+        throw new UnsupportedOperationException("array parameters are not supported by " + dialectName());
+    }
+
+    /**
+     * Binds the ids as one BIGINT array parameter, see {@link #supportsArrayParameterIn()}.
+     */
+    default void setLongArrayParameter(PreparedStatement preparedStatement, int parameterIndex, long[] values) throws SQLException {
+        Long[] boxed = new Long[values.length];
+        for (int i = 0; i < values.length; i++) {
+            boxed[i] = values[i];
+        }
+        setArray(preparedStatement, parameterIndex, PropertyType.LONG_ARRAY, boxed);
+    }
+
+    /**
+     * Indicates if the start ids and indexes of a vertex step can be bound as two BIGINT array parameters,
+     * see {@link #arrayParameterValues(String, String)}. If not they are written into the sql as a 'VALUES' expression.
+     *
+     * @return true if the start ids and indexes can be bound as array parameters.
+     */
+    default boolean supportsArrayParameterValues() {
+        return false;
+    }
+
+    /**
+     * @param firstColumn  The name of the first column.
+     * @param secondColumn The name of the second column.
+     * @return a table expression, with an alias 'tmp', whose rows are the values of the two array parameters.
+     */
+    default String arrayParameterValues(String firstColumn, String secondColumn) {
+        throw new UnsupportedOperationException("array parameters are not supported by " + dialectName());
+    }
+
+    /**
+     * Indicates if the values of a bulk P.within or P.without can be bound as one array parameter,
+     * see {@link #arrayParameterTable(PropertyType, String, String)}. If not they are written into the sql as a 'VALUES' expression.
+     *
+     * @return true if the values can be bound as an array parameter.
+     */
+    default boolean supportsArrayParameterTable() {
+        return false;
+    }
+
+    /**
+     * @param propertyType The type of the array's elements.
+     * @param alias        The alias of the table expression.
+     * @param column       The name of the column.
+     * @return a table expression whose rows are the elements of the array parameter.
+     */
+    default String arrayParameterTable(PropertyType propertyType, String alias, String column) {
+        throw new UnsupportedOperationException("array parameters are not supported by " + dialectName());
+    }
+
+    /**
+     * Indicates if the rdbms supports row value comparisons, i.e. '(a, b) > (?, ?)'.
+     * Keyset pagination uses them to seek past the last element of the previous page, see {@link org.umlg.sqlg.predicate.Keyset}.
+     * If not the comparison is expanded into '(a > ?) OR (a = ? AND b > ?)'.
+     *
+     * @return true if row value comparisons are supported.
+     */
+    default boolean supportsRowValueComparison() {
+        return false;
+    }
+
     /**
      * Indicates if the rdbms supports 'VALUES (x,y)" table expressions.
      * This is needed because Mariadb does not.
@@ -993,4 +1203,15 @@ public interface SqlDialect {
     default Integer getDefaultFetchSize(){
     	return null;
     }
+
+    /**
+     * The jdbc driver properties that tune the driver's prepared statement cache.
+     * They are set by pools that pass driver properties, see {@link org.umlg.sqlg.structure.ds.HikariDataSourceFactory}.
+     * 'dataSource.' prefixed properties in sqlg.properties override them.
+     *
+     * @return the driver properties, empty to use the driver's defaults.
+     */
+    default Map<String, String> getStatementCacheDataSourceProperties() {
+        return Collections.emptyMap();
+    }
 }
@@ -0,0 +1,19 @@
+package org.umlg.sqlg.sql.dialect;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * The rows of a streaming batch mode copy, see {@link SqlBulkDialect#streamSql(org.umlg.sqlg.structure.SqlgGraph, String)}.
+ * Closing the sink completes the copy.
+ */
+public interface StreamingSink extends Closeable {
+
+    /**
+     * @param foreignKeys The edge's out and in vertex ids, empty for a vertex.
+     * @param keyValueMap The property values in the order of the copy command's columns.
+     */
+    void writeRow(long[] foreignKeys, Map<String, Object> keyValueMap) throws IOException;
+
+}
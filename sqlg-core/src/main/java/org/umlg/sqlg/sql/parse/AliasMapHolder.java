@@ -25,6 +25,10 @@ public class AliasMapHolder {
         return aliasColumnNameMap;
     }
 
+    boolean isEmpty() {
+        return this.columnNameAliasMap.isEmpty() && this.aliasColumnNameMap.isEmpty();
+    }
+
     void clear() {
         this.columnNameAliasMap.clear();
         this.aliasColumnNameMap.clear();
@@ -0,0 +1,53 @@
+package org.umlg.sqlg.sql.parse;
+
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A regular distinct query whose sql is constructed up front so that it can be executed on another connection
+ * while the rows of the queries before it are loaded, see {@link SchemaTableTree#constructParallelQuery(LinkedList)}.
+ */
+public class ParallelQuery {
+
+    private final SchemaTableTree rootSchemaTableTree;
+    private final LinkedList<SchemaTableTree> distinctQueryStack;
+    private final List<LinkedList<SchemaTableTree>> subQueryStacks;
+    private final String sql;
+    private final Map<String, String> columnNameAliasMap;
+    private final Map<String, String> aliasColumnNameMap;
+
+    ParallelQuery(SchemaTableTree rootSchemaTableTree, LinkedList<SchemaTableTree> distinctQueryStack, String sql,
+                  Map<String, String> columnNameAliasMap, Map<String, String> aliasColumnNameMap) {
+        this.rootSchemaTableTree = rootSchemaTableTree;
+        this.distinctQueryStack = distinctQueryStack;
+        this.subQueryStacks = SchemaTableTree.splitIntoSubStacks(distinctQueryStack);
+        this.sql = sql;
+        this.columnNameAliasMap = new HashMap<>(columnNameAliasMap);
+        this.aliasColumnNameMap = new HashMap<>(aliasColumnNameMap);
+    }
+
+    public SchemaTableTree getRootSchemaTableTree() {
+        return this.rootSchemaTableTree;
+    }
+
+    public LinkedList<SchemaTableTree> getDistinctQueryStack() {
+        return this.distinctQueryStack;
+    }
+
+    public List<LinkedList<SchemaTableTree>> getSubQueryStacks() {
+        return this.subQueryStacks;
+    }
+
+    public String getSql() {
+        return this.sql;
+    }
+
+    /**
+     * Replaces the root's alias maps with the ones the query's sql was constructed with so that its rows can be loaded.
+     */
+    public void restoreAliasMaps() {
+        this.rootSchemaTableTree.restoreAliasMaps(this.columnNameAliasMap, this.aliasColumnNameMap);
+    }
+}
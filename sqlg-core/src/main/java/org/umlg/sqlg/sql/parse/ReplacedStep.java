@@ -62,6 +62,8 @@ public class ReplacedStep<S, E> {
     private boolean fake;
     private boolean joinToLeftJoin;
     private boolean drop;
+    //The properties to select if the step is followed by a values(...), properties(...) or valueMap(...) step, null means all.
+    private Set<String> restrictedProperties;
 
     private ReplacedStep() {
     }
@@ -512,6 +514,7 @@ public class ReplacedStep<S, E> {
                 replacedStepDepth,
                 ReplacedStep.this.labels
         );
+        schemaTableTree.setRestrictedProperties(ReplacedStep.this.restrictedProperties);
 
         result.add(schemaTableTree);
     }
@@ -773,4 +776,12 @@ public class ReplacedStep<S, E> {
     public void markAsDrop(List<EventCallback<Event>> mutatingCallbacks) {
         this.drop = true;
     }
+
+    public Set<String> getRestrictedProperties() {
+        return restrictedProperties;
+    }
+
+    public void setRestrictedProperties(Set<String> restrictedProperties) {
+        this.restrictedProperties = restrictedProperties;
+    }
 }
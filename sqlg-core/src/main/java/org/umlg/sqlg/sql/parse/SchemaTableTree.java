@@ -12,9 +12,12 @@ import org.apache.tinkerpop.gremlin.process.traversal.step.map.SelectOneStep;
 import org.apache.tinkerpop.gremlin.process.traversal.step.map.VertexStep;
 import org.apache.tinkerpop.gremlin.process.traversal.step.util.ElementValueComparator;
 import org.apache.tinkerpop.gremlin.process.traversal.step.util.HasContainer;
+import org.apache.tinkerpop.gremlin.process.traversal.util.ConnectiveP;
 import org.apache.tinkerpop.gremlin.structure.*;
 import org.umlg.sqlg.predicate.Existence;
 import org.umlg.sqlg.predicate.FullText;
+import org.umlg.sqlg.predicate.PropertyReference;
+import org.umlg.sqlg.sql.dialect.SqlDialect;
 import org.umlg.sqlg.strategy.*;
 import org.umlg.sqlg.structure.PropertyType;
 import org.umlg.sqlg.structure.*;
@@ -22,13 +25,16 @@ import org.umlg.sqlg.structure.topology.EdgeLabel;
 import org.umlg.sqlg.structure.topology.Schema;
 import org.umlg.sqlg.structure.topology.Topology;
 import org.umlg.sqlg.structure.topology.VertexLabel;
+import org.umlg.sqlg.util.LongPairList;
 import org.umlg.sqlg.util.SqlgUtil;
 
 import java.security.SecureRandom;
 import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
 import java.util.*;
 import java.util.function.Predicate;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 import static org.apache.tinkerpop.gremlin.structure.T.label;
@@ -92,6 +98,8 @@ public class SchemaTableTree {
 
     private boolean localStep = false;
     private boolean fakeEmit = false;
+    //Only these properties are selected, null means all. Set when a values, properties or valueMap step follows.
+    private Set<String> restrictedProperties;
 
     /**
      * Indicates the DropStep.
@@ -103,7 +111,12 @@ public class SchemaTableTree {
      */
     private SqlgRangeHolder sqlgRangeHolder;
     //This is the incoming element id and the traversals start elements index, for SqlgVertexStep.
-    private List<Pair<Long, Long>> parentIdsAndIndexes;
+    private LongPairList parentIdsAndIndexes;
+    //true when the sql joins on the parent ids and indexes as array parameters in place of literal values.
+    private boolean parentIdsAsParameters;
+    //Loads this element's columns of the rows of rowDecoderResultSet.
+    private RowDecoder rowDecoder;
+    private ResultSet rowDecoderResultSet;
 
 
     public enum STEP_TYPE {
@@ -188,7 +201,7 @@ public class SchemaTableTree {
                 replacedStep.isUntilFirst(),
                 replacedStep.isLeftJoin(),
                 replacedStep.isDrop(),
-                labels);
+                labels).withRestrictedProperties(replacedStep.getRestrictedProperties());
     }
 
     SchemaTableTree addChild(
@@ -224,7 +237,7 @@ public class SchemaTableTree {
                 replacedStep.isUntilFirst(),
                 replacedStep.isLeftJoin(),
                 replacedStep.isDrop(),
-                labels);
+                labels).withRestrictedProperties(replacedStep.getRestrictedProperties());
     }
 
     private SchemaTableTree addChild(
@@ -269,6 +282,34 @@ public class SchemaTableTree {
         return getRoot().filteredAllTables;
     }
 
+    /**
+     * @return The properties of this table that must be selected, i.e. all of them unless restricted by a following
+     * values, properties or valueMap step.
+     */
+    private Map<String, PropertyType> getPropertiesToSelect() {
+        Map<String, PropertyType> propertyTypeMap = getFilteredAllTables().get(this.schemaTable.toString());
+        if (this.restrictedProperties == null) {
+            return propertyTypeMap;
+        }
+        Map<String, PropertyType> result = new HashMap<>();
+        for (String restrictedProperty : this.restrictedProperties) {
+            PropertyType propertyType = propertyTypeMap.get(restrictedProperty);
+            if (propertyType != null) {
+                result.put(restrictedProperty, propertyType);
+            }
+        }
+        return result;
+    }
+
+    void setRestrictedProperties(Set<String> restrictedProperties) {
+        this.restrictedProperties = restrictedProperties;
+    }
+
+    private SchemaTableTree withRestrictedProperties(Set<String> restrictedProperties) {
+        this.restrictedProperties = restrictedProperties;
+        return this;
+    }
+
     void initializeAliasColumnNameMaps() {
         this.aliasMapHolder = new AliasMapHolder();
     }
@@ -360,13 +401,207 @@ public class SchemaTableTree {
         //If the same element occurs multiple times in the stack then the sql needs to be different.
         //This is because the same element can not be joined on more than once in sql
         //The way to overcome this is to break up the path in select sections with no duplicates and then join them together.
-        if (duplicatesInStack(distinctQueryStack)) {
-            List<LinkedList<SchemaTableTree>> subQueryStacks = splitIntoSubStacks(distinctQueryStack);
-            return constructDuplicatePathSql(this.sqlgGraph, subQueryStacks);
+        return cachedSql("regular", distinctQueryStack, null, () -> {
+            if (duplicatesInStack(distinctQueryStack)) {
+                List<LinkedList<SchemaTableTree>> subQueryStacks = splitIntoSubStacks(distinctQueryStack);
+                return constructDuplicatePathSql(this.sqlgGraph, subQueryStacks);
+            } else {
+                //If there are no duplicates in the path then one select statement will suffice.
+                return constructSinglePathSql(this.sqlgGraph, false, distinctQueryStack, null, null, false);
+            }
+        });
+    }
+
+    /**
+     * @return true if the regular sql of the distinctQueryStack can be a part of a 'UNION ALL' statement.
+     * Drops, paths with duplicates and paths that are ordered or ranged on the db are executed on their own.
+     */
+    public boolean isUnionPart(LinkedList<SchemaTableTree> distinctQueryStack) {
+        Preconditions.checkState(this.parent == null, CONSTRUCT_SQL_MAY_ONLY_BE_CALLED_ON_THE_ROOT_OBJECT);
+        if (distinctQueryStack.getLast().isDrop() || duplicatesInStack(distinctQueryStack)) {
+            return false;
+        }
+        for (SchemaTableTree schemaTableTree : distinctQueryStack) {
+            if (!schemaTableTree.getDbComparators().isEmpty() ||
+                    (schemaTableTree.sqlgRangeHolder != null && schemaTableTree.sqlgRangeHolder.isApplyOnDb())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Constructs the regular sql of the distinctQueryStack as a part of a 'UNION ALL' statement.
+     * The part's columns are renamed to 'u' + part + '_' + alias to be unique across the statement.
+     * The root's alias maps are copied into the part with the new names and reset for the next part.
+     * A SqlgVertexStep's part is not ordered by the parent's index, the 'UNION ALL' is.
+     */
+    public UnionPart constructUnionPart(LinkedList<SchemaTableTree> distinctQueryStack, int part) {
+        Preconditions.checkState(this.parent == null, CONSTRUCT_SQL_MAY_ONLY_BE_CALLED_ON_THE_ROOT_OBJECT);
+        Preconditions.checkArgument(isUnionPart(distinctQueryStack), "BUG: the distinctQueryStack can not be a part of a 'UNION ALL'");
+        SqlDialect sqlDialect = this.sqlgGraph.getSqlDialect();
+        resetColumnAliasMaps();
+        String sql = constructSql(distinctQueryStack);
+        if (distinctQueryStack.getFirst().stepType != STEP_TYPE.GRAPH_STEP) {
+            String orderByIndex = "\nORDER BY\n\t" + sqlDialect.maybeWrapInQoutes("index");
+            Preconditions.checkState(sql.endsWith(orderByIndex), "BUG: expected the sql to only be ordered by the parent's index");
+            sql = sql.substring(0, sql.length() - orderByIndex.length());
+        }
+        Map<String, String> columns = new LinkedHashMap<>();
+        Map<String, Pair<PropertyType, Integer>> columnTypes = new HashMap<>();
+        for (Map.Entry<String, String> aliasColumnName : new TreeMap<>(getAliasColumnNameMap()).entrySet()) {
+            String alias = aliasColumnName.getKey();
+            //ColumnList replaces a column that is added twice, its first alias is then not selected.
+            if (sql.contains(sqlDialect.maybeWrapInQoutes(alias))) {
+                String unionColumn = "u" + part + "_" + alias;
+                columns.put(alias, unionColumn);
+                columnTypes.put(unionColumn, unionColumnType(distinctQueryStack, aliasColumnName.getValue()));
+            }
+        }
+        UnionPart unionPart = new UnionPart(this, distinctQueryStack, part, sql, columns, columnTypes);
+        for (Map.Entry<String, String> columnNameAlias : getColumnNameAliasMap().entrySet()) {
+            String unionColumn = columns.get(columnNameAlias.getValue());
+            if (unionColumn != null) {
+                unionPart.getColumnNameAliasMap().put(columnNameAlias.getKey(), unionColumn);
+            }
+        }
+        for (Map.Entry<String, String> aliasColumnName : getAliasColumnNameMap().entrySet()) {
+            String unionColumn = columns.get(aliasColumnName.getKey());
+            if (unionColumn != null) {
+                unionPart.getAliasColumnNameMap().put(unionColumn, aliasColumnName.getValue());
+            }
+        }
+        resetColumnAliasMaps();
+        return unionPart;
+    }
+
+    /**
+     * The type of an aliased column, the ids and foreign keys are longs.
+     */
+    private Pair<PropertyType, Integer> unionColumnType(LinkedList<SchemaTableTree> distinctQueryStack, String columnName) {
+        if (columnName.endsWith(ALIAS_SEPARATOR + Topology.ID) ||
+                columnName.endsWith(Topology.IN_VERTEX_COLUMN_END) ||
+                columnName.endsWith(Topology.OUT_VERTEX_COLUMN_END)) {
+            return Pair.of(PropertyType.LONG, 0);
+        }
+        for (SchemaTableTree schemaTableTree : distinctQueryStack) {
+            String table = ALIAS_SEPARATOR + schemaTableTree.getSchemaTable().getSchema() + ALIAS_SEPARATOR + schemaTableTree.getSchemaTable().getTable() + ALIAS_SEPARATOR;
+            if (columnName.startsWith(schemaTableTree.stepDepth + ALIAS_SEPARATOR) && columnName.contains(table)) {
+                String column = columnName.substring(columnName.lastIndexOf(table) + table.length());
+                Map<String, PropertyType> properties = this.sqlgGraph.getTopology().getTableFor(schemaTableTree.getSchemaTable());
+                PropertyType propertyType = properties.get(column);
+                if (propertyType != null) {
+                    return Pair.of(propertyType, 0);
+                }
+                for (Map.Entry<String, PropertyType> property : properties.entrySet()) {
+                    String[] postFixes = property.getValue().getPostFixes();
+                    for (int i = 0; i < postFixes.length; i++) {
+                        if (column.equals(property.getKey() + postFixes[i])) {
+                            return Pair.of(property.getValue(), i + 1);
+                        }
+                    }
+                }
+            }
+        }
+        throw new IllegalStateException("BUG: no property found for column " + columnName);
+    }
+
+    /**
+     * Constructs the regular sql of the distinctQueryStack ahead of its execution.
+     * The root's alias maps are copied into the query and reset for the next one.
+     */
+    public ParallelQuery constructParallelQuery(LinkedList<SchemaTableTree> distinctQueryStack) {
+        Preconditions.checkState(this.parent == null, CONSTRUCT_SQL_MAY_ONLY_BE_CALLED_ON_THE_ROOT_OBJECT);
+        resetColumnAliasMaps();
+        String sql = constructSql(distinctQueryStack);
+        ParallelQuery parallelQuery = new ParallelQuery(this, distinctQueryStack, sql, getColumnNameAliasMap(), getAliasColumnNameMap());
+        resetColumnAliasMaps();
+        return parallelQuery;
+    }
+
+    void restoreAliasMaps(Map<String, String> columnNameAliasMap, Map<String, String> aliasColumnNameMap) {
+        resetColumnAliasMaps();
+        this.aliasMapHolder.getColumnNameAliasMap().putAll(columnNameAliasMap);
+        this.aliasMapHolder.getAliasColumnNameMap().putAll(aliasColumnNameMap);
+    }
+
+    /**
+     * Wraps the regular sql for the distinctQueryStack in a select that aggregates the leaf node's rows.
+     * The select returns the part, the aggregate of the property, the count of the property's non null values and
+     * if grouped the groupByKey's value.
+     * For a count there is no property and both the aggregate and the count are of all the rows.
+     * If the leaf node's table does not have the property the count is 0.
+     * If the path has duplicates the outer select of the regular sql is replaced instead,
+     * as it may select the same column more than once.
+     *
+     * The leaf node's table must have the groupByKey.
+     */
+    public String constructAggregateSql(LinkedList<SchemaTableTree> distinctQueryStack, String aggregateFunction, String propertyKey, String groupByKey, int part) {
+        Preconditions.checkState(this.parent == null, CONSTRUCT_SQL_MAY_ONLY_BE_CALLED_ON_THE_ROOT_OBJECT);
+        SchemaTableTree leafSchemaTableTree = distinctQueryStack.getLast();
+        Preconditions.checkArgument(groupByKey == null || leafSchemaTableTree.getPropertyType(groupByKey) != null, "%s does not have the property %s", leafSchemaTableTree.getSchemaTable(), groupByKey);
+        String sql = constructSql(distinctQueryStack);
+        boolean duplicatesInStack = duplicatesInStack(distinctQueryStack);
+        SqlDialect sqlDialect = this.sqlgGraph.getSqlDialect();
+        StringBuilder aggregateSql = new StringBuilder("SELECT\n\t");
+        aggregateSql.append(part);
+        aggregateSql.append(" AS ");
+        aggregateSql.append(sqlDialect.maybeWrapInQoutes("part"));
+        aggregateSql.append(",\n\t");
+        if (propertyKey == null) {
+            aggregateSql.append("COUNT(*), COUNT(*)");
+        } else if (leafSchemaTableTree.getPropertyType(propertyKey) == null) {
+            aggregateSql.append("COUNT(*), 0");
+        } else {
+            String column = leafSchemaTableTree.aggregateColumn(propertyKey, duplicatesInStack, distinctQueryStack);
+            aggregateSql.append(aggregateFunction);
+            aggregateSql.append("(");
+            aggregateSql.append(column);
+            aggregateSql.append("), COUNT(");
+            aggregateSql.append(column);
+            aggregateSql.append(")");
+        }
+        String groupByColumn = null;
+        if (groupByKey != null) {
+            groupByColumn = leafSchemaTableTree.aggregateColumn(groupByKey, duplicatesInStack, distinctQueryStack);
+            aggregateSql.append(", ");
+            aggregateSql.append(groupByColumn);
+        }
+        if (duplicatesInStack) {
+            aggregateSql.append(sql.substring(sql.indexOf("\nFROM (")));
         } else {
-            //If there are no duplicates in the path then one select statement will suffice.
-            return constructSinglePathSql(this.sqlgGraph, false, distinctQueryStack, null, null, false);
+            aggregateSql.append("\nFROM (");
+            aggregateSql.append(sql);
+            aggregateSql.append("\n) ");
+            aggregateSql.append(sqlDialect.maybeWrapInQoutes("aggregate" + part));
+        }
+        if (groupByColumn != null) {
+            aggregateSql.append("\nGROUP BY\n\t");
+            aggregateSql.append(groupByColumn);
+        }
+        return aggregateSql.toString();
+    }
+
+    private String aggregateColumn(String propertyKey, boolean duplicatesInStack, LinkedList<SchemaTableTree> distinctQueryStack) {
+        Map<String, String> columnNameAliasMap = getColumnNameAliasMap();
+        String alias = labeledMappedAliasPropertyNameForOuterFromClause(propertyKey, columnNameAliasMap);
+        if (alias == null) {
+            alias = mappedAliasPropertyName(propertyKey, columnNameAliasMap);
         }
+        Preconditions.checkState(alias != null, "BUG: no alias found for %s", propertyKey);
+        String column = this.sqlgGraph.getSqlDialect().maybeWrapInQoutes(alias);
+        if (duplicatesInStack) {
+            //the leaf node is in the last sub query
+            column = "a" + splitIntoSubStacks(distinctQueryStack).size() + "." + column;
+        }
+        return column;
+    }
+
+    /**
+     * @return The type of the property if it is selected for this table, else null.
+     */
+    public PropertyType getPropertyType(String propertyKey) {
+        return getPropertiesToSelect().get(propertyKey);
     }
 
     public List<Triple<SqlgSqlExecutor.DROP_QUERY, String, SchemaTable>> constructDropSql(LinkedList<SchemaTableTree> distinctQueryStack) {
@@ -452,24 +687,133 @@ public class SchemaTableTree {
 
     public String constructSqlForOptional(LinkedList<SchemaTableTree> innerJoinStack, Set<SchemaTableTree> leftJoinOn) {
         Preconditions.checkState(this.parent == null, CONSTRUCT_SQL_MAY_ONLY_BE_CALLED_ON_THE_ROOT_OBJECT);
-        if (duplicatesInStack(innerJoinStack)) {
-            List<LinkedList<SchemaTableTree>> subQueryStacks = splitIntoSubStacks(innerJoinStack);
-            return constructDuplicatePathSql(this.sqlgGraph, subQueryStacks, leftJoinOn);
-        } else {
-            //If there are no duplicates in the path then one select statement will suffice.
-            return constructSinglePathSql(this.sqlgGraph, false, innerJoinStack, null, null, leftJoinOn, false);
-        }
+        return cachedSql("optional", innerJoinStack, leftJoinOn, () -> {
+            if (duplicatesInStack(innerJoinStack)) {
+                List<LinkedList<SchemaTableTree>> subQueryStacks = splitIntoSubStacks(innerJoinStack);
+                return constructDuplicatePathSql(this.sqlgGraph, subQueryStacks, leftJoinOn);
+            } else {
+                //If there are no duplicates in the path then one select statement will suffice.
+                return constructSinglePathSql(this.sqlgGraph, false, innerJoinStack, null, null, leftJoinOn, false);
+            }
+        });
     }
 
     public String constructSqlForEmit(LinkedList<SchemaTableTree> innerJoinStack) {
         Preconditions.checkState(this.parent == null, CONSTRUCT_SQL_MAY_ONLY_BE_CALLED_ON_THE_ROOT_OBJECT);
-        if (duplicatesInStack(innerJoinStack)) {
-            List<LinkedList<SchemaTableTree>> subQueryStacks = splitIntoSubStacks(innerJoinStack);
-            return constructDuplicatePathSql(this.sqlgGraph, subQueryStacks);
-        } else {
-            //If there are no duplicates in the path then one select statement will suffice.
-            return constructSinglePathSql(this.sqlgGraph, false, innerJoinStack, null, null);
+        return cachedSql("emit", innerJoinStack, null, () -> {
+            if (duplicatesInStack(innerJoinStack)) {
+                List<LinkedList<SchemaTableTree>> subQueryStacks = splitIntoSubStacks(innerJoinStack);
+                return constructDuplicatePathSql(this.sqlgGraph, subQueryStacks);
+            } else {
+                //If there are no duplicates in the path then one select statement will suffice.
+                return constructSinglePathSql(this.sqlgGraph, false, innerJoinStack, null, null);
+            }
+        });
+    }
+
+    /**
+     * Returns the sql from the {@link SqlCache} if the query's shape has been seen before, else generates and caches it.
+     * Generating the sql populates the root's alias maps, these are restored from the cache on a hit.
+     */
+    private String cachedSql(String queryType, LinkedList<SchemaTableTree> distinctQueryStack, Set<SchemaTableTree> leftJoinOn, Supplier<String> sqlSupplier) {
+        SqlCache sqlCache = this.sqlgGraph.getSqlCache();
+        if (sqlCache == null || !sqlCache.isEnabled() || !this.aliasMapHolder.isEmpty() || this.rootAliasCounter != 1 ||
+                this.sqlgGraph.getTopology().isSqlWriteLockHeldByCurrentThread()) {
+            return sqlSupplier.get();
+        }
+        String key = sqlCacheKey(queryType, distinctQueryStack, leftJoinOn);
+        if (key == null) {
+            return sqlSupplier.get();
+        }
+        SqlCache.CachedSql cachedSql = sqlCache.get(key);
+        if (cachedSql != null) {
+            cachedSql.restore(this.aliasMapHolder);
+            this.rootAliasCounter = cachedSql.getRootAliasCounter();
+            return cachedSql.getSql();
+        }
+        long version = sqlCache.getVersion();
+        String sql = sqlSupplier.get();
+        sqlCache.put(version, key, new SqlCache.CachedSql(sql, this.aliasMapHolder, this.rootAliasCounter));
+        return sql;
+    }
+
+    /**
+     * Describes the shape of the query, i.e. everything the generated sql depends on except the parameter values.
+     * Returns null if the sql contains literal values and can not be cached.
+     */
+    private String sqlCacheKey(String queryType, LinkedList<SchemaTableTree> distinctQueryStack, Set<SchemaTableTree> leftJoinOn) {
+        //The start ids of a SqlgVertexStep are written into the sql.
+        if (distinctQueryStack.getFirst().stepType != STEP_TYPE.GRAPH_STEP) {
+            return null;
         }
+        StringBuilder key = new StringBuilder(queryType);
+        for (SchemaTableTree schemaTableTree : distinctQueryStack) {
+            key.append("\n");
+            if (!schemaTableTree.appendSqlCacheKey(key)) {
+                return null;
+            }
+        }
+        if (leftJoinOn != null) {
+            List<String> leftJoinKeys = new ArrayList<>();
+            for (SchemaTableTree schemaTableTree : leftJoinOn) {
+                StringBuilder leftJoinKey = new StringBuilder();
+                if (!schemaTableTree.appendSqlCacheKey(leftJoinKey)) {
+                    return null;
+                }
+                leftJoinKeys.add(leftJoinKey.toString());
+            }
+            Collections.sort(leftJoinKeys);
+            key.append("\nleftJoinOn");
+            for (String leftJoinKey : leftJoinKeys) {
+                key.append("\n").append(leftJoinKey);
+            }
+        }
+        return key.toString();
+    }
+
+    private boolean appendSqlCacheKey(StringBuilder key) {
+        if (Topology.SQLG_SCHEMA.equals(this.schemaTable.getSchema()) || !this.andOrHasContainers.isEmpty() ||
+                (this.sqlgGraph.getSqlDialect().supportsBulkWithinOut() && hasBulkWithinOrOutInSql(this.sqlgGraph))) {
+            return false;
+        }
+        key.append(this.schemaTable).append("|")
+                .append(this.stepDepth).append("|")
+                .append(this.replacedStepDepth).append("|")
+                .append(this.stepType).append("|")
+                .append(this.direction).append("|")
+                .append(this.labels).append("|")
+                .append(this.emit).append(this.untilFirst).append(this.optionalLeftJoin).append(this.drop)
+                .append(this.localStep).append(this.fakeEmit).append(this.children.isEmpty()).append("|")
+                .append(this.restrictedProperties).append("|");
+        for (HasContainer hasContainer : this.hasContainers) {
+            P<?> p = hasContainer.getPredicate();
+            key.append(hasContainer.getKey()).append(":");
+            if (p instanceof ConnectiveP) {
+                for (P<?> predicate : ((ConnectiveP<?>) p).getPredicates()) {
+                    key.append(predicate.getBiPredicate()).append(",");
+                }
+            } else if (SqlgUtil.isBulkWithinAndOutArrayParameter(this.sqlgGraph, hasContainer)) {
+                //the values are bound as one array parameter, whatever their count
+                key.append(p.getBiPredicate()).append("[").append(SqlgUtil.bulkWithinAndOutPropertyType(hasContainer)).append("]");
+            } else if (p.getBiPredicate() instanceof Contains) {
+                key.append(p.getBiPredicate()).append(((Collection<?>) p.getValue()).size());
+            } else if (p.getValue() instanceof PropertyReference || p.getBiPredicate() instanceof FullText) {
+                //the value is part of the sql
+                key.append(p);
+            } else {
+                key.append(p.getBiPredicate());
+            }
+            key.append(";");
+        }
+        key.append("|");
+        for (org.javatuples.Pair<Traversal.Admin<?, ?>, Comparator<?>> dbComparator : this.dbComparators) {
+            key.append(dbComparator.getValue0()).append(":").append(dbComparator.getValue1()).append(";");
+        }
+        key.append("|");
+        if (this.sqlgRangeHolder != null && this.sqlgRangeHolder.isApplyOnDb()) {
+            key.append(this.sqlgRangeHolder.hasRange() ? this.sqlgRangeHolder.getRange() : this.sqlgRangeHolder.getSkip());
+        }
+        return true;
     }
 
     public List<LinkedList<SchemaTableTree>> constructDistinctQueries() {
@@ -666,7 +1010,7 @@ public class SchemaTableTree {
 
     private String printOuterFromClause(int count, Map<String, String> columnNameAliasMapCopy, SchemaTableTree previousSchemaTableTree) {
         String sql = "";
-        Map<String, PropertyType> propertyTypeMap = this.getFilteredAllTables().get(this.toString());
+        Map<String, PropertyType> propertyTypeMap = this.getPropertiesToSelect();
         Optional<String> optional = this.lastMappedAliasIdForOuterFrom(columnNameAliasMapCopy);
         if (optional.isPresent()) {
             sql = "a" + count + "." + this.sqlgGraph.getSqlDialect().maybeWrapInQoutes(optional.get());
@@ -811,7 +1155,7 @@ public class SchemaTableTree {
         if (!dropStep && lastOfPrevious == null && distinctQueryStack.getFirst().stepType != STEP_TYPE.GRAPH_STEP) {
             //if there is only 1 incoming start/traverser we use a where clause as its faster.
             if (this.parentIdsAndIndexes.size() == 1) {
-                singlePathSql.append(this.parentIdsAndIndexes.get(0).getRight());
+                singlePathSql.append(this.parentIdsAndIndexes.getRight(0));
                 singlePathSql.append(" as ");
                 singlePathSql.append(sqlgGraph.getSqlDialect().maybeWrapInQoutes("index"));
             } else if (sqlgGraph.getSqlDialect().supportsValuesExpression()) {
@@ -871,16 +1215,31 @@ public class SchemaTableTree {
 
         //lastOfPrevious is null for the first call in the call stack it needs the id parameter in the where clause.
         if (lastOfPrevious == null && distinctQueryStack.getFirst().stepType != STEP_TYPE.GRAPH_STEP) {
-            if (this.parentIdsAndIndexes.size() != 1 && sqlgGraph.getSqlDialect().supportsValuesExpression()) {
+            this.parentIdsAsParameters = false;
+            if (!dropStep && this.parentIdsAndIndexes.size() != 1 && sqlgGraph.getSqlDialect().supportsArrayParameterValues()) {
+                //the ids and indexes are bound as two array parameters, see SqlgUtil.setParametersOnStatement
+                this.parentIdsAsParameters = true;
+                singlePathSql.append(" INNER JOIN\n\t");
+                singlePathSql.append(sqlgGraph.getSqlDialect().arrayParameterValues(
+                        sqlgGraph.getSqlDialect().maybeWrapInQoutes("tmpId"),
+                        sqlgGraph.getSqlDialect().maybeWrapInQoutes("index")));
+                singlePathSql.append(" ON ");
+                singlePathSql.append(sqlgGraph.getSqlDialect().maybeWrapInQoutes(firstSchemaTable.getSchema()));
+                singlePathSql.append(".");
+                singlePathSql.append(sqlgGraph.getSqlDialect().maybeWrapInQoutes(firstSchemaTable.getTable()));
+                singlePathSql.append(".");
+                singlePathSql.append(sqlgGraph.getSqlDialect().maybeWrapInQoutes(Topology.ID));
+                singlePathSql.append(" = tmp.");
+                singlePathSql.append(sqlgGraph.getSqlDialect().maybeWrapInQoutes("tmpId"));
+            } else if (this.parentIdsAndIndexes.size() != 1 && sqlgGraph.getSqlDialect().supportsValuesExpression()) {
                 singlePathSql.append(" INNER JOIN\n\t(VALUES");
-                int count = 1;
-                for (Pair<Long, Long> parentIdAndIndex : this.parentIdsAndIndexes) {
+                for (int i = 0; i < this.parentIdsAndIndexes.size(); i++) {
                     singlePathSql.append("(");
-                    singlePathSql.append(parentIdAndIndex.getLeft());
+                    singlePathSql.append(this.parentIdsAndIndexes.getLeft(i));
                     singlePathSql.append(", ");
-                    singlePathSql.append(parentIdAndIndex.getRight());
+                    singlePathSql.append(this.parentIdsAndIndexes.getRight(i));
                     singlePathSql.append(")");
-                    if (count++ < this.parentIdsAndIndexes.size()) {
+                    if (i + 1 < this.parentIdsAndIndexes.size()) {
                         singlePathSql.append(",");
                     }
                 }
@@ -918,8 +1277,8 @@ public class SchemaTableTree {
                 random.nextBytes(bytes);
                 String tmpTableIdentified = Base64.getEncoder().encodeToString(bytes);
                 sqlgGraph.tx().normalBatchModeOn();
-                for (Pair<Long, Long> parentIdsAndIndex : this.parentIdsAndIndexes) {
-                    sqlgGraph.addTemporaryVertex(T.label, tmpTableIdentified, "tmpId", parentIdsAndIndex.getLeft(), "index", parentIdsAndIndex.getRight());
+                for (int i = 0; i < this.parentIdsAndIndexes.size(); i++) {
+                    sqlgGraph.addTemporaryVertex(T.label, tmpTableIdentified, "tmpId", this.parentIdsAndIndexes.getLeft(i), "index", this.parentIdsAndIndexes.getRight(i));
                 }
                 sqlgGraph.tx().flush();
 
@@ -945,7 +1304,7 @@ public class SchemaTableTree {
                 singlePathSql.append(".");
                 singlePathSql.append(sqlgGraph.getSqlDialect().maybeWrapInQoutes(Topology.ID));
                 singlePathSql.append(" = ");
-                singlePathSql.append(this.parentIdsAndIndexes.get(0).getLeft());
+                singlePathSql.append(this.parentIdsAndIndexes.getLeft(0));
                 mutableWhere.setTrue();
             }
         }
@@ -983,23 +1342,41 @@ public class SchemaTableTree {
         return this.hasContainers.stream().anyMatch(h -> SqlgUtil.isBulkWithinAndOut(sqlgGraph, h));
     }
 
+    /**
+     * @return true if the values of a bulk P.within or P.without are part of the sql, i.e. they are not bound as an array parameter.
+     */
+    private boolean hasBulkWithinOrOutInSql(SqlgGraph sqlgGraph) {
+        return this.hasContainers.stream().anyMatch(h -> SqlgUtil.isBulkWithinAndOut(sqlgGraph, h) && !SqlgUtil.isBulkWithinAndOutArrayParameter(sqlgGraph, h));
+    }
+
+    /**
+     * @return true if the distinct query joins onto temporary tables that are filled on the transaction's connection
+     * while its sql is constructed. Such a query can only be executed on the transaction's connection.
+     */
+    public boolean usesTemporaryTables(SqlgGraph sqlgGraph, LinkedList<SchemaTableTree> distinctQueryStack) {
+        if (distinctQueryStack.getFirst().stepType != STEP_TYPE.GRAPH_STEP && this.parentIdsAndIndexes.size() > 1 &&
+                !sqlgGraph.getSqlDialect().supportsArrayParameterValues() && !sqlgGraph.getSqlDialect().supportsValuesExpression()) {
+            return true;
+        }
+        for (SchemaTableTree schemaTableTree : distinctQueryStack) {
+            for (HasContainer hasContainer : schemaTableTree.hasContainers) {
+                if (SqlgUtil.isBulkWithinAndOutTemporaryTable(sqlgGraph, hasContainer)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
     private String bulkWithJoin(SqlgGraph sqlgGraph) {
         StringBuilder sb = new StringBuilder();
         List<HasContainer> bulkHasContainers = this.hasContainers.stream().filter(h -> SqlgUtil.isBulkWithinAndOut(sqlgGraph, h)).collect(Collectors.toList());
         for (HasContainer hasContainer : bulkHasContainers) {
-            P<List<Object>> predicate = (P<List<Object>>) hasContainer.getPredicate();
-            Collection<Object> withInList = predicate.getValue();
-            Set<Object> withInOuts = new HashSet<>(withInList);
-
-            Map<String, PropertyType> columns = new HashMap<>();
-            Object next = withInOuts.iterator().next();
-            if (next instanceof RecordId) {
-                next = ((RecordId) next).getId();
-            }
+            String column;
             if (hasContainer.getBiPredicate() == Contains.within) {
-                columns.put(WITHIN, PropertyType.from(next));
+                column = WITHIN;
             } else if (hasContainer.getBiPredicate() == Contains.without) {
-                columns.put(WITHOUT, PropertyType.from(next));
+                column = WITHOUT;
             } else {
                 throw new UnsupportedOperationException("Only Contains.within and Contains.without is supported!");
             }
@@ -1010,30 +1387,53 @@ public class SchemaTableTree {
                 //left join and in the where clause add a IS NULL, to find the values not in the right hand table
                 sb.append(" LEFT JOIN\n\t");
             }
-            sb.append("(VALUES ");
-            boolean first = true;
-            for (Object withInOutValue : withInOuts) {
-                if (!first) {
-                    sb.append(", ");
+            if (SqlgUtil.isBulkWithinAndOutArrayParameter(sqlgGraph, hasContainer)) {
+                //the values are bound as one array parameter, see SqlgUtil.setParametersOnStatement
+                sb.append(sqlgGraph.getSqlDialect().arrayParameterTable(
+                        SqlgUtil.bulkWithinAndOutPropertyType(hasContainer),
+                        "tmp" + this.rootSchemaTableTree().tmpTableAliasCounter,
+                        column));
+                sb.append(" ");
+            } else if (SqlgUtil.isBulkWithinAndOutTemporaryTable(sqlgGraph, hasContainer)) {
+                //Need to use a randomized name here else the temp table gets reused within the same transaction.
+                SecureRandom random = new SecureRandom();
+                byte bytes[] = new byte[6];
+                random.nextBytes(bytes);
+                String tmpTableIdentified = Base64.getEncoder().encodeToString(bytes);
+                sqlgGraph.tx().streamingBatchModeOn();
+                for (Object withInOutValue : SqlgUtil.bulkWithinAndOutValues(hasContainer)) {
+                    sqlgGraph.streamTemporaryVertex(T.label, tmpTableIdentified, column, withInOutValue);
                 }
-                first = false;
-                if (withInOutValue instanceof RecordId) {
-                    withInOutValue = ((RecordId) withInOutValue).getId();
+                sqlgGraph.tx().flush();
+                sqlgGraph.tx().batchMode(BatchManager.BatchModeType.NONE);
+                if (sqlgGraph.getSqlDialect().needsTemporaryTableSchema()) {
+                    sb.append(sqlgGraph.getSqlDialect().maybeWrapInQoutes(sqlgGraph.getSqlDialect().getPublicSchema()));
+                    sb.append(".");
                 }
-                sb.append("(");
-                PropertyType propertyType = PropertyType.from(withInOutValue);
-                sb.append(sqlgGraph.getSqlDialect().valueToValuesString(propertyType, withInOutValue));
-                sb.append(")");
-            }
-            sb.append(") as tmp");
-            sb.append(this.rootSchemaTableTree().tmpTableAliasCounter);
-            sb.append("(");
-            if (hasContainer.getBiPredicate() == Contains.within) {
-                sb.append(WITHIN);
+                sb.append(sqlgGraph.getSqlDialect().maybeWrapInQoutes(
+                        sqlgGraph.getSqlDialect().temporaryTablePrefix() + VERTEX_PREFIX + tmpTableIdentified));
+                sb.append(" as tmp");
+                sb.append(this.rootSchemaTableTree().tmpTableAliasCounter);
+                sb.append(" ");
             } else {
-                sb.append(WITHOUT);
+                sb.append("(VALUES ");
+                boolean first = true;
+                for (Object withInOutValue : SqlgUtil.bulkWithinAndOutValues(hasContainer)) {
+                    if (!first) {
+                        sb.append(", ");
+                    }
+                    first = false;
+                    sb.append("(");
+                    PropertyType propertyType = PropertyType.from(withInOutValue);
+                    sb.append(sqlgGraph.getSqlDialect().valueToValuesString(propertyType, withInOutValue));
+                    sb.append(")");
+                }
+                sb.append(") as tmp");
+                sb.append(this.rootSchemaTableTree().tmpTableAliasCounter);
+                sb.append("(");
+                sb.append(column);
+                sb.append(") ");
             }
-            sb.append(") ");
             sb.append(" on ");
             sb.append(sqlgGraph.getSqlDialect().maybeWrapInQoutes(this.getSchemaTable().getSchema()));
             sb.append(".");
@@ -1517,7 +1917,7 @@ public class SchemaTableTree {
 
     private String printLabeledOuterFromClause(String sql, int counter, Map<String, String> columnNameAliasMapCopy) {
         sql += " a" + counter + "." + this.sqlgGraph.getSqlDialect().maybeWrapInQoutes(this.labeledMappedAliasIdForOuterFromClause(columnNameAliasMapCopy));
-        Map<String, PropertyType> propertyTypeMap = this.getFilteredAllTables().get(this.getSchemaTable().toString());
+        Map<String, PropertyType> propertyTypeMap = this.getPropertiesToSelect();
         if (!propertyTypeMap.isEmpty()) {
             sql += ", ";
         }
@@ -1577,7 +1977,7 @@ public class SchemaTableTree {
     }
 
     private static void printFromClauseFor(SchemaTableTree lastSchemaTableTree, ColumnList cols) {
-        Map<String, PropertyType> propertyTypeMap = lastSchemaTableTree.getFilteredAllTables().get(lastSchemaTableTree.getSchemaTable().toString());
+        Map<String, PropertyType> propertyTypeMap = lastSchemaTableTree.getPropertiesToSelect();
         for (Map.Entry<String, PropertyType> propertyTypeMapEntry : propertyTypeMap.entrySet()) {
             String alias = lastSchemaTableTree.calculateAliasPropertyName(propertyTypeMapEntry.getKey());
             cols.add(lastSchemaTableTree, propertyTypeMapEntry.getKey(), alias);
@@ -1589,7 +1989,7 @@ public class SchemaTableTree {
     }
 
     private String printLabeledOuterFromClauseFor(String sql, int counter, Map<String, String> columnNameAliasMapCopy) {
-        Map<String, PropertyType> propertyTypeMap = this.getFilteredAllTables().get(this.getSchemaTable().toString());
+        Map<String, PropertyType> propertyTypeMap = this.getPropertiesToSelect();
         int count = 1;
         for (Map.Entry<String, PropertyType> property : propertyTypeMap.entrySet()) {
             sql += " a" + counter + ".";
@@ -1619,7 +2019,7 @@ public class SchemaTableTree {
     }
 
     private static void printLabeledFromClauseFor(SchemaTableTree lastSchemaTableTree, ColumnList cols) {
-        Map<String, PropertyType> propertyTypeMap = lastSchemaTableTree.getFilteredAllTables().get(lastSchemaTableTree.getSchemaTable().toString());
+        Map<String, PropertyType> propertyTypeMap = lastSchemaTableTree.getPropertiesToSelect();
         for (Map.Entry<String, PropertyType> propertyTypeMapEntry : propertyTypeMap.entrySet()) {
             String col = propertyTypeMapEntry.getKey();
             String alias = cols.getAlias(lastSchemaTableTree, col);
@@ -2331,21 +2731,49 @@ public class SchemaTableTree {
     }
 
     public void loadProperty(ResultSet resultSet, SqlgElement sqlgElement) throws SQLException {
-        for (int ix = 1; ix <= resultSet.getMetaData().getColumnCount(); ix++) {
-            String columnName = resultSet.getMetaData().getColumnLabel(ix);//entry.getKey();
+        boolean fullyLoaded = sqlgElement.isFullyLoaded();
+        if (this.rowDecoderResultSet != resultSet) {
+            this.rowDecoder = rowDecoder(resultSet);
+            this.rowDecoderResultSet = resultSet;
+        }
+        this.rowDecoder.load(resultSet, sqlgElement);
+        if (this.restrictedProperties == null) {
+            sqlgElement.markFullyLoaded();
+        } else if (!fullyLoaded) {
+            sqlgElement.markPartiallyLoaded(this.restrictedProperties);
+        }
+    }
+
+    /**
+     * Resolves, once per executed statement, which of the resultSet's columns are this element's properties.
+     */
+    private RowDecoder rowDecoder(ResultSet resultSet) throws SQLException {
+        RowDecoder.Builder builder = RowDecoder.builder(this.sqlgGraph, resultSet);
+        ResultSetMetaData resultSetMetaData = resultSet.getMetaData();
+        Map<String, String> columnNameAliasMap = getColumnNameAliasMap();
+        for (int ix = 1; ix <= resultSetMetaData.getColumnCount(); ix++) {
+            String columnName = resultSetMetaData.getColumnLabel(ix);
             Pair<String, PropertyType> p = getColumnNamePropertyName().get(columnName);
             if (p != null) {
                 String propertyName = p.getKey();
                 PropertyType propertyType = p.getValue();
                 if (propertyName.endsWith(Topology.IN_VERTEX_COLUMN_END)) {
-                    ((SqlgEdge) sqlgElement).loadInVertex(resultSet, propertyName, ix);
+                    builder.inVertex(propertyName, ix);
                 } else if (propertyName.endsWith(Topology.OUT_VERTEX_COLUMN_END)) {
-                    ((SqlgEdge) sqlgElement).loadOutVertex(resultSet, propertyName, ix);
-                } else {
-                    sqlgElement.loadProperty(resultSet, propertyName, ix, getColumnNameAliasMap(), this.stepDepth, propertyType);
+                    builder.outVertex(propertyName, ix);
+                } else if (propertyType != null) {
+                    String[] postFixes = propertyType.getPostFixes();
+                    String[] postFixColumnLabels = new String[postFixes.length];
+                    for (int i = 0; i < postFixes.length; i++) {
+                        String postFixColumn = this.stepDepth + ALIAS_SEPARATOR + this.schemaTable.getSchema() + ALIAS_SEPARATOR + this.schemaTable.getTable() + ALIAS_SEPARATOR + propertyName + postFixes[i];
+                        String alias = columnNameAliasMap.get(postFixColumn);
+                        postFixColumnLabels[i] = alias != null ? alias : propertyName + postFixes[i];
+                    }
+                    builder.property(propertyName, propertyType, ix, postFixColumnLabels);
                 }
             }
         }
+        return builder.build();
     }
 
     public void clearColumnNamePropertyNameMap() {
@@ -2353,6 +2781,8 @@ public class SchemaTableTree {
             this.columnNamePropertyName.clear();
             this.columnNamePropertyName = null;
         }
+        this.rowDecoder = null;
+        this.rowDecoderResultSet = null;
     }
 
     public String idProperty() {
@@ -2378,7 +2808,7 @@ public class SchemaTableTree {
         this.fakeEmit = fakeEmit;
     }
 
-    public void setParentIdsAndIndexes(List<Pair<Long, Long>> parentIdsAndIndexes) {
+    public void setParentIdsAndIndexes(LongPairList parentIdsAndIndexes) {
         this.parentIdsAndIndexes = parentIdsAndIndexes;
     }
 
@@ -2386,10 +2816,14 @@ public class SchemaTableTree {
         return stepType;
     }
 
-    public List<Pair<Long, Long>> getParentIdsAndIndexes() {
+    public LongPairList getParentIdsAndIndexes() {
         return parentIdsAndIndexes;
     }
 
+    public boolean isParentIdsAsParameters() {
+        return parentIdsAsParameters;
+    }
+
     public void removeDbComparators() {
         this.dbComparators = new ArrayList<>();
         for (SchemaTableTree child : this.children) {
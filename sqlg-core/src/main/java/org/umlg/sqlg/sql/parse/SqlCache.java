@@ -0,0 +1,133 @@
+package org.umlg.sqlg.sql.parse;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Caches the sql generated by {@link SchemaTableTree} per query shape.
+ * The key is a normalized description of the distinct query stack without any literal values,
+ * the values are bound as parameters by {@link org.umlg.sqlg.util.SqlgUtil#setParametersOnStatement}.
+ * <p>
+ * Entries are removed when the {@link org.umlg.sqlg.structure.topology.Topology} changes a table their sql references.
+ */
+public class SqlCache {
+
+    private final int maxSize;
+    private final Map<String, CachedSql> cache;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    //incremented on every invalidation, sql generated against an older version is not cached.
+    private volatile long version = 0;
+
+    public SqlCache(int maxSize) {
+        this.maxSize = maxSize;
+        this.cache = new LinkedHashMap<String, CachedSql>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedSql> eldest) {
+                return size() > SqlCache.this.maxSize;
+            }
+        };
+    }
+
+    public boolean isEnabled() {
+        return this.maxSize > 0;
+    }
+
+    synchronized CachedSql get(String key) {
+        CachedSql cachedSql = this.cache.get(key);
+        if (cachedSql != null) {
+            this.hits.incrementAndGet();
+        } else {
+            this.misses.incrementAndGet();
+        }
+        return cachedSql;
+    }
+
+    long getVersion() {
+        return this.version;
+    }
+
+    synchronized void put(long version, String key, CachedSql cachedSql) {
+        if (this.version == version) {
+            this.cache.put(key, cachedSql);
+        }
+    }
+
+    public synchronized void invalidate() {
+        this.version++;
+        this.cache.clear();
+    }
+
+    /**
+     * Removes the sql that references one of the tables.
+     *
+     * @param quotedTables The changed tables' names as quoted in the sql, e.g. <code>"V_Person"</code>.
+     */
+    public synchronized void invalidate(Set<String> quotedTables) {
+        this.version++;
+        this.cache.values().removeIf(cachedSql -> {
+            for (String quotedTable : quotedTables) {
+                if (cachedSql.getSql().contains(quotedTable)) {
+                    return true;
+                }
+            }
+            return false;
+        });
+    }
+
+    public synchronized int size() {
+        return this.cache.size();
+    }
+
+    public long getHits() {
+        return this.hits.get();
+    }
+
+    public long getMisses() {
+        return this.misses.get();
+    }
+
+    public void resetStatistics() {
+        this.hits.set(0);
+        this.misses.set(0);
+    }
+
+    @Override
+    public String toString() {
+        return "SqlCache{size=" + size() + ", hits=" + getHits() + ", misses=" + getMisses() + "}";
+    }
+
+    /**
+     * The generated sql together with the alias maps that were populated while generating it.
+     */
+    static class CachedSql {
+
+        private final String sql;
+        private final Map<String, String> columnNameAliasMap;
+        private final Map<String, String> aliasColumnNameMap;
+        private final int rootAliasCounter;
+
+        CachedSql(String sql, AliasMapHolder aliasMapHolder, int rootAliasCounter) {
+            this.sql = sql;
+            this.columnNameAliasMap = new HashMap<>(aliasMapHolder.getColumnNameAliasMap());
+            this.aliasColumnNameMap = new HashMap<>(aliasMapHolder.getAliasColumnNameMap());
+            this.rootAliasCounter = rootAliasCounter;
+        }
+
+        String getSql() {
+            return this.sql;
+        }
+
+        int getRootAliasCounter() {
+            return this.rootAliasCounter;
+        }
+
+        void restore(AliasMapHolder aliasMapHolder) {
+            aliasMapHolder.getColumnNameAliasMap().putAll(this.columnNameAliasMap);
+            aliasMapHolder.getAliasColumnNameMap().putAll(this.aliasColumnNameMap);
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package org.umlg.sqlg.sql.parse;
+
+import org.apache.commons.lang3.tuple.Pair;
+import org.umlg.sqlg.structure.PropertyType;
+
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One distinct query of a 'UNION ALL' statement, see {@link SchemaTableTree#constructUnionPart(LinkedList, int)}.
+ * Its columns are renamed to be unique across the statement, the parts' rows are told apart by the 'part' column.
+ */
+public class UnionPart {
+
+    private final SchemaTableTree rootSchemaTableTree;
+    private final LinkedList<SchemaTableTree> distinctQueryStack;
+    private final List<LinkedList<SchemaTableTree>> subQueryStacks;
+    private final int part;
+    private final String sql;
+    //the part's alias -> its name in the 'UNION ALL'
+    private final Map<String, String> columns;
+    //the name in the 'UNION ALL' -> the property's type and the index of its column
+    private final Map<String, Pair<PropertyType, Integer>> columnTypes;
+    private final Map<String, String> columnNameAliasMap = new LinkedHashMap<>();
+    private final Map<String, String> aliasColumnNameMap = new LinkedHashMap<>();
+
+    UnionPart(SchemaTableTree rootSchemaTableTree, LinkedList<SchemaTableTree> distinctQueryStack, int part, String sql,
+              Map<String, String> columns, Map<String, Pair<PropertyType, Integer>> columnTypes) {
+        this.rootSchemaTableTree = rootSchemaTableTree;
+        this.distinctQueryStack = distinctQueryStack;
+        this.subQueryStacks = SchemaTableTree.splitIntoSubStacks(distinctQueryStack);
+        this.part = part;
+        this.sql = sql;
+        this.columns = columns;
+        this.columnTypes = columnTypes;
+    }
+
+    public SchemaTableTree getRootSchemaTableTree() {
+        return this.rootSchemaTableTree;
+    }
+
+    public LinkedList<SchemaTableTree> getDistinctQueryStack() {
+        return this.distinctQueryStack;
+    }
+
+    public List<LinkedList<SchemaTableTree>> getSubQueryStacks() {
+        return this.subQueryStacks;
+    }
+
+    public int getPart() {
+        return this.part;
+    }
+
+    /**
+     * @return The part's regular sql, without the 'ORDER BY' on the parent's index.
+     */
+    public String getSql() {
+        return this.sql;
+    }
+
+    /**
+     * @return The part's column aliases mapped to their unique name in the 'UNION ALL'.
+     */
+    public Map<String, String> getColumns() {
+        return this.columns;
+    }
+
+    /**
+     * @return The type of the property of the column and the index of the column within the property's columns,
+     * 0 for the property's column else the index of its postfix column plus one.
+     */
+    public Pair<PropertyType, Integer> getColumnType(String unionColumn) {
+        return this.columnTypes.get(unionColumn);
+    }
+
+    /**
+     * @return true if the part is for a SqlgVertexStep, its first column is then the parent's index.
+     */
+    public boolean hasParentIndex() {
+        return this.distinctQueryStack.getFirst().getStepType() != SchemaTableTree.STEP_TYPE.GRAPH_STEP;
+    }
+
+    Map<String, String> getColumnNameAliasMap() {
+        return this.columnNameAliasMap;
+    }
+
+    Map<String, String> getAliasColumnNameMap() {
+        return this.aliasColumnNameMap;
+    }
+
+    /**
+     * Replaces the root's alias maps with the part's so that the rows of the part can be loaded.
+     */
+    public void restoreAliasMaps() {
+        this.rootSchemaTableTree.restoreAliasMaps(this.columnNameAliasMap, this.aliasColumnNameMap);
+    }
+}
@@ -4,6 +4,7 @@ import com.google.common.base.Preconditions;
 import com.google.common.collect.Multimap;
 import org.apache.tinkerpop.gremlin.process.traversal.Compare;
 import org.apache.tinkerpop.gremlin.process.traversal.Contains;
+import org.apache.tinkerpop.gremlin.process.traversal.Order;
 import org.apache.tinkerpop.gremlin.process.traversal.P;
 import org.apache.tinkerpop.gremlin.process.traversal.step.util.HasContainer;
 import org.apache.tinkerpop.gremlin.process.traversal.util.AndP;
@@ -12,12 +13,22 @@ import org.apache.tinkerpop.gremlin.structure.T;
 import org.umlg.sqlg.predicate.PropertyReference;
 import org.umlg.sqlg.predicate.Existence;
 import org.umlg.sqlg.predicate.FullText;
+import org.umlg.sqlg.predicate.Keyset;
 import org.umlg.sqlg.predicate.Text;
 import org.umlg.sqlg.sql.dialect.SqlDialect;
+import org.umlg.sqlg.structure.SchemaTable;
 import org.umlg.sqlg.structure.SqlgGraph;
+import org.umlg.sqlg.structure.topology.AbstractLabel;
+import org.umlg.sqlg.structure.topology.Index;
+import org.umlg.sqlg.structure.topology.IndexType;
+import org.umlg.sqlg.structure.topology.Topology;
 import org.umlg.sqlg.util.SqlgUtil;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
 
 /**
  * Created by pieter on 2015/08/03.
@@ -98,13 +109,16 @@ public class WhereClause {
             return result;
         } else if (p.getBiPredicate() instanceof Text) {
             prefix += "." + sqlgGraph.getSqlDialect().maybeWrapInQoutes(hasContainer.getKey());
-            result += textToSql(sqlgGraph.getSqlDialect(), prefix, (Text) p.getBiPredicate());
+            result += textToSql(sqlgGraph.getSqlDialect(), prefix, (Text) p.getBiPredicate(), hasLowerIndex(sqlgGraph, schemaTableTree.getSchemaTable(), hasContainer.getKey()));
             return result;
         } else if (p.getBiPredicate() instanceof FullText){
         	prefix += "." + sqlgGraph.getSqlDialect().maybeWrapInQoutes(hasContainer.getKey());
         	FullText ft=(FullText)p.getBiPredicate();
         	result += sqlgGraph.getSqlDialect().getFullTextQueryText(ft, prefix);
         	return result;
+        } else if (p.getBiPredicate() instanceof Keyset) {
+            result += keysetToSql(sqlgGraph, prefix, (Keyset) p.getBiPredicate());
+            return result;
         } else if (p.getBiPredicate() instanceof Existence){
         	result += prefix + "." + sqlgGraph.getSqlDialect().maybeWrapInQoutes(hasContainer.getKey());
         	result += " "+p.getBiPredicate().toString();
@@ -188,7 +202,32 @@ public class WhereClause {
         return result;
     }
 
-    private static String textToSql(SqlDialect sqlDialect, String prefix, Text text) {
+    /**
+     * Indicates if the property is the leading column of a {@link IndexType#LOWER} index.
+     * If so the case insensitive predicates are written as 'lower(column) like lower(?)' so that the index can be used.
+     */
+    private static boolean hasLowerIndex(SqlgGraph sqlgGraph, SchemaTable schemaTable, String key) {
+        if (!sqlgGraph.getSqlDialect().supportsExpressionIndex() || schemaTable.isTemporary()) {
+            return false;
+        }
+        SchemaTable withOutPrefix = schemaTable.withOutPrefix();
+        Optional<? extends AbstractLabel> abstractLabelOptional;
+        if (schemaTable.isVertexTable()) {
+            abstractLabelOptional = sqlgGraph.getTopology().getVertexLabel(withOutPrefix.getSchema(), withOutPrefix.getTable());
+        } else {
+            abstractLabelOptional = sqlgGraph.getTopology().getEdgeLabel(withOutPrefix.getSchema(), withOutPrefix.getTable());
+        }
+        if (abstractLabelOptional.isPresent()) {
+            for (Index index : abstractLabelOptional.get().getIndexes().values()) {
+                if (index.getIndexType().isLower() && !index.getProperties().isEmpty() && index.getProperties().get(0).getName().equals(key)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static String textToSql(SqlDialect sqlDialect, String prefix, Text text, boolean lowerIndex) {
         String result;
         switch (text) {
             case contains:
@@ -198,20 +237,20 @@ public class WhereClause {
                 result = NOT_LIKE;
                 break;
             case containsCIS:
-                if (!sqlDialect.supportsILike()) {
+                if (lowerIndex || !sqlDialect.supportsILike()) {
                     prefix = "lower(" + prefix + ")";
                 }
-                if (sqlDialect.supportsILike()) {
+                if (!lowerIndex && sqlDialect.supportsILike()) {
                     result = " ilike ?";
                 } else {
                     result = " like lower(?)";
                 }
                 break;
             case ncontainsCIS:
-                if (!sqlDialect.supportsILike()) {
+                if (lowerIndex || !sqlDialect.supportsILike()) {
                     prefix = "lower(" + prefix + ")";
                 }
-                if (sqlDialect.supportsILike()) {
+                if (!lowerIndex && sqlDialect.supportsILike()) {
                     result = " not ilike ?";
                 } else {
                     result = " not like lower(?)";
@@ -235,7 +274,69 @@ public class WhereClause {
         return prefix + result;
     }
 
+    /**
+     * The seek is one row value comparison if all the keys are ordered the same way and the dialect supports it,
+     * else it is expanded into '(k1 > ?) OR (k1 = ? AND k2 > ?) OR ...'.
+     */
+    private static boolean isKeysetRowValue(SqlgGraph sqlgGraph, Keyset keyset) {
+        return keyset.isUniform() && sqlgGraph.getSqlDialect().supportsRowValueComparison();
+    }
+
+    private static String keysetToSql(SqlgGraph sqlgGraph, String prefix, Keyset keyset) {
+        List<String> columns = new ArrayList<>();
+        for (String key : keyset.getKeys()) {
+            columns.add(prefix + "." + sqlgGraph.getSqlDialect().maybeWrapInQoutes(key));
+        }
+        columns.add(prefix + "." + sqlgGraph.getSqlDialect().maybeWrapInQoutes(Topology.ID));
+        List<Order> orders = new ArrayList<>(keyset.getOrders());
+        orders.add(keyset.getIdOrder());
+        StringBuilder sb = new StringBuilder();
+        if (isKeysetRowValue(sqlgGraph, keyset)) {
+            sb.append("(");
+            sb.append(String.join(", ", columns));
+            sb.append(keyset.getIdOrder() == Order.incr ? ") > (" : ") < (");
+            sb.append(String.join(", ", Collections.nCopies(columns.size(), "?")));
+            sb.append(")");
+        } else {
+            for (int i = 0; i < columns.size(); i++) {
+                if (i > 0) {
+                    sb.append(" OR ");
+                }
+                sb.append("(");
+                for (int j = 0; j < i; j++) {
+                    sb.append(columns.get(j)).append(" = ? AND ");
+                }
+                sb.append(columns.get(i)).append(orders.get(i) == Order.incr ? " > ?" : " < ?");
+                sb.append(")");
+            }
+        }
+        return sb.toString();
+    }
+
+    public void putKeyValueMap(SqlgGraph sqlgGraph, HasContainer hasContainer, Multimap<String, Object> keyValueMap) {
+        if (p.getBiPredicate() instanceof Keyset) {
+            Keyset keyset = (Keyset) p.getBiPredicate();
+            List<?> values = (List<?>) p.getValue();
+            List<String> keys = new ArrayList<>(keyset.getKeys());
+            keys.add(Topology.ID);
+            if (isKeysetRowValue(sqlgGraph, keyset)) {
+                for (int i = 0; i < keys.size(); i++) {
+                    keyValueMap.put(keys.get(i), values.get(i));
+                }
+            } else {
+                for (int i = 0; i < keys.size(); i++) {
+                    for (int j = 0; j <= i; j++) {
+                        keyValueMap.put(keys.get(j), values.get(j));
+                    }
+                }
+            }
+        } else {
+            putKeyValueMap(hasContainer, keyValueMap);
+        }
+    }
+
     public void putKeyValueMap(HasContainer hasContainer, Multimap<String, Object> keyValueMap) {
+        Preconditions.checkState(!(p.getBiPredicate() instanceof Keyset), "Keyset values need the dialect, see putKeyValueMap(SqlgGraph, HasContainer, Multimap)");
         if (p instanceof OrP) {
             OrP<?> orP = (OrP<?>) p;
             Preconditions.checkState(orP.getPredicates().size() == 2, "Only handling OrP with 2 predicates!");
@@ -0,0 +1,369 @@
+package org.umlg.sqlg.step;
+
+import com.google.common.base.Preconditions;
+import org.apache.commons.lang3.tuple.Pair;
+import org.apache.commons.lang3.tuple.Triple;
+import org.apache.tinkerpop.gremlin.process.traversal.Step;
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.Traverser;
+import org.apache.tinkerpop.gremlin.process.traversal.util.FastNoSuchElementException;
+import org.apache.tinkerpop.gremlin.structure.util.StringFactory;
+import org.apache.tinkerpop.gremlin.util.NumberHelper;
+import org.umlg.sqlg.sql.parse.SchemaTableTree;
+import org.umlg.sqlg.strategy.SqlgSqlExecutor;
+import org.umlg.sqlg.structure.PropertyType;
+import org.umlg.sqlg.structure.SqlgGraph;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.*;
+
+/**
+ * Replaces a count, sum, max, min or mean step that directly follows a {@link SqlgGraphStep}.
+ * The aggregate is calculated by the database, the elements are never loaded.
+ * Every distinct query of the {@link SqlgGraphStep} is aggregated in its own select, the selects are combined with a
+ * 'UNION ALL' and the per query results reduced here with the same seed and semantics as TinkerPop's reducing steps.
+ * <p>
+ * If there is a groupByKey the step replaces a groupCount().by(key) or group().by(key).by(aggregate) and the aggregate
+ * is calculated per value of the key with a 'GROUP BY'.
+ * <p>
+ * The {@link SqlgGraphStep} remains in the traversal as the start step but is only iterated when the database's
+ * result can not be converted to TinkerPop's, then the replaced steps are executed in memory.
+ */
+public class SqlgAggregateStep<S, E> extends SqlgAbstractStep<S, E> {
+
+    public enum AGGREGATE {
+        COUNT,
+        SUM,
+        MAX,
+        MIN,
+        MEAN
+    }
+
+    private final AGGREGATE aggregate;
+    private final String propertyKey;
+    private final String groupByKey;
+    //The steps this step replaced, executed in memory if the database's result can not be used.
+    private List<Step> fallbackSteps;
+    private boolean done = false;
+
+    public SqlgAggregateStep(final Traversal.Admin traversal, AGGREGATE aggregate, String propertyKey, String groupByKey, List<Step> fallbackSteps) {
+        super(traversal);
+        Preconditions.checkArgument(!fallbackSteps.isEmpty(), "fallbackSteps may not be empty");
+        this.aggregate = aggregate;
+        this.propertyKey = propertyKey;
+        this.groupByKey = groupByKey;
+        this.fallbackSteps = new ArrayList<>(fallbackSteps);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    protected Traverser.Admin<E> processNextStart() throws NoSuchElementException {
+        if (this.done) {
+            throw FastNoSuchElementException.instance();
+        }
+        this.done = true;
+        SqlgGraphStep<?, ?> sqlgGraphStep = (SqlgGraphStep<?, ?>) this.getTraversal().getStartStep();
+        Optional<Object> result = aggregate(sqlgGraphStep);
+        if (result.isPresent()) {
+            return this.getTraversal().getTraverserGenerator().generate((E) result.get(), (Step) this, 1L);
+        } else {
+            return fallback(sqlgGraphStep);
+        }
+    }
+
+    /**
+     * @return The result or empty if the database's result can not be converted to TinkerPop's.
+     */
+    private Optional<Object> aggregate(SqlgGraphStep<?, ?> sqlgGraphStep) {
+        SqlgGraph sqlgGraph = (SqlgGraph) this.getTraversal().getGraph().get();
+        Set<SchemaTableTree> rootSchemaTableTrees = sqlgGraphStep.rootSchemaTableTrees();
+        List<Pair<String, LinkedList<SchemaTableTree>>> aggregateQueries = new ArrayList<>();
+        List<PropertyType> propertyTypes = new ArrayList<>();
+        PropertyType groupByPropertyType = null;
+        for (SchemaTableTree rootSchemaTableTree : rootSchemaTableTrees) {
+            try {
+                for (LinkedList<SchemaTableTree> distinctQueryStack : rootSchemaTableTree.constructDistinctQueries()) {
+                    if (this.groupByKey != null) {
+                        //Elements without the key fail in TinkerPop's group step.
+                        PropertyType propertyType = distinctQueryStack.getLast().getPropertyType(this.groupByKey);
+                        if (propertyType == null || !isGroupable(propertyType) || (groupByPropertyType != null && groupByPropertyType != propertyType)) {
+                            return Optional.empty();
+                        }
+                        groupByPropertyType = propertyType;
+                    }
+                    PropertyType propertyType = PropertyType.LONG;
+                    if (this.propertyKey != null) {
+                        propertyType = distinctQueryStack.getLast().getPropertyType(this.propertyKey);
+                        if (propertyType == null && this.groupByKey == null) {
+                            //The table does not have the property, there is nothing to aggregate.
+                            continue;
+                        }
+                    }
+                    rootSchemaTableTree.resetColumnAliasMaps();
+                    //Only count non numeric properties, TinkerPop fails when a value is found.
+                    String sqlFunction = propertyType != null && isNumeric(propertyType) ? sqlFunction() : "COUNT";
+                    aggregateQueries.add(Pair.of(
+                            rootSchemaTableTree.constructAggregateSql(distinctQueryStack, sqlFunction, this.propertyKey, this.groupByKey, aggregateQueries.size()),
+                            distinctQueryStack)
+                    );
+                    propertyTypes.add(propertyType);
+                }
+            } finally {
+                rootSchemaTableTree.resetColumnAliasMaps();
+            }
+        }
+        Map<Object, Number> results = new LinkedHashMap<>();
+        Map<Object, Long> counts = new HashMap<>();
+        if (!aggregateQueries.isEmpty()) {
+            Triple<ResultSet, ResultSetMetaData, PreparedStatement> triple = SqlgSqlExecutor.executeAggregateQuery(sqlgGraph, aggregateQueries);
+            try {
+                try (ResultSet resultSet = triple.getLeft()) {
+                    while (resultSet.next()) {
+                        int part = resultSet.getInt(1);
+                        Number value = (Number) resultSet.getObject(2);
+                        long partCount = resultSet.getLong(3);
+                        Object key = null;
+                        if (this.groupByKey != null) {
+                            key = toGroupKey(resultSet.getObject(4), groupByPropertyType);
+                            if (key == null) {
+                                //TinkerPop's group step fails on null keys.
+                                return Optional.empty();
+                            }
+                            results.putIfAbsent(key, seed());
+                            counts.putIfAbsent(key, 0L);
+                        }
+                        if (partCount == 0) {
+                            continue;
+                        }
+                        PropertyType propertyType = propertyTypes.get(part);
+                        if (!isNumeric(propertyType)) {
+                            return Optional.empty();
+                        }
+                        counts.merge(key, partCount, Long::sum);
+                        results.put(key, reduce(results.getOrDefault(key, seed()), toTinkerPopType(value, propertyType)));
+                    }
+                } finally {
+                    sqlgGraph.tx().releasePreparedStatement(triple.getRight());
+                }
+            } catch (SQLException e) {
+                throw new RuntimeException(e);
+            }
+        }
+        if (this.groupByKey == null) {
+            return Optional.of(finalResult(results.getOrDefault(null, seed()), counts.getOrDefault(null, 0L)));
+        } else {
+            Map<Object, Object> groups = new HashMap<>();
+            for (Map.Entry<Object, Number> entry : results.entrySet()) {
+                groups.put(entry.getKey(), finalResult(entry.getValue(), counts.get(entry.getKey())));
+            }
+            return Optional.of(groups);
+        }
+    }
+
+    private Object finalResult(Number result, long count) {
+        switch (this.aggregate) {
+            case COUNT:
+                return count;
+            case MEAN:
+                return count == 0 ? Double.NaN : result.doubleValue() / count;
+            default:
+                return result;
+        }
+    }
+
+    /**
+     * Executes the replaced steps in memory, starting with the {@link SqlgGraphStep}'s elements.
+     */
+    @SuppressWarnings("unchecked")
+    private Traverser.Admin<E> fallback(SqlgGraphStep<?, ?> sqlgGraphStep) {
+        Step previous = sqlgGraphStep;
+        for (Step step : this.fallbackSteps) {
+            step.addStarts(previous);
+            previous = step;
+        }
+        return (Traverser.Admin<E>) previous.next();
+    }
+
+    private String sqlFunction() {
+        switch (this.aggregate) {
+            case COUNT:
+                return "COUNT";
+            case SUM:
+            case MEAN:
+                return "SUM";
+            case MAX:
+                return "MAX";
+            case MIN:
+                return "MIN";
+            default:
+                throw new IllegalStateException("Unhandled aggregate " + this.aggregate.name());
+        }
+    }
+
+    /**
+     * The seeds of TinkerPop's CountGlobalStep, SumGlobalStep, MaxGlobalStep, MinGlobalStep and MeanGlobalStep.
+     */
+    private Number seed() {
+        switch (this.aggregate) {
+            case COUNT:
+                return 0L;
+            case SUM:
+            case MEAN:
+                return 0;
+            case MAX:
+                return Integer.MIN_VALUE;
+            case MIN:
+                return Integer.MAX_VALUE;
+            default:
+                throw new IllegalStateException("Unhandled aggregate " + this.aggregate.name());
+        }
+    }
+
+    private Number reduce(Number result, Number value) {
+        switch (this.aggregate) {
+            case COUNT:
+                return result;
+            case SUM:
+            case MEAN:
+                return NumberHelper.add(result, value);
+            case MAX:
+                return NumberHelper.max(result, value);
+            case MIN:
+                return NumberHelper.min(result, value);
+            default:
+                throw new IllegalStateException("Unhandled aggregate " + this.aggregate.name());
+        }
+    }
+
+    private static boolean isGroupable(PropertyType propertyType) {
+        switch (propertyType) {
+            case BOOLEAN:
+            case BYTE:
+            case SHORT:
+            case INTEGER:
+            case LONG:
+            case FLOAT:
+            case DOUBLE:
+            case STRING:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    private static Object toGroupKey(Object value, PropertyType propertyType) {
+        if (value == null) {
+            return null;
+        }
+        switch (propertyType) {
+            case BOOLEAN:
+                return value;
+            case BYTE:
+                return ((Number) value).byteValue();
+            case SHORT:
+                return ((Number) value).shortValue();
+            case INTEGER:
+                return ((Number) value).intValue();
+            case LONG:
+                return ((Number) value).longValue();
+            case FLOAT:
+                return ((Number) value).floatValue();
+            case DOUBLE:
+                return ((Number) value).doubleValue();
+            case STRING:
+                return value.toString();
+            default:
+                throw new IllegalStateException("Unhandled PropertyType " + propertyType.name());
+        }
+    }
+
+    private static boolean isNumeric(PropertyType propertyType) {
+        switch (propertyType) {
+            case BYTE:
+            case SHORT:
+            case INTEGER:
+            case LONG:
+            case FLOAT:
+            case DOUBLE:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Converts the database's result to the type TinkerPop would have calculated in memory.
+     * TinkerPop's sum multiplies every value with the traverser's long bulk, so sums are longs or doubles.
+     */
+    private Number toTinkerPopType(Number value, PropertyType propertyType) {
+        boolean sum = this.aggregate == AGGREGATE.SUM || this.aggregate == AGGREGATE.MEAN;
+        switch (propertyType) {
+            case BYTE:
+            case SHORT:
+            case INTEGER:
+                if (sum) {
+                    return value.longValue();
+                }
+                return value.intValue();
+            case LONG:
+                return value.longValue();
+            case FLOAT:
+                if (sum) {
+                    return value.doubleValue();
+                }
+                return value.floatValue();
+            case DOUBLE:
+                return value.doubleValue();
+            default:
+                throw new IllegalStateException("Unhandled PropertyType " + propertyType.name());
+        }
+    }
+
+    @Override
+    public void reset() {
+        super.reset();
+        this.done = false;
+        this.fallbackSteps.forEach(Step::reset);
+    }
+
+    @Override
+    public void setTraversal(final Traversal.Admin<?, ?> traversal) {
+        super.setTraversal(traversal);
+        this.fallbackSteps.forEach(s -> s.setTraversal(traversal));
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public SqlgAggregateStep<S, E> clone() {
+        SqlgAggregateStep<S, E> clone = (SqlgAggregateStep<S, E>) super.clone();
+        clone.fallbackSteps = new ArrayList<>();
+        for (Step step : this.fallbackSteps) {
+            clone.fallbackSteps.add(step.clone());
+        }
+        return clone;
+    }
+
+    @Override
+    public String toString() {
+        if (this.groupByKey == null) {
+            return StringFactory.stepString(this, this.aggregate, this.propertyKey);
+        } else {
+            return StringFactory.stepString(this, this.aggregate, this.propertyKey, this.groupByKey);
+        }
+    }
+
+    @Override
+    public int hashCode() {
+        int result = super.hashCode() ^ this.aggregate.hashCode();
+        if (this.propertyKey != null) {
+            result ^= this.propertyKey.hashCode();
+        }
+        if (this.groupByKey != null) {
+            result ^= this.groupByKey.hashCode() * 31;
+        }
+        return result;
+    }
+}
@@ -188,14 +188,22 @@ public class SqlgGraphStep<S, E extends SqlgElement> extends GraphStep implement
     }
 
     private Iterator<List<Emit<E>>> elements() {
+        Set<SchemaTableTree> rootSchemaTableTrees = rootSchemaTableTrees();
+        return new SqlgCompiledResultIterator<>(this.sqlgGraph, rootSchemaTableTrees);
+    }
+
+    /**
+     * Parses the replaced steps into the root {@link SchemaTableTree}s to query.
+     * Used directly by {@link SqlgAggregateStep} as it queries on the step's behalf.
+     */
+    public Set<SchemaTableTree> rootSchemaTableTrees() {
         this.sqlgGraph.tx().readWrite();
         if (this.sqlgGraph.getSqlDialect().supportsBatchMode() && this.sqlgGraph.tx().getBatchManager().isStreaming()) {
             throw new IllegalStateException("streaming is in progress, first flush or commit before querying.");
         }
         Preconditions.checkState(this.replacedSteps.size() > 0, "There must be at least one replacedStep");
         Preconditions.checkState(this.replacedSteps.get(0).isGraphStep(), "The first step must a SqlgGraphStep");
-        Set<SchemaTableTree> rootSchemaTableTrees = doLast();
-        return new SqlgCompiledResultIterator<>(this.sqlgGraph, rootSchemaTableTrees);
+        return doLast();
     }
 
     private Set<SchemaTableTree> doLast() {
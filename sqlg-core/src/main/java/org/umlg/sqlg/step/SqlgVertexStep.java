@@ -15,6 +15,7 @@ import org.umlg.sqlg.sql.parse.SchemaTableTree;
 import org.umlg.sqlg.strategy.Emit;
 import org.umlg.sqlg.strategy.SqlgComparatorHolder;
 import org.umlg.sqlg.structure.*;
+import org.umlg.sqlg.util.LongPairList;
 
 import java.util.*;
 
@@ -44,7 +45,7 @@ public class SqlgVertexStep<E extends SqlgElement> extends SqlgAbstractStep impl
 
     //This holds, for each SchemaTable, a list of RecordId's ids and the start elements' index.
     //It is used to generate the select statements, 'VALUES' and ORDER BY 'index' sql
-    private Map<SchemaTable, List<Pair<Long, Long>>> schemaTableParentIds = new LinkedHashMap<>();
+    private Map<SchemaTable, LongPairList> schemaTableParentIds = new LinkedHashMap<>();
 
     private List<ReplacedStep<?, ?>> replacedSteps = new ArrayList<>();
     private ReplacedStepTree replacedStepTree;
@@ -59,15 +60,18 @@ public class SqlgVertexStep<E extends SqlgElement> extends SqlgAbstractStep impl
     private long rangeCount = 0;
     private boolean eagerLoad = false;
     private boolean isForMultipleQueries = false;
+    //The maximum number of starts that are queried at once, 0 means all of them.
+    private int chunkSize;
 
     public SqlgVertexStep(final Traversal.Admin traversal) {
         super(traversal);
         this.sqlgGraph = (SqlgGraph) traversal.getGraph().get();
+        this.chunkSize = this.sqlgGraph.getVertexStepChunkSize();
     }
 
     @Override
     protected Traverser.Admin<E> processNextStart() {
-        if (this.starts.hasNext()) {
+        if (this.starts.hasNext() && (!isChunked() || !hasPendingResults())) {
             barrierTheHeads();
             constructQueryPerSchemaTable();
         }
@@ -107,23 +111,41 @@ public class SqlgVertexStep<E extends SqlgElement> extends SqlgAbstractStep impl
                         this.traversersLstIterator = this.traversers.listIterator();
                     }
                     this.lastReplacedStep = this.replacedSteps.get(this.replacedSteps.size() - 1);
+                } else if (this.starts.hasNext()) {
+                    //The previous chunk of starts is exhausted, query the next chunk.
+                    barrierTheHeads();
+                    constructQueryPerSchemaTable();
                 } else {
-//                    if (!this.sqlgStarts.hasNext()) {
-                    if (!this.starts.hasNext()) {
-                        throw FastNoSuchElementException.instance();
-                    } else {
-                        throw new IllegalStateException("BUG: this should never happen.");
-                    }
+                    throw FastNoSuchElementException.instance();
                 }
             }
         }
     }
 
+    /**
+     * Order and range are applied over all the starts, only without them can the starts be queried in chunks.
+     */
+    private boolean isChunked() {
+        return this.chunkSize > 0 && !this.replacedStepTree.hasOrderBy() && !this.replacedStepTree.hasRange();
+    }
+
+    private boolean hasPendingResults() {
+        return (this.traversersLstIterator != null && this.traversersLstIterator.hasNext()) ||
+                (this.elementIterator != null && this.elementIterator.hasNext()) ||
+                !this.schemaTableElements.isEmpty();
+    }
+
     private void barrierTheHeads() {
         //these collections are only used for the current starts.
         this.heads.clear();
         this.schemaTableParentIds.clear();
-        while (this.starts.hasNext()) {
+        if (!hasPendingResults()) {
+            //All results of the previous starts have been emitted, their heads are no longer needed.
+            this.startIndexTraverserAdminMap.clear();
+        }
+        int count = 0;
+        boolean chunked = isChunked();
+        while (this.starts.hasNext() && (!chunked || count++ < this.chunkSize)) {
             Traverser.Admin<E> h = this.starts.next();
             E value = h.get();
             SchemaTable schemaTable = value.getSchemaTablePrefixed();
@@ -134,13 +156,12 @@ public class SqlgVertexStep<E extends SqlgElement> extends SqlgAbstractStep impl
                 this.heads.put(schemaTable, traverserList);
             }
             traverserList.add(h);
-//            List<Pair<Long, Long>> parentIdList = this.schemaTableParentIds.computeIfAbsent(schemaTable, k -> new ArrayList<>());
-            List<Pair<Long, Long>> parentIdList = this.schemaTableParentIds.get(schemaTable);
+            LongPairList parentIdList = this.schemaTableParentIds.get(schemaTable);
             if (parentIdList == null) {
-                parentIdList = new ArrayList<>();
+                parentIdList = new LongPairList();
                 this.schemaTableParentIds.put(schemaTable, parentIdList);
             }
-            parentIdList.add(Pair.of(((RecordId) value.id()).getId(), this.startIndex));
+            parentIdList.add(((RecordId) value.id()).getIdAsLong(), this.startIndex);
             this.startIndexTraverserAdminMap.put(this.startIndex++, h);
         }
     }
@@ -0,0 +1,619 @@
+package org.umlg.sqlg.step.barrier;
+
+import org.apache.commons.lang3.tuple.ImmutablePair;
+import org.apache.tinkerpop.gremlin.process.traversal.Compare;
+import org.apache.tinkerpop.gremlin.process.traversal.P;
+import org.apache.tinkerpop.gremlin.process.traversal.Step;
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.Traverser;
+import org.apache.tinkerpop.gremlin.process.traversal.lambda.TrueTraversal;
+import org.apache.tinkerpop.gremlin.process.traversal.step.TraversalParent;
+import org.apache.tinkerpop.gremlin.process.traversal.step.branch.RepeatStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.filter.HasStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.VertexStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.EmptyStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.HasContainer;
+import org.apache.tinkerpop.gremlin.process.traversal.traverser.TraverserRequirement;
+import org.apache.tinkerpop.gremlin.process.traversal.util.FastNoSuchElementException;
+import org.apache.tinkerpop.gremlin.structure.Direction;
+import org.apache.tinkerpop.gremlin.structure.Graph;
+import org.apache.tinkerpop.gremlin.structure.util.StringFactory;
+import org.apache.tinkerpop.gremlin.util.iterator.EmptyIterator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.umlg.sqlg.sql.dialect.SqlDialect;
+import org.umlg.sqlg.step.SqlgAbstractStep;
+import org.umlg.sqlg.structure.PropertyType;
+import org.umlg.sqlg.structure.RecordId;
+import org.umlg.sqlg.structure.RowDecoder;
+import org.umlg.sqlg.structure.SqlgGraph;
+import org.umlg.sqlg.structure.SqlgVertex;
+import org.umlg.sqlg.structure.topology.EdgeLabel;
+import org.umlg.sqlg.structure.topology.PropertyColumn;
+import org.umlg.sqlg.structure.topology.Topology;
+import org.umlg.sqlg.structure.topology.VertexLabel;
+import org.umlg.sqlg.util.SqlgUtil;
+
+import java.sql.*;
+import java.util.*;
+
+/**
+ * Executes a repeat(out()/in()/both()).until(has(...)).emit(...) as one 'WITH RECURSIVE' query per vertex label.
+ * <p>
+ * The recursive query is only used when the repeat walks a hierarchy, i.e. the vertex label of the start vertices is
+ * the only vertex label on the other side of the repeated edge labels. The until and emit traversals must be
+ * has(key, predicate) steps with simple comparisons.
+ * Every row carries its path as an array, a path is not extended from a vertex that is already on it. Where TinkerPop
+ * would loop forever on a cycle the recursive query stops.
+ * <p>
+ * Starts that can not be executed recursively are handed to the {@link SqlgRepeatStepBarrier} that would otherwise
+ * have replaced the {@link RepeatStep}.
+ */
+public class SqlgRecursiveRepeatStepBarrier<S> extends SqlgAbstractStep<S, S> implements TraversalParent {
+
+    private static Logger logger = LoggerFactory.getLogger(SqlgRecursiveRepeatStepBarrier.class);
+    private static final int START_IDS_PER_QUERY = 1000;
+    private static final String RECURSIVE_TABLE = "sqlg_repeat";
+
+    private SqlgRepeatStepBarrier<S> sqlgRepeatStepBarrier;
+    private final Direction direction;
+    private final String[] edgeLabels;
+    //null if there is no until, the has containers are and'ed.
+    private final List<HasContainer> untilHasContainers;
+    //null if there is no emit, empty for emit()
+    private final List<HasContainer> emitHasContainers;
+    private final boolean untilFirst;
+    private final boolean emitFirst;
+
+    private boolean first = true;
+    private Deque<Map.Entry<VertexLabel, Map<Long, List<Traverser.Admin<S>>>>> toQuery = new ArrayDeque<>();
+    private Iterator<Traverser.Admin<S>> results = EmptyIterator.instance();
+
+    public SqlgRecursiveRepeatStepBarrier(final Traversal.Admin traversal, RepeatStep<S> repeatStep) {
+        super(traversal);
+        VertexStep<?> vertexStep = (VertexStep<?>) repeatStep.getRepeatTraversal().getStartStep();
+        this.direction = vertexStep.getDirection();
+        this.edgeLabels = vertexStep.getEdgeLabels();
+        this.untilHasContainers = hasContainers(repeatStep.getUntilTraversal());
+        this.emitHasContainers = hasContainers(repeatStep.getEmitTraversal());
+        this.untilFirst = repeatStep.untilFirst;
+        this.emitFirst = repeatStep.emitFirst;
+        this.sqlgRepeatStepBarrier = new SqlgRepeatStepBarrier<>(traversal, repeatStep);
+    }
+
+    /**
+     * @return true if the repeatStep can be executed as a recursive query.
+     */
+    public static boolean isRecursive(RepeatStep<?> repeatStep) {
+        List<Step> repeatSteps = repeatStep.getRepeatTraversal().getSteps();
+        if (repeatSteps.size() != 2 || !(repeatSteps.get(0) instanceof VertexStep) || !(repeatSteps.get(1) instanceof RepeatStep.RepeatEndStep)) {
+            return false;
+        }
+        VertexStep<?> vertexStep = (VertexStep<?>) repeatSteps.get(0);
+        if (!vertexStep.returnsVertex() || !vertexStep.getLabels().isEmpty()) {
+            return false;
+        }
+        Traversal.Admin<?, ?> untilTraversal = repeatStep.getUntilTraversal();
+        Traversal.Admin<?, ?> emitTraversal = repeatStep.getEmitTraversal();
+        if (untilTraversal == null && emitTraversal == null) {
+            return false;
+        }
+        return (untilTraversal == null || (!(untilTraversal instanceof TrueTraversal) && isHasTraversal(untilTraversal))) &&
+                (emitTraversal == null || emitTraversal instanceof TrueTraversal || isHasTraversal(emitTraversal));
+    }
+
+    private static boolean isHasTraversal(Traversal.Admin<?, ?> traversal) {
+        if (traversal.getSteps().isEmpty()) {
+            return false;
+        }
+        for (Step<?, ?> step : traversal.getSteps()) {
+            if (!(step instanceof HasStep) || !step.getLabels().isEmpty()) {
+                return false;
+            }
+            for (HasContainer hasContainer : ((HasStep<?>) step).getHasContainers()) {
+                P<?> p = hasContainer.getPredicate();
+                if (Graph.Hidden.isHidden(hasContainer.getKey()) ||
+                        p.getClass() != P.class ||
+                        !(p.getBiPredicate() instanceof Compare) ||
+                        valueFamily(p.getValue()) == null) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private static List<HasContainer> hasContainers(Traversal.Admin<?, ?> traversal) {
+        if (traversal == null) {
+            return null;
+        }
+        List<HasContainer> result = new ArrayList<>();
+        if (!(traversal instanceof TrueTraversal)) {
+            for (Step<?, ?> step : traversal.getSteps()) {
+                result.addAll(((HasStep<?>) step).getHasContainers());
+            }
+        }
+        return result;
+    }
+
+    @Override
+    protected Traverser.Admin<S> processNextStart() throws NoSuchElementException {
+        if (this.first) {
+            this.first = false;
+            partitionStarts();
+        }
+        while (true) {
+            if (this.results.hasNext()) {
+                return this.results.next();
+            } else if (!this.toQuery.isEmpty()) {
+                Map.Entry<VertexLabel, Map<Long, List<Traverser.Admin<S>>>> query = this.toQuery.poll();
+                this.results = executeRecursiveQuery(query.getKey(), query.getValue());
+            } else if (this.sqlgRepeatStepBarrier.hasNext()) {
+                return this.sqlgRepeatStepBarrier.next();
+            } else {
+                throw FastNoSuchElementException.instance();
+            }
+        }
+    }
+
+    /**
+     * Groups the starts per vertex label, in batches of START_IDS_PER_QUERY start vertices.
+     * The starts of vertex labels that can not be queried recursively go to the {@link SqlgRepeatStepBarrier}.
+     */
+    private void partitionStarts() {
+        SqlgGraph sqlgGraph = (SqlgGraph) this.getTraversal().getGraph().get();
+        Map<String, Optional<VertexLabel>> recursiveVertexLabels = new HashMap<>();
+        Map<VertexLabel, Map<Long, List<Traverser.Admin<S>>>> batches = new HashMap<>();
+        while (this.starts.hasNext()) {
+            Traverser.Admin<S> start = this.starts.next();
+            Object object = start.get();
+            Optional<VertexLabel> vertexLabel = Optional.empty();
+            if (object instanceof SqlgVertex) {
+                SqlgVertex sqlgVertex = (SqlgVertex) object;
+                vertexLabel = recursiveVertexLabels.computeIfAbsent(
+                        sqlgVertex.getSchema() + "." + sqlgVertex.getTable(),
+                        k -> sqlgGraph.getTopology().getVertexLabel(sqlgVertex.getSchema(), sqlgVertex.getTable()).filter(this::isRecursiveVertexLabel)
+                );
+            }
+            if (vertexLabel.isPresent()) {
+                Map<Long, List<Traverser.Admin<S>>> batch = batches.computeIfAbsent(vertexLabel.get(), k -> new LinkedHashMap<>());
+                Long id = ((RecordId) ((SqlgVertex) object).id()).getId();
+                batch.computeIfAbsent(id, k -> new ArrayList<>()).add(start);
+                if (batch.size() == START_IDS_PER_QUERY) {
+                    this.toQuery.add(new AbstractMap.SimpleEntry<>(vertexLabel.get(), batch));
+                    batches.remove(vertexLabel.get());
+                }
+            } else {
+                this.sqlgRepeatStepBarrier.addStart(start);
+            }
+        }
+        for (Map.Entry<VertexLabel, Map<Long, List<Traverser.Admin<S>>>> batch : batches.entrySet()) {
+            this.toQuery.add(batch);
+        }
+    }
+
+    /**
+     * A vertex label can be queried recursively if the repeated edge labels only lead back to itself and the until
+     * and emit properties are comparable in sql.
+     */
+    private boolean isRecursiveVertexLabel(VertexLabel vertexLabel) {
+        return !recursiveEdges(vertexLabel).isEmpty() &&
+                condition(vertexLabel, this.untilHasContainers, new ArrayList<>()) != null &&
+                condition(vertexLabel, this.emitHasContainers, new ArrayList<>()) != null;
+    }
+
+    /**
+     * @return The edge labels to follow and if they are followed from their out vertex.
+     * Empty if there are none or if any of them leads to a different vertex label.
+     */
+    private List<ImmutablePair<EdgeLabel, Boolean>> recursiveEdges(VertexLabel vertexLabel) {
+        List<ImmutablePair<EdgeLabel, Boolean>> result = new ArrayList<>();
+        if (this.direction != Direction.IN) {
+            for (EdgeLabel edgeLabel : vertexLabel.getOutEdgeLabels().values()) {
+                if (matches(edgeLabel)) {
+                    if (!onlyVertexLabel(edgeLabel.getInVertexLabels(), vertexLabel)) {
+                        return Collections.emptyList();
+                    }
+                    result.add(ImmutablePair.of(edgeLabel, true));
+                }
+            }
+        }
+        if (this.direction != Direction.OUT) {
+            for (EdgeLabel edgeLabel : vertexLabel.getInEdgeLabels().values()) {
+                if (matches(edgeLabel)) {
+                    if (!onlyVertexLabel(edgeLabel.getOutVertexLabels(), vertexLabel)) {
+                        return Collections.emptyList();
+                    }
+                    result.add(ImmutablePair.of(edgeLabel, false));
+                }
+            }
+        }
+        return result;
+    }
+
+    private boolean matches(EdgeLabel edgeLabel) {
+        if (this.edgeLabels.length == 0) {
+            return true;
+        }
+        for (String label : this.edgeLabels) {
+            if (label.equals(edgeLabel.getLabel()) || label.equals(edgeLabel.getFullName())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean onlyVertexLabel(Set<VertexLabel> vertexLabels, VertexLabel vertexLabel) {
+        return vertexLabels.size() == 1 && vertexLabels.iterator().next().getFullName().equals(vertexLabel.getFullName());
+    }
+
+    /**
+     * @return The sql condition for the has containers on the vertex table aliased as 'v', null if it can not be
+     * expressed in sql. The parameters are added to the parameters.
+     */
+    private String condition(VertexLabel vertexLabel, List<HasContainer> hasContainers, List<ImmutablePair<PropertyType, Object>> parameters) {
+        if (hasContainers == null) {
+            return "FALSE";
+        }
+        SqlDialect sqlDialect = ((SqlgGraph) this.getTraversal().getGraph().get()).getSqlDialect();
+        Map<String, PropertyColumn> properties = vertexLabel.getProperties();
+        StringBuilder sql = new StringBuilder();
+        List<ImmutablePair<PropertyType, Object>> conditionParameters = new ArrayList<>();
+        for (HasContainer hasContainer : hasContainers) {
+            PropertyColumn propertyColumn = properties.get(hasContainer.getKey());
+            if (propertyColumn == null) {
+                //TinkerPop's has step filters out elements without the property.
+                return "FALSE";
+            }
+            Object value = hasContainer.getPredicate().getValue();
+            if (!valueFamily(value).equals(propertyFamily(propertyColumn.getPropertyType()))) {
+                return null;
+            }
+            if (sql.length() > 0) {
+                sql.append(" AND ");
+            }
+            sql.append("v.");
+            sql.append(sqlDialect.maybeWrapInQoutes(hasContainer.getKey()));
+            sql.append(compareToSql((Compare) hasContainer.getPredicate().getBiPredicate()));
+            conditionParameters.add(ImmutablePair.of(PropertyType.from(value), value));
+        }
+        parameters.addAll(conditionParameters);
+        return sql.length() == 0 ? "TRUE" : "CASE WHEN " + sql.toString() + " THEN TRUE ELSE FALSE END";
+    }
+
+    private static String compareToSql(Compare compare) {
+        switch (compare) {
+            case eq:
+                return " = ?";
+            case neq:
+                return " <> ?";
+            case lt:
+                return " < ?";
+            case lte:
+                return " <= ?";
+            case gt:
+                return " > ?";
+            case gte:
+                return " >= ?";
+            default:
+                throw new IllegalStateException("Unhandled Compare " + compare.name());
+        }
+    }
+
+    private static String valueFamily(Object value) {
+        if (value instanceof Boolean) {
+            return "boolean";
+        } else if (value instanceof Byte || value instanceof Short || value instanceof Integer || value instanceof Long ||
+                value instanceof Float || value instanceof Double) {
+            return "number";
+        } else if (value instanceof String) {
+            return "string";
+        } else {
+            return null;
+        }
+    }
+
+    private static String propertyFamily(PropertyType propertyType) {
+        switch (propertyType) {
+            case BOOLEAN:
+                return "boolean";
+            case BYTE:
+            case SHORT:
+            case INTEGER:
+            case LONG:
+            case FLOAT:
+            case DOUBLE:
+                return "number";
+            case STRING:
+                return "string";
+            default:
+                return "";
+        }
+    }
+
+    private Iterator<Traverser.Admin<S>> executeRecursiveQuery(VertexLabel vertexLabel, Map<Long, List<Traverser.Admin<S>>> starts) {
+        SqlgGraph sqlgGraph = (SqlgGraph) this.getTraversal().getGraph().get();
+        if (sqlgGraph.tx().isInBatchMode()) {
+            sqlgGraph.tx().flush();
+        }
+        //The start ids are bound between the parameters of the start vertices' and the repeat's conditions.
+        List<ImmutablePair<PropertyType, Object>> startParameters = new ArrayList<>();
+        List<ImmutablePair<PropertyType, Object>> repeatParameters = new ArrayList<>();
+        String sql = recursiveSql(sqlgGraph, vertexLabel, starts.size(), startParameters, repeatParameters);
+        if (logger.isDebugEnabled()) {
+            logger.debug(sql);
+        }
+        try {
+            //The ids are parameters so the sql only depends on their count, or not at all with an array parameter.
+            PreparedStatement preparedStatement = sqlgGraph.tx().prepareStatement(sql);
+            int parameterIndex = SqlgUtil.setKeyValuesAsParameter(sqlgGraph, false, 1, preparedStatement, startParameters);
+            if (sqlgGraph.getSqlDialect().supportsArrayParameterIn()) {
+                long[] ids = new long[starts.size()];
+                int i = 0;
+                for (Long startId : starts.keySet()) {
+                    ids[i++] = startId;
+                }
+                sqlgGraph.getSqlDialect().setLongArrayParameter(preparedStatement, parameterIndex++, ids);
+            } else {
+                for (Long startId : starts.keySet()) {
+                    preparedStatement.setLong(parameterIndex++, startId);
+                }
+            }
+            SqlgUtil.setKeyValuesAsParameter(sqlgGraph, false, parameterIndex, preparedStatement, repeatParameters);
+            ResultSet resultSet = preparedStatement.executeQuery();
+            return new RecursiveResultIterator(sqlgGraph, vertexLabel, starts, resultSet);
+        } catch (SQLException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private String recursiveSql(SqlgGraph sqlgGraph, VertexLabel vertexLabel, int startCount,
+                                List<ImmutablePair<PropertyType, Object>> startParameters, List<ImmutablePair<PropertyType, Object>> repeatParameters) {
+        SqlDialect sqlDialect = sqlgGraph.getSqlDialect();
+        String vertexTable = sqlDialect.maybeWrapInQoutes(vertexLabel.getSchema().getName()) + "." +
+                sqlDialect.maybeWrapInQoutes(Topology.VERTEX_PREFIX + vertexLabel.getLabel());
+        String id = sqlDialect.maybeWrapInQoutes("ID");
+        String recursiveTable = sqlDialect.maybeWrapInQoutes(RECURSIVE_TABLE);
+        String start = sqlDialect.maybeWrapInQoutes("start");
+        String path = sqlDialect.maybeWrapInQoutes("path");
+        String until = sqlDialect.maybeWrapInQoutes("until");
+        String emit = sqlDialect.maybeWrapInQoutes("emit");
+        String cycle = sqlDialect.maybeWrapInQoutes("cycle");
+        String from = sqlDialect.maybeWrapInQoutes("from");
+        String to = sqlDialect.maybeWrapInQoutes("to");
+        String edge = sqlDialect.maybeWrapInQoutes("edge");
+        String edges = sqlDialect.maybeWrapInQoutes("edges");
+        //With 'UNION' the rows are made distinct by the edges they followed, parallel edges are different traversers.
+        boolean unionAll = sqlDialect.supportsRecursiveUnionAll();
+        List<ImmutablePair<EdgeLabel, Boolean>> recursiveEdges = recursiveEdges(vertexLabel);
+
+        StringBuilder sql = new StringBuilder("WITH RECURSIVE ");
+        sql.append(recursiveTable);
+        sql.append("(").append(start).append(", ").append(id).append(", ").append(path).append(", ");
+        sql.append(until).append(", ").append(emit).append(", ").append(cycle);
+        if (!unionAll) {
+            sql.append(", ").append(edges);
+        }
+        sql.append(") AS (");
+        //The start vertices, until and emit are only evaluated before the first repeat if they come first.
+        sql.append("\nSELECT\n\tv.").append(id).append(", v.").append(id).append(", ");
+        sql.append(sqlDialect.recursivePathStart("v." + id)).append(", ");
+        sql.append(this.untilFirst ? condition(vertexLabel, this.untilHasContainers, startParameters) : "FALSE").append(", ");
+        sql.append(this.emitFirst ? condition(vertexLabel, this.emitHasContainers, startParameters) : "FALSE").append(", FALSE");
+        if (!unionAll) {
+            sql.append(", ").append(sqlDialect.recursivePathStart("v." + id));
+        }
+        sql.append("\nFROM\n\t").append(vertexTable).append(" v");
+        sql.append("\nWHERE\n\t");
+        if (sqlDialect.supportsArrayParameterIn()) {
+            sql.append(sqlDialect.arrayParameterIn("v." + id));
+        } else {
+            sql.append("v.").append(id).append(" IN (");
+            sql.append(String.join(", ", Collections.nCopies(startCount, "?")));
+            sql.append(")");
+        }
+        //The repeat
+        sql.append(unionAll ? "\nUNION ALL" : "\nUNION");
+        sql.append("\nSELECT\n\tr.").append(start).append(", v.").append(id).append(", ");
+        sql.append(sqlDialect.recursivePathAppend("r." + path, "v." + id)).append(", ");
+        sql.append(condition(vertexLabel, this.untilHasContainers, repeatParameters)).append(", ");
+        sql.append(condition(vertexLabel, this.emitHasContainers, repeatParameters)).append(", ");
+        sql.append(sqlDialect.recursivePathContains("r." + path, "v." + id));
+        if (!unionAll) {
+            sql.append(", ").append(sqlDialect.recursivePathAppend("r." + edges, "e." + edge));
+        }
+        sql.append("\nFROM\n\t").append(recursiveTable).append(" r INNER JOIN (");
+        for (int i = 0; i < recursiveEdges.size(); i++) {
+            ImmutablePair<EdgeLabel, Boolean> recursiveEdge = recursiveEdges.get(i);
+            EdgeLabel edgeLabel = recursiveEdge.getLeft();
+            String outColumn = sqlDialect.maybeWrapInQoutes(vertexLabel.getFullName() + Topology.OUT_VERTEX_COLUMN_END);
+            String inColumn = sqlDialect.maybeWrapInQoutes(vertexLabel.getFullName() + Topology.IN_VERTEX_COLUMN_END);
+            if (i > 0) {
+                sql.append("\n\t\tUNION ALL");
+            }
+            sql.append("\n\t\tSELECT ");
+            sql.append(recursiveEdge.getRight() ? outColumn : inColumn).append(" AS ").append(from).append(", ");
+            sql.append(recursiveEdge.getRight() ? inColumn : outColumn).append(" AS ").append(to);
+            if (!unionAll) {
+                //The edge ids of different edge tables and directions must not overlap.
+                sql.append(", ").append(id);
+                if (recursiveEdges.size() > 1) {
+                    sql.append(" * ").append(recursiveEdges.size()).append(" + ").append(i);
+                }
+                sql.append(" AS ").append(edge);
+            }
+            sql.append(" FROM ");
+            sql.append(sqlDialect.maybeWrapInQoutes(edgeLabel.getSchema().getName())).append(".");
+            sql.append(sqlDialect.maybeWrapInQoutes(Topology.EDGE_PREFIX + edgeLabel.getLabel()));
+        }
+        sql.append("\n\t) e ON e.").append(from).append(" = r.").append(id);
+        sql.append(" INNER JOIN ").append(vertexTable).append(" v ON v.").append(id).append(" = e.").append(to);
+        //Stop at the until and do not go around cycles.
+        sql.append("\nWHERE\n\tNOT r.").append(until).append(" AND NOT r.").append(cycle);
+        sql.append("\n)");
+        //Only the emitted vertices and those that reached the until are returned, with all their properties.
+        sql.append("\nSELECT\n\tr.").append(start).append(", r.").append(path).append(", r.").append(until).append(", r.").append(emit);
+        sql.append(", v.").append(id);
+        for (PropertyColumn propertyColumn : vertexLabel.getProperties().values()) {
+            sql.append(", v.").append(sqlDialect.maybeWrapInQoutes(propertyColumn.getName()));
+            String[] postFixes = propertyColumn.getPropertyType().getPostFixes();
+            if (postFixes != null) {
+                for (String postFix : postFixes) {
+                    sql.append(", v.").append(sqlDialect.maybeWrapInQoutes(propertyColumn.getName() + postFix));
+                }
+            }
+        }
+        sql.append("\nFROM\n\t").append(recursiveTable).append(" r INNER JOIN ").append(vertexTable).append(" v ON v.").append(id).append(" = r.").append(id);
+        sql.append("\nWHERE\n\tr.").append(until).append(" OR r.").append(emit);
+        if (sqlDialect.needsSemicolon()) {
+            sql.append(";");
+        }
+        return sql.toString();
+    }
+
+    /**
+     * Streams the rows of the recursive query as traversers, every row is split from each of its start traversers
+     * along its path.
+     */
+    private class RecursiveResultIterator implements Iterator<Traverser.Admin<S>> {
+
+        private static final int FIRST_VERTEX_COLUMN = 5;
+        private final SqlgGraph sqlgGraph;
+        private final VertexLabel vertexLabel;
+        private final Map<Long, List<Traverser.Admin<S>>> starts;
+        private final ResultSet resultSet;
+        //Built on the first row.
+        private RowDecoder rowDecoder;
+        private final Deque<Traverser.Admin<S>> traversers = new ArrayDeque<>();
+        private boolean exhausted = false;
+
+        RecursiveResultIterator(SqlgGraph sqlgGraph, VertexLabel vertexLabel, Map<Long, List<Traverser.Admin<S>>> starts, ResultSet resultSet) {
+            this.sqlgGraph = sqlgGraph;
+            this.vertexLabel = vertexLabel;
+            this.starts = starts;
+            this.resultSet = resultSet;
+        }
+
+        @Override
+        public boolean hasNext() {
+            try {
+                while (this.traversers.isEmpty() && !this.exhausted) {
+                    if (this.resultSet.next()) {
+                        loadRow();
+                    } else {
+                        this.exhausted = true;
+                        Statement statement = this.resultSet.getStatement();
+                        this.resultSet.close();
+                        this.sqlgGraph.tx().releasePreparedStatement((PreparedStatement) statement);
+                    }
+                }
+                return !this.traversers.isEmpty();
+            } catch (SQLException e) {
+                throw new RuntimeException(e);
+            }
+        }
+
+        @Override
+        public Traverser.Admin<S> next() {
+            if (!hasNext()) {
+                throw FastNoSuchElementException.instance();
+            }
+            return this.traversers.poll();
+        }
+
+        @SuppressWarnings("unchecked")
+        private void loadRow() throws SQLException {
+            long start = this.resultSet.getLong(1);
+            Object[] path = (Object[]) this.resultSet.getArray(2).getArray();
+            boolean until = this.resultSet.getBoolean(3);
+            boolean emit = this.resultSet.getBoolean(4);
+            SqlgVertex sqlgVertex = SqlgVertex.of(this.sqlgGraph, this.resultSet.getLong(FIRST_VERTEX_COLUMN), this.vertexLabel.getSchema().getName(), this.vertexLabel.getLabel());
+            if (this.rowDecoder == null) {
+                RowDecoder.Builder builder = RowDecoder.builder(this.sqlgGraph, this.resultSet);
+                Map<String, PropertyColumn> properties = this.vertexLabel.getProperties();
+                ResultSetMetaData resultSetMetaData = this.resultSet.getMetaData();
+                for (int i = FIRST_VERTEX_COLUMN + 1; i <= resultSetMetaData.getColumnCount(); i++) {
+                    String columnName = resultSetMetaData.getColumnLabel(i);
+                    PropertyColumn propertyColumn = properties.get(columnName);
+                    if (propertyColumn != null) {
+                        builder.property(columnName, propertyColumn.getPropertyType(), i);
+                    }
+                }
+                this.rowDecoder = builder.build();
+            }
+            this.rowDecoder.load(this.resultSet, sqlgVertex);
+            sqlgVertex.markFullyLoaded();
+            //TinkerPop emits a vertex that reaches the until and is emitted at the end of the repeat before it
+            //checks the until at the start of the next repeat.
+            int count = until && emit && SqlgRecursiveRepeatStepBarrier.this.untilFirst && !SqlgRecursiveRepeatStepBarrier.this.emitFirst ? 2 : 1;
+            for (Traverser.Admin<S> startTraverser : this.starts.get(start)) {
+                for (int c = 0; c < count; c++) {
+                    Traverser.Admin<S> traverser = startTraverser;
+                    for (int i = 1; i < path.length - 1; i++) {
+                        SqlgVertex pathVertex = SqlgVertex.of(this.sqlgGraph, ((Number) path[i]).longValue(), this.vertexLabel.getSchema().getName(), this.vertexLabel.getLabel());
+                        traverser = traverser.split((S) pathVertex, EmptyStep.instance());
+                    }
+                    if (path.length > 1) {
+                        traverser = traverser.split((S) sqlgVertex, EmptyStep.instance());
+                    } else {
+                        traverser = traverser.split();
+                    }
+                    this.traversers.add(traverser);
+                }
+            }
+        }
+    }
+
+    @Override
+    public Set<TraverserRequirement> getRequirements() {
+        return this.sqlgRepeatStepBarrier.getRequirements();
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public <A, B> List<Traversal.Admin<A, B>> getGlobalChildren() {
+        return (List) this.sqlgRepeatStepBarrier.getGlobalChildren();
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public <A, B> List<Traversal.Admin<A, B>> getLocalChildren() {
+        return (List) this.sqlgRepeatStepBarrier.getLocalChildren();
+    }
+
+    @Override
+    public void reset() {
+        super.reset();
+        this.sqlgRepeatStepBarrier.reset();
+        this.first = true;
+        this.toQuery = new ArrayDeque<>();
+        this.results = EmptyIterator.instance();
+    }
+
+    @Override
+    public void setTraversal(final Traversal.Admin<?, ?> parentTraversal) {
+        super.setTraversal(parentTraversal);
+        this.sqlgRepeatStepBarrier.setTraversal(parentTraversal);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public SqlgRecursiveRepeatStepBarrier<S> clone() {
+        final SqlgRecursiveRepeatStepBarrier<S> clone = (SqlgRecursiveRepeatStepBarrier<S>) super.clone();
+        clone.sqlgRepeatStepBarrier = this.sqlgRepeatStepBarrier.clone();
+        clone.toQuery = new ArrayDeque<>();
+        clone.results = EmptyIterator.instance();
+        clone.first = true;
+        return clone;
+    }
+
+    @Override
+    public String toString() {
+        return StringFactory.stepString(this, this.sqlgRepeatStepBarrier);
+    }
+
+    @Override
+    public int hashCode() {
+        return super.hashCode() ^ this.sqlgRepeatStepBarrier.hashCode();
+    }
+}
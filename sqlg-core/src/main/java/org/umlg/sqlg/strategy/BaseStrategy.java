@@ -28,6 +28,7 @@ import org.apache.tinkerpop.gremlin.structure.T;
 import org.javatuples.Pair;
 import org.umlg.sqlg.predicate.Existence;
 import org.umlg.sqlg.predicate.FullText;
+import org.umlg.sqlg.predicate.Keyset;
 import org.umlg.sqlg.predicate.Text;
 import org.umlg.sqlg.sql.parse.AndOrHasContainer;
 import org.umlg.sqlg.sql.parse.ReplacedStep;
@@ -202,6 +203,7 @@ public abstract class BaseStrategy {
         handleOrderGlobalSteps(stepIterator, pathCount);
         handleRangeGlobalSteps(stepIterator, pathCount);
         handleConnectiveSteps(stepIterator);
+        handlePropertiesStep(stepIterator);
         //if called from ChooseStep then the VertexStep is nested inside the ChooseStep and not one of the traversal's direct steps.
         int index = TraversalHelper.stepIndex(step, this.traversal);
         if (index != -1) {
@@ -370,6 +372,31 @@ public abstract class BaseStrategy {
 
     protected abstract void replaceStepInTraversal(Step stepToReplace, SqlgStep sqlgStep);
 
+    /**
+     * If the replaced step is directly followed by a values, properties or valueMap step with property keys then only
+     * those columns need to be selected. The {@link PropertiesStep} or {@link PropertyMapStep} remains in the traversal.
+     * Accessing any other property of the element will load the element's row.
+     */
+    protected void handlePropertiesStep(ListIterator<Step<?, ?>> iterator) {
+        if (iterator.hasNext()) {
+            Step<?, ?> step = iterator.next();
+            iterator.previous();
+            String[] propertyKeys;
+            if (step instanceof PropertiesStep) {
+                propertyKeys = ((PropertiesStep<?>) step).getPropertyKeys();
+            } else if (step instanceof PropertyMapStep) {
+                propertyKeys = ((PropertyMapStep<?, ?>) step).getPropertyKeys();
+            } else {
+                return;
+            }
+            //ordering refers to the selected columns.
+            if (propertyKeys.length > 0 && this.currentReplacedStep.getDbComparators().isEmpty() &&
+                    !this.currentReplacedStep.getSqlgComparatorHolder().hasComparators()) {
+                this.currentReplacedStep.setRestrictedProperties(new HashSet<>(Arrays.asList(propertyKeys)));
+            }
+        }
+    }
+
     protected void handleHasSteps(ListIterator<Step<?, ?>> iterator, int pathCount) {
         //Collect the hasSteps
         int countToGoPrevious = 0;
@@ -393,6 +420,7 @@ public abstract class BaseStrategy {
                     toRemoveHasContainers.addAll(optimizeInside(this.currentReplacedStep, hasContainers));
                     toRemoveHasContainers.addAll(optimizeOutside(this.currentReplacedStep, hasContainers));
                     toRemoveHasContainers.addAll(optimizeTextContains(this.currentReplacedStep, hasContainers));
+                    toRemoveHasContainers.addAll(optimizeKeyset(this.currentReplacedStep, hasContainers));
                     if (toRemoveHasContainers.size() == hasContainers.size()) {
                         if (!currentStep.getLabels().isEmpty()) {
                             final IdentityStep identityStep = new IdentityStep<>(this.traversal);
@@ -710,6 +738,15 @@ public abstract class BaseStrategy {
         }
     }
 
+    /**
+     * Indicates if the sql strategies may rewrite the traversal.
+     * Only {@link SqlgGraph} traversals are optimized, StarGraph also passes through the strategies.
+     * On a graph computer the steps execute on the computer's vertices, not as sql.
+     */
+    public static boolean isSqlgTraversal(Traversal.Admin<?, ?> traversal) {
+        return traversal.getGraph().orElseThrow(IllegalStateException::new) instanceof SqlgGraph && !TraversalHelper.onGraphComputer(traversal);
+    }
+
     static boolean precedesPathOrTreeStep(Traversal.Admin<?, ?> traversal) {
         if (traversal.getParent() != null && traversal.getParent() instanceof SqlgLocalStepBarrier) {
             SqlgLocalStepBarrier sqlgLocalStepBarrier = (SqlgLocalStepBarrier) traversal.getParent();
@@ -861,6 +898,17 @@ public abstract class BaseStrategy {
         return result;
     }
 
+    private List<HasContainer> optimizeKeyset(ReplacedStep<?, ?> replacedStep, List<HasContainer> hasContainers) {
+        List<HasContainer> result = new ArrayList<>();
+        for (HasContainer hasContainer : hasContainers) {
+            if (hasContainerKeyNotIdOrLabel(hasContainer) && hasContainer.getBiPredicate() instanceof Keyset) {
+                replacedStep.addHasContainer(hasContainer);
+                result.add(hasContainer);
+            }
+        }
+        return result;
+    }
+
     private boolean containsWithMultipleColumnValue(List<Object> values) {
         for (Object value : values) {
             if (value instanceof ZonedDateTime ||
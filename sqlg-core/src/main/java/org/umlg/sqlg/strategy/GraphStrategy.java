@@ -100,6 +100,7 @@ public class GraphStrategy extends BaseStrategy {
         handleOrderGlobalSteps(stepIterator, pathCount);
         handleRangeGlobalSteps(stepIterator, pathCount);
         handleConnectiveSteps(stepIterator);
+        handlePropertiesStep(stepIterator);
         this.sqlgStep = constructSqlgStep(step);
         this.currentTreeNodeNode = this.sqlgStep.addReplacedStep(this.currentReplacedStep);
         replaceStepInTraversal(step, this.sqlgStep);
@@ -0,0 +1,158 @@
+package org.umlg.sqlg.strategy;
+
+import org.apache.commons.lang3.tuple.Pair;
+import org.apache.tinkerpop.gremlin.process.traversal.Step;
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.TraversalStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.lambda.ElementValueTraversal;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.*;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.EmptyStep;
+import org.apache.tinkerpop.gremlin.process.traversal.strategy.AbstractTraversalStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalHelper;
+import org.umlg.sqlg.sql.parse.ReplacedStep;
+import org.umlg.sqlg.step.SqlgAggregateStep;
+import org.umlg.sqlg.step.SqlgGraphStep;
+
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Replaces count(), values(key).sum(), values(key).max(), values(key).min() and values(key).mean() directly after
+ * an optimized {@link SqlgGraphStep} with a {@link SqlgAggregateStep} that lets the database do the aggregation.
+ * groupCount().by(key) and group().by(key).by(count()) or group().by(key).by(values(key).sum()) etc. are replaced
+ * with a {@link SqlgAggregateStep} that groups by the key.
+ * <p>
+ * Only root traversals are optimized. The {@link SqlgGraphStep} may not have any emit, optional, range, order or drop
+ * logic as then the rows returned by the database are not the traversers the reducing step would have seen.
+ */
+public class SqlgAggregateStrategy extends AbstractTraversalStrategy<TraversalStrategy.OptimizationStrategy> implements TraversalStrategy.OptimizationStrategy {
+
+    @Override
+    public void apply(Traversal.Admin<?, ?> traversal) {
+        if (!BaseStrategy.isSqlgTraversal(traversal)) {
+            return;
+        }
+        if (!(traversal.getParent() instanceof EmptyStep)) {
+            return;
+        }
+        if (!(traversal.getStartStep() instanceof SqlgGraphStep)) {
+            return;
+        }
+        SqlgGraphStep<?, ?> sqlgGraphStep = (SqlgGraphStep<?, ?>) traversal.getStartStep();
+        if (!sqlgGraphStep.isStartStep() || !aggregatable(sqlgGraphStep.getReplacedSteps())) {
+            return;
+        }
+        Step<?, ?> step = sqlgGraphStep.getNextStep();
+        if (step instanceof CountGlobalStep) {
+            replaceWithAggregateStep(traversal, sqlgGraphStep, SqlgAggregateStep.AGGREGATE.COUNT, null, null, Collections.singletonList(step));
+        } else if (step instanceof PropertiesStep) {
+            Pair<SqlgAggregateStep.AGGREGATE, String> aggregate = valueAggregate(step, step.getNextStep());
+            if (aggregate != null) {
+                replaceWithAggregateStep(traversal, sqlgGraphStep, aggregate.getLeft(), aggregate.getRight(), null, Arrays.asList(step, step.getNextStep()));
+            }
+        } else if (step instanceof GroupCountStep) {
+            List<? extends Traversal.Admin<?, ?>> localChildren = ((GroupCountStep<?, ?>) step).getLocalChildren();
+            if (localChildren.size() == 1 && localChildren.get(0) instanceof ElementValueTraversal) {
+                String groupByKey = ((ElementValueTraversal<?>) localChildren.get(0)).getPropertyKey();
+                replaceWithAggregateStep(traversal, sqlgGraphStep, SqlgAggregateStep.AGGREGATE.COUNT, null, groupByKey, Collections.singletonList(step));
+            }
+        } else if (step instanceof GroupStep) {
+            List<? extends Traversal.Admin<?, ?>> localChildren = ((GroupStep<?, ?, ?>) step).getLocalChildren();
+            if (localChildren.size() == 2 && localChildren.get(0) instanceof ElementValueTraversal) {
+                String groupByKey = ((ElementValueTraversal<?>) localChildren.get(0)).getPropertyKey();
+                List<Step> valueSteps = localChildren.get(1).getSteps();
+                Pair<SqlgAggregateStep.AGGREGATE, String> aggregate = null;
+                if (valueSteps.size() == 1 && valueSteps.get(0) instanceof CountGlobalStep) {
+                    aggregate = Pair.of(SqlgAggregateStep.AGGREGATE.COUNT, null);
+                } else if (valueSteps.size() == 2) {
+                    aggregate = valueAggregate(valueSteps.get(0), valueSteps.get(1));
+                }
+                if (aggregate != null) {
+                    replaceWithAggregateStep(traversal, sqlgGraphStep, aggregate.getLeft(), aggregate.getRight(), groupByKey, Collections.singletonList(step));
+                }
+            }
+        }
+    }
+
+    /**
+     * @return The aggregate and property key if the steps are values(key) followed by sum(), max(), min() or mean(),
+     * else null.
+     */
+    private static Pair<SqlgAggregateStep.AGGREGATE, String> valueAggregate(Step<?, ?> step, Step<?, ?> reducingStep) {
+        if (!(step instanceof PropertiesStep) || !step.getLabels().isEmpty()) {
+            return null;
+        }
+        PropertiesStep<?> propertiesStep = (PropertiesStep<?>) step;
+        if (propertiesStep.getReturnType() != org.apache.tinkerpop.gremlin.structure.PropertyType.VALUE || propertiesStep.getPropertyKeys().length != 1) {
+            return null;
+        }
+        SqlgAggregateStep.AGGREGATE aggregate;
+        if (reducingStep instanceof SumGlobalStep) {
+            aggregate = SqlgAggregateStep.AGGREGATE.SUM;
+        } else if (reducingStep instanceof MaxGlobalStep) {
+            aggregate = SqlgAggregateStep.AGGREGATE.MAX;
+        } else if (reducingStep instanceof MinGlobalStep) {
+            aggregate = SqlgAggregateStep.AGGREGATE.MIN;
+        } else if (reducingStep instanceof MeanGlobalStep) {
+            aggregate = SqlgAggregateStep.AGGREGATE.MEAN;
+        } else {
+            return null;
+        }
+        return Pair.of(aggregate, propertiesStep.getPropertyKeys()[0]);
+    }
+
+    private static boolean aggregatable(List<ReplacedStep<?, ?>> replacedSteps) {
+        if (replacedSteps.isEmpty()) {
+            return false;
+        }
+        for (ReplacedStep<?, ?> replacedStep : replacedSteps) {
+            if (replacedStep.isEmit() || replacedStep.isUntilFirst() || replacedStep.isLeftJoin() || replacedStep.isJoinToLeftJoin() ||
+                    replacedStep.isDrop() || replacedStep.hasRange() ||
+                    !replacedStep.getDbComparators().isEmpty() || replacedStep.getSqlgComparatorHolder().hasComparators()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void replaceWithAggregateStep(
+            Traversal.Admin<?, ?> traversal,
+            SqlgGraphStep<?, ?> sqlgGraphStep,
+            SqlgAggregateStep.AGGREGATE aggregate,
+            String propertyKey,
+            String groupByKey,
+            List<Step> stepsToReplace) {
+
+        //Only the aggregated and grouped by properties of the last step need to be selected.
+        List<ReplacedStep<?, ?>> replacedSteps = sqlgGraphStep.getReplacedSteps();
+        for (ReplacedStep<?, ?> replacedStep : replacedSteps) {
+            replacedStep.setRestrictedProperties(Collections.emptySet());
+        }
+        Set<String> restrictedProperties = new HashSet<>();
+        if (propertyKey != null) {
+            restrictedProperties.add(propertyKey);
+        }
+        if (groupByKey != null) {
+            restrictedProperties.add(groupByKey);
+        }
+        replacedSteps.get(replacedSteps.size() - 1).setRestrictedProperties(restrictedProperties);
+        SqlgAggregateStep<?, ?> sqlgAggregateStep = new SqlgAggregateStep<>(traversal, aggregate, propertyKey, groupByKey, stepsToReplace);
+        Step<?, ?> reducingStep = stepsToReplace.get(stepsToReplace.size() - 1);
+        for (String label : reducingStep.getLabels()) {
+            sqlgAggregateStep.addLabel(label);
+        }
+        for (Step<?, ?> step : stepsToReplace) {
+            traversal.removeStep(step);
+        }
+        TraversalHelper.insertAfterStep(sqlgAggregateStep, sqlgGraphStep, traversal);
+    }
+
+    @Override
+    public Set<Class<? extends OptimizationStrategy>> applyPrior() {
+        return Stream.of(
+                SqlgGraphStepStrategy.class
+        ).collect(Collectors.toSet());
+    }
+
+}
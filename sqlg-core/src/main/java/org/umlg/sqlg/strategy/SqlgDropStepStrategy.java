@@ -7,7 +7,6 @@ import org.apache.tinkerpop.gremlin.process.traversal.strategy.AbstractTraversal
 import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalHelper;
 import org.umlg.sqlg.step.barrier.SqlgDropStepBarrier;
 import org.umlg.sqlg.strategy.barrier.SqlgVertexStepStrategy;
-import org.umlg.sqlg.structure.SqlgGraph;
 
 import java.util.Optional;
 import java.util.Set;
@@ -22,7 +21,7 @@ public class SqlgDropStepStrategy extends AbstractTraversalStrategy<TraversalStr
 
     @Override
     public void apply(Traversal.Admin traversal) {
-        if (!(traversal.getGraph().get() instanceof SqlgGraph)) {
+        if (!BaseStrategy.isSqlgTraversal(traversal)) {
             return;
         }
         Optional<DropStep> dropStepOptional = TraversalHelper.getLastStepOfAssignableClass(DropStep.class, traversal);
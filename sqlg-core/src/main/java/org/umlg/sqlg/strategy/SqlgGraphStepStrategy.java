@@ -5,7 +5,6 @@ import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
 import org.apache.tinkerpop.gremlin.process.traversal.TraversalStrategy;
 import org.apache.tinkerpop.gremlin.process.traversal.strategy.AbstractTraversalStrategy;
 import org.apache.tinkerpop.gremlin.process.traversal.strategy.optimization.*;
-import org.umlg.sqlg.structure.SqlgGraph;
 
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -23,7 +22,7 @@ public class SqlgGraphStepStrategy extends AbstractTraversalStrategy<TraversalSt
 
     @Override
     public void apply(final Traversal.Admin<?, ?> traversal) {
-        if (!(traversal.getGraph().get() instanceof SqlgGraph)) {
+        if (!BaseStrategy.isSqlgTraversal(traversal)) {
             return;
         }
         GraphStrategy.from(traversal).apply();
@@ -29,7 +29,7 @@ public class SqlgHasStepStrategy extends AbstractTraversalStrategy<TraversalStra
     public void apply(final Traversal.Admin<?, ?> traversal) {
         //Only optimize SqlgGraph. StarGraph also passes through here.
         //noinspection OptionalGetWithoutIsPresent
-        if (!(traversal.getGraph().get() instanceof SqlgGraph)) {
+        if (!BaseStrategy.isSqlgTraversal(traversal)) {
             return;
         }
         List<HasStep> hasSteps = TraversalHelper.getStepsOfAssignableClass(HasStep.class, traversal);
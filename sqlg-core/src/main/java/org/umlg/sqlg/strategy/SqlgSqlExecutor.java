@@ -7,7 +7,11 @@ import org.apache.tinkerpop.gremlin.process.traversal.step.util.event.Event;
 import org.apache.tinkerpop.gremlin.process.traversal.step.util.event.EventCallback;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.umlg.sqlg.sql.dialect.SqlDialect;
+import org.umlg.sqlg.sql.parse.ParallelQuery;
 import org.umlg.sqlg.sql.parse.SchemaTableTree;
+import org.umlg.sqlg.sql.parse.UnionPart;
+import org.umlg.sqlg.structure.PropertyType;
 import org.umlg.sqlg.structure.SchemaTable;
 import org.umlg.sqlg.structure.SqlgEdge;
 import org.umlg.sqlg.structure.SqlgGraph;
@@ -17,6 +21,7 @@ import org.umlg.sqlg.util.SqlgUtil;
 import java.sql.*;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 /**
@@ -94,6 +99,171 @@ public class SqlgSqlExecutor {
         return executeQuery(sqlgGraph, sql, leftJoinQuery);
     }
 
+    /**
+     * Executes the aggregate sql of every distinct query as one 'UNION ALL' statement.
+     * The PreparedStatement must be given back via {@link org.umlg.sqlg.structure.SqlgTransaction#releasePreparedStatement(PreparedStatement)}
+     */
+    public static Triple<ResultSet, ResultSetMetaData, PreparedStatement> executeAggregateQuery(
+            SqlgGraph sqlgGraph,
+            List<Pair<String, LinkedList<SchemaTableTree>>> aggregateQueries) {
+
+        Preconditions.checkArgument(!aggregateQueries.isEmpty(), "There must be at least one aggregate query");
+        if (sqlgGraph.tx().isInBatchMode()) {
+            sqlgGraph.tx().flush();
+        }
+        StringBuilder sql = new StringBuilder();
+        for (Pair<String, LinkedList<SchemaTableTree>> aggregateQuery : aggregateQueries) {
+            Preconditions.checkState(aggregateQuery.getRight().peekFirst().getStepType() == SchemaTableTree.STEP_TYPE.GRAPH_STEP);
+            if (sql.length() > 0) {
+                sql.append("\nUNION ALL\n");
+            }
+            sql.append(aggregateQuery.getLeft());
+        }
+        if (logger.isDebugEnabled()) {
+            logger.debug(sql.toString());
+        }
+        try {
+            PreparedStatement preparedStatement = sqlgGraph.tx().prepareStatement(sql.toString());
+            int parameterCount = 1;
+            for (Pair<String, LinkedList<SchemaTableTree>> aggregateQuery : aggregateQueries) {
+                parameterCount = SqlgUtil.setParametersOnStatement(sqlgGraph, aggregateQuery.getRight(), preparedStatement, parameterCount);
+            }
+            ResultSet resultSet = preparedStatement.executeQuery();
+            ResultSetMetaData resultSetMetaData = resultSet.getMetaData();
+            return Triple.of(resultSet, resultSetMetaData, preparedStatement);
+        } catch (SQLException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Executes the regular sql of the parts as one 'UNION ALL' statement, see {@link #unionAllSql(SqlDialect, List)}.
+     * The PreparedStatement must be given back via {@link org.umlg.sqlg.structure.SqlgTransaction#releasePreparedStatement(PreparedStatement)}
+     */
+    public static Triple<ResultSet, ResultSetMetaData, PreparedStatement> executeUnionQuery(SqlgGraph sqlgGraph, List<UnionPart> unionParts) {
+        Preconditions.checkArgument(!unionParts.isEmpty(), "There must be at least one union part");
+        if (sqlgGraph.tx().isInBatchMode()) {
+            sqlgGraph.tx().flush();
+        }
+        boolean parentIndex = unionParts.get(0).hasParentIndex();
+        String sql = unionAllSql(sqlgGraph.getSqlDialect(), unionParts);
+        if (logger.isDebugEnabled()) {
+            logger.debug(sql);
+        }
+        try {
+            PreparedStatement preparedStatement;
+            if (!parentIndex) {
+                preparedStatement = sqlgGraph.tx().prepareStatement(sql);
+            } else {
+                preparedStatement = sqlgGraph.tx().getConnection().prepareStatement(sql);
+                sqlgGraph.tx().add(preparedStatement);
+            }
+            int parameterCount = 1;
+            for (UnionPart unionPart : unionParts) {
+                parameterCount = SqlgUtil.setParametersOnStatement(sqlgGraph, unionPart.getDistinctQueryStack(), preparedStatement, parameterCount);
+            }
+            if (sqlgGraph.tx().getFetchSize() != null) {
+                preparedStatement.setFetchSize(sqlgGraph.tx().getFetchSize());
+            }
+            ResultSet resultSet = preparedStatement.executeQuery();
+            ResultSetMetaData resultSetMetaData = resultSet.getMetaData();
+            return Triple.of(resultSet, resultSetMetaData, preparedStatement);
+        } catch (SQLException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Prepares the regular sql of the query on one of the transaction's parallel query connections.
+     * It is executed on another thread, see {@link org.umlg.sqlg.structure.SqlgTransaction#setParallelQueries(boolean)}.
+     * The statement is not cached, it is closed when given back to the transaction.
+     */
+    public static PreparedStatement prepareParallelQuery(SqlgGraph sqlgGraph, Connection connection, ParallelQuery parallelQuery) {
+        if (logger.isDebugEnabled()) {
+            logger.debug(parallelQuery.getSql());
+        }
+        try {
+            PreparedStatement preparedStatement = connection.prepareStatement(parallelQuery.getSql());
+            try {
+                SqlgUtil.setParametersOnStatement(sqlgGraph, parallelQuery.getDistinctQueryStack(), preparedStatement, 1);
+                if (sqlgGraph.tx().getFetchSize() != null) {
+                    preparedStatement.setFetchSize(sqlgGraph.tx().getFetchSize());
+                }
+            } catch (SQLException | RuntimeException e) {
+                preparedStatement.close();
+                throw e;
+            }
+            return preparedStatement;
+        } catch (SQLException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Every part selects its own columns and NULL for the columns of the other parts, see {@link SqlDialect#unionAllNullColumn(PropertyType, int)}.
+     * The 'part' column, see {@link #unionAllPartColumn(List)}, holds the part's number to tell the rows apart.
+     * For a SqlgVertexStep the first column is the parent's index and the rows are ordered by part and index,
+     * i.e. as if the parts were executed one after the other.
+     *
+     * @return The sql of the parts as one 'UNION ALL' statement.
+     */
+    public static String unionAllSql(SqlDialect sqlDialect, List<UnionPart> unionParts) {
+        boolean parentIndex = unionParts.get(0).hasParentIndex();
+        StringBuilder sql = new StringBuilder();
+        for (UnionPart unionPart : unionParts) {
+            Preconditions.checkState(unionPart.hasParentIndex() == parentIndex, "BUG: all the union parts must be for the same step");
+            if (sql.length() > 0) {
+                sql.append("\nUNION ALL");
+            }
+            String partAlias = sqlDialect.maybeWrapInQoutes("u" + unionPart.getPart());
+            sql.append("\nSELECT\n\t");
+            if (parentIndex) {
+                sql.append(partAlias);
+                sql.append(".");
+                sql.append(sqlDialect.maybeWrapInQoutes("index"));
+                sql.append(" AS ");
+                sql.append(sqlDialect.maybeWrapInQoutes("index"));
+                sql.append(",\n\t");
+            }
+            sql.append(unionPart.getPart());
+            sql.append(" AS ");
+            sql.append(sqlDialect.maybeWrapInQoutes("part"));
+            for (UnionPart columnsUnionPart : unionParts) {
+                for (Map.Entry<String, String> column : columnsUnionPart.getColumns().entrySet()) {
+                    sql.append(",\n\t");
+                    if (columnsUnionPart == unionPart) {
+                        sql.append(partAlias);
+                        sql.append(".");
+                        sql.append(sqlDialect.maybeWrapInQoutes(column.getKey()));
+                    } else {
+                        Pair<PropertyType, Integer> columnType = columnsUnionPart.getColumnType(column.getValue());
+                        sql.append(sqlDialect.unionAllNullColumn(columnType.getLeft(), columnType.getRight()));
+                    }
+                    sql.append(" AS ");
+                    sql.append(sqlDialect.maybeWrapInQoutes(column.getValue()));
+                }
+            }
+            sql.append("\nFROM (");
+            sql.append(unionPart.getSql());
+            sql.append("\n) ");
+            sql.append(partAlias);
+        }
+        if (parentIndex) {
+            sql.append("\nORDER BY\n\t");
+            sql.append(sqlDialect.maybeWrapInQoutes("part"));
+            sql.append(",\n\t");
+            sql.append(sqlDialect.maybeWrapInQoutes("index"));
+        }
+        return sql.toString();
+    }
+
+    /**
+     * @return The index of the 'part' column in the rows of {@link #unionAllSql(SqlDialect, List)}.
+     */
+    public static int unionAllPartColumn(List<UnionPart> unionParts) {
+        return unionParts.get(0).hasParentIndex() ? 2 : 1;
+    }
+
     private static Triple<ResultSet, ResultSetMetaData, PreparedStatement> executeQuery(SqlgGraph sqlgGraph, String sql, LinkedList<SchemaTableTree> distinctQueryStack) {
         if (sqlgGraph.tx().isInBatchMode()) {
             sqlgGraph.tx().flush();
@@ -130,8 +300,15 @@ public class SqlgSqlExecutor {
 //            		logger.warn(sqle.getMessage());
 //            	}
 //            }
-            PreparedStatement preparedStatement = conn.prepareStatement(sql);
-            sqlgGraph.tx().add(preparedStatement);
+            PreparedStatement preparedStatement;
+            if (distinctQueryStack.peekFirst().getStepType() == SchemaTableTree.STEP_TYPE.GRAPH_STEP) {
+                //The sql has no literal start ids in it, reuse the statement.
+                //It is given back to the cache when the ResultSet is exhausted.
+                preparedStatement = sqlgGraph.tx().prepareStatement(sql);
+            } else {
+                preparedStatement = conn.prepareStatement(sql);
+                sqlgGraph.tx().add(preparedStatement);
+            }
             int parameterCount = 1;
             SqlgUtil.setParametersOnStatement(sqlgGraph, distinctQueryStack, preparedStatement, parameterCount);
             // https://jdbc.postgresql.org/documentation/head/query.html#query-with-cursor
@@ -32,7 +32,7 @@ public class SqlgWhereStrategy extends AbstractTraversalStrategy<TraversalStrate
 	@SuppressWarnings("resource")
 	@Override
 	public void apply(Admin<?, ?> traversal) {
-		if (!(traversal.getGraph().get() instanceof SqlgGraph)) {
+		if (!BaseStrategy.isSqlgTraversal(traversal)) {
             return;
         }
         SqlgGraph sqlgGraph = (SqlgGraph) traversal.getGraph().get();
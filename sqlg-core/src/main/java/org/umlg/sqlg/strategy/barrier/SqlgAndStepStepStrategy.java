@@ -7,6 +7,7 @@ import org.apache.tinkerpop.gremlin.process.traversal.step.util.ReducingBarrierS
 import org.apache.tinkerpop.gremlin.process.traversal.strategy.AbstractTraversalStrategy;
 import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalHelper;
 import org.umlg.sqlg.step.barrier.SqlgAndStepBarrier;
+import org.umlg.sqlg.strategy.BaseStrategy;
 import org.umlg.sqlg.structure.SqlgGraph;
 
 import java.util.Collection;
@@ -29,7 +30,7 @@ public class SqlgAndStepStepStrategy<S> extends AbstractTraversalStrategy<Traver
     public void apply(final Traversal.Admin<?, ?> traversal) {
         //Only optimize SqlgGraph. StarGraph also passes through here.
         //noinspection OptionalGetWithoutIsPresent
-        if (!(traversal.getGraph().get() instanceof SqlgGraph)) {
+        if (!BaseStrategy.isSqlgTraversal(traversal)) {
             return;
         }
         List<AndStep> andSteps = TraversalHelper.getStepsOfAssignableClass(AndStep.class, traversal);
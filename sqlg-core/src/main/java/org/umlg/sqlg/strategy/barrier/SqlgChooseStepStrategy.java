@@ -11,6 +11,7 @@ import org.apache.tinkerpop.gremlin.process.traversal.strategy.optimization.*;
 import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalHelper;
 import org.umlg.sqlg.step.barrier.SqlgBranchStepBarrier;
 import org.umlg.sqlg.step.barrier.SqlgChooseStepBarrier;
+import org.umlg.sqlg.strategy.BaseStrategy;
 import org.umlg.sqlg.structure.SqlgGraph;
 
 import java.lang.reflect.Field;
@@ -34,7 +35,7 @@ public class SqlgChooseStepStrategy<M, S, E> extends AbstractTraversalStrategy<T
     public void apply(final Traversal.Admin<?, ?> traversal) {
         //Only optimize SqlgGraph. StarGraph also passes through here.
         //noinspection OptionalGetWithoutIsPresent
-        if (!(traversal.getGraph().get() instanceof SqlgGraph)) {
+        if (!BaseStrategy.isSqlgTraversal(traversal)) {
             return;
         }
         List<ChooseStep> chooseSteps = TraversalHelper.getStepsOfAssignableClass(ChooseStep.class, traversal);
@@ -8,6 +8,7 @@ import org.apache.tinkerpop.gremlin.process.traversal.strategy.AbstractTraversal
 import org.apache.tinkerpop.gremlin.process.traversal.strategy.optimization.CountStrategy;
 import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalHelper;
 import org.umlg.sqlg.step.barrier.SqlgNotStepBarrier;
+import org.umlg.sqlg.strategy.BaseStrategy;
 import org.umlg.sqlg.structure.SqlgGraph;
 
 import java.util.List;
@@ -29,7 +30,7 @@ public class SqlgNotStepStepStrategy<S> extends AbstractTraversalStrategy<Traver
     public void apply(final Traversal.Admin<?, ?> traversal) {
         //Only optimize SqlgGraph. StarGraph also passes through here.
         //noinspection OptionalGetWithoutIsPresent
-        if (!(traversal.getGraph().get() instanceof SqlgGraph)) {
+        if (!BaseStrategy.isSqlgTraversal(traversal)) {
             return;
         }
         List<NotStep> notSteps = TraversalHelper.getStepsOfAssignableClass(NotStep.class, traversal);
@@ -7,11 +7,14 @@ import org.apache.tinkerpop.gremlin.process.traversal.TraversalStrategy;
 import org.apache.tinkerpop.gremlin.process.traversal.step.branch.RepeatStep;
 import org.apache.tinkerpop.gremlin.process.traversal.step.filter.RangeGlobalStep;
 import org.apache.tinkerpop.gremlin.process.traversal.step.filter.SampleGlobalStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.EmptyStep;
 import org.apache.tinkerpop.gremlin.process.traversal.step.util.ReducingBarrierStep;
 import org.apache.tinkerpop.gremlin.process.traversal.strategy.AbstractTraversalStrategy;
 import org.apache.tinkerpop.gremlin.process.traversal.strategy.optimization.CountStrategy;
 import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalHelper;
+import org.umlg.sqlg.step.barrier.SqlgRecursiveRepeatStepBarrier;
 import org.umlg.sqlg.step.barrier.SqlgRepeatStepBarrier;
+import org.umlg.sqlg.strategy.BaseStrategy;
 import org.umlg.sqlg.strategy.SqlgGraphStepStrategy;
 import org.umlg.sqlg.strategy.SqlgRangeHolder;
 import org.umlg.sqlg.structure.SqlgGraph;
@@ -37,7 +40,7 @@ public class SqlgRepeatStepStrategy extends AbstractTraversalStrategy<TraversalS
     public void apply(final Traversal.Admin<?, ?> traversal) {
         //Only optimize SqlgGraph. StarGraph also passes through here.
         //noinspection OptionalGetWithoutIsPresent
-        if (!(traversal.getGraph().orElseThrow(IllegalStateException::new) instanceof SqlgGraph)) {
+        if (!BaseStrategy.isSqlgTraversal(traversal)) {
             return;
         }
         while (true) {
@@ -71,13 +74,29 @@ public class SqlgRepeatStepStrategy extends AbstractTraversalStrategy<TraversalS
                     }
                 }
 
+                int indexOfRepeatStep = traversal.getSteps().indexOf(repeatStep);
+                boolean followedByRange = (traversal.getSteps().size() > indexOfRepeatStep + 1) && traversal.getSteps().get(indexOfRepeatStep + 1) instanceof RangeGlobalStep;
+
+                //Walking a hierarchy is done in one recursive query.
+                if (!followedByRange &&
+                        traversal.getParent() instanceof EmptyStep &&
+                        ((SqlgGraph) traversal.getGraph().get()).getSqlDialect().supportsRecursiveQueries() &&
+                        SqlgRecursiveRepeatStepBarrier.isRecursive(repeatStep)) {
+
+                    SqlgRecursiveRepeatStepBarrier<?> sqlgRecursiveRepeatStepBarrier = new SqlgRecursiveRepeatStepBarrier<>(traversal, repeatStep);
+                    for (String label : repeatStep.getLabels()) {
+                        sqlgRecursiveRepeatStepBarrier.addLabel(label);
+                    }
+                    TraversalHelper.replaceStep((Step) repeatStep, sqlgRecursiveRepeatStepBarrier, traversal);
+                    continue;
+                }
+
                 SqlgRepeatStepBarrier<?> sqlgRepeatStepBarrier = new SqlgRepeatStepBarrier<>(traversal, repeatStep);
                 for (String label : repeatStep.getLabels()) {
                     sqlgRepeatStepBarrier.addLabel(label);
                 }
 
-                int indexOfRepeatStep = traversal.getSteps().indexOf(repeatStep);
-                if ((traversal.getSteps().size() > indexOfRepeatStep + 1) && traversal.getSteps().get(indexOfRepeatStep + 1) instanceof RangeGlobalStep) {
+                if (followedByRange) {
                     RangeGlobalStep<?> rgs = (RangeGlobalStep<?>) traversal.getSteps().get(indexOfRepeatStep + 1);
                     long high = rgs.getHighRange();
                     if (high == -1) {
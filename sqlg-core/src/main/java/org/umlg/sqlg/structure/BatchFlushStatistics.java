@@ -0,0 +1,71 @@
+package org.umlg.sqlg.structure;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counts the flushes of the {@link BatchManager}'s caches in normal batch mode, over all transactions of a graph.
+ * A flush happens on commit, on {@link SqlgTransaction#flush()} or automatically when a cache reaches the size
+ * configured with {@link BatchManager#BATCH_FLUSH_SIZE} or {@link BatchManager#BATCH_FLUSH_BYTES}.
+ */
+public class BatchFlushStatistics {
+
+    private final AtomicLong flushCount = new AtomicLong();
+    private final AtomicLong automaticFlushCount = new AtomicLong();
+    private final AtomicLong flushedRowCount = new AtomicLong();
+    private final AtomicLong flushNanos = new AtomicLong();
+
+    void flushed(long rows, long nanos) {
+        this.flushCount.incrementAndGet();
+        this.flushedRowCount.addAndGet(rows);
+        this.flushNanos.addAndGet(nanos);
+    }
+
+    void automaticFlush() {
+        this.automaticFlushCount.incrementAndGet();
+    }
+
+    public long getFlushCount() {
+        return this.flushCount.get();
+    }
+
+    /**
+     * @return the number of flushes that happened because a cache reached its configured size.
+     */
+    public long getAutomaticFlushCount() {
+        return this.automaticFlushCount.get();
+    }
+
+    /**
+     * @return the number of inserted, updated and removed elements written by all the flushes.
+     */
+    public long getFlushedRowCount() {
+        return this.flushedRowCount.get();
+    }
+
+    public double getAverageRowsPerFlush() {
+        long count = this.flushCount.get();
+        return count == 0 ? 0d : (double) this.flushedRowCount.get() / count;
+    }
+
+    public long getFlushMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(this.flushNanos.get());
+    }
+
+    public double getAverageFlushMillis() {
+        long count = this.flushCount.get();
+        return count == 0 ? 0d : (double) getFlushMillis() / count;
+    }
+
+    public void reset() {
+        this.flushCount.set(0);
+        this.automaticFlushCount.set(0);
+        this.flushedRowCount.set(0);
+        this.flushNanos.set(0);
+    }
+
+    @Override
+    public String toString() {
+        return "flushes: " + getFlushCount() + ", automatic: " + getAutomaticFlushCount() + ", rows: " + getFlushedRowCount() + ", ms: " + getFlushMillis();
+    }
+}
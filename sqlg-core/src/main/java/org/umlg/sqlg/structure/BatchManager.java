@@ -4,9 +4,10 @@ import org.apache.commons.lang3.tuple.Pair;
 import org.apache.commons.lang3.tuple.Triple;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
 import org.umlg.sqlg.sql.dialect.SqlBulkDialect;
+import org.umlg.sqlg.sql.dialect.StreamingSink;
 
 import java.io.IOException;
-import java.io.Writer;
+import java.lang.reflect.Array;
 import java.util.*;
 
 import static org.umlg.sqlg.structure.topology.Topology.EDGE_PREFIX;
@@ -18,6 +19,16 @@ import static org.umlg.sqlg.structure.topology.Topology.VERTEX_PREFIX;
  */
 public class BatchManager {
 
+    /**
+     * In normal batch mode the caches are flushed when a label's new vertices or edges reach this count, 0, the default, disables it.
+     */
+    public static final String BATCH_FLUSH_SIZE = "batch.flush.size";
+    /**
+     * In normal batch mode the caches are flushed when the estimated size in bytes of a label's new vertices or edges
+     * reaches this size, 0 disables it.
+     */
+    public static final String BATCH_FLUSH_BYTES = "batch.flush.bytes";
+
     private SqlgGraph sqlgGraph;
     private SqlBulkDialect sqlDialect;
 
@@ -36,8 +47,8 @@ public class BatchManager {
     //map per label's edges to delete
     private Map<SchemaTable, List<SqlgEdge>> removeEdgeCache = new LinkedHashMap<>();
 
-    private Map<SchemaTable, Writer> streamingVertexOutputStreamCache = new LinkedHashMap<>();
-    private Map<SchemaTable, Writer> streamingEdgeOutputStreamCache = new LinkedHashMap<>();
+    private Map<SchemaTable, StreamingSink> streamingVertexOutputStreamCache = new LinkedHashMap<>();
+    private Map<SchemaTable, StreamingSink> streamingEdgeOutputStreamCache = new LinkedHashMap<>();
 
     //indicates what is being streamed
     private SchemaTable streamingBatchModeVertexSchemaTable;
@@ -49,15 +60,25 @@ public class BatchManager {
     private long batchIndex;
     private boolean isBusyFlushing;
 
+    private final int flushSize;
+    private final long flushBytes;
+    private final BatchFlushStatistics batchFlushStatistics;
+    //The estimated size of the new vertices and edges per SchemaTable and MetaEdge, only maintained if flushBytes is set.
+    private Map<SchemaTable, Long> vertexCacheBytes = new HashMap<>();
+    private Map<MetaEdge, Long> edgeCacheBytes = new HashMap<>();
+
     public enum BatchModeType {
         NONE, NORMAL, STREAMING, STREAMING_WITH_LOCK
     }
 
     private BatchModeType batchModeType = BatchModeType.NONE;
 
-    BatchManager(SqlgGraph sqlgGraph, SqlBulkDialect sqlDialect) {
+    BatchManager(SqlgGraph sqlgGraph, SqlBulkDialect sqlDialect, BatchFlushStatistics batchFlushStatistics) {
         this.sqlgGraph = sqlgGraph;
         this.sqlDialect = sqlDialect;
+        this.batchFlushStatistics = batchFlushStatistics;
+        this.flushSize = sqlgGraph.getConfiguration().getInt(BATCH_FLUSH_SIZE, 0);
+        this.flushBytes = sqlgGraph.getConfiguration().getLong(BATCH_FLUSH_BYTES, 0L);
     }
 
     public boolean isInNormalMode() {
@@ -86,13 +107,13 @@ public class BatchManager {
 
     void addTemporaryVertex(SqlgVertex sqlgVertex, Map<String, Object> keyValueMap) {
         SchemaTable schemaTable = SchemaTable.of(sqlgVertex.getSchema(), sqlgVertex.getTable());
-        Writer writer = this.streamingVertexOutputStreamCache.get(schemaTable);
-        if (writer == null) {
+        StreamingSink sink = this.streamingVertexOutputStreamCache.get(schemaTable);
+        if (sink == null) {
             String sql = this.sqlDialect.constructCompleteCopyCommandTemporarySqlVertex(sqlgGraph, sqlgVertex, keyValueMap);
-            writer = this.sqlDialect.streamSql(this.sqlgGraph, sql);
-            this.streamingVertexOutputStreamCache.put(schemaTable, writer);
+            sink = this.sqlDialect.streamSql(this.sqlgGraph, sql);
+            this.streamingVertexOutputStreamCache.put(schemaTable, sink);
         }
-        this.sqlDialect.writeStreamingVertex(writer, keyValueMap);
+        this.sqlDialect.writeStreamingVertex(sink, keyValueMap);
 
     }
 
@@ -108,6 +129,8 @@ public class BatchManager {
                 pairs.getLeft().addAll(keyValueMap.keySet());
                 pairs.getRight().put(sqlgVertex, keyValueMap);
             }
+            long bytes = this.flushBytes > 0 ? this.vertexCacheBytes.merge(schemaTable, estimateBytes(keyValueMap), Long::sum) : 0L;
+            flushIfFull(pairs.getRight().size(), bytes);
         } else {
             if (this.streamingBatchModeVertexSchemaTable == null) {
                 this.streamingBatchModeVertexSchemaTable = sqlgVertex.getSchemaTable();
@@ -126,13 +149,13 @@ public class BatchManager {
             if (this.isInStreamingModeWithLock()) {
                 sqlgVertex.setInternalPrimaryKey(RecordId.from(schemaTable, ++this.batchIndex));
             }
-            Writer writer = this.streamingVertexOutputStreamCache.get(schemaTable);
-            if (writer == null) {
+            StreamingSink sink = this.streamingVertexOutputStreamCache.get(schemaTable);
+            if (sink == null) {
                 String sql = this.sqlDialect.constructCompleteCopyCommandSqlVertex(sqlgGraph, sqlgVertex, keyValueMap);
-                writer = this.sqlDialect.streamSql(this.sqlgGraph, sql);
-                this.streamingVertexOutputStreamCache.put(schemaTable, writer);
+                sink = this.sqlDialect.streamSql(this.sqlgGraph, sql);
+                this.streamingVertexOutputStreamCache.put(schemaTable, sink);
             }
-            this.sqlDialect.writeStreamingVertex(writer, keyValueMap);
+            this.sqlDialect.writeStreamingVertex(sink, keyValueMap);
             if (this.isInStreamingModeWithLock()) {
                 this.batchCount++;
             }
@@ -152,6 +175,8 @@ public class BatchManager {
                 triples.getLeft().addAll(keyValueMap.keySet());
                 triples.getRight().put(sqlgEdge, Triple.of(outVertex, inVertex, keyValueMap));
             }
+            long bytes = this.flushBytes > 0 ? this.edgeCacheBytes.merge(metaEdge, estimateBytes(keyValueMap), Long::sum) : 0L;
+            flushIfFull(triples.getRight().size(), bytes);
         } else {
             if (this.streamingBatchModeEdgeSchemaTable == null) {
                 this.streamingBatchModeEdgeSchemaTable = sqlgEdge.getSchemaTablePrefixed();
@@ -170,14 +195,14 @@ public class BatchManager {
             if (this.isInStreamingModeWithLock()) {
                 sqlgEdge.setInternalPrimaryKey(RecordId.from(outSchemaTable, ++this.batchIndex));
             }
-            Writer writer = this.streamingEdgeOutputStreamCache.get(outSchemaTable);
-            if (writer == null) {
+            StreamingSink sink = this.streamingEdgeOutputStreamCache.get(outSchemaTable);
+            if (sink == null) {
                 String sql = this.sqlDialect.constructCompleteCopyCommandSqlEdge(sqlgGraph, sqlgEdge, outVertex, inVertex, keyValueMap);
-                writer = this.sqlDialect.streamSql(this.sqlgGraph, sql);
-                this.streamingEdgeOutputStreamCache.put(outSchemaTable, writer);
+                sink = this.sqlDialect.streamSql(this.sqlgGraph, sql);
+                this.streamingEdgeOutputStreamCache.put(outSchemaTable, sink);
             }
             try {
-                this.sqlDialect.writeStreamingEdge(writer, sqlgEdge, outVertex, inVertex, keyValueMap);
+                this.sqlDialect.writeStreamingEdge(sink, sqlgEdge, outVertex, inVertex, keyValueMap);
                 if (this.isInStreamingModeWithLock()) {
                     this.batchCount++;
                 }
@@ -187,7 +212,58 @@ public class BatchManager {
         }
     }
 
+    private void flushIfFull(int count, long bytes) {
+        if ((this.flushSize > 0 && count >= this.flushSize) || (this.flushBytes > 0 && bytes >= this.flushBytes)) {
+            this.batchFlushStatistics.automaticFlush();
+            flush();
+        }
+    }
+
+    /**
+     * A rough estimate of the heap used by an element's properties, it only needs to grow in proportion to it.
+     */
+    private static long estimateBytes(Map<String, Object> keyValueMap) {
+        long bytes = 64;
+        for (Map.Entry<String, Object> entry : keyValueMap.entrySet()) {
+            bytes += 32 + 2L * entry.getKey().length();
+            Object value = entry.getValue();
+            if (value instanceof String) {
+                bytes += 40 + 2L * ((String) value).length();
+            } else if (value != null && value.getClass().isArray()) {
+                bytes += 16 + 8L * Array.getLength(value);
+            } else {
+                bytes += 16;
+            }
+        }
+        return bytes;
+    }
+
+    private long cachedRowCount() {
+        long rows = 0;
+        for (Pair<SortedSet<String>, Map<SqlgVertex, Map<String, Object>>> vertices : this.vertexCache.values()) {
+            rows += vertices.getRight().size();
+        }
+        for (Pair<SortedSet<String>, Map<SqlgEdge, Triple<SqlgVertex, SqlgVertex, Map<String, Object>>>> edges : this.edgeCache.values()) {
+            rows += edges.getRight().size();
+        }
+        for (Pair<SortedSet<String>, Map<SqlgVertex, Map<String, Object>>> vertices : this.vertexPropertyCache.values()) {
+            rows += vertices.getRight().size();
+        }
+        for (Pair<SortedSet<String>, Map<SqlgEdge, Map<String, Object>>> edges : this.edgePropertyCache.values()) {
+            rows += edges.getRight().size();
+        }
+        for (List<SqlgVertex> vertices : this.removeVertexCache.values()) {
+            rows += vertices.size();
+        }
+        for (List<SqlgEdge> edges : this.removeEdgeCache.values()) {
+            rows += edges.size();
+        }
+        return rows;
+    }
+
     public void flush() {
+        long start = System.nanoTime();
+        long rows = cachedRowCount();
         this.isBusyFlushing = true;
         this.sqlDialect.flushVertexCache(this.sqlgGraph, this.vertexCache);
         this.sqlDialect.flushEdgeCache(this.sqlgGraph, this.edgeCache);
@@ -203,6 +279,9 @@ public class BatchManager {
         this.sqlDialect.flushEdgeGlobalUniqueIndexPropertyCache(this.sqlgGraph, this.edgePropertyCache);
         this.sqlDialect.flushRemovedGlobalUniqueIndexVertices(this.sqlgGraph, this.removeVertexCache);
         this.clear();
+        if (rows > 0) {
+            this.batchFlushStatistics.flushed(rows, System.nanoTime() - start);
+        }
     }
 
     public void close() {
@@ -333,6 +412,8 @@ public class BatchManager {
         this.removeVertexCache.clear();
         this.edgePropertyCache.clear();
         this.vertexPropertyCache.clear();
+        this.vertexCacheBytes.clear();
+        this.edgeCacheBytes.clear();
     }
 
     void removeVertex(String schema, String table, SqlgVertex vertex) {
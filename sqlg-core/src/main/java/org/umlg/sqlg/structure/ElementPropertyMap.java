@@ -0,0 +1,165 @@
+package org.umlg.sqlg.structure;
+
+import java.util.*;
+
+/**
+ * The property values of an element, stored in an array indexed by its label's {@link PropertyLayout}.
+ * This replaces a hash map per element, which for traversals returning many elements is most of their heap.
+ * <p>
+ * Like the {@link java.util.concurrent.ConcurrentHashMap} it replaces, null values are not allowed,
+ * multiple threads may read and write the same element and iteration is weakly consistent.
+ */
+final class ElementPropertyMap extends AbstractMap<String, Object> {
+
+    private static final Object[] EMPTY = new Object[0];
+
+    private final PropertyLayout layout;
+    private volatile Object[] values = EMPTY;
+
+    ElementPropertyMap(PropertyLayout layout) {
+        this.layout = layout;
+    }
+
+    @Override
+    public Object get(Object key) {
+        if (!(key instanceof String)) {
+            return null;
+        }
+        int slot = this.layout.slot((String) key);
+        Object[] values = this.values;
+        return slot != -1 && slot < values.length ? values[slot] : null;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return get(key) != null;
+    }
+
+    @Override
+    public synchronized Object put(String key, Object value) {
+        Objects.requireNonNull(key, "key may not be null");
+        Objects.requireNonNull(value, "value may not be null");
+        return putSlot(this.layout.slotOrAdd(key), value);
+    }
+
+    /**
+     * Puts the value of the property in the layout's slot, for loaders that resolved the slot upfront, see {@link RowDecoder}.
+     */
+    synchronized Object putSlot(int slot, Object value) {
+        Object[] values = this.values;
+        if (slot >= values.length) {
+            values = Arrays.copyOf(values, this.layout.size());
+        }
+        Object previous = values[slot];
+        values[slot] = value;
+        this.values = values;
+        return previous;
+    }
+
+    PropertyLayout layout() {
+        return this.layout;
+    }
+
+    @Override
+    public synchronized Object remove(Object key) {
+        if (!(key instanceof String)) {
+            return null;
+        }
+        int slot = this.layout.slot((String) key);
+        Object[] values = this.values;
+        if (slot == -1 || slot >= values.length) {
+            return null;
+        }
+        Object previous = values[slot];
+        values[slot] = null;
+        this.values = values;
+        return previous;
+    }
+
+    @Override
+    public synchronized void clear() {
+        this.values = EMPTY;
+    }
+
+    @Override
+    public int size() {
+        int size = 0;
+        for (Object value : this.values) {
+            if (value != null) {
+                size++;
+            }
+        }
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        for (Object value : this.values) {
+            if (value != null) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public Set<Entry<String, Object>> entrySet() {
+        return new AbstractSet<Entry<String, Object>>() {
+            @Override
+            public Iterator<Entry<String, Object>> iterator() {
+                return new EntryIterator(ElementPropertyMap.this.values);
+            }
+
+            @Override
+            public int size() {
+                return ElementPropertyMap.this.size();
+            }
+        };
+    }
+
+    private final class EntryIterator implements Iterator<Entry<String, Object>> {
+
+        private final Object[] values;
+        private int next = -1;
+        //read once, the array may be written to concurrently.
+        private Object nextValue;
+        private String lastKey;
+
+        private EntryIterator(Object[] values) {
+            this.values = values;
+            advance();
+        }
+
+        private void advance() {
+            this.nextValue = null;
+            while (this.nextValue == null && ++this.next < this.values.length) {
+                this.nextValue = this.values[this.next];
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return this.next < this.values.length;
+        }
+
+        @Override
+        public Entry<String, Object> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            this.lastKey = ElementPropertyMap.this.layout.name(this.next);
+            Entry<String, Object> entry = new SimpleImmutableEntry<>(this.lastKey, this.nextValue);
+            advance();
+            return entry;
+        }
+
+        @Override
+        public void remove() {
+            if (this.lastKey == null) {
+                throw new IllegalStateException();
+            }
+            ElementPropertyMap.this.remove(this.lastKey);
+            this.lastKey = null;
+        }
+    }
+}
@@ -0,0 +1,248 @@
+package org.umlg.sqlg.structure;
+
+import org.apache.commons.lang3.tuple.ImmutablePair;
+import org.apache.commons.lang3.tuple.Pair;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.umlg.sqlg.sql.dialect.SqlDialect;
+import org.umlg.sqlg.structure.topology.GlobalUniqueIndex;
+import org.umlg.sqlg.structure.topology.PropertyColumn;
+import org.umlg.sqlg.structure.topology.Schema;
+import org.umlg.sqlg.util.SqlgUtil;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.*;
+
+import static org.umlg.sqlg.structure.topology.Topology.VERTEX_PREFIX;
+
+/**
+ * The global unique index rows a transaction still has to write.
+ * Changes to the same element's property are coalesced so only the last value is written,
+ * then every index table gets one multi row DELETE and one multi row INSERT per chunk of rows.
+ * <p>
+ * By default the changes are flushed as soon as the element is written.
+ * With 'global.unique.index.deferred' they are flushed at commit, or before the global unique indexes are queried.
+ */
+class GlobalUniqueIndexChanges {
+
+    private static Logger logger = LoggerFactory.getLogger(GlobalUniqueIndexChanges.class);
+    //Sql Server allows at most 2100 parameters and 1000 rows per statement.
+    private static final int MAX_PARAMETERS = 2000;
+    private static final int MAX_ROWS = 1000;
+
+    private final SqlgGraph sqlgGraph;
+    private final Map<GlobalUniqueIndex, Map<Pair<String, String>, Change>> changes = new LinkedHashMap<>();
+
+    GlobalUniqueIndexChanges(SqlgGraph sqlgGraph) {
+        this.sqlgGraph = sqlgGraph;
+    }
+
+    void insert(GlobalUniqueIndex globalUniqueIndex, PropertyColumn propertyColumn, RecordId recordId, Object value) {
+        Change change = changesFor(globalUniqueIndex).computeIfAbsent(key(propertyColumn, recordId), k -> new Change(propertyColumn, false));
+        change.insert = true;
+        change.value = value;
+    }
+
+    void update(GlobalUniqueIndex globalUniqueIndex, PropertyColumn propertyColumn, RecordId recordId, Object value) {
+        //The row may or may not be there yet, deleting it first covers both.
+        Change change = changesFor(globalUniqueIndex).computeIfAbsent(key(propertyColumn, recordId), k -> new Change(propertyColumn, true));
+        change.insert = true;
+        change.value = value;
+    }
+
+    void remove(GlobalUniqueIndex globalUniqueIndex, PropertyColumn propertyColumn, RecordId recordId) {
+        Map<Pair<String, String>, Change> indexChanges = changesFor(globalUniqueIndex);
+        Pair<String, String> key = key(propertyColumn, recordId);
+        Change change = indexChanges.get(key);
+        if (change == null) {
+            change = new Change(propertyColumn, true);
+            indexChanges.put(key, change);
+        } else if (!change.delete) {
+            //Inserted and removed in this transaction, nothing ever reaches the db.
+            indexChanges.remove(key);
+            return;
+        }
+        change.insert = false;
+        change.value = null;
+    }
+
+    /**
+     * Flushes the changes right away unless the graph defers them to commit.
+     */
+    void flushIfNotDeferred() {
+        if (!this.sqlgGraph.isGlobalUniqueIndexDeferred()) {
+            flush();
+        }
+    }
+
+    boolean isEmpty() {
+        return this.changes.values().stream().allMatch(Map::isEmpty);
+    }
+
+    void flush() {
+        try {
+            for (Map.Entry<GlobalUniqueIndex, Map<Pair<String, String>, Change>> entry : this.changes.entrySet()) {
+                List<Map.Entry<Pair<String, String>, Change>> deletes = new ArrayList<>();
+                List<Map.Entry<Pair<String, String>, Change>> inserts = new ArrayList<>();
+                for (Map.Entry<Pair<String, String>, Change> changeEntry : entry.getValue().entrySet()) {
+                    if (changeEntry.getValue().delete) {
+                        deletes.add(changeEntry);
+                    }
+                    if (changeEntry.getValue().insert) {
+                        inserts.add(changeEntry);
+                    }
+                }
+                delete(entry.getKey(), deletes);
+                insert(entry.getKey(), inserts);
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException(e);
+        } finally {
+            this.changes.clear();
+        }
+    }
+
+    void clear() {
+        this.changes.clear();
+    }
+
+    private void delete(GlobalUniqueIndex globalUniqueIndex, List<Map.Entry<Pair<String, String>, Change>> deletes) throws SQLException {
+        SqlDialect sqlDialect = this.sqlgGraph.getSqlDialect();
+        int rowsPerStatement = Math.min(MAX_ROWS, MAX_PARAMETERS / 2);
+        for (int from = 0; from < deletes.size(); from += rowsPerStatement) {
+            List<Map.Entry<Pair<String, String>, Change>> chunk = deletes.subList(from, Math.min(from + rowsPerStatement, deletes.size()));
+            StringBuilder sql = new StringBuilder("DELETE FROM ");
+            sql.append(tableName(globalUniqueIndex));
+            sql.append(" WHERE ");
+            for (int i = 0; i < chunk.size(); i++) {
+                if (i > 0) {
+                    sql.append(" OR ");
+                }
+                sql.append("(");
+                sql.append(sqlDialect.maybeWrapInQoutes(GlobalUniqueIndex.GLOBAL_UNIQUE_INDEX_RECORD_ID));
+                sql.append(" = ? AND ");
+                sql.append(sqlDialect.maybeWrapInQoutes(GlobalUniqueIndex.GLOBAL_UNIQUE_INDEX_PROPERTY_NAME));
+                sql.append(" = ?)");
+            }
+            if (sqlDialect.needsSemicolon()) {
+                sql.append(";");
+            }
+            if (logger.isDebugEnabled()) {
+                logger.debug(sql.toString());
+            }
+            PreparedStatement preparedStatement = this.sqlgGraph.tx().prepareStatement(sql.toString());
+            try {
+                int parameterIndex = 1;
+                for (Map.Entry<Pair<String, String>, Change> entry : chunk) {
+                    preparedStatement.setString(parameterIndex++, entry.getKey().getLeft());
+                    preparedStatement.setString(parameterIndex++, entry.getKey().getRight());
+                }
+                preparedStatement.executeUpdate();
+            } finally {
+                this.sqlgGraph.tx().releasePreparedStatement(preparedStatement);
+            }
+        }
+    }
+
+    private void insert(GlobalUniqueIndex globalUniqueIndex, List<Map.Entry<Pair<String, String>, Change>> inserts) throws SQLException {
+        if (inserts.isEmpty()) {
+            return;
+        }
+        SqlDialect sqlDialect = this.sqlgGraph.getSqlDialect();
+        //All the properties of a GlobalUniqueIndex have the same PropertyType.
+        PropertyType propertyType = inserts.get(0).getValue().propertyColumn.getPropertyType();
+        List<String> valueColumns = new ArrayList<>();
+        valueColumns.add(GlobalUniqueIndex.GLOBAL_UNIQUE_INDEX_VALUE);
+        String[] sqlDefinitions = sqlDialect.propertyTypeToSqlDefinition(propertyType);
+        for (int i = 1; i < sqlDefinitions.length; i++) {
+            valueColumns.add(GlobalUniqueIndex.GLOBAL_UNIQUE_INDEX_VALUE + propertyType.getPostFixes()[i - 1]);
+        }
+        int parametersPerRow = valueColumns.size() + 2;
+        int rowsPerStatement = Math.max(1, Math.min(MAX_ROWS, MAX_PARAMETERS / parametersPerRow));
+
+        StringBuilder columns = new StringBuilder(" (");
+        StringBuilder row = new StringBuilder("(");
+        for (String valueColumn : valueColumns) {
+            columns.append(sqlDialect.maybeWrapInQoutes(valueColumn)).append(", ");
+            row.append("?, ");
+        }
+        columns.append(sqlDialect.maybeWrapInQoutes(GlobalUniqueIndex.GLOBAL_UNIQUE_INDEX_RECORD_ID));
+        columns.append(", ");
+        columns.append(sqlDialect.maybeWrapInQoutes(GlobalUniqueIndex.GLOBAL_UNIQUE_INDEX_PROPERTY_NAME));
+        columns.append(") VALUES ");
+        row.append("?, ?)");
+
+        for (int from = 0; from < inserts.size(); from += rowsPerStatement) {
+            List<Map.Entry<Pair<String, String>, Change>> chunk = inserts.subList(from, Math.min(from + rowsPerStatement, inserts.size()));
+            StringBuilder sql = new StringBuilder("INSERT INTO ");
+            sql.append(tableName(globalUniqueIndex));
+            sql.append(columns);
+            for (int i = 0; i < chunk.size(); i++) {
+                if (i > 0) {
+                    sql.append(", ");
+                }
+                sql.append(row);
+            }
+            if (sqlDialect.needsSemicolon()) {
+                sql.append(";");
+            }
+            if (logger.isDebugEnabled()) {
+                logger.debug(sql.toString());
+            }
+            PreparedStatement preparedStatement = this.sqlgGraph.tx().prepareStatement(sql.toString());
+            try {
+                int parameterIndex = 1;
+                for (Map.Entry<Pair<String, String>, Change> entry : chunk) {
+                    Object value = entry.getValue().value;
+                    if (value == null && sqlDialect.uniqueIndexConsidersNullValuesEqual()) {
+                        //Need to insert a unique dummy value else the nulls clash on the unique index.
+                        int[] sqlTypes = sqlDialect.propertyTypeToJavaSqlType(propertyType);
+                        preparedStatement.setString(parameterIndex++, "dummy_" + UUID.randomUUID().toString());
+                        for (int i = 1; i < sqlTypes.length; i++) {
+                            preparedStatement.setNull(parameterIndex++, sqlTypes[i]);
+                        }
+                    } else {
+                        parameterIndex = SqlgUtil.setKeyValuesAsParameter(
+                                this.sqlgGraph,
+                                true,
+                                parameterIndex,
+                                preparedStatement,
+                                Collections.singletonList(ImmutablePair.of(propertyType, value)));
+                    }
+                    preparedStatement.setString(parameterIndex++, entry.getKey().getLeft());
+                    preparedStatement.setString(parameterIndex++, entry.getKey().getRight());
+                }
+                preparedStatement.executeUpdate();
+            } finally {
+                this.sqlgGraph.tx().releasePreparedStatement(preparedStatement);
+            }
+        }
+    }
+
+    private String tableName(GlobalUniqueIndex globalUniqueIndex) {
+        return this.sqlgGraph.getSqlDialect().maybeWrapInQoutes(Schema.GLOBAL_UNIQUE_INDEX_SCHEMA) +
+                "." +
+                this.sqlgGraph.getSqlDialect().maybeWrapInQoutes(VERTEX_PREFIX + globalUniqueIndex.getName());
+    }
+
+    private Map<Pair<String, String>, Change> changesFor(GlobalUniqueIndex globalUniqueIndex) {
+        return this.changes.computeIfAbsent(globalUniqueIndex, k -> new LinkedHashMap<>());
+    }
+
+    private static Pair<String, String> key(PropertyColumn propertyColumn, RecordId recordId) {
+        return Pair.of(recordId.toString(), propertyColumn.getName());
+    }
+
+    private static class Change {
+        private final PropertyColumn propertyColumn;
+        private final boolean delete;
+        private boolean insert;
+        private Object value;
+
+        private Change(PropertyColumn propertyColumn, boolean delete) {
+            this.propertyColumn = propertyColumn;
+            this.delete = delete;
+        }
+    }
+}
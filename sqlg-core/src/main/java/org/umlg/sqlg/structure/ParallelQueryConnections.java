@@ -0,0 +1,181 @@
+package org.umlg.sqlg.structure;
+
+import com.google.common.base.Preconditions;
+import org.apache.commons.lang3.tuple.Pair;
+import org.apache.commons.lang3.tuple.Triple;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.umlg.sqlg.sql.dialect.SqlDialect;
+import org.umlg.sqlg.sql.parse.ParallelQuery;
+import org.umlg.sqlg.strategy.SqlgSqlExecutor;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+
+/**
+ * The extra connections a transaction executes its parallel queries on, see {@link SqlgTransaction#setParallelQueries(boolean)}.
+ * They are opened on first use as read only, repeatable read connections.
+ * If the dialect supports it they import the snapshot of the transaction's connection, else each has a snapshot of its own
+ * and the transaction must not write, see {@link #checkReadOnly(boolean)}.
+ * They are rolled back and closed with the transaction.
+ */
+class ParallelQueryConnections {
+
+    private static Logger logger = LoggerFactory.getLogger(ParallelQueryConnections.class);
+
+    private final SqlgGraph sqlgGraph;
+    private final Connection connection;
+    private final List<Connection> connections = new ArrayList<>();
+    private final List<Future<?>> tasks = new ArrayList<>();
+    private String snapshot;
+    private int transactionIsolation;
+    //true if the transaction's connection was made read only for the parallel queries.
+    private boolean readOnly;
+
+    ParallelQueryConnections(SqlgGraph sqlgGraph, Connection connection) {
+        this.sqlgGraph = sqlgGraph;
+        this.connection = connection;
+    }
+
+    /**
+     * Parallel queries are switched on. Without snapshot export the extra connections do not see what the transaction wrote,
+     * so the transaction must not write. Its connection is made read only until the transaction ends,
+     * which is only possible before the transaction executed anything.
+     *
+     * @param newTransaction true if the transaction was opened to switch the parallel queries on.
+     * @throws IllegalStateException if the transaction may already have written.
+     */
+    void checkReadOnly(boolean newTransaction) {
+        if (this.sqlgGraph.getSqlDialect().supportsSnapshotExport()) {
+            return;
+        }
+        try {
+            if (this.connection.isReadOnly()) {
+                return;
+            }
+            Preconditions.checkState(newTransaction,
+                    "%s can not export the transaction's snapshot, parallel queries must be switched on before the transaction reads or writes.",
+                    this.sqlgGraph.getSqlDialect().dialectName());
+            this.connection.setReadOnly(true);
+            this.readOnly = true;
+        } catch (SQLException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Prepares the queries on the caller's thread and executes them on the graph's parallel query threads.
+     * Every connection gets every n'th query and executes them in order.
+     * The rows are loaded on the caller's thread, one query after the other as if they were executed sequentially.
+     *
+     * @return The results of the queries, in the order of the queries.
+     */
+    List<CompletableFuture<Triple<ResultSet, ResultSetMetaData, PreparedStatement>>> execute(List<ParallelQuery> parallelQueries) {
+        int connectionCount = Math.min(this.sqlgGraph.getParallelQueryConnections(), parallelQueries.size());
+        List<CompletableFuture<Triple<ResultSet, ResultSetMetaData, PreparedStatement>>> results = new ArrayList<>();
+        List<List<Pair<PreparedStatement, CompletableFuture<Triple<ResultSet, ResultSetMetaData, PreparedStatement>>>>> connectionStatements = new ArrayList<>();
+        for (int i = 0; i < connectionCount; i++) {
+            connectionStatements.add(new ArrayList<>());
+        }
+        for (int i = 0; i < parallelQueries.size(); i++) {
+            PreparedStatement preparedStatement = SqlgSqlExecutor.prepareParallelQuery(this.sqlgGraph, connection(i % connectionCount), parallelQueries.get(i));
+            CompletableFuture<Triple<ResultSet, ResultSetMetaData, PreparedStatement>> result = new CompletableFuture<>();
+            results.add(result);
+            connectionStatements.get(i % connectionCount).add(Pair.of(preparedStatement, result));
+        }
+        for (List<Pair<PreparedStatement, CompletableFuture<Triple<ResultSet, ResultSetMetaData, PreparedStatement>>>> statements : connectionStatements) {
+            this.tasks.add(this.sqlgGraph.getParallelQueryExecutor().submit(() -> executeInOrder(statements)));
+        }
+        return results;
+    }
+
+    private static void executeInOrder(List<Pair<PreparedStatement, CompletableFuture<Triple<ResultSet, ResultSetMetaData, PreparedStatement>>>> statements) {
+        for (Pair<PreparedStatement, CompletableFuture<Triple<ResultSet, ResultSetMetaData, PreparedStatement>>> statement : statements) {
+            if (Thread.currentThread().isInterrupted()) {
+                statement.getRight().cancel(false);
+                continue;
+            }
+            try {
+                ResultSet resultSet = statement.getLeft().executeQuery();
+                statement.getRight().complete(Triple.of(resultSet, resultSet.getMetaData(), statement.getLeft()));
+            } catch (SQLException | RuntimeException e) {
+                statement.getRight().completeExceptionally(e);
+            }
+        }
+    }
+
+    private Connection connection(int index) {
+        try {
+            while (this.connections.size() <= index) {
+                this.connections.add(open());
+            }
+            return this.connections.get(index);
+        } catch (SQLException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private Connection open() throws SQLException {
+        SqlDialect sqlDialect = this.sqlgGraph.getSqlDialect();
+        if (sqlDialect.supportsSnapshotExport() && this.snapshot == null) {
+            try (Statement statement = this.connection.createStatement();
+                 ResultSet resultSet = statement.executeQuery(sqlDialect.exportSnapshotSql())) {
+                resultSet.next();
+                this.snapshot = resultSet.getString(1);
+            }
+        }
+        Connection parallelConnection = this.sqlgGraph.getConnection();
+        try {
+            this.transactionIsolation = parallelConnection.getTransactionIsolation();
+            parallelConnection.setTransactionIsolation(Connection.TRANSACTION_REPEATABLE_READ);
+            parallelConnection.setReadOnly(true);
+            parallelConnection.setAutoCommit(false);
+            if (this.snapshot != null) {
+                try (Statement statement = parallelConnection.createStatement()) {
+                    statement.execute(sqlDialect.importSnapshotSql(this.snapshot));
+                }
+            }
+        } catch (SQLException e) {
+            parallelConnection.close();
+            throw e;
+        }
+        return parallelConnection;
+    }
+
+    void close() {
+        for (Future<?> task : this.tasks) {
+            task.cancel(true);
+        }
+        this.tasks.clear();
+        for (Connection parallelConnection : this.connections) {
+            try {
+                parallelConnection.rollback();
+                parallelConnection.setAutoCommit(true);
+                parallelConnection.setReadOnly(false);
+                parallelConnection.setTransactionIsolation(this.transactionIsolation);
+            } catch (SQLException e) {
+                //swallow
+                logger.debug("exception resetting a parallel query connection", e);
+            } finally {
+                try {
+                    parallelConnection.close();
+                } catch (SQLException e) {
+                    logger.debug("exception closing a parallel query connection", e);
+                }
+            }
+        }
+        this.connections.clear();
+        this.snapshot = null;
+        if (this.readOnly) {
+            try {
+                this.connection.setReadOnly(false);
+            } catch (SQLException e) {
+                logger.debug("exception resetting the transaction's connection", e);
+            }
+            this.readOnly = false;
+        }
+    }
+}
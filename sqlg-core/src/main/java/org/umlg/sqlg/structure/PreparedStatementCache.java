@@ -1,11 +1,19 @@
 package org.umlg.sqlg.structure;
 
+import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
-import java.util.ArrayList;
-import java.util.List;
+import java.sql.Statement;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
+ * Transaction scoped cache of {@link PreparedStatement}s on the transaction's connection.
+ * <p>
+ * Statements are checked out with {@link #prepareStatement(Connection, String, int)} and given back with {@link #release(PreparedStatement)}.
+ * Released statements are kept idle in a LRU map keyed by their sql so that the next execution of the same sql skips the prepare.
+ * Statements that are checked out and never released are closed when the transaction ends.
+ * <p>
  * Date: 2016/05/15
  * Time: 2:24 PM
  */
@@ -13,19 +21,120 @@ import java.util.List;
 public class PreparedStatementCache {
 
     private List<PreparedStatement> cache = new ArrayList<>();
+    private final Map<PreparedStatement, String> checkedOut = new IdentityHashMap<>();
+    private final LinkedHashMap<String, PreparedStatement> idle;
+    private final int maxSize;
+    private final AtomicLong hits;
+    private final AtomicLong misses;
+    private final TableChangeLog tableChangeLog;
+    private long version;
+
+    PreparedStatementCache() {
+        this(0, new AtomicLong(), new AtomicLong(), new TableChangeLog());
+    }
+
+    PreparedStatementCache(int maxSize, AtomicLong hits, AtomicLong misses, TableChangeLog tableChangeLog) {
+        this.maxSize = maxSize;
+        this.hits = hits;
+        this.misses = misses;
+        this.tableChangeLog = tableChangeLog;
+        this.version = tableChangeLog.getVersion();
+        this.idle = new LinkedHashMap<>(16, 0.75f, true);
+    }
 
     void add(PreparedStatement preparedStatement) {
         this.cache.add(preparedStatement);
     }
 
+    PreparedStatement prepareStatement(Connection connection, String sql, int autoGeneratedKeys) throws SQLException {
+        if (this.maxSize <= 0) {
+            return prepare(connection, sql, autoGeneratedKeys);
+        }
+        //Statements prepared before a topology change may reference a stale table definition.
+        long currentVersion = this.tableChangeLog.getVersion();
+        if (this.version != currentVersion) {
+            closeIdle(this.tableChangeLog.changedSince(this.version));
+            this.version = currentVersion;
+        }
+        String key = autoGeneratedKeys + sql;
+        PreparedStatement preparedStatement = this.idle.remove(key);
+        if (preparedStatement != null && !preparedStatement.isClosed()) {
+            this.hits.incrementAndGet();
+            preparedStatement.clearParameters();
+        } else {
+            this.misses.incrementAndGet();
+            preparedStatement = prepare(connection, sql, autoGeneratedKeys);
+        }
+        this.checkedOut.put(preparedStatement, key);
+        return preparedStatement;
+    }
+
+    private static PreparedStatement prepare(Connection connection, String sql, int autoGeneratedKeys) throws SQLException {
+        if (autoGeneratedKeys == Statement.RETURN_GENERATED_KEYS) {
+            return connection.prepareStatement(sql, autoGeneratedKeys);
+        } else {
+            return connection.prepareStatement(sql);
+        }
+    }
+
+    void release(PreparedStatement preparedStatement) throws SQLException {
+        String key = this.checkedOut.remove(preparedStatement);
+        if (key == null) {
+            preparedStatement.close();
+            return;
+        }
+        PreparedStatement previous = this.idle.put(key, preparedStatement);
+        if (previous != null && previous != preparedStatement) {
+            previous.close();
+        }
+        if (this.idle.size() > this.maxSize) {
+            Iterator<PreparedStatement> iterator = this.idle.values().iterator();
+            iterator.next().close();
+            iterator.remove();
+        }
+    }
+
+    private void closeIdle() throws SQLException {
+        for (PreparedStatement preparedStatement : this.idle.values()) {
+            preparedStatement.close();
+        }
+        this.idle.clear();
+    }
+
+    /**
+     * Closes the idle statements whose sql references one of the tables, all of them if the tables are null.
+     */
+    private void closeIdle(Set<String> quotedTables) throws SQLException {
+        if (quotedTables == null) {
+            closeIdle();
+            return;
+        }
+        for (Iterator<Map.Entry<String, PreparedStatement>> iterator = this.idle.entrySet().iterator(); iterator.hasNext(); ) {
+            Map.Entry<String, PreparedStatement> entry = iterator.next();
+            if (TableChangeLog.references(entry.getKey(), quotedTables)) {
+                entry.getValue().close();
+                iterator.remove();
+            }
+        }
+    }
+
     public void close() throws SQLException {
         for (PreparedStatement preparedStatement : this.cache) {
             preparedStatement.close();
         }
         this.cache.clear();
+        for (PreparedStatement preparedStatement : this.checkedOut.keySet()) {
+            preparedStatement.close();
+        }
+        this.checkedOut.clear();
+        closeIdle();
     }
 
     public boolean isEmpty() {
-        return this.cache.isEmpty();
+        return this.cache.isEmpty() && this.checkedOut.isEmpty() && this.idle.isEmpty();
+    }
+
+    public int size() {
+        return this.idle.size();
     }
 }
@@ -0,0 +1,56 @@
+package org.umlg.sqlg.structure;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Maps the property names of a vertex or edge label to slots in the {@link ElementPropertyMap} of its elements.
+ * There is one layout per label, shared by all its elements, so that an element only needs an array of values.
+ * <p>
+ * Slots are only ever added. A property that is removed from the label keeps its slot, its values are removed from
+ * the elements as usual.
+ */
+final class PropertyLayout {
+
+    //copy on write, names is always written before slots.
+    private volatile String[] names = new String[0];
+    private volatile Map<String, Integer> slots = Collections.emptyMap();
+
+    /**
+     * @return the slot of the property, -1 if the property has none.
+     */
+    int slot(String key) {
+        Integer slot = this.slots.get(key);
+        return slot == null ? -1 : slot;
+    }
+
+    int slotOrAdd(String key) {
+        int slot = slot(key);
+        if (slot != -1) {
+            return slot;
+        }
+        synchronized (this) {
+            slot = slot(key);
+            if (slot == -1) {
+                slot = this.names.length;
+                String[] names = Arrays.copyOf(this.names, slot + 1);
+                names[slot] = key;
+                Map<String, Integer> slots = new HashMap<>(this.slots);
+                slots.put(key, slot);
+                this.names = names;
+                this.slots = slots;
+            }
+            return slot;
+        }
+    }
+
+    String name(int slot) {
+        return this.names[slot];
+    }
+
+    int size() {
+        return this.names.length;
+    }
+}
@@ -1,5 +1,7 @@
 package org.umlg.sqlg.structure;
 
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
 import org.apache.tinkerpop.gremlin.structure.Element;
 import org.apache.tinkerpop.gremlin.structure.io.graphson.AbstractObjectDeserializer;
 import org.apache.tinkerpop.shaded.jackson.core.JsonGenerationException;
@@ -16,40 +18,53 @@ import org.apache.tinkerpop.shaded.kryo.Kryo;
 import org.apache.tinkerpop.shaded.kryo.KryoSerializable;
 import org.apache.tinkerpop.shaded.kryo.io.Input;
 import org.apache.tinkerpop.shaded.kryo.io.Output;
+import org.umlg.sqlg.util.LongList;
 import org.umlg.sqlg.util.SqlgUtil;
 
 import java.io.IOException;
+import java.io.Serializable;
 import java.util.*;
 
 /**
  * Date: 2015/02/21
  * Time: 8:50 PM
  */
-public class RecordId implements KryoSerializable, Comparable {
+public class RecordId implements KryoSerializable, Serializable, Comparable {
 
     @SuppressWarnings("WeakerAccess")
     public final static String RECORD_ID_DELIMITER = ":::";
+    //All the elements of a label share one SchemaTable instead of each holding its own copy.
+    private static final Interner<SchemaTable> SCHEMA_TABLE_INTERNER = Interners.newWeakInterner();
     private SchemaTable schemaTable;
-    private Long id;
+    private long id;
 
     //For Kryo
     public RecordId() {
     }
 
-    private RecordId(SchemaTable schemaTable, Long id) {
-        this.schemaTable = schemaTable;
+    private RecordId(SchemaTable schemaTable, long id) {
+        this.schemaTable = intern(schemaTable);
         this.id = id;
     }
 
-    private RecordId(String label, Long id) {
-        this.schemaTable = SqlgUtil.parseLabel(label);
+    private RecordId(String label, long id) {
+        this.schemaTable = intern(SqlgUtil.parseLabel(label));
         this.id = id;
     }
 
+    private static SchemaTable intern(SchemaTable schemaTable) {
+        //temporary tables are equal to their non temporary namesake, keep them apart.
+        return schemaTable.isTemporary() ? schemaTable : SCHEMA_TABLE_INTERNER.intern(schemaTable);
+    }
+
     public static RecordId from(SchemaTable schemaTable, Long id) {
         return new RecordId(schemaTable, id);
     }
 
+    public static RecordId from(SchemaTable schemaTable, long id) {
+        return new RecordId(schemaTable, id);
+    }
+
     public static List<RecordId> from(Object... elementId) {
         List<RecordId> result = new ArrayList<>(elementId.length);
         for (Object o : elementId) {
@@ -80,7 +95,7 @@ public class RecordId implements KryoSerializable, Comparable {
         String label = splittedId[0];
         String id = splittedId[1];
         try {
-            Long labelId = Long.valueOf(id);
+            long labelId = Long.parseLong(id);
             return new RecordId(label, labelId);
         } catch (NumberFormatException e) {
             throw SqlgExceptions.invalidId(vertexId.toString());
@@ -95,15 +110,22 @@ public class RecordId implements KryoSerializable, Comparable {
         return id;
     }
 
-    static Map<SchemaTable, List<Long>> normalizeIds(List<RecordId> vertexId) {
-        Map<SchemaTable, List<Long>> result = new HashMap<>();
+    /**
+     * The id without boxing it.
+     */
+    public long getIdAsLong() {
+        return id;
+    }
+
+    static Map<SchemaTable, LongList> normalizeIds(List<RecordId> vertexId) {
+        Map<SchemaTable, LongList> result = new HashMap<>();
         for (RecordId recordId : vertexId) {
-            List<Long> ids = result.get(recordId.getSchemaTable());
+            LongList ids = result.get(recordId.getSchemaTable());
             if (ids == null) {
-                ids = new ArrayList<>();
+                ids = new LongList();
                 result.put(recordId.getSchemaTable(), ids);
             }
-            ids.add(recordId.getId());
+            ids.add(recordId.getIdAsLong());
         }
         return result;
     }
@@ -112,13 +134,13 @@ public class RecordId implements KryoSerializable, Comparable {
     public String toString() {
         return this.schemaTable.toString() +
                 RECORD_ID_DELIMITER +
-                this.id.toString();
+                Long.toString(this.id);
     }
 
     @Override
     public int hashCode() {
         int result = this.schemaTable.hashCode();
-        return result ^ this.id.hashCode();
+        return result ^ Long.hashCode(this.id);
     }
 
     @Override
@@ -133,19 +155,19 @@ public class RecordId implements KryoSerializable, Comparable {
             return false;
         }
         RecordId otherRecordId = (RecordId) other;
-        return this.schemaTable.equals(otherRecordId.getSchemaTable()) && this.id.equals(otherRecordId.getId());
+        return this.schemaTable.equals(otherRecordId.getSchemaTable()) && this.id == otherRecordId.id;
     }
 
     @Override
     public void write(Kryo kryo, Output output) {
         output.writeString(this.getSchemaTable().getSchema());
         output.writeString(this.getSchemaTable().getTable());
-        output.writeLong(this.getId());
+        output.writeLong(this.id);
     }
 
     @Override
     public void read(Kryo kryo, Input input) {
-        this.schemaTable = SchemaTable.of(input.readString(), input.readString());
+        this.schemaTable = intern(SchemaTable.of(input.readString(), input.readString()));
         this.id = input.readLong();
     }
 
@@ -159,7 +181,7 @@ public class RecordId implements KryoSerializable, Comparable {
         if (first != 0) {
             return first;
         }
-        return this.getId().compareTo(other.getId());
+        return Long.compare(this.id, other.id);
     }
 
     @SuppressWarnings("DuplicateThrows")
@@ -0,0 +1,438 @@
+package org.umlg.sqlg.structure;
+
+import org.umlg.sqlg.sql.dialect.SqlDialect;
+import org.umlg.sqlg.structure.topology.Topology;
+import org.umlg.sqlg.util.SqlgUtil;
+
+import java.sql.*;
+import java.time.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.umlg.sqlg.structure.topology.Topology.VERTEX_TABLE;
+
+/**
+ * Loads the rows of a {@link ResultSet} into elements.
+ * It is built once per executed statement, from the column labels, after which each row is loaded by column index
+ * without looking up labels, property names or property types.
+ */
+public final class RowDecoder {
+
+    private final SqlgGraph sqlgGraph;
+    private final int[] columnIndexes;
+    private final String[] propertyNames;
+    private final PropertyType[] propertyTypes;
+    private final ColumnReader[] readers;
+    //The indexes of the ZONEID, MONTHS, DAYS or DURATION_NANOS columns of the property, see PropertyType.getPostFixes()
+    private final int[][] postFixColumnIndexes;
+    //The edge's foreign keys, the vertex's SchemaTable's table is the label without the IN or OUT end.
+    private final int[] inVertexColumnIndexes;
+    private final SchemaTable[] inVertexSchemaTables;
+    private final int[] outVertexColumnIndexes;
+    private final SchemaTable[] outVertexSchemaTables;
+    //The slots of the properties in the layout they were last loaded into.
+    private PropertyLayout layout;
+    private int[] slots;
+
+    private RowDecoder(Builder builder) {
+        this.sqlgGraph = builder.sqlgGraph;
+        int size = builder.propertyNames.size();
+        this.columnIndexes = new int[size];
+        this.propertyNames = new String[size];
+        this.propertyTypes = new PropertyType[size];
+        this.readers = new ColumnReader[size];
+        this.postFixColumnIndexes = new int[size][];
+        for (int i = 0; i < size; i++) {
+            this.columnIndexes[i] = builder.columnIndexes.get(i);
+            this.propertyNames[i] = builder.propertyNames.get(i);
+            this.propertyTypes[i] = builder.propertyTypes.get(i);
+            this.readers[i] = reader(this.sqlgGraph.getSqlDialect(), this.propertyTypes[i]);
+            this.postFixColumnIndexes[i] = builder.postFixColumnIndexes.get(i);
+        }
+        this.inVertexColumnIndexes = builder.inVertexColumnIndexes.stream().mapToInt(Integer::intValue).toArray();
+        this.inVertexSchemaTables = builder.inVertexSchemaTables.toArray(new SchemaTable[0]);
+        this.outVertexColumnIndexes = builder.outVertexColumnIndexes.stream().mapToInt(Integer::intValue).toArray();
+        this.outVertexSchemaTables = builder.outVertexSchemaTables.toArray(new SchemaTable[0]);
+    }
+
+    public static Builder builder(SqlgGraph sqlgGraph, ResultSet resultSet) {
+        return new Builder(sqlgGraph, resultSet);
+    }
+
+    /**
+     * A decoder for the 'SELECT *' rows of the element's table.
+     */
+    static RowDecoder forTable(SqlgGraph sqlgGraph, ResultSet resultSet, SchemaTable schemaTablePrefixed) throws SQLException {
+        Builder builder = builder(sqlgGraph, resultSet);
+        boolean vertex = schemaTablePrefixed.isVertexTable();
+        Map<String, PropertyType> propertyTypes = sqlgGraph.getTopology().getTableFor(schemaTablePrefixed);
+        List<String> columnsToIgnore = sqlgGraph.getSqlDialect().columnsToIgnore();
+        ResultSetMetaData resultSetMetaData = resultSet.getMetaData();
+        for (int i = 1; i <= resultSetMetaData.getColumnCount(); i++) {
+            String columnName = resultSetMetaData.getColumnLabel(i);
+            if (columnName.equals("ID")) {
+                continue;
+            }
+            if (vertex) {
+                if (!columnName.equals(Topology.VERTEX_SCHEMA) && !columnName.equals(VERTEX_TABLE) && !columnsToIgnore.contains(columnName)) {
+                    builder.property(columnName, propertyTypes.get(columnName), i);
+                }
+            } else if (columnName.endsWith(Topology.IN_VERTEX_COLUMN_END)) {
+                builder.inVertex(columnName, i);
+            } else if (columnName.endsWith(Topology.OUT_VERTEX_COLUMN_END)) {
+                builder.outVertex(columnName, i);
+            } else {
+                builder.property(columnName, propertyTypes.get(columnName), i);
+            }
+        }
+        RowDecoder rowDecoder = builder.build();
+        if (!vertex && (rowDecoder.inVertexColumnIndexes.length == 0 || rowDecoder.outVertexColumnIndexes.length == 0)) {
+            throw new IllegalStateException("in or out vertex id not set!!!!");
+        }
+        return rowDecoder;
+    }
+
+    /**
+     * Loads the current row's properties, and for an edge its in and out vertex, into the element.
+     * Null columns are skipped.
+     */
+    public void load(ResultSet resultSet, SqlgElement sqlgElement) throws SQLException {
+        loadProperties(resultSet, sqlgElement);
+        if (this.inVertexColumnIndexes.length > 0 || this.outVertexColumnIndexes.length > 0) {
+            SqlgEdge sqlgEdge = (SqlgEdge) sqlgElement;
+            RecordId inVertexId = inVertexId(resultSet);
+            if (inVertexId != null) {
+                sqlgEdge.setInVertex(SqlgVertex.of(this.sqlgGraph, inVertexId.getId(), inVertexId.getSchemaTable().getSchema(), inVertexId.getSchemaTable().getTable()));
+            }
+            RecordId outVertexId = outVertexId(resultSet);
+            if (outVertexId != null) {
+                sqlgEdge.setOutVertex(SqlgVertex.of(this.sqlgGraph, outVertexId.getId(), outVertexId.getSchemaTable().getSchema(), outVertexId.getSchemaTable().getTable()));
+            }
+        }
+    }
+
+    /**
+     * Loads only the current row's properties, the edge's vertices are not looked up.
+     */
+    void loadProperties(ResultSet resultSet, SqlgElement sqlgElement) throws SQLException {
+        loadProperties(resultSet, sqlgElement.properties);
+    }
+
+    /**
+     * Loads only the current row's properties into the map.
+     */
+    public void loadProperties(ResultSet resultSet, Map<String, Object> properties) throws SQLException {
+        ElementPropertyMap elementPropertyMap = null;
+        if (properties instanceof ElementPropertyMap) {
+            elementPropertyMap = (ElementPropertyMap) properties;
+            if (elementPropertyMap.layout() != this.layout) {
+                resolveSlots(elementPropertyMap.layout());
+            }
+        }
+        for (int i = 0; i < this.columnIndexes.length; i++) {
+            Object value = this.readers[i].read(resultSet, this.columnIndexes[i], this.postFixColumnIndexes[i]);
+            if (value != null) {
+                if (this.readers[i] == OTHER) {
+                    this.sqlgGraph.getSqlDialect().handleOther(properties, this.propertyNames[i], value, this.propertyTypes[i]);
+                } else if (elementPropertyMap != null) {
+                    elementPropertyMap.putSlot(this.slots[i], value);
+                } else {
+                    properties.put(this.propertyNames[i], value);
+                }
+            }
+        }
+    }
+
+    /**
+     * @return the edge's in vertex id of the current row, null if none of the in foreign keys are set.
+     */
+    RecordId inVertexId(ResultSet resultSet) throws SQLException {
+        return vertexId(resultSet, this.inVertexColumnIndexes, this.inVertexSchemaTables);
+    }
+
+    /**
+     * @return the edge's out vertex id of the current row, null if none of the out foreign keys are set.
+     */
+    RecordId outVertexId(ResultSet resultSet) throws SQLException {
+        return vertexId(resultSet, this.outVertexColumnIndexes, this.outVertexSchemaTables);
+    }
+
+    private static RecordId vertexId(ResultSet resultSet, int[] columnIndexes, SchemaTable[] schemaTables) throws SQLException {
+        RecordId result = null;
+        for (int i = 0; i < columnIndexes.length; i++) {
+            long id = resultSet.getLong(columnIndexes[i]);
+            if (!resultSet.wasNull()) {
+                result = RecordId.from(schemaTables[i], id);
+            }
+        }
+        return result;
+    }
+
+    private void resolveSlots(PropertyLayout layout) {
+        int[] slots = new int[this.propertyNames.length];
+        for (int i = 0; i < slots.length; i++) {
+            slots[i] = layout.slotOrAdd(this.propertyNames[i]);
+        }
+        this.slots = slots;
+        this.layout = layout;
+    }
+
+    public static final class Builder {
+
+        private final SqlgGraph sqlgGraph;
+        private final ResultSet resultSet;
+        private final List<Integer> columnIndexes = new ArrayList<>();
+        private final List<String> propertyNames = new ArrayList<>();
+        private final List<PropertyType> propertyTypes = new ArrayList<>();
+        private final List<int[]> postFixColumnIndexes = new ArrayList<>();
+        private final List<Integer> inVertexColumnIndexes = new ArrayList<>();
+        private final List<SchemaTable> inVertexSchemaTables = new ArrayList<>();
+        private final List<Integer> outVertexColumnIndexes = new ArrayList<>();
+        private final List<SchemaTable> outVertexSchemaTables = new ArrayList<>();
+
+        private Builder(SqlgGraph sqlgGraph, ResultSet resultSet) {
+            this.sqlgGraph = sqlgGraph;
+            this.resultSet = resultSet;
+        }
+
+        public Builder property(String propertyName, PropertyType propertyType, int columnIndex) throws SQLException {
+            return property(propertyName, propertyType, columnIndex, null);
+        }
+
+        /**
+         * Adds a property column. The ZONEID, MONTHS, DAYS and DURATION_NANOS columns are not properties,
+         * they are read with the property they belong to.
+         *
+         * @param propertyName         The property's name.
+         * @param propertyType         The property's type, if null the column is skipped.
+         * @param columnIndex          The property's column.
+         * @param postFixColumnLabels  The labels of the property's postfixed columns, see {@link PropertyType#getPostFixes()},
+         *                             null if they are the property's name with the postfix.
+         */
+        public Builder property(String propertyName, PropertyType propertyType, int columnIndex, String[] postFixColumnLabels) throws SQLException {
+            if (propertyType == null ||
+                    propertyName.endsWith(Topology.ZONEID) ||
+                    propertyName.endsWith(Topology.MONTHS) ||
+                    propertyName.endsWith(Topology.DAYS) ||
+                    propertyName.endsWith(Topology.DURATION_NANOS)) {
+                return this;
+            }
+            String[] postFixes = propertyType.getPostFixes();
+            int[] postFixColumnIndexes = new int[postFixes.length];
+            for (int i = 0; i < postFixes.length; i++) {
+                String label = postFixColumnLabels != null ? postFixColumnLabels[i] : propertyName + postFixes[i];
+                postFixColumnIndexes[i] = this.resultSet.findColumn(label);
+            }
+            this.columnIndexes.add(columnIndex);
+            this.propertyNames.add(propertyName);
+            this.propertyTypes.add(propertyType);
+            this.postFixColumnIndexes.add(postFixColumnIndexes);
+            return this;
+        }
+
+        /**
+         * @param foreignKey The edge's foreign key, i.e. the in vertex's label ending in {@link Topology#IN_VERTEX_COLUMN_END}.
+         */
+        public Builder inVertex(String foreignKey, int columnIndex) {
+            SchemaTable schemaTable = SchemaTable.from(this.sqlgGraph, foreignKey);
+            this.inVertexColumnIndexes.add(columnIndex);
+            this.inVertexSchemaTables.add(SchemaTable.of(schemaTable.getSchema(), SqlgUtil.removeTrailingInId(schemaTable.getTable())));
+            return this;
+        }
+
+        /**
+         * @param foreignKey The edge's foreign key, i.e. the out vertex's label ending in {@link Topology#OUT_VERTEX_COLUMN_END}.
+         */
+        public Builder outVertex(String foreignKey, int columnIndex) {
+            SchemaTable schemaTable = SchemaTable.from(this.sqlgGraph, foreignKey);
+            this.outVertexColumnIndexes.add(columnIndex);
+            this.outVertexSchemaTables.add(SchemaTable.of(schemaTable.getSchema(), SqlgUtil.removeTrailingOutId(schemaTable.getTable())));
+            return this;
+        }
+
+        public RowDecoder build() {
+            return new RowDecoder(this);
+        }
+    }
+
+    @FunctionalInterface
+    private interface ColumnReader {
+        /**
+         * @return the column's value, null if the column is null.
+         */
+        Object read(ResultSet resultSet, int columnIndex, int[] postFixColumnIndexes) throws SQLException;
+    }
+
+    //Returns the raw value, the dialect converts it in handleOther.
+    private static final ColumnReader OTHER = (resultSet, columnIndex, postFixColumnIndexes) -> resultSet.getObject(columnIndex);
+
+    private static ColumnReader reader(SqlDialect sqlDialect, PropertyType propertyType) {
+        switch (propertyType) {
+            case BOOLEAN:
+                return (resultSet, columnIndex, postFixColumnIndexes) -> {
+                    boolean aBoolean = resultSet.getBoolean(columnIndex);
+                    return resultSet.wasNull() ? null : aBoolean;
+                };
+            case BYTE:
+                return (resultSet, columnIndex, postFixColumnIndexes) -> {
+                    byte aByte = resultSet.getByte(columnIndex);
+                    return resultSet.wasNull() ? null : aByte;
+                };
+            case SHORT:
+                return (resultSet, columnIndex, postFixColumnIndexes) -> {
+                    short s = resultSet.getShort(columnIndex);
+                    return resultSet.wasNull() ? null : s;
+                };
+            case INTEGER:
+                return (resultSet, columnIndex, postFixColumnIndexes) -> {
+                    int anInt = resultSet.getInt(columnIndex);
+                    return resultSet.wasNull() ? null : anInt;
+                };
+            case LONG:
+                return (resultSet, columnIndex, postFixColumnIndexes) -> {
+                    long aLong = resultSet.getLong(columnIndex);
+                    return resultSet.wasNull() ? null : aLong;
+                };
+            case FLOAT:
+                return (resultSet, columnIndex, postFixColumnIndexes) -> {
+                    float aFloat = resultSet.getFloat(columnIndex);
+                    return resultSet.wasNull() ? null : aFloat;
+                };
+            case DOUBLE:
+                return (resultSet, columnIndex, postFixColumnIndexes) -> {
+                    double aDouble = resultSet.getDouble(columnIndex);
+                    return resultSet.wasNull() ? null : aDouble;
+                };
+            case STRING:
+                return (resultSet, columnIndex, postFixColumnIndexes) -> resultSet.getString(columnIndex);
+            case LOCALDATE:
+                return (resultSet, columnIndex, postFixColumnIndexes) -> {
+                    java.sql.Date date = resultSet.getDate(columnIndex);
+                    return date == null ? null : date.toLocalDate();
+                };
+            case LOCALDATETIME:
+                return (resultSet, columnIndex, postFixColumnIndexes) -> {
+                    Timestamp timestamp = resultSet.getTimestamp(columnIndex);
+                    return timestamp == null ? null : timestamp.toLocalDateTime();
+                };
+            case ZONEDDATETIME:
+                return (resultSet, columnIndex, postFixColumnIndexes) -> {
+                    Timestamp timestamp = resultSet.getTimestamp(columnIndex);
+                    if (timestamp == null) {
+                        return null;
+                    }
+                    ZoneId zoneId = ZoneId.of(resultSet.getString(postFixColumnIndexes[0]));
+                    return ZonedDateTime.of(timestamp.toLocalDateTime(), zoneId);
+                };
+            case LOCALTIME:
+                return (resultSet, columnIndex, postFixColumnIndexes) -> {
+                    Time time = resultSet.getTime(columnIndex);
+                    return time == null ? null : time.toLocalTime();
+                };
+            case PERIOD:
+                return (resultSet, columnIndex, postFixColumnIndexes) -> {
+                    int years = resultSet.getInt(columnIndex);
+                    if (resultSet.wasNull()) {
+                        return null;
+                    }
+                    int months = resultSet.getInt(postFixColumnIndexes[0]);
+                    int days = resultSet.getInt(postFixColumnIndexes[1]);
+                    return Period.of(years, months, days);
+                };
+            case DURATION:
+                return (resultSet, columnIndex, postFixColumnIndexes) -> {
+                    long seconds = resultSet.getLong(columnIndex);
+                    if (resultSet.wasNull()) {
+                        return null;
+                    }
+                    int nanos = resultSet.getInt(postFixColumnIndexes[0]);
+                    return Duration.ofSeconds(seconds, nanos);
+                };
+            case JSON:
+            case POINT:
+            case LINESTRING:
+            case POLYGON:
+            case GEOGRAPHY_POINT:
+            case GEOGRAPHY_POLYGON:
+                return OTHER;
+            case byte_ARRAY:
+                return (resultSet, columnIndex, postFixColumnIndexes) -> resultSet.getObject(columnIndex);
+            case BYTE_ARRAY:
+                return (resultSet, columnIndex, postFixColumnIndexes) -> {
+                    Object object = resultSet.getObject(columnIndex);
+                    return object == null ? null : SqlgUtil.convertPrimitiveByteArrayToByteArray((byte[]) object);
+                };
+            case boolean_ARRAY:
+            case BOOLEAN_ARRAY:
+            case short_ARRAY:
+            case SHORT_ARRAY:
+            case int_ARRAY:
+            case INTEGER_ARRAY:
+            case long_ARRAY:
+            case LONG_ARRAY:
+            case float_ARRAY:
+            case FLOAT_ARRAY:
+            case double_ARRAY:
+            case DOUBLE_ARRAY:
+            case STRING_ARRAY:
+            case LOCALDATETIME_ARRAY:
+            case LOCALDATE_ARRAY:
+            case LOCALTIME_ARRAY:
+            case JSON_ARRAY:
+                return (resultSet, columnIndex, postFixColumnIndexes) -> {
+                    Array array = resultSet.getArray(columnIndex);
+                    return array == null ? null : sqlDialect.convertArray(propertyType, array);
+                };
+            case ZONEDDATETIME_ARRAY:
+                return (resultSet, columnIndex, postFixColumnIndexes) -> {
+                    Array array = resultSet.getArray(columnIndex);
+                    if (array == null) {
+                        return null;
+                    }
+                    Array zoneIdArray = resultSet.getArray(postFixColumnIndexes[0]);
+                    String[] objectZoneIdArray = (String[]) sqlDialect.convertArray(PropertyType.STRING_ARRAY, zoneIdArray);
+                    LocalDateTime[] localDateTimes = (LocalDateTime[]) sqlDialect.convertArray(PropertyType.LOCALDATETIME_ARRAY, array);
+                    ZonedDateTime[] zonedDateTimes = new ZonedDateTime[localDateTimes.length];
+                    for (int i = 0; i < localDateTimes.length; i++) {
+                        zonedDateTimes[i] = ZonedDateTime.of(localDateTimes[i], ZoneId.of(objectZoneIdArray[i]));
+                    }
+                    return zonedDateTimes;
+                };
+            case DURATION_ARRAY:
+                return (resultSet, columnIndex, postFixColumnIndexes) -> {
+                    Array array = resultSet.getArray(columnIndex);
+                    if (array == null) {
+                        return null;
+                    }
+                    long[] secondsArray = (long[]) sqlDialect.convertArray(PropertyType.long_ARRAY, array);
+                    Array nanosArray = resultSet.getArray(postFixColumnIndexes[0]);
+                    int[] nanoArray = (int[]) sqlDialect.convertArray(PropertyType.int_ARRAY, nanosArray);
+                    Duration[] durations = new Duration[secondsArray.length];
+                    for (int i = 0; i < secondsArray.length; i++) {
+                        durations[i] = Duration.ofSeconds(secondsArray[i], nanoArray[i]);
+                    }
+                    return durations;
+                };
+            case PERIOD_ARRAY:
+                return (resultSet, columnIndex, postFixColumnIndexes) -> {
+                    Array array = resultSet.getArray(columnIndex);
+                    if (array == null) {
+                        return null;
+                    }
+                    Integer[] yearsIntegers = (Integer[]) sqlDialect.convertArray(PropertyType.INTEGER_ARRAY, array);
+                    Array monthsArray = resultSet.getArray(postFixColumnIndexes[0]);
+                    Integer[] monthsIntegers = (Integer[]) sqlDialect.convertArray(PropertyType.INTEGER_ARRAY, monthsArray);
+                    Array daysArray = resultSet.getArray(postFixColumnIndexes[1]);
+                    Integer[] daysIntegers = (Integer[]) sqlDialect.convertArray(PropertyType.INTEGER_ARRAY, daysArray);
+                    Period[] periods = new Period[yearsIntegers.length];
+                    for (int i = 0; i < yearsIntegers.length; i++) {
+                        periods[i] = Period.of(yearsIntegers[i], monthsIntegers[i], daysIntegers[i]);
+                    }
+                    return periods;
+                };
+            default:
+                throw SqlgExceptions.invalidPropertyType(propertyType);
+        }
+    }
+}
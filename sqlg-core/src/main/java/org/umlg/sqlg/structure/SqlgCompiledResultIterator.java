@@ -3,7 +3,9 @@ package org.umlg.sqlg.structure;
 import org.apache.commons.lang3.tuple.Pair;
 import org.apache.commons.lang3.tuple.Triple;
 import org.apache.tinkerpop.gremlin.util.iterator.EmptyIterator;
+import org.umlg.sqlg.sql.parse.ParallelQuery;
 import org.umlg.sqlg.sql.parse.SchemaTableTree;
+import org.umlg.sqlg.sql.parse.UnionPart;
 import org.umlg.sqlg.strategy.Emit;
 import org.umlg.sqlg.strategy.SqlgSqlExecutor;
 import org.umlg.sqlg.util.SqlgUtil;
@@ -13,6 +15,8 @@ import java.sql.ResultSet;
 import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 
 /**
  * Date: 2015/07/01
@@ -20,6 +24,9 @@ import java.util.*;
  */
 public class SqlgCompiledResultIterator<E> implements Iterator<E> {
 
+    //Postgres allows at most 1664 columns in a select.
+    private static final int MAX_UNION_COLUMNS = 1000;
+
     private SqlgGraph sqlgGraph;
     private Set<SchemaTableTree> rootSchemaTableTrees;
     private boolean forParent = false;
@@ -29,6 +36,17 @@ public class SqlgCompiledResultIterator<E> implements Iterator<E> {
     private Iterator<LinkedList<SchemaTableTree>> distinctQueriesIterator = EmptyIterator.instance();
     private LinkedList<SchemaTableTree> currentDistinctQueryStack;
 
+    //With 'query.union.all' the distinct queries that can be are executed as 'UNION ALL' statements first.
+    private List<UnionPart> unionParts;
+    private Iterator<List<UnionPart>> unionQueriesIterator;
+    private List<UnionPart> currentUnionParts;
+    private UnionPart currentUnionPart;
+    //The distinct queries of every root that are not part of a 'UNION ALL'.
+    private Map<SchemaTableTree, List<LinkedList<SchemaTableTree>>> distinctQueries = new HashMap<>();
+
+    //With parallel queries the regular queries are executed on the transaction's parallel query connections.
+    private Iterator<Pair<ParallelQuery, CompletableFuture<Triple<ResultSet, ResultSetMetaData, PreparedStatement>>>> parallelQueriesIterator;
+
     private Iterator<Pair<LinkedList<SchemaTableTree>, Set<SchemaTableTree>>> optionalLeftJoinResultsIterator = EmptyIterator.instance();
     private Pair<LinkedList<SchemaTableTree>, Set<SchemaTableTree>> optionalCurrentLeftJoinResult;
 
@@ -55,6 +73,8 @@ public class SqlgCompiledResultIterator<E> implements Iterator<E> {
     private QUERY queryState = QUERY.REGULAR;
 
     private enum QUERY {
+        UNION,
+        PARALLEL,
         REGULAR,
         OPTIONAL,
         EMIT
@@ -70,6 +90,11 @@ public class SqlgCompiledResultIterator<E> implements Iterator<E> {
         this.rootSchemaTableTreeIterator = rootSchemaTableTrees.iterator();
         this.lazy = sqlgGraph.tx().isLazyQueries();
         this.forParent = forParent;
+        if (sqlgGraph.isQueryUnionAll()) {
+            this.queryState = QUERY.UNION;
+        } else if (isParallelQueries()) {
+            this.queryState = QUERY.PARALLEL;
+        }
     }
 
     @Override
@@ -98,6 +123,63 @@ public class SqlgCompiledResultIterator<E> implements Iterator<E> {
         try {
             while (true) {
                 switch (this.queryState) {
+                    case UNION:
+                        if (this.elements != null) {
+                            return true;
+                        } else {
+                            if (this.unionQueriesIterator == null) {
+                                this.unionQueriesIterator = constructUnionQueries().iterator();
+                            }
+                            if (this.queryResult != null) {
+                                iterateUnionQueries();
+                            }
+                            if (this.elements == null) {
+                                closePreparedStatement();
+                                if (this.unionQueriesIterator.hasNext()) {
+                                    this.currentUnionParts = this.unionQueriesIterator.next();
+                                    this.currentUnionPart = null;
+                                    executeUnionQuery();
+                                } else {
+                                    for (SchemaTableTree rootSchemaTableTree : this.rootSchemaTableTrees) {
+                                        rootSchemaTableTree.resetColumnAliasMaps();
+                                    }
+                                    this.queryState = isParallelQueries() ? QUERY.PARALLEL : QUERY.REGULAR;
+                                    break;
+                                }
+                            }
+                        }
+                        break;
+                    case PARALLEL:
+                        if (this.elements != null) {
+                            return true;
+                        } else {
+                            if (this.parallelQueriesIterator == null) {
+                                this.parallelQueriesIterator = constructParallelQueries().iterator();
+                            }
+                            if (this.queryResult != null) {
+                                iterateRegularQueries();
+                                this.first = false;
+                            }
+                            if (this.elements == null) {
+                                closePreparedStatement();
+                                if (this.parallelQueriesIterator.hasNext()) {
+                                    Pair<ParallelQuery, CompletableFuture<Triple<ResultSet, ResultSetMetaData, PreparedStatement>>> parallelQuery = this.parallelQueriesIterator.next();
+                                    this.currentRootSchemaTableTree = parallelQuery.getLeft().getRootSchemaTableTree();
+                                    this.subQueryStacks = parallelQuery.getLeft().getSubQueryStacks();
+                                    parallelQuery.getLeft().restoreAliasMaps();
+                                    this.queryResult = parallelQueryResult(parallelQuery.getRight());
+                                    this.first = true;
+                                } else {
+                                    for (SchemaTableTree rootSchemaTableTree : this.rootSchemaTableTrees) {
+                                        rootSchemaTableTree.resetColumnAliasMaps();
+                                    }
+                                    this.currentRootSchemaTableTree = null;
+                                    this.queryState = QUERY.REGULAR;
+                                    break;
+                                }
+                            }
+                        }
+                        break;
                     case REGULAR:
                         if (this.elements != null) {
                             return true;
@@ -125,7 +207,7 @@ public class SqlgCompiledResultIterator<E> implements Iterator<E> {
                                     //try the next rootSchemaTableTree
                                     if (this.rootSchemaTableTreeIterator.hasNext()) {
                                         this.currentRootSchemaTableTree = this.rootSchemaTableTreeIterator.next();
-                                        this.distinctQueriesIterator = this.currentRootSchemaTableTree.constructDistinctQueries().iterator();
+                                        this.distinctQueriesIterator = distinctQueries(this.currentRootSchemaTableTree).iterator();
                                     } else {
                                         if (this.currentRootSchemaTableTree != null) {
                                             this.currentRootSchemaTableTree.resetColumnAliasMaps();
@@ -241,6 +323,127 @@ public class SqlgCompiledResultIterator<E> implements Iterator<E> {
         return (E) result;
     }
 
+    /**
+     * Puts the distinct queries of all the roots that can be a part of a 'UNION ALL' in 'UNION ALL' statements.
+     * Every statement selects at most MAX_UNION_COLUMNS columns, the rest of the distinct queries are executed on their own.
+     */
+    private List<List<UnionPart>> constructUnionQueries() {
+        List<Pair<SchemaTableTree, LinkedList<SchemaTableTree>>> unionQueries = new ArrayList<>();
+        for (SchemaTableTree rootSchemaTableTree : this.rootSchemaTableTrees) {
+            List<LinkedList<SchemaTableTree>> rootDistinctQueries = new ArrayList<>();
+            for (LinkedList<SchemaTableTree> distinctQueryStack : rootSchemaTableTree.constructDistinctQueries()) {
+                if (rootSchemaTableTree.isUnionPart(distinctQueryStack)) {
+                    unionQueries.add(Pair.of(rootSchemaTableTree, distinctQueryStack));
+                } else {
+                    rootDistinctQueries.add(distinctQueryStack);
+                }
+            }
+            this.distinctQueries.put(rootSchemaTableTree, rootDistinctQueries);
+        }
+        List<List<UnionPart>> result = new ArrayList<>();
+        this.unionParts = new ArrayList<>();
+        if (unionQueries.size() < 2) {
+            //Nothing to put together.
+            for (Pair<SchemaTableTree, LinkedList<SchemaTableTree>> unionQuery : unionQueries) {
+                this.distinctQueries.get(unionQuery.getLeft()).add(unionQuery.getRight());
+            }
+            return result;
+        }
+        List<UnionPart> statementUnionParts = new ArrayList<>();
+        int columns = 0;
+        for (Pair<SchemaTableTree, LinkedList<SchemaTableTree>> unionQuery : unionQueries) {
+            //The part numbers are unique across the statements, a part's number is its index in unionParts plus one.
+            UnionPart unionPart = unionQuery.getLeft().constructUnionPart(unionQuery.getRight(), this.unionParts.size() + 1);
+            this.unionParts.add(unionPart);
+            if (!statementUnionParts.isEmpty() && columns + unionPart.getColumns().size() > MAX_UNION_COLUMNS) {
+                result.add(statementUnionParts);
+                statementUnionParts = new ArrayList<>();
+                columns = 0;
+            }
+            statementUnionParts.add(unionPart);
+            columns += unionPart.getColumns().size();
+        }
+        result.add(statementUnionParts);
+        return result;
+    }
+
+    private List<LinkedList<SchemaTableTree>> distinctQueries(SchemaTableTree rootSchemaTableTree) {
+        List<LinkedList<SchemaTableTree>> rootDistinctQueries = this.distinctQueries.remove(rootSchemaTableTree);
+        if (rootDistinctQueries != null) {
+            return rootDistinctQueries;
+        } else {
+            return rootSchemaTableTree.constructDistinctQueries();
+        }
+    }
+
+    /**
+     * Parallel queries are only executed if the transaction asks for them and has nothing buffered in batch mode.
+     */
+    private boolean isParallelQueries() {
+        return this.sqlgGraph.tx().isParallelQueries() && !this.sqlgGraph.tx().isInBatchMode();
+    }
+
+    /**
+     * Constructs the regular queries of all the roots that are not part of a 'UNION ALL' and executes them in parallel.
+     * Drops are executed on the transaction's connection, as are all the queries if there are not at least two to execute
+     * or if one of them joins onto temporary tables.
+     */
+    private List<Pair<ParallelQuery, CompletableFuture<Triple<ResultSet, ResultSetMetaData, PreparedStatement>>>> constructParallelQueries() {
+        Map<SchemaTableTree, List<LinkedList<SchemaTableTree>>> rootDistinctQueries = new LinkedHashMap<>();
+        int count = 0;
+        boolean temporaryTables = false;
+        for (SchemaTableTree rootSchemaTableTree : this.rootSchemaTableTrees) {
+            List<LinkedList<SchemaTableTree>> distinctQueryStacks = distinctQueries(rootSchemaTableTree);
+            rootDistinctQueries.put(rootSchemaTableTree, distinctQueryStacks);
+            for (LinkedList<SchemaTableTree> distinctQueryStack : distinctQueryStacks) {
+                if (rootSchemaTableTree.usesTemporaryTables(this.sqlgGraph, distinctQueryStack)) {
+                    //The temporary tables are only visible on the transaction's connection.
+                    temporaryTables = true;
+                } else if (!distinctQueryStack.getLast().isDrop()) {
+                    count++;
+                }
+            }
+        }
+        List<Pair<ParallelQuery, CompletableFuture<Triple<ResultSet, ResultSetMetaData, PreparedStatement>>>> result = new ArrayList<>();
+        if (count < 2 || temporaryTables) {
+            //Nothing to execute in parallel.
+            this.distinctQueries.putAll(rootDistinctQueries);
+            return result;
+        }
+        List<ParallelQuery> parallelQueries = new ArrayList<>();
+        for (Map.Entry<SchemaTableTree, List<LinkedList<SchemaTableTree>>> entry : rootDistinctQueries.entrySet()) {
+            List<LinkedList<SchemaTableTree>> drops = new ArrayList<>();
+            for (LinkedList<SchemaTableTree> distinctQueryStack : entry.getValue()) {
+                if (distinctQueryStack.getLast().isDrop()) {
+                    drops.add(distinctQueryStack);
+                } else {
+                    parallelQueries.add(entry.getKey().constructParallelQuery(distinctQueryStack));
+                }
+            }
+            this.distinctQueries.put(entry.getKey(), drops);
+        }
+        List<CompletableFuture<Triple<ResultSet, ResultSetMetaData, PreparedStatement>>> results = this.sqlgGraph.tx().getParallelQueryConnections().execute(parallelQueries);
+        for (int i = 0; i < parallelQueries.size(); i++) {
+            result.add(Pair.of(parallelQueries.get(i), results.get(i)));
+        }
+        return result;
+    }
+
+    private Triple<ResultSet, ResultSetMetaData, PreparedStatement> parallelQueryResult(CompletableFuture<Triple<ResultSet, ResultSetMetaData, PreparedStatement>> result) {
+        try {
+            return result.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException(e.getCause());
+        }
+    }
+
+    private void executeUnionQuery() {
+        this.queryResult = SqlgSqlExecutor.executeUnionQuery(this.sqlgGraph, this.currentUnionParts);
+    }
+
     private void executeDropQuery() {
         SqlgSqlExecutor.executeDropQuery(this.sqlgGraph, this.currentRootSchemaTableTree, this.currentDistinctQueryStack);
     }
@@ -257,6 +460,36 @@ public class SqlgCompiledResultIterator<E> implements Iterator<E> {
         this.queryResult = SqlgSqlExecutor.executeEmitQuery(this.sqlgGraph, this.currentRootSchemaTableTree, this.emitCurrentLeftJoinResult);
     }
 
+    /**
+     * Loads the next row of the 'UNION ALL' statement.
+     * When the row is of another part than the previous row the part's alias maps are restored to load it.
+     */
+    private void iterateUnionQueries() throws SQLException {
+        ResultSet resultSet = this.queryResult.getLeft();
+        if (resultSet.next()) {
+            int part = resultSet.getInt(SqlgSqlExecutor.unionAllPartColumn(this.currentUnionParts));
+            boolean firstOfPart = false;
+            if (this.currentUnionPart == null || this.currentUnionPart.getPart() != part) {
+                this.currentUnionPart = this.unionParts.get(part - 1);
+                this.currentUnionPart.restoreAliasMaps();
+                firstOfPart = true;
+            }
+            List<Emit<SqlgElement>> result = SqlgUtil.loadResultSetRowIntoResultIterator(
+                    this.sqlgGraph,
+                    this.queryResult.getMiddle(),
+                    resultSet,
+                    this.currentUnionPart.getRootSchemaTableTree(),
+                    this.currentUnionPart.getSubQueryStacks(),
+                    firstOfPart,
+                    this.lastElementIdCountMap,
+                    this.forParent
+            );
+            if (!result.isEmpty()) {
+                this.elements = result;
+            }
+        }
+    }
+
     private void iterateRegularQueries() throws SQLException {
         List<Emit<SqlgElement>> result;
         if (!this.forParent) {
@@ -348,7 +581,8 @@ public class SqlgCompiledResultIterator<E> implements Iterator<E> {
     private void closePreparedStatement() {
         if (this.queryResult != null) {
             try {
-                this.queryResult.getRight().close();
+                this.queryResult.getLeft().close();
+                this.sqlgGraph.tx().releasePreparedStatement(this.queryResult.getRight());
                 this.queryResult = null;
             } catch (SQLException e) {
                 throw new RuntimeException(e);
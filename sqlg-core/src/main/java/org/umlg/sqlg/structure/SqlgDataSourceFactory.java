@@ -1,6 +1,8 @@
 package org.umlg.sqlg.structure;
 
 import org.apache.commons.configuration.Configuration;
+import org.umlg.sqlg.sql.dialect.SqlDialect;
+
 import javax.sql.DataSource;
 
 /**
@@ -10,13 +12,20 @@ public interface SqlgDataSourceFactory {
 
     SqlgDataSource setup(String driver, final Configuration configuration) throws Exception;
 
+    /**
+     * Factories that can tune the pool or the driver for the dialect override this.
+     */
+    default SqlgDataSource setup(String driver, final Configuration configuration, SqlDialect sqlDialect) throws Exception {
+        return setup(driver, configuration);
+    }
+
     interface SqlgDataSource {
         DataSource getDatasource();
         void close();
         /**
-         * This is needed for Postgresql where after a ddl statement all prepared statements need to be 'DEALLOCATED'
-         * This does not completely prevent the issue as currently active connections may still execute a prepared statement
-         * that Postgresql will reject with 'cached plan must not change result type'.
+         * Closes the pool's idle connections and its busy ones when they are returned, new connections replace them.
+         * Sqlg does not call it, after a ddl statement Postgresql's connections deallocate their prepared statements themselves,
+         * see {@link org.umlg.sqlg.structure.topology.Topology#deallocateIfStale(java.sql.Connection)}.
          */
         default void softResetPool() {
             //Do nothing
@@ -170,8 +170,8 @@ public class SqlgEdge extends SqlgElement implements Edge {
             logger.debug(sql.toString());
         }
         int i = 1;
-        Connection conn = this.sqlgGraph.tx().getConnection();
-        try (PreparedStatement preparedStatement = conn.prepareStatement(sql.toString(), Statement.RETURN_GENERATED_KEYS)) {
+        PreparedStatement preparedStatement = this.sqlgGraph.tx().prepareStatement(sql.toString(), Statement.RETURN_GENERATED_KEYS);
+        try {
             i = SqlgUtil.setKeyValuesAsParameterUsingPropertyColumn(this.sqlgGraph, i, preparedStatement, propertyTypeValueMap);
             preparedStatement.setLong(i++, this.inVertex.recordId.getId());
             preparedStatement.setLong(i, this.outVertex.recordId.getId());
@@ -183,8 +183,10 @@ public class SqlgEdge extends SqlgElement implements Edge {
                 throw new RuntimeException("Could not retrieve the id after an insert into " + Topology.VERTICES);
             }
             if (!keyValueMap.isEmpty()) {
-                insertGlobalUniqueIndex(keyValueMap, propertyColumns);
+                insertGlobalUniqueIndex(keyValueMap);
             }
+        } finally {
+            this.sqlgGraph.tx().releasePreparedStatement(preparedStatement);
         }
     }
 
@@ -192,7 +194,7 @@ public class SqlgEdge extends SqlgElement implements Edge {
     @Override
     protected void load() {
         //recordId can be null when in batchMode
-        if (this.recordId != null && this.properties.isEmpty()) {
+        if (this.recordId != null && !isFullyLoaded()) {
             this.sqlgGraph.tx().readWrite();
             if (this.sqlgGraph.getSqlDialect().supportsBatchMode() && this.sqlgGraph.tx().getBatchManager().isStreaming()) {
                 throw new IllegalStateException("streaming is in progress, first flush or commit before querying.");
@@ -234,15 +236,19 @@ public class SqlgEdge extends SqlgElement implements Edge {
             if (this.sqlgGraph.getSqlDialect().needsSemicolon()) {
                 sql.append(";");
             }
-            Connection conn = this.sqlgGraph.tx().getConnection();
             if (logger.isDebugEnabled()) {
                 logger.debug(sql.toString());
             }
-            try (PreparedStatement preparedStatement = conn.prepareStatement(sql.toString())) {
-                preparedStatement.setLong(1, this.recordId.getId());
-                ResultSet resultSet = preparedStatement.executeQuery();
-                if (resultSet.next()) {
-                    loadResultSet(resultSet);
+            try {
+                PreparedStatement preparedStatement = this.sqlgGraph.tx().prepareStatement(sql.toString());
+                try {
+                    preparedStatement.setLong(1, this.recordId.getId());
+                    ResultSet resultSet = preparedStatement.executeQuery();
+                    if (resultSet.next()) {
+                        loadResultSet(resultSet);
+                    }
+                } finally {
+                    this.sqlgGraph.tx().releasePreparedStatement(preparedStatement);
                 }
             } catch (SQLException e) {
                 throw new RuntimeException(e);
@@ -250,56 +256,14 @@ public class SqlgEdge extends SqlgElement implements Edge {
         }
     }
 
-    public void loadInVertex(ResultSet resultSet, String label, int columnIdx) throws SQLException {
-        SchemaTable inVertexColumnName = SchemaTable.from(this.sqlgGraph, label);
-        Long inId = resultSet.getLong(columnIdx);
-        if (!resultSet.wasNull()) {
-            this.inVertex = SqlgVertex.of(this.sqlgGraph, inId, inVertexColumnName.getSchema(), SqlgUtil.removeTrailingInId(inVertexColumnName.getTable()));
-        }
-    }
-
-    public void loadOutVertex(ResultSet resultSet, String label, int columnIdx) throws SQLException {
-        SchemaTable outVertexColumnName = SchemaTable.from(this.sqlgGraph, label);
-        Long outId = resultSet.getLong(columnIdx);
-        if (!resultSet.wasNull()) {
-            this.outVertex = SqlgVertex.of(this.sqlgGraph, outId, outVertexColumnName.getSchema(), SqlgUtil.removeTrailingOutId(outVertexColumnName.getTable()));
-        }
+    void setInVertex(SqlgVertex inVertex) {
+        this.inVertex = inVertex;
     }
 
-    @Override
-    public void loadResultSet(ResultSet resultSet) throws SQLException {
-        SchemaTable inVertexColumnName = null;
-        SchemaTable outVertexColumnName = null;
-        int inVertexColumnIndex = 0;
-        int outVertexColumnIndex = 0;
-        ResultSetMetaData resultSetMetaData = resultSet.getMetaData();
-        for (int i = 1; i <= resultSetMetaData.getColumnCount(); i++) {
-            String columnName = resultSetMetaData.getColumnLabel(i);
-            if (!columnName.equals("ID") &&
-                    !columnName.endsWith(Topology.OUT_VERTEX_COLUMN_END) &&
-                    !columnName.endsWith(Topology.IN_VERTEX_COLUMN_END)) {
-
-                loadProperty(resultSet, columnName, i);
-            }
-            if (columnName.endsWith(Topology.IN_VERTEX_COLUMN_END)) {
-                inVertexColumnName = SchemaTable.from(this.sqlgGraph, columnName);
-                inVertexColumnIndex = i;
-            } else if (columnName.endsWith(Topology.OUT_VERTEX_COLUMN_END)) {
-                outVertexColumnName = SchemaTable.from(this.sqlgGraph, columnName);
-                outVertexColumnIndex = i;
-            }
-        }
-        if (inVertexColumnName == null || inVertexColumnIndex == 0 || outVertexColumnName == null || outVertexColumnIndex == 0) {
-            throw new IllegalStateException("in or out vertex id not set!!!!");
-        }
-        Long inId = resultSet.getLong(inVertexColumnIndex);
-        Long outId = resultSet.getLong(outVertexColumnIndex);
-
-        this.inVertex = SqlgVertex.of(this.sqlgGraph, inId, inVertexColumnName.getSchema(), SqlgUtil.removeTrailingInId(inVertexColumnName.getTable()));
-        this.outVertex = SqlgVertex.of(this.sqlgGraph, outId, outVertexColumnName.getSchema(), SqlgUtil.removeTrailingOutId(outVertexColumnName.getTable()));
+    void setOutVertex(SqlgVertex outVertex) {
+        this.outVertex = outVertex;
     }
 
-
     @Override
     public <V> Iterator<Property<V>> properties(final String... propertyKeys) {
         return (Iterator) super.properties(propertyKeys);
@@ -0,0 +1,186 @@
+package org.umlg.sqlg.structure;
+
+import org.apache.tinkerpop.gremlin.structure.Element;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.umlg.sqlg.sql.dialect.SqlDialect;
+import org.umlg.sqlg.util.LongList;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.*;
+
+import static org.umlg.sqlg.structure.topology.Topology.EDGE_PREFIX;
+import static org.umlg.sqlg.structure.topology.Topology.VERTEX_PREFIX;
+
+/**
+ * Iterates the elements returned by {@link SqlgGraph#vertices(Object...)} and {@link SqlgGraph#edges(Object...)}.
+ * The tables are queried one at a time and the elements are loaded from the ResultSet as they are iterated,
+ * using the transaction's fetch size so that the rdbms can stream the rows.
+ */
+class SqlgElementIterator<T extends Element> implements Iterator<T> {
+
+    private static final Logger logger = LoggerFactory.getLogger(SqlgElementIterator.class);
+    //Without array parameters the ids are written into the sql, this limits the size of the 'IN' list.
+    private static final int IDS_PER_QUERY = 1000;
+
+    private final SqlgGraph sqlgGraph;
+    private final boolean returnVertices;
+    //The SchemaTable's table is the label, i.e. without the vertex or edge prefix. null ids means all the rows.
+    private final Iterator<Map.Entry<SchemaTable, long[]>> queries;
+
+    private SchemaTable schemaTable;
+    private PreparedStatement preparedStatement;
+    private boolean cachedStatement;
+    private ResultSet resultSet;
+    private int idColumnIndex;
+    private RowDecoder rowDecoder;
+    private T next;
+
+    SqlgElementIterator(SqlgGraph sqlgGraph, boolean returnVertices, List<RecordId> elementIds) {
+        this.sqlgGraph = sqlgGraph;
+        this.returnVertices = returnVertices;
+        List<Map.Entry<SchemaTable, long[]>> queries = new ArrayList<>();
+        Set<String> tables = sqlgGraph.getTopology().getAllTables().keySet();
+        String prefix = returnVertices ? VERTEX_PREFIX : EDGE_PREFIX;
+        if (elementIds.isEmpty()) {
+            for (String table : tables) {
+                SchemaTable schemaTable = SchemaTable.from(sqlgGraph, table);
+                if (returnVertices ? schemaTable.isVertexTable() : !schemaTable.isVertexTable()) {
+                    queries.add(new AbstractMap.SimpleImmutableEntry<>(
+                            SchemaTable.of(schemaTable.getSchema(), schemaTable.getTable().substring(prefix.length())), null));
+                }
+            }
+        } else {
+            Map<SchemaTable, LongList> distinctTableIdMap = RecordId.normalizeIds(elementIds);
+            for (Map.Entry<SchemaTable, LongList> schemaTableListEntry : distinctTableIdMap.entrySet()) {
+                SchemaTable schemaTable = schemaTableListEntry.getKey();
+                LongList ids = schemaTableListEntry.getValue();
+                if (tables.contains(schemaTable.getSchema() + "." + prefix + schemaTable.getTable())) {
+                    if (sqlgGraph.getSqlDialect().supportsArrayParameterIn()) {
+                        queries.add(new AbstractMap.SimpleImmutableEntry<>(schemaTable, ids.toArray()));
+                    } else {
+                        for (int from = 0; from < ids.size(); from += IDS_PER_QUERY) {
+                            queries.add(new AbstractMap.SimpleImmutableEntry<>(schemaTable, ids.toArray(from, Math.min(from + IDS_PER_QUERY, ids.size()))));
+                        }
+                    }
+                }
+            }
+        }
+        this.queries = queries.iterator();
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (this.next != null) {
+            return true;
+        }
+        try {
+            while (true) {
+                if (this.resultSet != null) {
+                    if (this.resultSet.next()) {
+                        this.next = load();
+                        return true;
+                    }
+                    close();
+                }
+                if (!this.queries.hasNext()) {
+                    return false;
+                }
+                Map.Entry<SchemaTable, long[]> query = this.queries.next();
+                executeQuery(query.getKey(), query.getValue());
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        T result = this.next;
+        this.next = null;
+        return result;
+    }
+
+    private void executeQuery(SchemaTable schemaTable, long[] ids) throws SQLException {
+        SqlDialect sqlDialect = this.sqlgGraph.getSqlDialect();
+        boolean arrayParameter = ids != null && sqlDialect.supportsArrayParameterIn();
+        StringBuilder sql = new StringBuilder("SELECT * FROM ");
+        sql.append(sqlDialect.maybeWrapInQoutes(schemaTable.getSchema()));
+        sql.append(".");
+        sql.append(sqlDialect.maybeWrapInQoutes((this.returnVertices ? VERTEX_PREFIX : EDGE_PREFIX) + schemaTable.getTable()));
+        if (ids != null) {
+            sql.append(" WHERE ");
+            if (arrayParameter) {
+                sql.append(sqlDialect.arrayParameterIn(sqlDialect.maybeWrapInQoutes("ID")));
+            } else {
+                sql.append(sqlDialect.maybeWrapInQoutes("ID"));
+                sql.append(" IN (");
+                int count = 1;
+                for (long id : ids) {
+                    sql.append(id);
+                    if (count++ < ids.length) {
+                        sql.append(",");
+                    }
+                }
+                sql.append(")");
+            }
+        }
+        if (sqlDialect.needsSemicolon()) {
+            sql.append(";");
+        }
+        if (logger.isDebugEnabled()) {
+            logger.debug(sql.toString());
+        }
+        this.schemaTable = schemaTable;
+        //The sql of an 'IN' list contains the ids, do not cache it.
+        this.cachedStatement = ids == null || arrayParameter;
+        if (this.cachedStatement) {
+            this.preparedStatement = this.sqlgGraph.tx().prepareStatement(sql.toString());
+        } else {
+            Connection conn = this.sqlgGraph.tx().getConnection();
+            this.preparedStatement = conn.prepareStatement(sql.toString());
+            this.sqlgGraph.tx().add(this.preparedStatement);
+        }
+        if (arrayParameter) {
+            sqlDialect.setLongArrayParameter(this.preparedStatement, 1, ids);
+        }
+        // https://jdbc.postgresql.org/documentation/head/query.html#query-with-cursor
+        if (this.sqlgGraph.tx().getFetchSize() != null) {
+            this.preparedStatement.setFetchSize(this.sqlgGraph.tx().getFetchSize());
+        }
+        this.resultSet = this.preparedStatement.executeQuery();
+        this.idColumnIndex = this.resultSet.findColumn("ID");
+        this.rowDecoder = RowDecoder.forTable(this.sqlgGraph, this.resultSet, this.schemaTable.withPrefix(this.returnVertices ? VERTEX_PREFIX : EDGE_PREFIX));
+    }
+
+    @SuppressWarnings("unchecked")
+    private T load() throws SQLException {
+        long id = this.resultSet.getLong(this.idColumnIndex);
+        SqlgElement sqlgElement;
+        if (this.returnVertices) {
+            sqlgElement = SqlgVertex.of(this.sqlgGraph, id, this.schemaTable.getSchema(), this.schemaTable.getTable());
+        } else {
+            sqlgElement = new SqlgEdge(this.sqlgGraph, id, this.schemaTable.getSchema(), this.schemaTable.getTable());
+        }
+        sqlgElement.loadResultSet(this.resultSet, this.rowDecoder);
+        return (T) sqlgElement;
+    }
+
+    private void close() throws SQLException {
+        this.resultSet.close();
+        this.resultSet = null;
+        this.rowDecoder = null;
+        if (this.cachedStatement) {
+            this.sqlgGraph.tx().releasePreparedStatement(this.preparedStatement);
+        } else {
+            this.preparedStatement.close();
+        }
+        this.preparedStatement = null;
+    }
+}
@@ -4,6 +4,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import org.apache.commons.configuration.BaseConfiguration;
 import org.apache.commons.configuration.Configuration;
 import org.apache.commons.configuration.ConfigurationException;
@@ -24,9 +25,11 @@ import org.apache.tinkerpop.gremlin.structure.util.StringFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.umlg.sqlg.SqlgPlugin;
+import org.umlg.sqlg.computer.SqlgGraphComputer;
 import org.umlg.sqlg.sql.dialect.SqlBulkDialect;
 import org.umlg.sqlg.sql.dialect.SqlDialect;
 import org.umlg.sqlg.sql.parse.GremlinParser;
+import org.umlg.sqlg.sql.parse.SqlCache;
 import org.umlg.sqlg.strategy.*;
 import org.umlg.sqlg.strategy.barrier.*;
 import org.umlg.sqlg.structure.SqlgDataSourceFactory.SqlgDataSource;
@@ -40,6 +43,9 @@ import org.umlg.sqlg.util.SqlgUtil;
 
 import java.sql.*;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.stream.Stream;
 
 import static org.umlg.sqlg.structure.topology.Topology.EDGE_PREFIX;
@@ -53,6 +59,7 @@ import static org.apache.tinkerpop.gremlin.structure.Graph.OptOut;
  */
 @OptIn(OptIn.SUITE_STRUCTURE_STANDARD)
 @OptIn(OptIn.SUITE_PROCESS_STANDARD)
+@OptIn(OptIn.SUITE_PROCESS_COMPUTER)
 
 //Start remove these for 3.2.6
 @OptOut(
@@ -178,6 +185,14 @@ import static org.apache.tinkerpop.gremlin.structure.Graph.OptOut;
         test = "org.apache.tinkerpop.gremlin.structure.GraphTest",
         method = "shouldHaveStandardStringRepresentation",
         reason = "SQLGGRAPH INCLUDES THE JDBC CONNECTION URL.")
+@OptOut(
+        test = "org.apache.tinkerpop.gremlin.process.computer.bulkloading.BulkLoaderVertexProgramTest",
+        method = "*",
+        reason = "The bulk loader's graph is a TinkerGraph which is not on the classpath.")
+@OptOut(
+        test = "org.apache.tinkerpop.gremlin.process.computer.GraphComputerTest",
+        method = "shouldSucceedWithProperTraverserRequirements",
+        reason = "The vertex program adds list cardinality properties, multi properties are not supported.")
 public class SqlgGraph implements Graph {
 
     public static final String JDBC_URL = "jdbc.url";
@@ -189,12 +204,22 @@ public class SqlgGraph implements Graph {
     private final SqlgTransaction sqlgTransaction;
     private Topology topology;
     private GremlinParser gremlinParser;
+    private SqlCache sqlCache;
+    private int vertexStepChunkSize;
+    private boolean bulkCopyBinary;
+    private boolean globalUniqueIndexDeferred;
+    private boolean queryUnionAll;
+    private int parallelQueryConnections;
+    private ExecutorService parallelQueryExecutor;
     private SqlDialect sqlDialect;
     private String jdbcUrl;
     private ObjectMapper mapper = new ObjectMapper();
 //    private boolean implementForeignKeys;
     private Configuration configuration = new BaseConfiguration();
     private final ISqlGFeatures features = new SqlGFeatures();
+    //The property layouts of the vertex and edge labels, keyed by the label's SchemaTable without prefix.
+    private final Map<SchemaTable, PropertyLayout> vertexPropertyLayouts = new ConcurrentHashMap<>();
+    private final Map<SchemaTable, PropertyLayout> edgePropertyLayouts = new ConcurrentHashMap<>();
 
     /**
      * the build version of sqlg
@@ -219,6 +244,7 @@ public class SqlgGraph implements Graph {
                         new SqlgNotStepStepStrategy(),
                         new SqlgHasStepStrategy(),
                         new SqlgDropStepStrategy(),
+                        new SqlgAggregateStrategy(),
                         TopologyStrategy.build().create())
                 .removeStrategies(
                         PathRetractionStrategy.class)
@@ -285,7 +311,7 @@ public class SqlgGraph implements Graph {
                     throw new IllegalStateException("Could not find suitable sqlg plugin for the JDBC URL: " + this.jdbcUrl);
                 }
                 this.sqlDialect = p.instantiateDialect();
-                this.sqlgDataSource = dataSourceFactory.setup(p.getDriverFor(jdbcUrl), this.configuration);
+                this.sqlgDataSource = dataSourceFactory.setup(p.getDriverFor(jdbcUrl), this.configuration, this.sqlDialect);
             }
 
             logger.debug(String.format("Opening graph. Connection url = %s, maxPoolSize = %d", this.getJdbcUrl(), configuration.getInt("maxPoolSize", 100)));
@@ -304,6 +330,19 @@ public class SqlgGraph implements Graph {
         // so if there are massive queries, setting the fetch size will avoid out of memory errors
         this.sqlgTransaction.setDefaultFetchSize(this.configuration.getInteger("fetch.size", this.sqlDialect.getDefaultFetchSize()));
         
+        this.sqlCache = new SqlCache(this.configuration.getInt("sql.cache.size", 1000));
+        this.vertexStepChunkSize = this.configuration.getInt("vertex.step.chunk.size", 10000);
+        this.bulkCopyBinary = this.configuration.getBoolean("bulk.copy.binary", false);
+        this.globalUniqueIndexDeferred = this.configuration.getBoolean("global.unique.index.deferred", false);
+        this.queryUnionAll = this.configuration.getBoolean("query.union.all", false) && this.sqlDialect.supportsUnionAllNullColumns();
+        this.parallelQueryConnections = this.configuration.getInt("query.parallel.connections", 0);
+        if (this.parallelQueryConnections > 0) {
+            this.parallelQueryExecutor = Executors.newFixedThreadPool(
+                    this.parallelQueryConnections,
+                    new ThreadFactoryBuilder().setNameFormat("sqlg-parallel-query-%d").setDaemon(true).build()
+            );
+        }
+
         this.tx().readWrite();
         //Instantiating Topology will create the 'public' schema if it does not exist.
         this.topology = new Topology(this);
@@ -332,10 +371,67 @@ public class SqlgGraph implements Graph {
         return gremlinParser;
     }
 
+    /**
+     * @return the cache of generated sql per query shape. Its size is configured with 'sql.cache.size', 0 disables it.
+     */
+    public SqlCache getSqlCache() {
+        return this.sqlCache;
+    }
+
+    /**
+     * @return The maximum number of incoming starts a vertex step queries at once, 0 means all of them.
+     */
+    public int getVertexStepChunkSize() {
+        return this.vertexStepChunkSize;
+    }
+
+    /**
+     * @return true if the dialect must use its binary bulk load format in normal batch mode, if it has one.
+     */
+    public boolean isBulkCopyBinary() {
+        return this.bulkCopyBinary;
+    }
+
+    /**
+     * @return true if global unique index rows are written at commit instead of with every element write.
+     * Violations then only surface at commit.
+     */
+    public boolean isGlobalUniqueIndexDeferred() {
+        return this.globalUniqueIndexDeferred;
+    }
+
+    /**
+     * @return true if the distinct queries of a step are executed as one 'UNION ALL' statement where possible.
+     */
+    public boolean isQueryUnionAll() {
+        return this.queryUnionAll;
+    }
+
+    /**
+     * @return The number of extra connections a transaction executes its parallel queries on, 0 if parallel queries are disabled.
+     * A transaction with parallel queries uses up to this many connections from the pool on top of its own.
+     */
+    public int getParallelQueryConnections() {
+        return this.parallelQueryConnections;
+    }
+
+    ExecutorService getParallelQueryExecutor() {
+        return this.parallelQueryExecutor;
+    }
+
     public SqlDialect getSqlDialect() {
         return sqlDialect;
     }
 
+    PropertyLayout getPropertyLayout(boolean vertex, SchemaTable schemaTable) {
+        Map<SchemaTable, PropertyLayout> propertyLayouts = vertex ? this.vertexPropertyLayouts : this.edgePropertyLayouts;
+        PropertyLayout propertyLayout = propertyLayouts.get(schemaTable);
+        if (propertyLayout == null) {
+            propertyLayout = propertyLayouts.computeIfAbsent(schemaTable, k -> new PropertyLayout());
+        }
+        return propertyLayout;
+    }
+
     @Override
     public GraphTraversalSource traversal() {
         return this.traversal(SqlgGraphTraversalSource.class);
@@ -346,6 +442,7 @@ public class SqlgGraph implements Graph {
     }
 
     public GraphTraversalSource globalUniqueIndexes() {
+        this.sqlgTransaction.flushGlobalUniqueIndexChanges();
         return this.traversal().withStrategies(TopologyStrategy.build().selectFrom(this.getTopology().getGlobalUniqueIndexes()).create());
     }
 
@@ -483,14 +580,21 @@ public class SqlgGraph implements Graph {
     }
 
 
+    @SuppressWarnings("unchecked")
     @Override
     public <C extends GraphComputer> C compute(Class<C> graphComputerClass) throws IllegalArgumentException {
-        throw Graph.Exceptions.graphComputerNotSupported();
+        if (!graphComputerClass.equals(SqlgGraphComputer.class)) {
+            throw Graph.Exceptions.graphDoesNotSupportProvidedGraphComputer(graphComputerClass);
+        }
+        return (C) new SqlgGraphComputer(this);
     }
 
+    /**
+     * @return a {@link SqlgGraphComputer}, it executes vertex programs on an in memory snapshot of the graph.
+     */
     @Override
     public GraphComputer compute() {
-        throw Graph.Exceptions.graphComputerNotSupported();
+        return new SqlgGraphComputer(this);
     }
 
     @Override
@@ -513,7 +617,7 @@ public class SqlgGraph implements Graph {
 
     private <T extends Element> Iterator<T> createElementIterator(final Class<T> clazz, final Object... ids) {
         if (0 == ids.length) {
-            return (Iterator<T>) elements(Vertex.class.isAssignableFrom(clazz), Collections.EMPTY_LIST).iterator();
+            return elements(Vertex.class.isAssignableFrom(clazz), Collections.emptyList());
         } else {
             if (clazz.isAssignableFrom(ids[0].getClass())) {
                 // based on the first item assume all vertices in the argument list
@@ -527,8 +631,7 @@ public class SqlgGraph implements Graph {
                     throw Graph.Exceptions.idArgsMustBeEitherIdOrElement();
 
                 List<RecordId> recordIds = RecordId.from(ids);
-                Iterable<T> elementIterable = elements(Vertex.class.isAssignableFrom(clazz), recordIds);
-                return elementIterable.iterator();
+                return elements(Vertex.class.isAssignableFrom(clazz), recordIds);
             }
         }
     }
@@ -548,6 +651,9 @@ public class SqlgGraph implements Graph {
         logger.debug(String.format("Closing graph. Connection url = %s, maxPoolSize = %d", this.configuration.getString(JDBC_URL), configuration.getInt("maxPoolSize", 100)));
         if (this.tx().isOpen())
             this.tx().close();
+        if (this.parallelQueryExecutor != null) {
+            this.parallelQueryExecutor.shutdownNow();
+        }
         this.topology.close();
         this.sqlgDataSource.close();
     }
@@ -585,7 +691,7 @@ public class SqlgGraph implements Graph {
             return new GraphFeatures() {
                 @Override
                 public boolean supportsComputer() {
-                    return false;
+                    return true;
                 }
 
                 @Override
@@ -1172,101 +1278,8 @@ public class SqlgGraph implements Graph {
         return null;
     }
 
-    private <T extends Element> Iterable<T> elements(boolean returnVertices, final List<RecordId> elementIds) {
-        List<T> sqlgElements = new ArrayList<>();
-        if (elementIds.size() > 0) {
-            Map<SchemaTable, List<Long>> distinctTableIdMap = RecordId.normalizeIds(elementIds);
-            for (Map.Entry<SchemaTable, List<Long>> schemaTableListEntry : distinctTableIdMap.entrySet()) {
-                SchemaTable schemaTable = schemaTableListEntry.getKey();
-                String tableName = (returnVertices ? VERTEX_PREFIX : EDGE_PREFIX) + schemaTable.getTable();
-                if (this.getTopology().getAllTables().containsKey(schemaTable.getSchema() + "." + tableName)) {
-                    List<Long> schemaTableIds = schemaTableListEntry.getValue();
-                    StringBuilder sql = new StringBuilder("SELECT * FROM ");
-                    sql.append(this.sqlDialect.maybeWrapInQoutes(schemaTable.getSchema()));
-                    sql.append(".");
-                    String table = "";
-                    if (returnVertices) {
-                        table += VERTEX_PREFIX;
-                    } else {
-                        table += EDGE_PREFIX;
-                    }
-                    table += schemaTable.getTable();
-                    sql.append(this.sqlDialect.maybeWrapInQoutes(table));
-                    sql.append(" WHERE ");
-                    sql.append(this.sqlDialect.maybeWrapInQoutes("ID"));
-                    sql.append(" IN (");
-                    int count = 1;
-                    for (Long id : schemaTableIds) {
-                        sql.append(id.toString());
-                        if (count++ < schemaTableIds.size()) {
-                            sql.append(",");
-                        }
-                    }
-                    sql.append(")");
-                    if (this.getSqlDialect().needsSemicolon()) {
-                        sql.append(";");
-                    }
-                    Connection conn = this.tx().getConnection();
-                    if (logger.isDebugEnabled()) {
-                        logger.debug(sql.toString());
-                    }
-                    try (Statement statement = conn.createStatement()) {
-                        statement.execute(sql.toString());
-                        ResultSet resultSet = statement.getResultSet();
-                        while (resultSet.next()) {
-                            long id = resultSet.getLong("ID");
-                            SqlgElement sqlgElement;
-                            if (returnVertices) {
-                                sqlgElement = SqlgVertex.of(this, id, schemaTable.getSchema(), schemaTable.getTable());
-                            } else {
-                                sqlgElement = new SqlgEdge(this, id, schemaTable.getSchema(), schemaTable.getTable());
-                            }
-                            sqlgElement.loadResultSet(resultSet);
-                            sqlgElements.add((T) sqlgElement);
-                        }
-                    } catch (SQLException e) {
-                        throw new RuntimeException(e);
-                    }
-                }
-            }
-        } else {
-            //TODO use a union query
-            Set<String> tables = this.getTopology().getAllTables().keySet();
-            for (String table : tables) {
-                SchemaTable schemaTable = SchemaTable.from(this, table);
-                if (returnVertices ? schemaTable.isVertexTable() : !schemaTable.isVertexTable()) {
-                    StringBuilder sql = new StringBuilder("SELECT * FROM ");
-                    sql.append(sqlDialect.maybeWrapInQoutes(schemaTable.getSchema()));
-                    sql.append(".");
-                    sql.append(sqlDialect.maybeWrapInQoutes(schemaTable.getTable()));
-                    if (this.getSqlDialect().needsSemicolon()) {
-                        sql.append(";");
-                    }
-                    Connection conn = this.tx().getConnection();
-                    if (logger.isDebugEnabled()) {
-                        logger.debug(sql.toString());
-                    }
-                    try (Statement statement = conn.createStatement()) {
-                        statement.execute(sql.toString());
-                        ResultSet resultSet = statement.getResultSet();
-                        while (resultSet.next()) {
-                            long id = resultSet.getLong("ID");
-                            SqlgElement sqlgElement;
-                            if (returnVertices) {
-                                sqlgElement = SqlgVertex.of(this, id, schemaTable.getSchema(), schemaTable.getTable().substring(VERTEX_PREFIX.length()));
-                            } else {
-                                sqlgElement = new SqlgEdge(this, id, schemaTable.getSchema(), schemaTable.getTable().substring(EDGE_PREFIX.length()));
-                            }
-                            sqlgElement.loadResultSet(resultSet);
-                            sqlgElements.add((T) sqlgElement);
-                        }
-                    } catch (SQLException e) {
-                        throw new RuntimeException(e);
-                    }
-                }
-            }
-        }
-        return sqlgElements;
+    private <T extends Element> Iterator<T> elements(boolean returnVertices, final List<RecordId> elementIds) {
+        return new SqlgElementIterator<>(this, returnVertices, elementIds);
     }
 
     public Connection getConnection() throws SQLException {
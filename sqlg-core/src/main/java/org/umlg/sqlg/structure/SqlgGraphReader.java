@@ -0,0 +1,491 @@
+package org.umlg.sqlg.structure;
+
+import com.google.common.base.Preconditions;
+import org.apache.tinkerpop.gremlin.structure.*;
+import org.apache.tinkerpop.gremlin.structure.io.GraphReader;
+import org.apache.tinkerpop.gremlin.structure.util.Attachable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * A {@link GraphReader} that bulk loads a GraphSON or Gryo adjacency list into a {@link SqlgGraph}.
+ * <p>
+ * The generic tinkerpop reader adds one element at a time and keeps every vertex of the file in memory to wire the edges.
+ * This reader wraps the tinkerpop reader only to deserialize the star vertices, groups them by label and loads them through the
+ * {@link BatchManager}. On dialects that support it this is {@link BatchManager.BatchModeType#STREAMING_WITH_LOCK} (COPY on postgres),
+ * elsewhere {@link BatchManager.BatchModeType#NORMAL} batch mode.
+ * <p>
+ * The file's vertex ids are mapped to the new {@link RecordId}s on disk. Both the id map and the out edges of the loaded
+ * vertices are spilled into {@code partitions} files, hashed on the (in) vertex's file id.
+ * The edges are then loaded one partition at a time, so only one partition of the id map is ever in memory.
+ * The whole graph is loaded in one transaction which is committed at the end.
+ * <p>
+ * Usage,
+ * <pre>
+ * SqlgGraphReader.build()
+ *     .reader(GryoReader.build().mapper(sqlgGraph.io(GryoIo.build()).mapper().create()).create())
+ *     .create()
+ *     .readGraph(inputStream, sqlgGraph);
+ * </pre>
+ */
+public class SqlgGraphReader implements GraphReader {
+
+    private static final Logger logger = LoggerFactory.getLogger(SqlgGraphReader.class);
+
+    private final GraphReader reader;
+    private final int batchSize;
+    private final int partitions;
+    private final Path workingDirectory;
+
+    private SqlgGraphReader(Builder builder) {
+        this.reader = builder.reader;
+        this.batchSize = builder.batchSize;
+        this.partitions = builder.partitions;
+        this.workingDirectory = builder.workingDirectory;
+    }
+
+    public static Builder build() {
+        return new Builder();
+    }
+
+    @Override
+    public void readGraph(InputStream inputStream, Graph graphToWriteTo) throws IOException {
+        if (!(graphToWriteTo instanceof SqlgGraph)) {
+            throw new IllegalArgumentException("SqlgGraphReader can only read into a SqlgGraph, found " + graphToWriteTo.getClass().getName());
+        }
+        SqlgGraph sqlgGraph = (SqlgGraph) graphToWriteTo;
+        Path directory = this.workingDirectory == null ? Files.createTempDirectory("sqlg-import") : Files.createTempDirectory(this.workingDirectory, "sqlg-import");
+        try (SpillFiles spillFiles = new SpillFiles(directory, this.partitions)) {
+            BatchManager.BatchModeType batchModeType = batchMode(sqlgGraph);
+            sqlgGraph.tx().batchMode(batchModeType);
+            VertexLoader vertexLoader = new VertexLoader(sqlgGraph, batchModeType, spillFiles);
+            Iterator<Vertex> vertices = this.reader.readVertices(inputStream, Attachable::get, Attachable::get, Direction.OUT);
+            while (vertices.hasNext()) {
+                vertexLoader.add(vertices.next());
+                if (vertexLoader.size() >= this.batchSize) {
+                    vertexLoader.load();
+                }
+            }
+            vertexLoader.load();
+            spillFiles.closeWriters();
+            logger.debug("Loaded {} vertices, loading {} edges", vertexLoader.vertexCount, spillFiles.edgeCount);
+            for (int partition = 0; partition < this.partitions; partition++) {
+                loadEdges(sqlgGraph, batchModeType, spillFiles, partition);
+            }
+            sqlgGraph.tx().commit();
+        } catch (Exception e) {
+            sqlgGraph.tx().rollback();
+            throw e;
+        } finally {
+            deleteQuietly(directory);
+        }
+    }
+
+    private static void deleteQuietly(Path directory) {
+        File[] files = directory.toFile().listFiles();
+        if (files != null) {
+            for (File file : files) {
+                if (!file.delete()) {
+                    logger.warn("Could not delete import spill file {}", file);
+                }
+            }
+        }
+        if (!directory.toFile().delete()) {
+            logger.warn("Could not delete import directory {}", directory);
+        }
+    }
+
+    private static BatchManager.BatchModeType batchMode(SqlgGraph sqlgGraph) {
+        if (sqlgGraph.getSqlDialect().supportsStreamingBatchMode()) {
+            return BatchManager.BatchModeType.STREAMING_WITH_LOCK;
+        } else if (sqlgGraph.getSqlDialect().supportsBatchMode()) {
+            return BatchManager.BatchModeType.NORMAL;
+        } else {
+            return BatchManager.BatchModeType.NONE;
+        }
+    }
+
+    private void loadEdges(SqlgGraph sqlgGraph, BatchManager.BatchModeType batchModeType, SpillFiles spillFiles, int partition) throws IOException {
+        Map<Object, RecordId> idMap = spillFiles.readIds(partition);
+        //Group the edges so that every stream is for one edge table with the same keys.
+        //A streaming edge table's foreign key columns are fixed by its first edge, so the group also holds the out and in vertex tables.
+        TreeMap<String, List<EdgeRecord>> groups = new TreeMap<>();
+        for (EdgeRecord edgeRecord : spillFiles.readEdges(partition)) {
+            edgeRecord.inRecordId = idMap.get(edgeRecord.inId);
+            if (edgeRecord.inRecordId == null) {
+                throw new IllegalStateException(String.format("Edge %s from %s refers to vertex %s that is not in the input", edgeRecord.label, edgeRecord.outRecordId, edgeRecord.inId));
+            }
+            SchemaTable outSchemaTable = edgeRecord.outRecordId.getSchemaTable();
+            SchemaTable inSchemaTable = edgeRecord.inRecordId.getSchemaTable();
+            String group = edgeRecord.label + "\u0000" + outSchemaTable.getSchema() + "\u0000" + outSchemaTable.getTable() + "\u0000" +
+                    inSchemaTable.getSchema() + "\u0000" + inSchemaTable.getTable() + "\u0000" + edgeRecord.keys();
+            groups.computeIfAbsent(group, k -> new ArrayList<>()).add(edgeRecord);
+        }
+        for (List<EdgeRecord> edgeRecords : groups.values()) {
+            int count = 0;
+            for (EdgeRecord edgeRecord : edgeRecords) {
+                SqlgVertex outVertex = vertex(sqlgGraph, edgeRecord.outRecordId);
+                SqlgVertex inVertex = vertex(sqlgGraph, edgeRecord.inRecordId);
+                outVertex.addEdge(edgeRecord.label, inVertex, edgeRecord.keyValues());
+                if (batchModeType != BatchManager.BatchModeType.NONE && ++count % this.batchSize == 0) {
+                    sqlgGraph.tx().flush();
+                }
+            }
+            if (batchModeType != BatchManager.BatchModeType.NONE) {
+                sqlgGraph.tx().flush();
+            }
+        }
+    }
+
+    private static SqlgVertex vertex(SqlgGraph sqlgGraph, RecordId recordId) {
+        SchemaTable schemaTable = recordId.getSchemaTable();
+        return SqlgVertex.of(sqlgGraph, recordId.getId(), schemaTable.getSchema(), schemaTable.getTable());
+    }
+
+    @Override
+    public Vertex readVertex(InputStream inputStream, Function<Attachable<Vertex>, Vertex> vertexAttachMethod) throws IOException {
+        return this.reader.readVertex(inputStream, vertexAttachMethod);
+    }
+
+    @Override
+    public Vertex readVertex(InputStream inputStream, Function<Attachable<Vertex>, Vertex> vertexAttachMethod, Function<Attachable<Edge>, Edge> edgeAttachMethod, Direction attachEdgesOfThisDirection) throws IOException {
+        return this.reader.readVertex(inputStream, vertexAttachMethod, edgeAttachMethod, attachEdgesOfThisDirection);
+    }
+
+    @Override
+    public Iterator<Vertex> readVertices(InputStream inputStream, Function<Attachable<Vertex>, Vertex> vertexAttachMethod, Function<Attachable<Edge>, Edge> edgeAttachMethod, Direction attachEdgesOfThisDirection) throws IOException {
+        return this.reader.readVertices(inputStream, vertexAttachMethod, edgeAttachMethod, attachEdgesOfThisDirection);
+    }
+
+    @Override
+    public Edge readEdge(InputStream inputStream, Function<Attachable<Edge>, Edge> edgeAttachMethod) throws IOException {
+        return this.reader.readEdge(inputStream, edgeAttachMethod);
+    }
+
+    @Override
+    public VertexProperty readVertexProperty(InputStream inputStream, Function<Attachable<VertexProperty>, VertexProperty> vertexPropertyAttachMethod) throws IOException {
+        return this.reader.readVertexProperty(inputStream, vertexPropertyAttachMethod);
+    }
+
+    @Override
+    public Property readProperty(InputStream inputStream, Function<Attachable<Property>, Property> propertyAttachMethod) throws IOException {
+        return this.reader.readProperty(inputStream, propertyAttachMethod);
+    }
+
+    @Override
+    public <C> C readObject(InputStream inputStream, Class<? extends C> clazz) throws IOException {
+        return this.reader.readObject(inputStream, clazz);
+    }
+
+    /**
+     * Buffers up to batchSize star vertices, grouped by label, and loads them one label at a time.
+     */
+    private static class VertexLoader {
+
+        private final SqlgGraph sqlgGraph;
+        private final BatchManager.BatchModeType batchModeType;
+        private final SpillFiles spillFiles;
+        private final Map<String, List<VertexRecord>> vertexRecords = new LinkedHashMap<>();
+        private int size;
+        private long vertexCount;
+
+        private VertexLoader(SqlgGraph sqlgGraph, BatchManager.BatchModeType batchModeType, SpillFiles spillFiles) {
+            this.sqlgGraph = sqlgGraph;
+            this.batchModeType = batchModeType;
+            this.spillFiles = spillFiles;
+        }
+
+        void add(Vertex starVertex) {
+            VertexRecord vertexRecord = new VertexRecord(fileId(starVertex.id()));
+            starVertex.properties().forEachRemaining(p -> vertexRecord.properties.put(p.key(), p.value()));
+            starVertex.edges(Direction.OUT).forEachRemaining(e -> {
+                EdgeRecord edgeRecord = new EdgeRecord(e.label(), fileId(e.inVertex().id()));
+                e.properties().forEachRemaining(p -> edgeRecord.properties.put(p.key(), p.value()));
+                vertexRecord.outEdges.add(edgeRecord);
+            });
+            this.vertexRecords.computeIfAbsent(starVertex.label(), k -> new ArrayList<>()).add(vertexRecord);
+            this.size++;
+        }
+
+        int size() {
+            return this.size;
+        }
+
+        /**
+         * The file ids are spilled with java serialization, the {@link RecordId}s of a file written from a {@link SqlgGraph} are spilled as their string.
+         */
+        private static Object fileId(Object id) {
+            return id instanceof RecordId ? id.toString() : id;
+        }
+
+        void load() throws IOException {
+            boolean streaming = this.batchModeType == BatchManager.BatchModeType.STREAMING_WITH_LOCK;
+            for (Map.Entry<String, List<VertexRecord>> labelVertexRecords : this.vertexRecords.entrySet()) {
+                String label = labelVertexRecords.getKey();
+                List<VertexRecord> records = labelVertexRecords.getValue();
+                //A stream must have the same keys in the same order.
+                records.sort(Comparator.comparing(VertexRecord::keys));
+                List<SqlgVertex> sqlgVertices = new ArrayList<>(records.size());
+                String keys = null;
+                for (VertexRecord vertexRecord : records) {
+                    if (streaming && keys != null && !keys.equals(vertexRecord.keys())) {
+                        this.sqlgGraph.tx().flush();
+                    }
+                    keys = vertexRecord.keys();
+                    sqlgVertices.add((SqlgVertex) this.sqlgGraph.addVertex(vertexRecord.keyValues(label)));
+                }
+                if (this.batchModeType != BatchManager.BatchModeType.NONE) {
+                    //normal batch mode only assigns the ids on flush.
+                    this.sqlgGraph.tx().flush();
+                }
+                for (int i = 0; i < records.size(); i++) {
+                    VertexRecord vertexRecord = records.get(i);
+                    RecordId recordId = (RecordId) sqlgVertices.get(i).id();
+                    this.spillFiles.writeId(vertexRecord.id, recordId);
+                    for (EdgeRecord edgeRecord : vertexRecord.outEdges) {
+                        edgeRecord.outRecordId = recordId;
+                        this.spillFiles.writeEdge(edgeRecord);
+                    }
+                }
+                this.vertexCount += records.size();
+            }
+            this.vertexRecords.clear();
+            this.size = 0;
+        }
+    }
+
+    private static class VertexRecord {
+
+        private final Object id;
+        private final TreeMap<String, Object> properties = new TreeMap<>();
+        private final List<EdgeRecord> outEdges = new ArrayList<>();
+        private String keys;
+
+        private VertexRecord(Object id) {
+            this.id = id;
+        }
+
+        String keys() {
+            if (this.keys == null) {
+                this.keys = String.join(",", this.properties.keySet());
+            }
+            return this.keys;
+        }
+
+        Object[] keyValues(String label) {
+            Object[] keyValues = new Object[2 + this.properties.size() * 2];
+            keyValues[0] = T.label;
+            keyValues[1] = label;
+            int i = 2;
+            for (Map.Entry<String, Object> property : this.properties.entrySet()) {
+                keyValues[i++] = property.getKey();
+                keyValues[i++] = property.getValue();
+            }
+            return keyValues;
+        }
+    }
+
+    private static class EdgeRecord {
+
+        private final String label;
+        private final Object inId;
+        private final TreeMap<String, Object> properties = new TreeMap<>();
+        private RecordId outRecordId;
+        //Resolved from the id map when the edges are loaded, it is not spilled.
+        private RecordId inRecordId;
+
+        private EdgeRecord(String label, Object inId) {
+            this.label = label;
+            this.inId = inId;
+        }
+
+        String keys() {
+            return String.join(",", this.properties.keySet());
+        }
+
+        Object[] keyValues() {
+            Object[] keyValues = new Object[this.properties.size() * 2];
+            int i = 0;
+            for (Map.Entry<String, Object> property : this.properties.entrySet()) {
+                keyValues[i++] = property.getKey();
+                keyValues[i++] = property.getValue();
+            }
+            return keyValues;
+        }
+    }
+
+    /**
+     * The on disk id map and out edges, partitioned on the hash of the file's vertex id.
+     * Property values and file ids are written with java serialization, all of sqlg's property types are {@link Serializable}.
+     */
+    private static class SpillFiles implements Closeable {
+
+        private final File[] idFiles;
+        private final File[] edgeFiles;
+        private final ObjectOutputStream[] idWriters;
+        private final ObjectOutputStream[] edgeWriters;
+        private final long[] idCounts;
+        private final long[] edgeCounts;
+        private long edgeCount;
+
+        private SpillFiles(Path directory, int partitions) throws IOException {
+            this.idFiles = new File[partitions];
+            this.edgeFiles = new File[partitions];
+            this.idWriters = new ObjectOutputStream[partitions];
+            this.edgeWriters = new ObjectOutputStream[partitions];
+            this.idCounts = new long[partitions];
+            this.edgeCounts = new long[partitions];
+            for (int i = 0; i < partitions; i++) {
+                this.idFiles[i] = directory.resolve("ids_" + i).toFile();
+                this.edgeFiles[i] = directory.resolve("edges_" + i).toFile();
+                this.idWriters[i] = new ObjectOutputStream(new BufferedOutputStream(new FileOutputStream(this.idFiles[i])));
+                this.edgeWriters[i] = new ObjectOutputStream(new BufferedOutputStream(new FileOutputStream(this.edgeFiles[i])));
+            }
+        }
+
+        private int partition(Object id) {
+            return Math.floorMod(id.hashCode(), this.idFiles.length);
+        }
+
+        void writeId(Object id, RecordId recordId) throws IOException {
+            int partition = partition(id);
+            ObjectOutputStream writer = this.idWriters[partition];
+            writer.writeObject(id);
+            writeRecordId(writer, recordId);
+            //the stream must not hold on to every id written.
+            writer.reset();
+            this.idCounts[partition]++;
+        }
+
+        void writeEdge(EdgeRecord edgeRecord) throws IOException {
+            int partition = partition(edgeRecord.inId);
+            ObjectOutputStream writer = this.edgeWriters[partition];
+            writer.writeUTF(edgeRecord.label);
+            writer.writeObject(edgeRecord.inId);
+            writeRecordId(writer, edgeRecord.outRecordId);
+            writer.writeInt(edgeRecord.properties.size());
+            for (Map.Entry<String, Object> property : edgeRecord.properties.entrySet()) {
+                writer.writeUTF(property.getKey());
+                writer.writeObject(property.getValue());
+            }
+            writer.reset();
+            this.edgeCounts[partition]++;
+            this.edgeCount++;
+        }
+
+        Map<Object, RecordId> readIds(int partition) throws IOException {
+            Map<Object, RecordId> ids = new HashMap<>();
+            try (ObjectInputStream reader = new ObjectInputStream(new BufferedInputStream(new FileInputStream(this.idFiles[partition])))) {
+                for (long i = 0; i < this.idCounts[partition]; i++) {
+                    ids.put(reader.readObject(), readRecordId(reader));
+                }
+            } catch (ClassNotFoundException e) {
+                throw new IOException(e);
+            }
+            return ids;
+        }
+
+        List<EdgeRecord> readEdges(int partition) throws IOException {
+            List<EdgeRecord> edgeRecords = new ArrayList<>();
+            try (ObjectInputStream reader = new ObjectInputStream(new BufferedInputStream(new FileInputStream(this.edgeFiles[partition])))) {
+                for (long i = 0; i < this.edgeCounts[partition]; i++) {
+                    EdgeRecord edgeRecord = new EdgeRecord(reader.readUTF(), reader.readObject());
+                    edgeRecord.outRecordId = readRecordId(reader);
+                    int propertyCount = reader.readInt();
+                    for (int j = 0; j < propertyCount; j++) {
+                        edgeRecord.properties.put(reader.readUTF(), reader.readObject());
+                    }
+                    edgeRecords.add(edgeRecord);
+                }
+            } catch (ClassNotFoundException e) {
+                throw new IOException(e);
+            }
+            return edgeRecords;
+        }
+
+        private static void writeRecordId(ObjectOutputStream writer, RecordId recordId) throws IOException {
+            writer.writeUTF(recordId.getSchemaTable().getSchema());
+            writer.writeUTF(recordId.getSchemaTable().getTable());
+            writer.writeLong(recordId.getIdAsLong());
+        }
+
+        private static RecordId readRecordId(ObjectInputStream reader) throws IOException {
+            return RecordId.from(SchemaTable.of(reader.readUTF(), reader.readUTF()), reader.readLong());
+        }
+
+        void closeWriters() throws IOException {
+            for (int i = 0; i < this.idWriters.length; i++) {
+                if (this.idWriters[i] != null) {
+                    this.idWriters[i].close();
+                    this.idWriters[i] = null;
+                }
+                if (this.edgeWriters[i] != null) {
+                    this.edgeWriters[i].close();
+                    this.edgeWriters[i] = null;
+                }
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            closeWriters();
+        }
+    }
+
+    public final static class Builder implements ReaderBuilder<SqlgGraphReader> {
+
+        private GraphReader reader;
+        private int batchSize = 100_000;
+        private int partitions = 16;
+        private Path workingDirectory;
+
+        private Builder() {
+        }
+
+        /**
+         * The tinkerpop reader, i.e. a GraphSONReader or GryoReader, that deserializes the star vertices.
+         */
+        public Builder reader(GraphReader reader) {
+            this.reader = reader;
+            return this;
+        }
+
+        /**
+         * The number of vertices buffered before they are loaded, and the number of edges per flush.
+         */
+        public Builder batchSize(int batchSize) {
+            this.batchSize = batchSize;
+            return this;
+        }
+
+        /**
+         * The number of partitions the id map and the edges are spilled into. Only one partition is held in memory at a time.
+         */
+        public Builder partitions(int partitions) {
+            this.partitions = partitions;
+            return this;
+        }
+
+        /**
+         * The directory for the spill files, defaults to java.io.tmpdir.
+         */
+        public Builder workingDirectory(Path workingDirectory) {
+            this.workingDirectory = workingDirectory;
+            return this;
+        }
+
+        @Override
+        public SqlgGraphReader create() {
+            Preconditions.checkState(this.reader != null, "A GraphReader must be supplied to deserialize the input");
+            Preconditions.checkState(this.batchSize > 0, "batchSize must be positive");
+            Preconditions.checkState(this.partitions > 0, "partitions must be positive");
+            return new SqlgGraphReader(this);
+        }
+    }
+}
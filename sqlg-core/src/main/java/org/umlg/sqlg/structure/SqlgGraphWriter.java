@@ -0,0 +1,447 @@
+package org.umlg.sqlg.structure;
+
+import com.google.common.base.Preconditions;
+import org.apache.commons.lang3.tuple.Pair;
+import org.apache.tinkerpop.gremlin.structure.*;
+import org.apache.tinkerpop.gremlin.structure.io.GraphWriter;
+import org.apache.tinkerpop.gremlin.structure.util.star.StarGraph;
+import org.umlg.sqlg.sql.dialect.SqlDialect;
+import org.umlg.sqlg.structure.topology.Topology;
+
+import java.io.*;
+import java.lang.reflect.Array;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.*;
+
+import static org.umlg.sqlg.structure.topology.Topology.EDGE_PREFIX;
+import static org.umlg.sqlg.structure.topology.Topology.VERTEX_PREFIX;
+
+/**
+ * A {@link GraphWriter} that exports a {@link SqlgGraph} without going through {@link SqlgGraph#vertices(Object...)}
+ * and a traversal per vertex for its edges.
+ * <p>
+ * Every vertex table is read once ordered by its id. Next to it, every edge table with a foreign key to the vertex table
+ * is read once ordered by that foreign key, and merged with the vertices to build each vertex's star graph.
+ * The star graphs are handed to the wrapped tinkerpop writer (GraphSON or Gryo) in adjacency list format, as
+ * {@link GraphWriter#writeVertices(OutputStream, Iterator, Direction)} writes them.
+ * All statements are read with a cursor of {@code fetchSize} rows, so only a fetch window per open table is held in memory.
+ * Dialects that only stream one result set per connection (mysql without useCursorFetch) can not keep the edge cursors open.
+ * <p>
+ * {@link #writeCsv(Path, SqlgGraph)} writes every vertex and edge table to its own csv file, edges with their out and in vertex ids.
+ */
+public class SqlgGraphWriter implements GraphWriter {
+
+    private final GraphWriter writer;
+    private final int fetchSize;
+
+    private SqlgGraphWriter(Builder builder) {
+        this.writer = builder.writer;
+        this.fetchSize = builder.fetchSize;
+    }
+
+    public static Builder build() {
+        return new Builder();
+    }
+
+    @Override
+    public void writeGraph(OutputStream outputStream, Graph g) throws IOException {
+        if (!(g instanceof SqlgGraph)) {
+            throw new IllegalArgumentException("SqlgGraphWriter can only write a SqlgGraph, found " + g.getClass().getName());
+        }
+        Preconditions.checkState(this.writer != null, "A GraphWriter must be supplied to write the graph");
+        SqlgGraph sqlgGraph = (SqlgGraph) g;
+        sqlgGraph.tx().readWrite();
+        try (StarVertexIterator starVertices = new StarVertexIterator(sqlgGraph)) {
+            this.writer.writeVertices(outputStream, starVertices, Direction.BOTH);
+        }
+    }
+
+    /**
+     * Writes every vertex and edge table to {@code directory/schema.table.csv}.
+     * The first column is the element's id, followed by the edge's out and in vertex ids, followed by the properties.
+     */
+    public void writeCsv(Path directory, SqlgGraph sqlgGraph) throws IOException {
+        Files.createDirectories(directory);
+        sqlgGraph.tx().readWrite();
+        for (String table : sqlgGraph.getTopology().getAllTables().keySet()) {
+            SchemaTable schemaTablePrefixed = SchemaTable.from(sqlgGraph, table);
+            Path file = directory.resolve(schemaTablePrefixed.getSchema() + "." + schemaTablePrefixed.getTable() + ".csv");
+            try (Writer csv = Files.newBufferedWriter(file, StandardCharsets.UTF_8);
+                 TableCursor cursor = new TableCursor(sqlgGraph, schemaTablePrefixed, null)) {
+                boolean vertex = schemaTablePrefixed.isVertexTable();
+                List<String> header = new ArrayList<>();
+                header.add("ID");
+                if (!vertex) {
+                    header.add("OUT");
+                    header.add("IN");
+                }
+                header.addAll(sqlgGraph.getTopology().getTableFor(schemaTablePrefixed).keySet());
+                writeCsvRow(csv, header);
+                List<Object> row = new ArrayList<>(header.size());
+                while (cursor.next()) {
+                    row.clear();
+                    SqlgElement element = cursor.element();
+                    row.add(element.id());
+                    if (!vertex) {
+                        row.add(cursor.rowDecoder.outVertexId(cursor.resultSet));
+                        row.add(cursor.rowDecoder.inVertexId(cursor.resultSet));
+                    }
+                    for (int i = row.size(); i < header.size(); i++) {
+                        row.add(element.properties.get(header.get(i)));
+                    }
+                    writeCsvRow(csv, row);
+                }
+            } catch (SQLException e) {
+                throw new RuntimeException(e);
+            }
+        }
+    }
+
+    private static void writeCsvRow(Writer csv, List<?> values) throws IOException {
+        for (int i = 0; i < values.size(); i++) {
+            if (i > 0) {
+                csv.write(',');
+            }
+            Object value = values.get(i);
+            if (value != null) {
+                String s = csvValue(value);
+                if (s.indexOf(',') >= 0 || s.indexOf('"') >= 0 || s.indexOf('\n') >= 0 || s.indexOf('\r') >= 0) {
+                    csv.write('"');
+                    csv.write(s.replace("\"", "\"\""));
+                    csv.write('"');
+                } else {
+                    csv.write(s);
+                }
+            }
+        }
+        csv.write('\n');
+    }
+
+    private static String csvValue(Object value) {
+        if (value.getClass().isArray()) {
+            StringJoiner joiner = new StringJoiner(",", "[", "]");
+            for (int i = 0; i < Array.getLength(value); i++) {
+                Object element = Array.get(value, i);
+                joiner.add(element == null ? "" : csvValue(element));
+            }
+            return joiner.toString();
+        }
+        return value.toString();
+    }
+
+    /**
+     * Merges each vertex table's cursor with the cursors of the edge tables that have a foreign key to it.
+     */
+    private class StarVertexIterator implements Iterator<Vertex>, Closeable {
+
+        private final SqlgGraph sqlgGraph;
+        private final Iterator<SchemaTable> vertexTables;
+        private TableCursor vertexCursor;
+        private final List<TableCursor> outEdgeCursors = new ArrayList<>();
+        private final List<TableCursor> inEdgeCursors = new ArrayList<>();
+        private Vertex next;
+
+        private StarVertexIterator(SqlgGraph sqlgGraph) {
+            this.sqlgGraph = sqlgGraph;
+            List<SchemaTable> vertexTables = new ArrayList<>();
+            for (String table : sqlgGraph.getTopology().getAllTables().keySet()) {
+                SchemaTable schemaTable = SchemaTable.from(sqlgGraph, table);
+                if (schemaTable.isVertexTable()) {
+                    vertexTables.add(schemaTable);
+                }
+            }
+            this.vertexTables = vertexTables.iterator();
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (this.next == null) {
+                try {
+                    this.next = internalNext();
+                } catch (SQLException e) {
+                    throw new RuntimeException(e);
+                }
+            }
+            return this.next != null;
+        }
+
+        @Override
+        public Vertex next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Vertex result = this.next;
+            this.next = null;
+            return result;
+        }
+
+        private Vertex internalNext() throws SQLException {
+            while (true) {
+                if (this.vertexCursor != null && this.vertexCursor.next()) {
+                    return starVertex();
+                }
+                closeCursors();
+                if (!this.vertexTables.hasNext()) {
+                    return null;
+                }
+                openCursors(this.vertexTables.next());
+            }
+        }
+
+        private void openCursors(SchemaTable vertexTablePrefixed) throws SQLException {
+            this.vertexCursor = new TableCursor(this.sqlgGraph, vertexTablePrefixed, null);
+            String vertexLabel = vertexTablePrefixed.getSchema() + "." + vertexTablePrefixed.getTable().substring(VERTEX_PREFIX.length());
+            Pair<Set<SchemaTable>, Set<SchemaTable>> edgeTables = this.sqlgGraph.getTopology().getTableLabels(vertexTablePrefixed);
+            if (edgeTables != null) {
+                for (SchemaTable outEdgeTable : edgeTables.getRight()) {
+                    this.outEdgeCursors.add(new TableCursor(this.sqlgGraph, outEdgeTable, vertexLabel + Topology.OUT_VERTEX_COLUMN_END));
+                }
+                for (SchemaTable inEdgeTable : edgeTables.getLeft()) {
+                    this.inEdgeCursors.add(new TableCursor(this.sqlgGraph, inEdgeTable, vertexLabel + Topology.IN_VERTEX_COLUMN_END));
+                }
+            }
+            for (TableCursor edgeCursor : this.outEdgeCursors) {
+                edgeCursor.next();
+            }
+            for (TableCursor edgeCursor : this.inEdgeCursors) {
+                edgeCursor.next();
+            }
+        }
+
+        private Vertex starVertex() throws SQLException {
+            SqlgElement sqlgVertex = this.vertexCursor.element();
+            RecordId recordId = (RecordId) sqlgVertex.id();
+            StarGraph starGraph = StarGraph.open();
+            StarGraph.StarVertex starVertex = (StarGraph.StarVertex) starGraph.addVertex(T.id, recordId, T.label, label(recordId.getSchemaTable()));
+            for (Map.Entry<String, Object> property : sqlgVertex.properties.entrySet()) {
+                starVertex.property(property.getKey(), property.getValue());
+            }
+            for (TableCursor edgeCursor : this.outEdgeCursors) {
+                while (edgeCursor.onForeignKey(recordId.getIdAsLong())) {
+                    RecordId inVertexId = edgeCursor.rowDecoder.inVertexId(edgeCursor.resultSet);
+                    starVertex.addEdge(edgeLabel(edgeCursor), starGraph.addVertex(T.id, inVertexId), edgeKeyValues(edgeCursor.element()));
+                    edgeCursor.next();
+                }
+            }
+            for (TableCursor edgeCursor : this.inEdgeCursors) {
+                while (edgeCursor.onForeignKey(recordId.getIdAsLong())) {
+                    RecordId outVertexId = edgeCursor.rowDecoder.outVertexId(edgeCursor.resultSet);
+                    //StarVertex.addEdge already added the self loops as in edges
+                    if (!outVertexId.equals(recordId)) {
+                        starGraph.addVertex(T.id, outVertexId).addEdge(edgeLabel(edgeCursor), starVertex, edgeKeyValues(edgeCursor.element()));
+                    }
+                    edgeCursor.next();
+                }
+            }
+            return starVertex;
+        }
+
+        private String label(SchemaTable vertexSchemaTable) {
+            String table = vertexSchemaTable.getTable();
+            if (vertexSchemaTable.getSchema().equals(this.sqlgGraph.getSqlDialect().getPublicSchema())) {
+                return table;
+            } else {
+                return vertexSchemaTable.getSchema() + "." + table;
+            }
+        }
+
+        private String edgeLabel(TableCursor edgeCursor) {
+            return edgeCursor.schemaTablePrefixed.getTable().substring(EDGE_PREFIX.length());
+        }
+
+        private Object[] edgeKeyValues(SqlgElement sqlgEdge) {
+            Object[] keyValues = new Object[2 + sqlgEdge.properties.size() * 2];
+            keyValues[0] = T.id;
+            keyValues[1] = sqlgEdge.id();
+            int i = 2;
+            for (Map.Entry<String, Object> property : sqlgEdge.properties.entrySet()) {
+                keyValues[i++] = property.getKey();
+                keyValues[i++] = property.getValue();
+            }
+            return keyValues;
+        }
+
+        private void closeCursors() throws SQLException {
+            if (this.vertexCursor != null) {
+                this.vertexCursor.close();
+                this.vertexCursor = null;
+            }
+            for (TableCursor edgeCursor : this.outEdgeCursors) {
+                edgeCursor.close();
+            }
+            this.outEdgeCursors.clear();
+            for (TableCursor edgeCursor : this.inEdgeCursors) {
+                edgeCursor.close();
+            }
+            this.inEdgeCursors.clear();
+        }
+
+        @Override
+        public void close() {
+            try {
+                closeCursors();
+            } catch (SQLException e) {
+                throw new RuntimeException(e);
+            }
+        }
+    }
+
+    /**
+     * A 'SELECT *' over one table, ordered by its id or by one of its foreign keys, read {@code fetchSize} rows at a time.
+     */
+    private class TableCursor implements AutoCloseable {
+
+        private final SqlgGraph sqlgGraph;
+        private final SchemaTable schemaTablePrefixed;
+        private final PreparedStatement preparedStatement;
+        private final ResultSet resultSet;
+        private final RowDecoder rowDecoder;
+        private final int idColumnIndex;
+        private final int foreignKeyColumnIndex;
+        private boolean onRow;
+
+        /**
+         * @param foreignKey if not null the rows are ordered by the foreign key and rows where it is null are skipped.
+         */
+        private TableCursor(SqlgGraph sqlgGraph, SchemaTable schemaTablePrefixed, String foreignKey) throws SQLException {
+            this.sqlgGraph = sqlgGraph;
+            this.schemaTablePrefixed = schemaTablePrefixed;
+            SqlDialect sqlDialect = sqlgGraph.getSqlDialect();
+            String orderBy = sqlDialect.maybeWrapInQoutes(foreignKey == null ? "ID" : foreignKey);
+            StringBuilder sql = new StringBuilder("SELECT * FROM ");
+            sql.append(sqlDialect.maybeWrapInQoutes(schemaTablePrefixed.getSchema()));
+            sql.append(".");
+            sql.append(sqlDialect.maybeWrapInQoutes(schemaTablePrefixed.getTable()));
+            if (foreignKey != null) {
+                sql.append(" WHERE ").append(orderBy).append(" IS NOT NULL");
+            }
+            sql.append(" ORDER BY ").append(orderBy);
+            if (sqlDialect.needsSemicolon()) {
+                sql.append(";");
+            }
+            Connection connection = sqlgGraph.tx().getConnection();
+            this.preparedStatement = connection.prepareStatement(sql.toString(), ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            this.preparedStatement.setFetchSize(SqlgGraphWriter.this.fetchSize);
+            this.resultSet = this.preparedStatement.executeQuery();
+            this.rowDecoder = RowDecoder.forTable(sqlgGraph, this.resultSet, schemaTablePrefixed);
+            this.idColumnIndex = this.resultSet.findColumn("ID");
+            this.foreignKeyColumnIndex = foreignKey == null ? -1 : this.resultSet.findColumn(foreignKey);
+        }
+
+        boolean next() throws SQLException {
+            this.onRow = this.resultSet.next();
+            return this.onRow;
+        }
+
+        /**
+         * Skips edges whose foreign key is smaller than the vertex id, i.e. edges to vertices that are not there.
+         *
+         * @return true if the cursor is on a row with the foreign key.
+         */
+        boolean onForeignKey(long id) throws SQLException {
+            while (this.onRow && this.resultSet.getLong(this.foreignKeyColumnIndex) < id) {
+                next();
+            }
+            return this.onRow && this.resultSet.getLong(this.foreignKeyColumnIndex) == id;
+        }
+
+        /**
+         * @return the current row as an element that is not added to the transaction's cache.
+         */
+        SqlgElement element() throws SQLException {
+            long id = this.resultSet.getLong(this.idColumnIndex);
+            SqlgElement sqlgElement;
+            if (this.schemaTablePrefixed.isVertexTable()) {
+                sqlgElement = new SqlgVertex(this.sqlgGraph, id, this.schemaTablePrefixed.getSchema(), this.schemaTablePrefixed.getTable().substring(VERTEX_PREFIX.length()));
+            } else {
+                sqlgElement = SqlgEdge.of(this.sqlgGraph, id, this.schemaTablePrefixed.getSchema(), this.schemaTablePrefixed.getTable().substring(EDGE_PREFIX.length()));
+            }
+            this.rowDecoder.loadProperties(this.resultSet, sqlgElement);
+            return sqlgElement;
+        }
+
+        @Override
+        public void close() throws SQLException {
+            this.resultSet.close();
+            this.preparedStatement.close();
+        }
+    }
+
+    @Override
+    public void writeVertex(OutputStream outputStream, Vertex v, Direction direction) throws IOException {
+        this.writer.writeVertex(outputStream, v, direction);
+    }
+
+    @Override
+    public void writeVertex(OutputStream outputStream, Vertex v) throws IOException {
+        this.writer.writeVertex(outputStream, v);
+    }
+
+    @Override
+    public void writeVertices(OutputStream outputStream, Iterator<Vertex> vertexIterator, Direction direction) throws IOException {
+        this.writer.writeVertices(outputStream, vertexIterator, direction);
+    }
+
+    @Override
+    public void writeVertices(OutputStream outputStream, Iterator<Vertex> vertexIterator) throws IOException {
+        this.writer.writeVertices(outputStream, vertexIterator);
+    }
+
+    @Override
+    public void writeEdge(OutputStream outputStream, Edge e) throws IOException {
+        this.writer.writeEdge(outputStream, e);
+    }
+
+    @Override
+    public void writeVertexProperty(OutputStream outputStream, VertexProperty vp) throws IOException {
+        this.writer.writeVertexProperty(outputStream, vp);
+    }
+
+    @Override
+    public void writeProperty(OutputStream outputStream, Property p) throws IOException {
+        this.writer.writeProperty(outputStream, p);
+    }
+
+    @Override
+    public void writeObject(OutputStream outputStream, Object object) throws IOException {
+        this.writer.writeObject(outputStream, object);
+    }
+
+    public final static class Builder implements WriterBuilder<SqlgGraphWriter> {
+
+        private GraphWriter writer;
+        private int fetchSize = 1000;
+
+        private Builder() {
+        }
+
+        /**
+         * The tinkerpop writer, i.e. a GraphSONWriter or GryoWriter, that serializes the star vertices.
+         * Not needed for {@link SqlgGraphWriter#writeCsv(Path, SqlgGraph)}.
+         */
+        public Builder writer(GraphWriter writer) {
+            this.writer = writer;
+            return this;
+        }
+
+        /**
+         * The number of rows fetched per round trip from each table's cursor.
+         */
+        public Builder fetchSize(int fetchSize) {
+            this.fetchSize = fetchSize;
+            return this;
+        }
+
+        @Override
+        public SqlgGraphWriter create() {
+            Preconditions.checkState(this.fetchSize > 0, "fetchSize must be positive");
+            return new SqlgGraphWriter(this);
+        }
+    }
+}
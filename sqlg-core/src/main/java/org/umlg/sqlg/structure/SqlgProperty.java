@@ -9,7 +9,6 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.Serializable;
-import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
 import java.util.NoSuchElementException;
@@ -89,17 +88,21 @@ public class SqlgProperty<V> implements Property<V>, Serializable {
             if (logger.isDebugEnabled()) {
                 logger.debug(sql.toString());
             }
-            Connection conn = this.sqlgGraph.tx().getConnection();
-            try (PreparedStatement preparedStatement = conn.prepareStatement(sql.toString())) {
-                int[] sqlTypes = this.sqlgGraph.getSqlDialect().propertyTypeToJavaSqlType(propertyType);
-                int parameterIndex = 1;
-                for (int sqlType : sqlTypes) {
-                    preparedStatement.setNull(parameterIndex++, sqlType);
-                }
-                preparedStatement.setLong(parameterIndex, ((RecordId) this.element.id()).getId());
-                int numberOfRowsUpdated = preparedStatement.executeUpdate();
-                if (numberOfRowsUpdated != 1) {
-                    throw new IllegalStateException("Remove property failed!");
+            try {
+                PreparedStatement preparedStatement = this.sqlgGraph.tx().prepareStatement(sql.toString());
+                try {
+                    int[] sqlTypes = this.sqlgGraph.getSqlDialect().propertyTypeToJavaSqlType(propertyType);
+                    int parameterIndex = 1;
+                    for (int sqlType : sqlTypes) {
+                        preparedStatement.setNull(parameterIndex++, sqlType);
+                    }
+                    preparedStatement.setLong(parameterIndex, ((RecordId) this.element.id()).getId());
+                    int numberOfRowsUpdated = preparedStatement.executeUpdate();
+                    if (numberOfRowsUpdated != 1) {
+                        throw new IllegalStateException("Remove property failed!");
+                    }
+                } finally {
+                    this.sqlgGraph.tx().releasePreparedStatement(preparedStatement);
                 }
             } catch (SQLException e) {
                 throw new RuntimeException(e);
@@ -414,6 +414,7 @@ class SqlgStartupManager {
             String indexName = index.getLeft();
             boolean nonUnique = index.getMiddle();
             String columnName = index.getRight();
+            String lowerColumnName = lowerExpressionColumn(columnName);
 
             if (lastIndexName == null) {
                 lastIndexName = indexName;
@@ -428,7 +429,12 @@ class SqlgStartupManager {
                 lastIndexName = indexName;
                 lastIndexType = nonUnique ? IndexType.NON_UNIQUE : IndexType.UNIQUE;
             }
-            lastColumns.add(columnName);
+            if (lowerColumnName != null) {
+                lastIndexType = IndexType.LOWER;
+                lastColumns.add(lowerColumnName);
+            } else {
+                lastColumns.add(columnName);
+            }
         }
         if (!this.sqlDialect.isSystemIndex(lastIndexName)) {
             if (!Schema.GLOBAL_UNIQUE_INDEX_SCHEMA.equals(schema)) {
@@ -437,6 +443,21 @@ class SqlgStartupManager {
         }
     }
 
+    /**
+     * @return the column of a 'lower(column)' index expression, null if the index column is not such an expression.
+     */
+    private String lowerExpressionColumn(String columnName) {
+        if (columnName != null && columnName.toLowerCase().startsWith("lower(") && columnName.endsWith(")")) {
+            String column = columnName.substring("lower(".length(), columnName.length() - 1).trim();
+            String escape = this.sqlDialect.getColumnEscapeKey();
+            if (!escape.isEmpty() && column.length() > 2 * escape.length() && column.startsWith(escape) && column.endsWith(escape)) {
+                column = column.substring(escape.length(), column.length() - escape.length());
+            }
+            return column;
+        }
+        return null;
+    }
+
     private void extractProperty(String schema, String table, String columnName, Integer columnType, String typeName, Map<String, PropertyType> columns, ListIterator<Triple<String, Integer, String>> metaDataIter) throws SQLException {
         //check for ZONEDDATETIME, PERIOD, DURATION as they use more than one field to represent the type
         PropertyType propertyType = null;
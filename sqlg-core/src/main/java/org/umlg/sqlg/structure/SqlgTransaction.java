@@ -12,6 +12,9 @@ import org.umlg.sqlg.sql.dialect.SqlBulkDialect;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * This class is a singleton. Instantiated and owned by SqlGraph.
@@ -24,6 +27,7 @@ public class SqlgTransaction extends AbstractThreadLocalTransaction {
     private static final String BATCH_MODE_NOT_SUPPORTED = "Batch mode not supported!";
     @SuppressWarnings("WeakerAccess")
     public static final String QUERY_LAZY = "query.lazy";
+    public static final String STATEMENT_CACHE_SIZE = "statement.cache.size";
     
     private SqlgGraph sqlgGraph;
     private BeforeCommit beforeCommitFunction;
@@ -34,7 +38,12 @@ public class SqlgTransaction extends AbstractThreadLocalTransaction {
 
     private final ThreadLocal<TransactionCache> threadLocalTx = ThreadLocal.withInitial(() -> null);
 
-    private final ThreadLocal<PreparedStatementCache> threadLocalPreparedStatementTx = ThreadLocal.withInitial(PreparedStatementCache::new);
+    private final ThreadLocal<PreparedStatementCache> threadLocalPreparedStatementTx = ThreadLocal.withInitial(this::newPreparedStatementCache);
+    private final AtomicLong preparedStatementCacheHits = new AtomicLong();
+    private final AtomicLong preparedStatementCacheMisses = new AtomicLong();
+    private final TableChangeLog tableChangeLog = new TableChangeLog();
+    private final int preparedStatementCacheSize;
+    private final BatchFlushStatistics batchFlushStatistics = new BatchFlushStatistics();
 
     /**
      * default fetch size
@@ -46,6 +55,11 @@ public class SqlgTransaction extends AbstractThreadLocalTransaction {
         super(sqlgGraph);
         this.sqlgGraph = (SqlgGraph) sqlgGraph;
         this.cacheVertices = cacheVertices;
+        this.preparedStatementCacheSize = this.sqlgGraph.getConfiguration().getInt(STATEMENT_CACHE_SIZE, 100);
+    }
+
+    private PreparedStatementCache newPreparedStatementCache() {
+        return new PreparedStatementCache(this.preparedStatementCacheSize, this.preparedStatementCacheHits, this.preparedStatementCacheMisses, this.tableChangeLog);
     }
 
     @Override
@@ -59,11 +73,14 @@ public class SqlgTransaction extends AbstractThreadLocalTransaction {
                 if (this.sqlgGraph.getSqlDialect().supportsClientInfo()) {
                     connection.setClientInfo("ApplicationName", Thread.currentThread().getName());
                 }
+                if (this.sqlgGraph.getSqlDialect().isPostgresql() && this.sqlgGraph.getTopology() != null) {
+                    this.sqlgGraph.getTopology().deallocateIfStale(connection);
+                }
                 // read default setting for laziness
                 boolean lazy=this.sqlgGraph.getConfiguration().getBoolean(QUERY_LAZY,true);
                 TransactionCache tc=null;
                 if (supportsBatchMode()) {
-                   tc = TransactionCache.of(this.cacheVertices, connection, new BatchManager(this.sqlgGraph, ((SqlBulkDialect)this.sqlgGraph.getSqlDialect())),lazy);
+                   tc = TransactionCache.of(this.cacheVertices, connection, new BatchManager(this.sqlgGraph, ((SqlBulkDialect)this.sqlgGraph.getSqlDialect()), this.batchFlushStatistics),lazy);
                 } else {
                    tc = TransactionCache.of(this.cacheVertices, connection, lazy);
                 }
@@ -84,6 +101,7 @@ public class SqlgTransaction extends AbstractThreadLocalTransaction {
             if (supportsBatchMode() && this.threadLocalTx.get().getBatchManager().isInBatchMode()) {
                 getBatchManager().flush();
             }
+            flushGlobalUniqueIndexChanges();
             Connection connection = this.threadLocalTx.get().getConnection();
             if (this.beforeCommitFunction != null) {
                 this.beforeCommitFunction.doBeforeCommit();
@@ -248,6 +266,22 @@ public class SqlgTransaction extends AbstractThreadLocalTransaction {
         }
     }
 
+    GlobalUniqueIndexChanges getGlobalUniqueIndexChanges() {
+        if (!isOpen()) {
+            readWrite();
+        }
+        return this.threadLocalTx.get().getGlobalUniqueIndexChanges(this.sqlgGraph);
+    }
+
+    /**
+     * Writes the global unique index rows that were deferred, see 'global.unique.index.deferred'.
+     */
+    void flushGlobalUniqueIndexChanges() {
+        if (isOpen() && this.threadLocalTx.get().hasGlobalUniqueIndexChanges()) {
+            this.threadLocalTx.get().getGlobalUniqueIndexChanges(this.sqlgGraph).flush();
+        }
+    }
+
     void addElementPropertyRollback(ElementPropertyRollback elementPropertyRollback) {
         if (!isOpen()) {
             throw new IllegalStateException("A transaction must be in progress to add a elementPropertyRollback function!");
@@ -290,6 +324,69 @@ public class SqlgTransaction extends AbstractThreadLocalTransaction {
         this.threadLocalPreparedStatementTx.get().add(preparedStatement);
     }
 
+    /**
+     * Returns a {@link PreparedStatement} for the sql on the transaction's connection.
+     * If the same sql has been prepared before in this transaction the cached statement is returned.
+     * The statement must be given back with {@link #releasePreparedStatement(PreparedStatement)} and not closed.
+     *
+     * @param sql The sql to prepare.
+     * @return A prepared statement.
+     */
+    public PreparedStatement prepareStatement(String sql) throws SQLException {
+        return prepareStatement(sql, Statement.NO_GENERATED_KEYS);
+    }
+
+    public PreparedStatement prepareStatement(String sql, int autoGeneratedKeys) throws SQLException {
+        return this.threadLocalPreparedStatementTx.get().prepareStatement(getConnection(), sql, autoGeneratedKeys);
+    }
+
+    /**
+     * Gives a statement obtained from {@link #prepareStatement(String)} back to the cache.
+     */
+    public void releasePreparedStatement(PreparedStatement preparedStatement) throws SQLException {
+        this.threadLocalPreparedStatementTx.get().release(preparedStatement);
+    }
+
+    /**
+     * Cached statements may reference a table whose definition has changed, they are closed on their next use.
+     */
+    public void invalidatePreparedStatementCaches() {
+        this.tableChangeLog.changed(null);
+    }
+
+    /**
+     * Cached statements whose sql references one of the tables are closed on their next use.
+     *
+     * @param quotedTables The changed tables' names as quoted in the sql by {@link org.umlg.sqlg.sql.dialect.SqlDialect#maybeWrapInQoutes(String)}.
+     */
+    public void invalidatePreparedStatements(Set<String> quotedTables) {
+        this.tableChangeLog.changed(quotedTables);
+    }
+
+    /**
+     * @return the flush counts of normal batch mode over all transactions.
+     */
+    public BatchFlushStatistics getBatchFlushStatistics() {
+        return this.batchFlushStatistics;
+    }
+
+    public long getPreparedStatementCacheHits() {
+        return this.preparedStatementCacheHits.get();
+    }
+
+    public long getPreparedStatementCacheMisses() {
+        return this.preparedStatementCacheMisses.get();
+    }
+
+    /**
+     * @return the fraction of prepared statements that were served from the cache.
+     */
+    public double getPreparedStatementCacheHitRate() {
+        long hits = this.preparedStatementCacheHits.get();
+        long total = hits + this.preparedStatementCacheMisses.get();
+        return total == 0 ? 0d : (double) hits / total;
+    }
+
     // only used for tests
     public PreparedStatementCache getPreparedStatementCache() {
         return threadLocalPreparedStatementTx.get();
@@ -313,6 +410,38 @@ public class SqlgTransaction extends AbstractThreadLocalTransaction {
     	this.threadLocalTx.get().setLazyQueries(lazy);
     }
     
+    /**
+     * With parallel queries the regular queries of a traversal are executed concurrently on the
+     * 'query.parallel.connections' extra connections of the transaction, their rows are still loaded in order.
+     * The extra connections share the transaction's snapshot if the dialect supports it, they do not see what the transaction wrote.
+     * Only use parallel queries in transactions that read.
+     * If the dialect can not share the snapshot they must be switched on before the transaction does anything else,
+     * the transaction is then read only until it ends.
+     * @param parallelQueries boolean to execute the regular queries in parallel or not.
+     */
+    public void setParallelQueries(boolean parallelQueries) {
+        Preconditions.checkState(!parallelQueries || this.sqlgGraph.getParallelQueryConnections() > 0,
+                "Parallel queries need 'query.parallel.connections' to be configured.");
+        boolean newTransaction = !isOpen();
+        readWrite();
+        if (parallelQueries) {
+            this.threadLocalTx.get().getParallelQueryConnections(this.sqlgGraph).checkReadOnly(newTransaction);
+        }
+        this.threadLocalTx.get().setParallelQueries(parallelQueries);
+    }
+
+    /**
+     * are the regular queries executed in parallel?
+     * @return true if the transaction executes its regular queries on its parallel query connections.
+     */
+    public boolean isParallelQueries() {
+        return isOpen() && this.threadLocalTx.get().isParallelQueries();
+    }
+
+    ParallelQueryConnections getParallelQueryConnections() {
+        return this.threadLocalTx.get().getParallelQueryConnections(this.sqlgGraph);
+    }
+
     /**
      * get default fetch size
      * @return
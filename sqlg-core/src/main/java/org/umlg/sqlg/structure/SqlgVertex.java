@@ -276,10 +276,14 @@ public class SqlgVertex extends SqlgElement implements Vertex {
         if (logger.isDebugEnabled()) {
             logger.debug(sql.toString());
         }
-        Connection conn = this.sqlgGraph.tx().getConnection();
-        try (PreparedStatement preparedStatement = conn.prepareStatement(sql.toString())) {
-            preparedStatement.setLong(1, ((RecordId) this.id()).getId());
-            preparedStatement.executeUpdate();
+        try {
+            PreparedStatement preparedStatement = this.sqlgGraph.tx().prepareStatement(sql.toString());
+            try {
+                preparedStatement.setLong(1, ((RecordId) this.id()).getId());
+                preparedStatement.executeUpdate();
+            } finally {
+                this.sqlgGraph.tx().releasePreparedStatement(preparedStatement);
+            }
         } catch (SQLException e) {
             throw new RuntimeException(e);
         }
@@ -357,18 +361,22 @@ public class SqlgVertex extends SqlgElement implements Vertex {
             logger.debug(sql.toString());
         }
         int i = 1;
-        Connection conn = this.sqlgGraph.tx().getConnection();
-        try (PreparedStatement preparedStatement = conn.prepareStatement(sql.toString(), Statement.RETURN_GENERATED_KEYS)) {
-            SqlgUtil.setKeyValuesAsParameterUsingPropertyColumn(this.sqlgGraph, i, preparedStatement, propertyTypeValueMap);
-            preparedStatement.executeUpdate();
-            ResultSet generatedKeys = preparedStatement.getGeneratedKeys();
-            if (generatedKeys.next()) {
-                this.recordId = RecordId.from(SchemaTable.of(this.schema, this.table), generatedKeys.getLong(1));
-            } else {
-                throw new RuntimeException(String.format("Could not retrieve the id after an insert into %s", Topology.VERTICES));
-            }
-            if (!temporary) {
-                insertGlobalUniqueIndex(keyValueMap, propertyColumns);
+        try {
+            PreparedStatement preparedStatement = this.sqlgGraph.tx().prepareStatement(sql.toString(), Statement.RETURN_GENERATED_KEYS);
+            try {
+                SqlgUtil.setKeyValuesAsParameterUsingPropertyColumn(this.sqlgGraph, i, preparedStatement, propertyTypeValueMap);
+                preparedStatement.executeUpdate();
+                ResultSet generatedKeys = preparedStatement.getGeneratedKeys();
+                if (generatedKeys.next()) {
+                    this.recordId = RecordId.from(SchemaTable.of(this.schema, this.table), generatedKeys.getLong(1));
+                } else {
+                    throw new RuntimeException(String.format("Could not retrieve the id after an insert into %s", Topology.VERTICES));
+                }
+                if (!temporary) {
+                    insertGlobalUniqueIndex(keyValueMap);
+                }
+            } finally {
+                this.sqlgGraph.tx().releasePreparedStatement(preparedStatement);
             }
         } catch (SQLException e) {
             throw new RuntimeException(e);
@@ -379,8 +387,8 @@ public class SqlgVertex extends SqlgElement implements Vertex {
     protected void load() {
         //if in batch mode, only load vertexes that are not new.
         //new vertexes have no id, impossible to load, but then all its properties are already cached.
-        if ((this.properties.isEmpty() && !this.sqlgGraph.tx().isInBatchMode()) ||
-                (this.properties.isEmpty() && this.sqlgGraph.getSqlDialect().supportsBatchMode() && this.sqlgGraph.tx().isInBatchMode() &&
+        if ((!isFullyLoaded() && !this.sqlgGraph.tx().isInBatchMode()) ||
+                (!isFullyLoaded() && this.sqlgGraph.getSqlDialect().supportsBatchMode() && this.sqlgGraph.tx().isInBatchMode() &&
                         !this.sqlgGraph.tx().getBatchManager().vertexIsCached(this))) {
 
             if (this.sqlgGraph.getSqlDialect().supportsBatchMode() && this.sqlgGraph.tx().isOpen() && this.sqlgGraph.tx().getBatchManager().isStreaming()) {
@@ -415,17 +423,21 @@ public class SqlgVertex extends SqlgElement implements Vertex {
             if (this.sqlgGraph.getSqlDialect().needsSemicolon()) {
                 sql.append(";");
             }
-            Connection conn = this.sqlgGraph.tx().getConnection();
             if (logger.isDebugEnabled()) {
                 logger.debug(sql.toString());
             }
-            try (PreparedStatement preparedStatement = conn.prepareStatement(sql.toString())) {
-                preparedStatement.setLong(1, this.recordId.getId());
-                ResultSet resultSet = preparedStatement.executeQuery();
-                if (resultSet.next()) {
-                    loadResultSet(resultSet);
-                } else {
-                    throw new IllegalStateException(String.format("Vertex with label %s and id %d does not exist.", new Object[]{this.schema + "." + this.table, this.recordId.getId()}));
+            try {
+                PreparedStatement preparedStatement = this.sqlgGraph.tx().prepareStatement(sql.toString());
+                try {
+                    preparedStatement.setLong(1, this.recordId.getId());
+                    ResultSet resultSet = preparedStatement.executeQuery();
+                    if (resultSet.next()) {
+                        loadResultSet(resultSet);
+                    } else {
+                        throw new IllegalStateException(String.format("Vertex with label %s and id %d does not exist.", new Object[]{this.schema + "." + this.table, this.recordId.getId()}));
+                    }
+                } finally {
+                    this.sqlgGraph.tx().releasePreparedStatement(preparedStatement);
                 }
             } catch (SQLException e) {
                 throw new RuntimeException(e);
@@ -433,21 +445,6 @@ public class SqlgVertex extends SqlgElement implements Vertex {
         }
     }
 
-    //TODO optimize the if statement here to be outside the main ResultSet loop
-    @Override
-    public void loadResultSet(ResultSet resultSet) throws SQLException {
-        ResultSetMetaData resultSetMetaData = resultSet.getMetaData();
-        for (int i = 1; i <= resultSetMetaData.getColumnCount(); i++) {
-            String columnName = resultSetMetaData.getColumnLabel(i);
-            if (!columnName.equals("ID")
-                    && !columnName.equals(Topology.VERTEX_SCHEMA)
-                    && !columnName.equals(VERTEX_TABLE)
-                    && !this.sqlgGraph.getSqlDialect().columnsToIgnore().contains(columnName)) {
-                loadProperty(resultSet, columnName, i);
-            }
-        }
-    }
-
     @Override
     public Iterator<Edge> edges(Direction direction, String... edgeLabels) {
         SqlgVertex.this.sqlgGraph.tx().readWrite();
@@ -0,0 +1,78 @@
+package org.umlg.sqlg.structure;
+
+import java.util.*;
+
+/**
+ * The tables whose definition changed, shared by the {@link PreparedStatementCache}s of all threads.
+ * Every change gets a version. A cache remembers the last version it saw and on its next use closes only the idle
+ * statements whose sql references a table that changed since then.
+ * <p>
+ * Tables are identified by their quoted name as it appears in the sql, e.g. <code>"V_Person"</code>.
+ */
+class TableChangeLog {
+
+    //A cache that is further behind than this closes all its idle statements.
+    private static final int MAX_SIZE = 1000;
+
+    private final LinkedList<Change> changes = new LinkedList<>();
+    private long version = 0;
+
+    synchronized long getVersion() {
+        return this.version;
+    }
+
+    /**
+     * @param quotedTables the changed tables, null if any table may have changed.
+     */
+    synchronized void changed(Set<String> quotedTables) {
+        this.version++;
+        this.changes.addLast(new Change(this.version, quotedTables == null ? null : new HashSet<>(quotedTables)));
+        if (this.changes.size() > MAX_SIZE) {
+            this.changes.removeFirst();
+        }
+    }
+
+    /**
+     * @return the tables changed after the given version, null if all tables must be considered changed.
+     */
+    synchronized Set<String> changedSince(long version) {
+        if (version == this.version) {
+            return Collections.emptySet();
+        }
+        if (this.changes.isEmpty() || this.changes.getFirst().version > version + 1) {
+            return null;
+        }
+        Set<String> result = new HashSet<>();
+        for (Iterator<Change> iterator = this.changes.descendingIterator(); iterator.hasNext(); ) {
+            Change change = iterator.next();
+            if (change.version <= version) {
+                break;
+            }
+            if (change.quotedTables == null) {
+                return null;
+            }
+            result.addAll(change.quotedTables);
+        }
+        return result;
+    }
+
+    static boolean references(String sql, Set<String> quotedTables) {
+        for (String quotedTable : quotedTables) {
+            if (sql.contains(quotedTable)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static class Change {
+
+        private final long version;
+        private final Set<String> quotedTables;
+
+        private Change(long version, Set<String> quotedTables) {
+            this.version = version;
+            this.quotedTables = quotedTables;
+        }
+    }
+}
@@ -17,12 +17,19 @@ class TransactionCache {
     private BatchManager batchManager;
     private boolean cacheVertices = false;
     private Map<RecordId, SqlgVertex> vertexCache = new WeakHashMap<>();
+    private GlobalUniqueIndexChanges globalUniqueIndexChanges;
+    private ParallelQueryConnections parallelQueryConnections;
 
     /**
      * are query result processed lazily or not?
      */
     private boolean lazyQueries;
 
+    /**
+     * are the regular queries executed on the parallel query connections?
+     */
+    private boolean parallelQueries;
+
     /**
      * default fetch size
      */
@@ -69,8 +76,32 @@ class TransactionCache {
         return this.batchManager;
     }
 
+    GlobalUniqueIndexChanges getGlobalUniqueIndexChanges(SqlgGraph sqlgGraph) {
+        if (this.globalUniqueIndexChanges == null) {
+            this.globalUniqueIndexChanges = new GlobalUniqueIndexChanges(sqlgGraph);
+        }
+        return this.globalUniqueIndexChanges;
+    }
+
+    ParallelQueryConnections getParallelQueryConnections(SqlgGraph sqlgGraph) {
+        if (this.parallelQueryConnections == null) {
+            this.parallelQueryConnections = new ParallelQueryConnections(sqlgGraph, this.connection);
+        }
+        return this.parallelQueryConnections;
+    }
+
+    boolean hasGlobalUniqueIndexChanges() {
+        return this.globalUniqueIndexChanges != null && !this.globalUniqueIndexChanges.isEmpty();
+    }
+
     void clear() {
         this.elementPropertyRollbackFunctions.clear();
+        if (this.globalUniqueIndexChanges != null) {
+            this.globalUniqueIndexChanges.clear();
+        }
+        if (this.parallelQueryConnections != null) {
+            this.parallelQueryConnections.close();
+        }
         if (this.batchManager != null) {
             this.batchManager.clear();
         }
@@ -156,6 +187,14 @@ class TransactionCache {
 		this.lazyQueries = lazyQueries;
 	}
 
+	boolean isParallelQueries() {
+		return parallelQueries;
+	}
+
+	void setParallelQueries(boolean parallelQueries) {
+		this.parallelQueries = parallelQueries;
+	}
+
 	public Integer getFetchSize() {
 		return fetchSize;
 	}
@@ -49,8 +49,7 @@ public class C3P0DataSource implements SqlgDataSourceFactory.SqlgDataSource {
     }
 
     /**
-     * This is only invoked for Postgresql on ddl statements.
-     * It will force the pool to close all connections which in turn will deallocate server side prepared statements.
+     * Soft resets the pool, idle connections are closed immediately, busy ones as soon as they are returned to the pool.
      */
     @Override
     public void softResetPool() {
@@ -0,0 +1,67 @@
+package org.umlg.sqlg.structure.ds;
+
+import com.google.common.base.Preconditions;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.apache.commons.configuration.Configuration;
+import org.apache.commons.lang3.StringUtils;
+import org.umlg.sqlg.sql.dialect.SqlDialect;
+import org.umlg.sqlg.structure.SqlgDataSourceFactory;
+import org.umlg.sqlg.structure.SqlgGraph;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * HikariCP backed pool. Select it with {@code jdbc.factory = org.umlg.sqlg.structure.ds.HikariDataSourceFactory}.
+ * HikariCP is an optional dependency of sqlg-core, add {@code com.zaxxer:HikariCP} to the application to use this factory.
+ * <p>
+ * Understands the same {@code maxPoolSize} and {@code maxIdleTime} (seconds) keys as {@link C3p0DataSourceFactory}.
+ * The driver's statement cache is tuned from {@link SqlDialect#getStatementCacheDataSourceProperties()},
+ * any key prefixed with {@code dataSource.} in sqlg.properties is passed on to the driver as is and wins over the dialect's defaults.
+ */
+public class HikariDataSourceFactory implements SqlgDataSourceFactory {
+
+    private static final String DATA_SOURCE_PREFIX = "dataSource";
+
+    @Override
+    public SqlgDataSource setup(String driver, Configuration configuration) throws Exception {
+        return setup(driver, configuration, Collections.emptyMap());
+    }
+
+    @Override
+    public SqlgDataSource setup(String driver, Configuration configuration, SqlDialect sqlDialect) throws Exception {
+        return setup(driver, configuration, sqlDialect.getStatementCacheDataSourceProperties());
+    }
+
+    private SqlgDataSource setup(String driver, Configuration configuration, Map<String, String> statementCacheProperties) {
+        Preconditions.checkState(configuration.containsKey(SqlgGraph.JDBC_URL));
+        Preconditions.checkState(configuration.containsKey("jdbc.username"));
+        Preconditions.checkState(configuration.containsKey("jdbc.password"));
+        String connectURI = configuration.getString(SqlgGraph.JDBC_URL);
+        String username = configuration.getString("jdbc.username");
+        String password = configuration.getString("jdbc.password");
+        HikariConfig hikariConfig = new HikariConfig();
+        hikariConfig.setDriverClassName(driver);
+        hikariConfig.setJdbcUrl(connectURI);
+        hikariConfig.setMaximumPoolSize(configuration.getInt("maxPoolSize", 100));
+        hikariConfig.setIdleTimeout(configuration.getInt("maxIdleTime", 3600) * 1000L);
+        if (!StringUtils.isEmpty(username)) {
+            hikariConfig.setUsername(username);
+        }
+        if (!StringUtils.isEmpty(password)) {
+            hikariConfig.setPassword(password);
+        }
+        for (Map.Entry<String, String> property : statementCacheProperties.entrySet()) {
+            hikariConfig.addDataSourceProperty(property.getKey(), property.getValue());
+        }
+        Configuration dataSourceConfiguration = configuration.subset(DATA_SOURCE_PREFIX);
+        Iterator<String> keys = dataSourceConfiguration.getKeys();
+        while (keys.hasNext()) {
+            String key = keys.next();
+            hikariConfig.addDataSourceProperty(key, dataSourceConfiguration.getString(key));
+        }
+        return new HikariSqlgDataSource(connectURI, new HikariDataSource(hikariConfig));
+    }
+}
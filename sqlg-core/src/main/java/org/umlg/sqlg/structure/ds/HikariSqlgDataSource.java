@@ -0,0 +1,88 @@
+package org.umlg.sqlg.structure.ds;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.umlg.sqlg.structure.SqlgDataSourceFactory;
+
+import javax.sql.DataSource;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Wraps a {@link HikariDataSource} created by {@link HikariDataSourceFactory}.
+ */
+public class HikariSqlgDataSource implements SqlgDataSourceFactory.SqlgDataSource {
+
+    private static Logger logger = LoggerFactory.getLogger(HikariSqlgDataSource.class);
+
+    private final HikariDataSource dss;
+    private final String jdbcUrl;
+    private final AtomicBoolean closed = new AtomicBoolean(false);
+
+    HikariSqlgDataSource(String jdbcUrl, HikariDataSource dss) {
+        this.dss = dss;
+        this.jdbcUrl = jdbcUrl;
+    }
+
+    @Override
+    public final DataSource getDatasource() {
+        return this.dss;
+    }
+
+    @Override
+    public void close() {
+        if (!this.closed.compareAndSet(false, true)) {
+            return;
+        }
+        HikariPoolMXBean pool = this.dss.getHikariPoolMXBean();
+        if (pool != null && pool.getActiveConnections() > 0) {
+            logger.debug("Open connection on calling close. " + pool.getActiveConnections());
+        }
+        this.dss.close();
+    }
+
+    /**
+     * Soft evicts the connections, idle connections are closed immediately, busy ones as soon as they are returned to the pool.
+     */
+    @Override
+    public void softResetPool() {
+        HikariPoolMXBean pool = this.dss.getHikariPoolMXBean();
+        if (pool != null) {
+            pool.softEvictConnections();
+        }
+    }
+
+    @Override
+    public String getPoolStatsAsJson() {
+        try {
+            HikariPoolMXBean pool = this.dss.getHikariPoolMXBean();
+            StringBuilder json = new StringBuilder();
+            json.append("[");
+            json.append("{\"jdbcUrl\":\"").append(jdbcUrl).append("\",");
+
+            json.append("\"jndi\": false,");
+            json.append("\"numConnections\":\"")
+                    .append(String.valueOf(pool.getTotalConnections())).append("\",");
+            json.append("\"numBusyConnections\":\"")
+                    .append(String.valueOf(pool.getActiveConnections())).append("\",");
+            json.append("\"numIdleConnections\":\"")
+                    .append(String.valueOf(pool.getIdleConnections())).append("\",");
+            json.append("\"numThreadsAwaitingConnection\":\"")
+                    .append(String.valueOf(pool.getThreadsAwaitingConnection())).append("\",");
+            json.append("\"numMinPoolSize\":\"").append(String.valueOf(dss.getMinimumIdle()))
+                    .append("\",");
+            json.append("\"numMaxPoolSize\":\"").append(String.valueOf(dss.getMaximumPoolSize()))
+                    .append("\",");
+            json.append("\"numMaxIdleTime\":\"").append(String.valueOf(dss.getIdleTimeout() / 1000))
+                    .append("\"");
+
+            json.append("}");
+
+            json.append("]");
+            return json.toString();
+        } catch (Exception e) {
+            throw new IllegalStateException("Json generation failed", e);
+        }
+    }
+}
@@ -5,14 +5,17 @@ import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.google.common.base.Preconditions;
 import org.apache.commons.lang3.tuple.ImmutablePair;
+import org.apache.commons.lang3.tuple.Pair;
 import org.apache.commons.text.RandomStringGenerator;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.umlg.sqlg.sql.dialect.SqlDialect;
 import org.umlg.sqlg.structure.*;
 
 import java.sql.*;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
 import static org.umlg.sqlg.structure.topology.Topology.*;
@@ -38,8 +41,10 @@ public abstract class AbstractLabel implements TopologyInf {
     private Map<String, Index> uncommittedIndexes = new HashMap<>();
     private Set<String> uncommittedRemovedIndexes = new HashSet<>();
 
-    //Yet another cache to speed meta data up.
-    private Map<String, PropertyType> propertyTypeMap;
+    //An immutable copy of the committed properties and indexes for threads that do not hold the topologySqlWriteLock.
+    //Every change to the committed maps increments the version, the snapshot is rebuilt on the next read.
+    private final AtomicLong snapshotVersion = new AtomicLong();
+    private volatile LabelSnapshot snapshot;
 
     /**
      * Only called for a new vertex/edge label being added.
@@ -71,7 +76,24 @@ public abstract class AbstractLabel implements TopologyInf {
         String prefix = this instanceof VertexLabel ? VERTEX_PREFIX : EDGE_PREFIX;
         SchemaTable schemaTable = SchemaTable.of(this.getSchema().getName(), this.getLabel());
 
-        String indexName = this.sqlgGraph.getSqlDialect().indexName(schemaTable, prefix, properties.stream().map(PropertyColumn::getName).collect(Collectors.toList()));
+        String indexName;
+        if (indexType.isTrigram() || indexType.isLower()) {
+            Preconditions.checkState(
+                    indexType.isLower() ? this.sqlgGraph.getSqlDialect().supportsExpressionIndex() : this.sqlgGraph.getSqlDialect().supportsTrigramIndex(),
+                    "%s does not support %s indexes", this.sqlgGraph.getSqlDialect().dialectName(), indexType.getName());
+            for (PropertyColumn property : properties) {
+                Preconditions.checkArgument(property.getPropertyType() == PropertyType.STRING,
+                        "%s indexes are only supported on %s properties, found %s", indexType.getName(), PropertyType.STRING.name(), property.getPropertyType().name());
+            }
+            //these can sit next to a normal index on the same properties, so the type is part of the name.
+            indexName = this.sqlgGraph.getSqlDialect().indexName(
+                    schemaTable,
+                    prefix,
+                    "_" + indexType.getName().toLowerCase() + SqlDialect.INDEX_POSTFIX,
+                    properties.stream().map(PropertyColumn::getName).collect(Collectors.toList()));
+        } else {
+            indexName = this.sqlgGraph.getSqlDialect().indexName(schemaTable, prefix, properties.stream().map(PropertyColumn::getName).collect(Collectors.toList()));
+        }
         if (indexName.length() > this.sqlgGraph.getSqlDialect().getMaximumIndexNameLength()) {
             // name was random, need to check the properties list
         	for (Index idx:this.getIndexes().values()){
@@ -118,6 +140,7 @@ public abstract class AbstractLabel implements TopologyInf {
 
     void addIndex(Index i) {
         this.indexes.put(i.getName(), i);
+        invalidateSnapshot();
     }
 
     public abstract Schema getSchema();
@@ -137,6 +160,9 @@ public abstract class AbstractLabel implements TopologyInf {
     }
 
     public Map<String, PropertyColumn> getProperties() {
+        if (!this.getSchema().getTopology().isSqlWriteLockHeldByCurrentThread()) {
+            return getSnapshot().properties;
+        }
         Map<String, PropertyColumn> result = new HashMap<>();
         result.putAll(this.properties);
         if (this.getSchema().getTopology().isSqlWriteLockHeldByCurrentThread()) {
@@ -150,6 +176,9 @@ public abstract class AbstractLabel implements TopologyInf {
     }
 
     public Map<String, PropertyColumn> getGlobalUniqueIndexProperties() {
+        if (!this.getSchema().getTopology().isSqlWriteLockHeldByCurrentThread()) {
+            return getSnapshot().globalUniqueIndexProperties;
+        }
         Map<String, PropertyColumn> result = new HashMap<>();
         result.putAll(this.globalUniqueIndexProperties);
         if (this.getSchema().getTopology().isSqlWriteLockHeldByCurrentThread()) {
@@ -168,6 +197,9 @@ public abstract class AbstractLabel implements TopologyInf {
     }
 
     public Map<String, Index> getIndexes() {
+        if (!this.getSchema().getTopology().isSqlWriteLockHeldByCurrentThread()) {
+            return getSnapshot().indexes;
+        }
         Map<String, Index> result = new HashMap<>();
         result.putAll(this.indexes);
         if (this.getSchema().getTopology().isSqlWriteLockHeldByCurrentThread()) {
@@ -189,6 +221,9 @@ public abstract class AbstractLabel implements TopologyInf {
     }
 
     Map<String, PropertyType> getPropertyTypeMap() {
+        if (!getSchema().getTopology().isSqlWriteLockHeldByCurrentThread()) {
+            return getSnapshot().propertyTypeMap;
+        }
         Map<String, PropertyType> result = new HashMap<>();
         for (Map.Entry<String, PropertyColumn> propertyEntry : this.properties.entrySet()) {
             result.put(propertyEntry.getKey(), propertyEntry.getValue().getPropertyType());
@@ -204,6 +239,21 @@ public abstract class AbstractLabel implements TopologyInf {
         return result;
     }
 
+    void invalidateSnapshot() {
+        this.snapshotVersion.incrementAndGet();
+    }
+
+    private LabelSnapshot getSnapshot() {
+        long version = this.snapshotVersion.get();
+        LabelSnapshot labelSnapshot = this.snapshot;
+        if (labelSnapshot == null || labelSnapshot.version != version) {
+            //If the label changes while building, the version is stale and the next read rebuilds it.
+            labelSnapshot = new LabelSnapshot(version, this.properties, this.globalUniqueIndexProperties, this.indexes);
+            this.snapshot = labelSnapshot;
+        }
+        return labelSnapshot;
+    }
+
     Map<String, PropertyColumn> getUncommittedPropertyTypeMap() {
         if (getSchema().getTopology().isSqlWriteLockHeldByCurrentThread()) {
             return this.uncommittedProperties;
@@ -288,6 +338,7 @@ public abstract class AbstractLabel implements TopologyInf {
         Preconditions.checkState(this.getSchema().getTopology().isSqlWriteLockHeldByCurrentThread());
         PropertyColumn property = new PropertyColumn(this, propertyVertex.value(SQLG_SCHEMA_PROPERTY_NAME), PropertyType.valueOf(propertyVertex.value(SQLG_SCHEMA_PROPERTY_TYPE)));
         this.properties.put(propertyVertex.value(SQLG_SCHEMA_PROPERTY_NAME), property);
+        invalidateSnapshot();
     }
 
     void afterCommit() {
@@ -297,19 +348,11 @@ public abstract class AbstractLabel implements TopologyInf {
             this.properties.put(entry.getKey(), entry.getValue());
             entry.getValue().afterCommit();
             it.remove();
-            if (this.propertyTypeMap != null) {
-                this.propertyTypeMap.clear();
-                this.propertyTypeMap = null;
-            }
         }
         for (Iterator<String> it = this.uncommittedRemovedProperties.iterator(); it.hasNext(); ) {
             String prop = it.next();
             this.properties.remove(prop);
             it.remove();
-            if (this.propertyTypeMap != null) {
-                this.propertyTypeMap.clear();
-                this.propertyTypeMap = null;
-            }
         }
         for (Iterator<Map.Entry<String, PropertyColumn>> it = this.uncommittedGlobalUniqueIndexProperties.entrySet().iterator(); it.hasNext(); ) {
             Map.Entry<String, PropertyColumn> entry = it.next();
@@ -332,6 +375,7 @@ public abstract class AbstractLabel implements TopologyInf {
             Map.Entry<String, PropertyColumn> entry = it.next();
             entry.getValue().afterCommit();
         }
+        invalidateSnapshot();
         this.committed = true;
     }
 
@@ -341,10 +385,6 @@ public abstract class AbstractLabel implements TopologyInf {
             Map.Entry<String, PropertyColumn> entry = it.next();
             entry.getValue().afterRollback();
             it.remove();
-            if (this.propertyTypeMap != null) {
-                this.propertyTypeMap.clear();
-                this.propertyTypeMap = null;
-            }
         }
         this.uncommittedRemovedProperties.clear();
         this.uncommittedGlobalUniqueIndexProperties.clear();
@@ -409,13 +449,15 @@ public abstract class AbstractLabel implements TopologyInf {
      * @param fire            should we fire topology events
      */
     void fromPropertyNotifyJson(JsonNode vertexLabelJson, boolean fire) {
+        //The events are fired after the snapshots are invalidated, else a concurrent query could cache sql built from the stale snapshot.
+        List<Pair<TopologyInf, TopologyChangeAction>> events = new ArrayList<>();
         ArrayNode propertiesNode = (ArrayNode) vertexLabelJson.get("uncommittedProperties");
         if (propertiesNode != null) {
             for (JsonNode propertyNode : propertiesNode) {
                 PropertyColumn propertyColumn = PropertyColumn.fromNotifyJson(this, propertyNode);
                 PropertyColumn old = this.properties.put(propertyColumn.getName(), propertyColumn);
                 if (fire && old == null) {
-                    this.getSchema().getTopology().fire(propertyColumn, "", TopologyChangeAction.CREATE);
+                    events.add(Pair.of(propertyColumn, TopologyChangeAction.CREATE));
                 }
             }
         }
@@ -425,7 +467,7 @@ public abstract class AbstractLabel implements TopologyInf {
                 String pName = propertyNode.asText();
                 PropertyColumn old = this.properties.remove(pName);
                 if (fire && old != null) {
-                    this.getSchema().getTopology().fire(old, "", TopologyChangeAction.DELETE);
+                    events.add(Pair.of(old, TopologyChangeAction.DELETE));
                 }
             }
         }
@@ -434,7 +476,7 @@ public abstract class AbstractLabel implements TopologyInf {
             for (JsonNode indexNode : indexNodes) {
                 Index index = Index.fromNotifyJson(this, indexNode);
                 this.indexes.put(index.getName(), index);
-                this.getSchema().getTopology().fire(index, "", TopologyChangeAction.CREATE);
+                events.add(Pair.of(index, TopologyChangeAction.CREATE));
             }
         }
         ArrayNode removedIndexArrayNode = (ArrayNode) vertexLabelJson.get("uncommittedRemovedIndexes");
@@ -443,10 +485,14 @@ public abstract class AbstractLabel implements TopologyInf {
                 String iName = indexNode.asText();
                 Index old = this.indexes.remove(iName);
                 if (fire && old != null) {
-                    this.getSchema().getTopology().fire(old, "", TopologyChangeAction.DELETE);
+                    events.add(Pair.of(old, TopologyChangeAction.DELETE));
                 }
             }
         }
+        invalidateSnapshot();
+        for (Pair<TopologyInf, TopologyChangeAction> event : events) {
+            this.getSchema().getTopology().fire(event.getLeft(), "", event.getRight());
+        }
     }
 
     @Override
@@ -470,6 +516,7 @@ public abstract class AbstractLabel implements TopologyInf {
 
     void addGlobalUniqueIndexToProperties(PropertyColumn propertyColumn) {
         this.globalUniqueIndexProperties.put(propertyColumn.getName(), propertyColumn);
+        invalidateSnapshot();
     }
 
     protected abstract List<Topology.TopologyValidationError> validateTopology(DatabaseMetaData metadata) throws SQLException;
@@ -543,4 +590,25 @@ public abstract class AbstractLabel implements TopologyInf {
         return true;
     }
 
+
+    private static final class LabelSnapshot {
+
+        private final long version;
+        private final Map<String, PropertyColumn> properties;
+        private final Map<String, PropertyColumn> globalUniqueIndexProperties;
+        private final Map<String, Index> indexes;
+        private final Map<String, PropertyType> propertyTypeMap;
+
+        private LabelSnapshot(long version, Map<String, PropertyColumn> properties, Map<String, PropertyColumn> globalUniqueIndexProperties, Map<String, Index> indexes) {
+            this.version = version;
+            this.properties = Collections.unmodifiableMap(new HashMap<>(properties));
+            this.globalUniqueIndexProperties = Collections.unmodifiableMap(new HashMap<>(globalUniqueIndexProperties));
+            this.indexes = Collections.unmodifiableMap(new HashMap<>(indexes));
+            Map<String, PropertyType> propertyTypeMap = new HashMap<>();
+            for (Map.Entry<String, PropertyColumn> propertyEntry : properties.entrySet()) {
+                propertyTypeMap.put(propertyEntry.getKey(), propertyEntry.getValue().getPropertyType());
+            }
+            this.propertyTypeMap = Collections.unmodifiableMap(propertyTypeMap);
+        }
+    }
 }
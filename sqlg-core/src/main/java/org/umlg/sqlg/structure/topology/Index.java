@@ -137,8 +137,12 @@ public class Index implements TopologyInf {
         sql.append(sqlDialect.maybeWrapInQoutes(prefix + schemaTable.getTable()));
 
 
+        String accessMethod = sqlDialect.indexAccessMethod(this.indexType);
         if (this.indexType.isGIN()) {
             sql.append(" USING GIN");
+        } else if (accessMethod != null) {
+            sql.append(" USING ");
+            sql.append(accessMethod);
         }
 
         sql.append(" (");
@@ -158,6 +162,25 @@ public class Index implements TopologyInf {
                 }
             }
             sql.append(")");
+        } else if (this.indexType.isTrigram() || this.indexType.isLower()) {
+            String operatorClass = sqlDialect.indexOperatorClass(this.indexType);
+            int count = 1;
+            for (PropertyColumn property : props) {
+                if (this.indexType.isLower()) {
+                    sql.append("lower(");
+                    sql.append(sqlDialect.maybeWrapInQoutes(property.getName()));
+                    sql.append(")");
+                } else {
+                    sql.append(sqlDialect.maybeWrapInQoutes(property.getName()));
+                }
+                if (operatorClass != null) {
+                    sql.append(" ");
+                    sql.append(operatorClass);
+                }
+                if (count++ < props.size()) {
+                    sql.append(", ");
+                }
+            }
         } else {
             int count = 1;
             for (PropertyColumn property : props) {
@@ -184,6 +207,10 @@ public class Index implements TopologyInf {
         }
         Connection conn = sqlgGraph.tx().getConnection();
         try (Statement stmt = conn.createStatement()) {
+            String prerequisiteSql = sqlDialect.indexTypePrerequisiteSql(this.indexType);
+            if (prerequisiteSql != null) {
+                stmt.execute(prerequisiteSql);
+            }
             stmt.execute(sql.toString());
         } catch (SQLException e) {
             throw new RuntimeException(e);
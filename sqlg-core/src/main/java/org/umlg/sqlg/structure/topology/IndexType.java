@@ -16,6 +16,18 @@ public class IndexType {
 	public static final IndexType UNIQUE=new IndexType("UNIQUE");
 	public static final IndexType NON_UNIQUE=new IndexType("NON_UNIQUE");
 
+	/**
+	 * Trigram indexes (postgres' pg_trgm) serve the like and ilike conditions of the {@link org.umlg.sqlg.predicate.Text} predicates,
+	 * including those with a leading wildcard.
+	 */
+	public static final IndexType GIN_TRIGRAM=new IndexType("GIN_TRIGRAM");
+	public static final IndexType GIST_TRIGRAM=new IndexType("GIST_TRIGRAM");
+	/**
+	 * An expression index on lower(column), used by the case insensitive {@link org.umlg.sqlg.predicate.Text} predicates.
+	 * On postgres it is a trigram index so that it also serves their leading wildcard.
+	 */
+	public static final IndexType LOWER=new IndexType("LOWER");
+
 	public static final String GIN_FULLTEXT="GIN_FULLTEXT";
 	public static final String GIN_CONFIGURATION="config";
 	
@@ -44,6 +56,14 @@ public class IndexType {
 	public boolean isGIN(){
 		return GIN_FULLTEXT.equals(name);
 	}
+
+	public boolean isTrigram(){
+		return GIN_TRIGRAM.getName().equals(name) || GIST_TRIGRAM.getName().equals(name);
+	}
+
+	public boolean isLower(){
+		return LOWER.getName().equals(name);
+	}
 	
 	@Override
 	public int hashCode() {
@@ -22,6 +22,7 @@ import java.sql.Statement;
 import java.time.LocalDateTime;
 import java.util.*;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
@@ -70,6 +71,10 @@ public class Topology {
     private Map<String, Schema> uncommittedSchemas = new HashMap<>();
     private Set<String> uncommittedRemovedSchemas = new HashSet<>();
     private Map<String, Schema> metaSchemas = new HashMap<>();
+    //An immutable copy of the committed schemas and allTableCache for threads that do not hold the topologySqlWriteLock.
+    //Every change to the maps above increments the version, the snapshot is rebuilt on the next read.
+    private final AtomicLong snapshotVersion = new AtomicLong();
+    private volatile TopologySnapshot snapshot;
     //A cache of just the sqlg_schema's AbstractLabels
     private Set<TopologyInf> sqlgSchemaAbstractLabels = new HashSet<>();
 
@@ -86,6 +91,12 @@ public class Topology {
 
     private List<TopologyValidationError> validationErrors = new ArrayList<>();
     private List<TopologyListener> topologyListeners = new ArrayList<>();
+    //The tables changed by the topology transaction, their cached sql and statements are invalidated again on commit.
+    //null if a change may affect any table. Only accessed by the thread holding the topologySqlWriteLock.
+    private Set<SchemaTable> uncommittedChangedTables = new HashSet<>();
+    //Postgresql only, incremented when the columns of an existing table change. See deallocateIfStale.
+    private final AtomicLong columnsVersion = new AtomicLong();
+    private final Map<Connection, Long> deallocatedVersions = Collections.synchronizedMap(new WeakHashMap<>());
 
     private static final int LOCK_TIMEOUT = 2;
 
@@ -273,6 +284,7 @@ public class Topology {
         //Pre-create the meta topology.
         Schema sqlgSchema = Schema.instantiateSqlgSchema(this);
         this.metaSchemas.put(SQLG_SCHEMA, sqlgSchema);
+        invalidateSnapshot();
 
         Map<String, PropertyType> columns = new HashMap<>();
         columns.put(VERSION, PropertyType.STRING);
@@ -343,15 +355,18 @@ public class Topology {
 
         //add the public schema
         this.schemas.put(sqlgGraph.getSqlDialect().getPublicSchema(), Schema.createPublicSchema(sqlgGraph, this, sqlgGraph.getSqlDialect().getPublicSchema()));
+        invalidateSnapshot();
 
         //add the global unique index schema
         this.schemas.put(Schema.GLOBAL_UNIQUE_INDEX_SCHEMA, Schema.createGlobalUniqueIndexSchema(this));
+        invalidateSnapshot();
 
         //populate the schema's allEdgesCache
         sqlgSchema.cacheEdgeLabels();
         //populate the allTablesCache
         sqlgSchema.getVertexLabels().values().forEach((v) -> this.allTableCache.put(v.getSchema().getName() + "." + VERTEX_PREFIX + v.getLabel(), v.getPropertyTypeMap()));
         sqlgSchema.getEdgeLabels().values().forEach((e) -> this.allTableCache.put(e.getSchema().getName() + "." + EDGE_PREFIX + e.getLabel(), e.getPropertyTypeMap()));
+        invalidateSnapshot();
 
         sqlgSchema.getVertexLabels().values().forEach((v) -> {
             SchemaTable vertexLabelSchemaTable = SchemaTable.of(v.getSchema().getName(), VERTEX_PREFIX + v.getLabel());
@@ -377,10 +392,6 @@ public class Topology {
             }
         });
 
-        if (this.sqlgGraph.getSqlDialect().isPostgresql()) {
-            registerListener((topologyInf, string, topologyChangeAction) -> deallocateAll());
-        }
-
     }
 
     public SqlgGraph getSqlgGraph() {
@@ -493,7 +504,7 @@ public class Topology {
     /**
      * @return true if the current thread owns the sql write lock.
      */
-    boolean isSqlWriteLockHeldByCurrentThread() {
+    public boolean isSqlWriteLockHeldByCurrentThread() {
         return this.topologySqlWriteLock.isHeldByCurrentThread();
     }
 
@@ -757,6 +768,7 @@ public class Topology {
         this.allTableCache.keySet().removeIf(schemaTable -> schemaTable.startsWith(schema + "."));
         this.edgeForeignKeyCache.keySet().removeIf(schemaTable -> schemaTable.startsWith(schema + "."));
         this.schemaTableForeignKeyCache.keySet().removeIf(schemaTable -> schemaTable.getSchema().equals(schema));
+        invalidateSnapshot();
         return s;
     }
 
@@ -807,6 +819,10 @@ public class Topology {
                 for (Schema schema : this.schemas.values()) {
                     schema.afterCommit();
                 }
+                invalidateSnapshot();
+                //Other threads may have cached sql for the topology as it was before this commit.
+                invalidateStatements(this.uncommittedChangedTables);
+                this.uncommittedChangedTables = new HashSet<>();
             } finally {
                 z_internalInternalTopologyMapWriteUnLock();
                 z_internalSqlWriteUnlock();
@@ -826,24 +842,103 @@ public class Topology {
             for (Schema schema : this.schemas.values()) {
                 schema.afterRollback();
             }
+            invalidateStatements(this.uncommittedChangedTables);
+            this.uncommittedChangedTables = new HashSet<>();
             z_internalSqlWriteUnlock();
         }
     }
 
     /**
      * This is only needed for Postgresql.
+     * Postgresql keeps the plans of server side prepared statements per connection. A plan of a 'SELECT *' fails
+     * with 'cached plan must not change result type' once the table's columns changed.
+     * Every connection deallocates its prepared statements once after such a change, the first time it is used,
+     * instead of the pool being reset.
+     *
+     * @param connection The connection a transaction is about to use.
      */
-    private void deallocateAll() {
-        Connection conn = this.sqlgGraph.tx().getConnection();
-        try (Statement statement = conn.createStatement()) {
-            statement.execute("DEALLOCATE ALL");
+    public void deallocateIfStale(Connection connection) {
+        long version = this.columnsVersion.get();
+        if (version == 0) {
+            return;
+        }
+        Connection physicalConnection;
+        try {
+            physicalConnection = connection.isWrapperFor(Connection.class) ? connection.unwrap(Connection.class) : connection;
         } catch (SQLException e) {
-            throw new RuntimeException(e);
+            physicalConnection = connection;
         }
-        //Soft reset the pool will leave active connections running.
-        //All connections in the pool will be closed.
-        //Running connections will be closed when they reenter the pool.
-        this.sqlgGraph.getSqlgDataSource().softResetPool();
+        Long deallocatedVersion = this.deallocatedVersions.get(physicalConnection);
+        if (deallocatedVersion == null || deallocatedVersion < version) {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("DEALLOCATE ALL");
+            } catch (SQLException e) {
+                throw new RuntimeException(e);
+            }
+            this.deallocatedVersions.put(physicalConnection, version);
+        }
+    }
+
+    /**
+     * Removes the cached sql and closes the cached statements that reference one of the tables.
+     *
+     * @param schemaTables The changed tables, with their vertex or edge prefix. null for all tables.
+     */
+    private void invalidateStatements(Set<SchemaTable> schemaTables) {
+        if (schemaTables == null) {
+            this.sqlgGraph.getSqlCache().invalidate();
+            this.sqlgGraph.tx().invalidatePreparedStatementCaches();
+        } else if (!schemaTables.isEmpty()) {
+            Set<String> quotedTables = new HashSet<>();
+            for (SchemaTable schemaTable : schemaTables) {
+                quotedTables.add(this.sqlgGraph.getSqlDialect().maybeWrapInQoutes(schemaTable.getTable()));
+            }
+            this.sqlgGraph.getSqlCache().invalidate(quotedTables);
+            this.sqlgGraph.tx().invalidatePreparedStatements(quotedTables);
+        }
+    }
+
+    /**
+     * Returns the tables whose sql may be different after the change, null if the change may affect any table.
+     */
+    static Set<SchemaTable> changedTables(TopologyInf topologyInf, TopologyChangeAction action) {
+        Set<SchemaTable> result = new HashSet<>();
+        if (topologyInf instanceof PropertyColumn) {
+            result.add(tableOf(((PropertyColumn) topologyInf).getParentLabel()));
+        } else if (topologyInf instanceof Index) {
+            result.add(tableOf(((Index) topologyInf).getParentLabel()));
+        } else if (topologyInf instanceof VertexLabel) {
+            result.add(tableOf((VertexLabel) topologyInf));
+        } else if (topologyInf instanceof EdgeLabel) {
+            EdgeLabel edgeLabel = (EdgeLabel) topologyInf;
+            result.add(tableOf(edgeLabel));
+            for (VertexLabel vertexLabel : edgeLabel.getOutVertexLabels()) {
+                result.add(tableOf(vertexLabel));
+            }
+            for (VertexLabel vertexLabel : edgeLabel.getInVertexLabels()) {
+                result.add(tableOf(vertexLabel));
+            }
+        } else if (topologyInf instanceof EdgeRole) {
+            EdgeRole edgeRole = (EdgeRole) topologyInf;
+            result.add(tableOf(edgeRole.getVertexLabel()));
+            result.add(tableOf(edgeRole.getEdgeLabel()));
+        } else {
+            return null;
+        }
+        return result;
+    }
+
+    private static SchemaTable tableOf(AbstractLabel abstractLabel) {
+        return SchemaTable.of(abstractLabel.getSchema().getName(), abstractLabel.getPrefix() + abstractLabel.getLabel());
+    }
+
+    /**
+     * @return true if the change adds or removes columns of an existing table, or drops a table.
+     */
+    private static boolean changesColumns(TopologyInf topologyInf, TopologyChangeAction action) {
+        return topologyInf instanceof PropertyColumn ||
+                action == TopologyChangeAction.ADD_IN_VERTEX_LABELTO_EDGE ||
+                (action == TopologyChangeAction.DELETE && !(topologyInf instanceof Index));
     }
 
     public void cacheTopology() {
@@ -879,6 +974,7 @@ public class Topology {
             if (!schemaOptional.isPresent()) {
                 schema = Schema.loadUserSchema(this, schemaName);
                 this.schemas.put(schemaName, schema);
+                invalidateSnapshot();
             } else {
                 schema = schemaOptional.get();
 
@@ -956,6 +1052,7 @@ public class Topology {
         this.schemaTableForeignKeyCache.putAll(loadTableLabels());
         //populate the edgeForeignKey cache
         this.edgeForeignKeyCache.putAll(loadAllEdgeForeignKeys());
+        invalidateSnapshot();
     }
 
     public void validateTopology() {
@@ -1102,6 +1199,7 @@ public class Topology {
                             //add to map
                             schema = Schema.instantiateSchema(this, schemaName);
                             this.schemas.put(schemaName, schema);
+                            invalidateSnapshot();
                             fire(schema, "", TopologyChangeAction.CREATE);
                         }
                     }
@@ -1141,6 +1239,7 @@ public class Topology {
 
             this.notificationTimestamps.add(timestamp);
         } finally {
+            invalidateSnapshot();
             z_internalInternalTopologyMapWriteUnLock();
 
         }
@@ -1191,6 +1290,9 @@ public class Topology {
     }
 
     public Set<Schema> getSchemas() {
+        if (!this.isSqlWriteLockHeldByCurrentThread()) {
+            return getSnapshot().schemas;
+        }
         z_internalTopologyMapReadLock();
         try {
             Set<Schema> result = new HashSet<>();
@@ -1227,7 +1329,10 @@ public class Topology {
     }
 
     public Optional<Schema> getSchema(String schema) {
-        if (isSqlWriteLockHeldByCurrentThread() && this.uncommittedRemovedSchemas.contains(schema)) {
+        if (!isSqlWriteLockHeldByCurrentThread()) {
+            return Optional.ofNullable(getSnapshot().schemaMap.get(schema));
+        }
+        if (this.uncommittedRemovedSchemas.contains(schema)) {
             return Optional.empty();
         }
         z_internalTopologyMapReadLock();
@@ -1347,6 +1452,10 @@ public class Topology {
      * @return
      */
     public Map<String, Map<String, PropertyType>> getAllTables(boolean withSqlgSchema) {
+        if (!this.isSqlWriteLockHeldByCurrentThread()) {
+            TopologySnapshot topologySnapshot = getSnapshot();
+            return withSqlgSchema ? topologySnapshot.allTables : topologySnapshot.allTablesWithoutSqlgSchema;
+        }
         z_internalTopologyMapReadLock();
         try {
             //Need to make a copy so as not to corrupt the allTableCache with uncommitted schema elements
@@ -1454,7 +1563,8 @@ public class Topology {
     public Map<String, PropertyType> getTableFor(SchemaTable schemaTable) {
         Map<String, PropertyType> result = getAllTables(true).get(schemaTable.toString());
         if (result != null) {
-            return Collections.unmodifiableMap(result);
+            //The snapshot's maps are already unmodifiable.
+            return this.isSqlWriteLockHeldByCurrentThread() ? Collections.unmodifiableMap(result) : result;
         }
 //        if (isSqlWriteLockHeldByCurrentThread()) {
 //            Map<String, PropertyType> temporaryPropertyMap = this.threadLocalTemporaryTables.get().get(schemaTable.getTable());
@@ -1465,6 +1575,31 @@ public class Topology {
         return Collections.emptyMap();
     }
 
+    private void invalidateSnapshot() {
+        this.snapshotVersion.incrementAndGet();
+    }
+
+    /**
+     * Returns the committed topology as immutable maps, rebuilding it if the topology changed since it was last built.
+     * Only threads that do not hold the topologySqlWriteLock may use the snapshot, the lock holder must see its
+     * uncommitted changes.
+     */
+    private TopologySnapshot getSnapshot() {
+        long version = this.snapshotVersion.get();
+        TopologySnapshot topologySnapshot = this.snapshot;
+        if (topologySnapshot == null || topologySnapshot.version != version) {
+            z_internalTopologyMapReadLock();
+            try {
+                //If the topology changes while building, the version is stale and the next read rebuilds it.
+                topologySnapshot = new TopologySnapshot(version, this.schemas, this.metaSchemas, this.allTableCache);
+                this.snapshot = topologySnapshot;
+            } finally {
+                z_internalTopologyMapReadUnLock();
+            }
+        }
+        return topologySnapshot;
+    }
+
     public Map<SchemaTable, Pair<Set<SchemaTable>, Set<SchemaTable>>> getTableLabels() {
         z_internalTopologyMapReadLock();
         try {
@@ -1572,6 +1707,7 @@ public class Topology {
     void addToAllTables(String tableName, Map<String, PropertyType> propertyTypeMap) {
         Preconditions.checkState(isSqlWriteLockHeldByCurrentThread() || isTopologyMapWriteLockHeldByCurrentThread());
         this.allTableCache.put(tableName, propertyTypeMap);
+        invalidateSnapshot();
         SchemaTable schemaTable = SchemaTable.from(this.sqlgGraph, tableName);
         if (schemaTable.getTable().startsWith(VERTEX_PREFIX) && !this.schemaTableForeignKeyCache.containsKey(schemaTable)) {
             //This happens for VertexLabel that have no edges,
@@ -1655,6 +1791,7 @@ public class Topology {
         SchemaTable schemaTable = SchemaTable.of(vertexLabel.getSchema().getName(), VERTEX_PREFIX + vertexLabel.getLabel());
         this.schemaTableForeignKeyCache.remove(schemaTable);
         this.allTableCache.remove(schemaTable.toString());
+        invalidateSnapshot();
         for (EdgeLabel lbl : vertexLabel.getOutEdgeLabels().values()) {
             removeFromEdgeForeignKeyCache(
                     lbl.getSchema().getName() + "." + EDGE_PREFIX + lbl.getLabel(),
@@ -1678,6 +1815,23 @@ public class Topology {
     }
 
     void fire(TopologyInf topologyInf, String oldValue, TopologyChangeAction action) {
+        //Invalidate first, sql cached after the caches are cleared below must be built from the changed topology.
+        invalidateSnapshot();
+        Set<SchemaTable> changedTables = changedTables(topologyInf, action);
+        invalidateStatements(changedTables);
+        if (isSqlWriteLockHeldByCurrentThread() && this.uncommittedChangedTables != null) {
+            if (changedTables == null) {
+                this.uncommittedChangedTables = null;
+            } else {
+                this.uncommittedChangedTables.addAll(changedTables);
+            }
+        }
+        if (this.sqlgGraph.getSqlDialect().isPostgresql() && changesColumns(topologyInf, action)) {
+            this.columnsVersion.incrementAndGet();
+            if (isSqlWriteLockHeldByCurrentThread()) {
+                deallocateIfStale(this.sqlgGraph.tx().getConnection());
+            }
+        }
         for (TopologyListener topologyListener : this.topologyListeners) {
             topologyListener.change(topologyInf, oldValue, action);
         }
@@ -1734,4 +1888,31 @@ public class Topology {
             return String.format("%s does not exist", error.getName());
         }
     }
+
+    private static final class TopologySnapshot {
+
+        private final long version;
+        private final Set<Schema> schemas;
+        private final Map<String, Schema> schemaMap;
+        private final Map<String, Map<String, PropertyType>> allTables;
+        private final Map<String, Map<String, PropertyType>> allTablesWithoutSqlgSchema;
+
+        private TopologySnapshot(long version, Map<String, Schema> schemas, Map<String, Schema> metaSchemas, Map<String, Map<String, PropertyType>> allTableCache) {
+            this.version = version;
+            this.schemas = Collections.unmodifiableSet(new HashSet<>(schemas.values()));
+            Map<String, Schema> schemaMap = new HashMap<>(metaSchemas);
+            schemaMap.putAll(schemas);
+            this.schemaMap = Collections.unmodifiableMap(schemaMap);
+            Map<String, Map<String, PropertyType>> allTables = new HashMap<>();
+            for (Map.Entry<String, Map<String, PropertyType>> allTableCacheEntry : allTableCache.entrySet()) {
+                allTables.put(allTableCacheEntry.getKey(), Collections.unmodifiableMap(new HashMap<>(allTableCacheEntry.getValue())));
+            }
+            this.allTables = Collections.unmodifiableMap(allTables);
+            Map<String, Map<String, PropertyType>> allTablesWithoutSqlgSchema = new HashMap<>(allTables);
+            for (String sqlgSchemaSchemaTable : SQLG_SCHEMA_SCHEMA_TABLES) {
+                allTablesWithoutSqlgSchema.remove(sqlgSchemaSchemaTable);
+            }
+            this.allTablesWithoutSqlgSchema = Collections.unmodifiableMap(allTablesWithoutSqlgSchema);
+        }
+    }
 }
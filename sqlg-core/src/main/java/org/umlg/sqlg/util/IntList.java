@@ -0,0 +1,71 @@
+package org.umlg.sqlg.util;
+
+import java.util.Arrays;
+
+/**
+ * A growable list of primitive ints.
+ * Used for the vertex and edge indexes of a graph computer's snapshot where a {@code List<Integer>} boxes every index.
+ */
+public class IntList {
+
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private int[] values;
+    private int size;
+
+    public IntList() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public IntList(int capacity) {
+        this.values = new int[Math.max(capacity, 1)];
+    }
+
+    public void add(int value) {
+        if (this.size == this.values.length) {
+            this.values = Arrays.copyOf(this.values, this.values.length * 2);
+        }
+        this.values[this.size++] = value;
+    }
+
+    public int get(int index) {
+        if (index >= this.size) {
+            throw new IndexOutOfBoundsException("index " + index + " size " + this.size);
+        }
+        return this.values[index];
+    }
+
+    public int size() {
+        return this.size;
+    }
+
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    public void clear() {
+        this.size = 0;
+    }
+
+    /**
+     * @return a copy of the values.
+     */
+    public int[] toArray() {
+        return Arrays.copyOf(this.values, this.size);
+    }
+
+    /**
+     * @return a copy of the values from the first index, inclusive, to the last index, exclusive.
+     */
+    public int[] toArray(int from, int to) {
+        if (to > this.size) {
+            throw new IndexOutOfBoundsException("index " + to + " size " + this.size);
+        }
+        return Arrays.copyOfRange(this.values, from, to);
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(toArray());
+    }
+}
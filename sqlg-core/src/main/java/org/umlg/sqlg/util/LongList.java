@@ -0,0 +1,71 @@
+package org.umlg.sqlg.util;
+
+import java.util.Arrays;
+
+/**
+ * A growable list of primitive longs.
+ * Used for element ids in the traversal hot paths where a {@code List<Long>} boxes every id.
+ */
+public class LongList {
+
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private long[] values;
+    private int size;
+
+    public LongList() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public LongList(int capacity) {
+        this.values = new long[Math.max(capacity, 1)];
+    }
+
+    public void add(long value) {
+        if (this.size == this.values.length) {
+            this.values = Arrays.copyOf(this.values, this.values.length * 2);
+        }
+        this.values[this.size++] = value;
+    }
+
+    public long get(int index) {
+        if (index >= this.size) {
+            throw new IndexOutOfBoundsException("index " + index + " size " + this.size);
+        }
+        return this.values[index];
+    }
+
+    public int size() {
+        return this.size;
+    }
+
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    public void clear() {
+        this.size = 0;
+    }
+
+    /**
+     * @return a copy of the values.
+     */
+    public long[] toArray() {
+        return Arrays.copyOf(this.values, this.size);
+    }
+
+    /**
+     * @return a copy of the values from the first index, inclusive, to the last index, exclusive.
+     */
+    public long[] toArray(int from, int to) {
+        if (to > this.size) {
+            throw new IndexOutOfBoundsException("index " + to + " size " + this.size);
+        }
+        return Arrays.copyOfRange(this.values, from, to);
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(toArray());
+    }
+}
@@ -0,0 +1,51 @@
+package org.umlg.sqlg.util;
+
+/**
+ * A growable list of pairs of primitive longs, stored in two parallel {@link LongList}s.
+ * The vertex steps use it for the ids of their start elements and the start elements' indexes.
+ */
+public class LongPairList {
+
+    private final LongList lefts;
+    private final LongList rights;
+
+    public LongPairList() {
+        this.lefts = new LongList();
+        this.rights = new LongList();
+    }
+
+    public void add(long left, long right) {
+        this.lefts.add(left);
+        this.rights.add(right);
+    }
+
+    public long getLeft(int index) {
+        return this.lefts.get(index);
+    }
+
+    public long getRight(int index) {
+        return this.rights.get(index);
+    }
+
+    public int size() {
+        return this.lefts.size();
+    }
+
+    public boolean isEmpty() {
+        return this.lefts.isEmpty();
+    }
+
+    /**
+     * @return a copy of the left values.
+     */
+    public long[] lefts() {
+        return this.lefts.toArray();
+    }
+
+    /**
+     * @return a copy of the right values.
+     */
+    public long[] rights() {
+        return this.rights.toArray();
+    }
+}
@@ -49,8 +49,21 @@ public class SqlgUtil {
     //This is the default count to indicate whether to use in statement or join onto a temp table.
     //As it happens postgres join to temp is always faster except for count = 1 when in is not used but '='
     private final static int BULK_WITHIN_COUNT = 1;
+    //Above this count the bulk within values are copied into a temporary table instead of being bound as an array parameter.
+    private final static int BULK_WITHIN_TEMPORARY_TABLE_COUNT = 1000000;
+    //The types of bulk within values that can be bound as an array parameter, mapped to the type of the array.
+    private final static Map<PropertyType, PropertyType> BULK_WITHIN_ARRAY_TYPES = new EnumMap<>(PropertyType.class);
     private static final String PROPERTY_ARRAY_VALUE_ELEMENTS_MAY_NOT_BE_NULL = "Property array value elements may not be null.";
 
+    static {
+        BULK_WITHIN_ARRAY_TYPES.put(PropertyType.BOOLEAN, PropertyType.BOOLEAN_ARRAY);
+        BULK_WITHIN_ARRAY_TYPES.put(PropertyType.SHORT, PropertyType.SHORT_ARRAY);
+        BULK_WITHIN_ARRAY_TYPES.put(PropertyType.INTEGER, PropertyType.INTEGER_ARRAY);
+        BULK_WITHIN_ARRAY_TYPES.put(PropertyType.LONG, PropertyType.LONG_ARRAY);
+        BULK_WITHIN_ARRAY_TYPES.put(PropertyType.DOUBLE, PropertyType.DOUBLE_ARRAY);
+        BULK_WITHIN_ARRAY_TYPES.put(PropertyType.STRING, PropertyType.STRING_ARRAY);
+    }
+
     private SqlgUtil() {
     }
 
@@ -90,55 +103,75 @@ public class SqlgUtil {
             boolean forParent
     ) throws SQLException {
 
-        List<Emit<SqlgElement>> result = new ArrayList<>();
         if (resultSet.next()) {
-            if (first) {
-                for (LinkedList<SchemaTableTree> subQueryStack : subQueryStacks) {
-                    for (SchemaTableTree schemaTableTree : subQueryStack) {
-                        schemaTableTree.clearColumnNamePropertyNameMap();
-                    }
+            return loadResultSetRowIntoResultIterator(sqlgGraph, resultSetMetaData, resultSet, rootSchemaTableTree, subQueryStacks, first, lastElementIdCountMap, forParent);
+        } else {
+            return new ArrayList<>();
+        }
+    }
+
+    /**
+     * Loads the resultSet's current row, see {@link #loadResultSetIntoResultIterator(SqlgGraph, ResultSetMetaData, ResultSet, SchemaTableTree, List, boolean, Map, boolean)}.
+     * The rows of a 'UNION ALL' statement are loaded one at a time as the part of the row decides which subQueryStacks apply.
+     */
+    public static List<Emit<SqlgElement>> loadResultSetRowIntoResultIterator(
+            SqlgGraph sqlgGraph,
+            ResultSetMetaData resultSetMetaData,
+            ResultSet resultSet,
+            SchemaTableTree rootSchemaTableTree,
+            List<LinkedList<SchemaTableTree>> subQueryStacks,
+            boolean first,
+            Map<String, Integer> lastElementIdCountMap,
+            boolean forParent
+    ) throws SQLException {
+
+        List<Emit<SqlgElement>> result = new ArrayList<>();
+        if (first) {
+            for (LinkedList<SchemaTableTree> subQueryStack : subQueryStacks) {
+                for (SchemaTableTree schemaTableTree : subQueryStack) {
+                    schemaTableTree.clearColumnNamePropertyNameMap();
                 }
-                populateIdCountMap(resultSetMetaData, rootSchemaTableTree, lastElementIdCountMap);
             }
-            int subQueryDepth = 1;
-            for (LinkedList<SchemaTableTree> subQueryStack : subQueryStacks) {
-
-                List<Emit<SqlgElement>> labeledElements = SqlgUtil.loadLabeledElements(
-                        sqlgGraph,
-                        resultSet,
-                        subQueryStack,
-                        subQueryDepth == subQueryStacks.size(),
-                        lastElementIdCountMap,
-                        forParent
-                );
-                result.addAll(labeledElements);
-                if (subQueryDepth == subQueryStacks.size()) {
-                    SchemaTableTree lastSchemaTableTree = subQueryStack.getLast();
-                    if (labeledElements.isEmpty()) {
-                        SqlgElement e = SqlgUtil.loadElement(
-                                sqlgGraph, lastElementIdCountMap, resultSet, lastSchemaTableTree
-                        );
-                        Emit<SqlgElement> emit;
-                        if (!forParent) {
-                            emit = new Emit<>(e, Collections.emptySet(), lastSchemaTableTree.getStepDepth(), lastSchemaTableTree.getSqlgComparatorHolder());
-                        } else {
-                            emit = new Emit<>(resultSet.getLong(1), e, Collections.emptySet(), lastSchemaTableTree.getStepDepth(), lastSchemaTableTree.getSqlgComparatorHolder());
-                        }
-                        if (lastSchemaTableTree.isLocalStep() && lastSchemaTableTree.isOptionalLeftJoin()) {
-                            emit.setIncomingOnlyLocalOptionalStep(true);
-                        }
-                        result.add(emit);
+            populateIdCountMap(resultSetMetaData, rootSchemaTableTree, lastElementIdCountMap);
+        }
+        int subQueryDepth = 1;
+        for (LinkedList<SchemaTableTree> subQueryStack : subQueryStacks) {
+
+            List<Emit<SqlgElement>> labeledElements = SqlgUtil.loadLabeledElements(
+                    sqlgGraph,
+                    resultSet,
+                    subQueryStack,
+                    subQueryDepth == subQueryStacks.size(),
+                    lastElementIdCountMap,
+                    forParent
+            );
+            result.addAll(labeledElements);
+            if (subQueryDepth == subQueryStacks.size()) {
+                SchemaTableTree lastSchemaTableTree = subQueryStack.getLast();
+                if (labeledElements.isEmpty()) {
+                    SqlgElement e = SqlgUtil.loadElement(
+                            sqlgGraph, lastElementIdCountMap, resultSet, lastSchemaTableTree
+                    );
+                    Emit<SqlgElement> emit;
+                    if (!forParent) {
+                        emit = new Emit<>(e, Collections.emptySet(), lastSchemaTableTree.getStepDepth(), lastSchemaTableTree.getSqlgComparatorHolder());
+                    } else {
+                        emit = new Emit<>(resultSet.getLong(1), e, Collections.emptySet(), lastSchemaTableTree.getStepDepth(), lastSchemaTableTree.getSqlgComparatorHolder());
                     }
-                    if (lastSchemaTableTree.getReplacedStepDepth() == lastSchemaTableTree.getStepDepth() &&
-                            lastSchemaTableTree.isEmit() &&
-                            lastSchemaTableTree.isUntilFirst()) {
-
-                        Emit<SqlgElement> repeatEmit = labeledElements.get(labeledElements.size() - 1);
-                        repeatEmit.setRepeat(true);
+                    if (lastSchemaTableTree.isLocalStep() && lastSchemaTableTree.isOptionalLeftJoin()) {
+                        emit.setIncomingOnlyLocalOptionalStep(true);
                     }
+                    result.add(emit);
+                }
+                if (lastSchemaTableTree.getReplacedStepDepth() == lastSchemaTableTree.getStepDepth() &&
+                        lastSchemaTableTree.isEmit() &&
+                        lastSchemaTableTree.isUntilFirst()) {
+
+                    Emit<SqlgElement> repeatEmit = labeledElements.get(labeledElements.size() - 1);
+                    repeatEmit.setRepeat(true);
                 }
-                subQueryDepth++;
             }
+            subQueryDepth++;
         }
         return result;
     }
@@ -257,22 +290,123 @@ public class SqlgUtil {
         return p == Contains.within && ((Collection) hasContainer.getPredicate().getValue()).size() > sqlgGraph.configuration().getInt("bulk.within.count", BULK_WITHIN_COUNT);
     }
 
-    public static void setParametersOnStatement(SqlgGraph sqlgGraph, LinkedList<SchemaTableTree> schemaTableTreeStack, PreparedStatement preparedStatement, int parameterIndex) throws SQLException {
-        Multimap<String, Object> keyValueMap = LinkedListMultimap.create();
-        for (SchemaTableTree schemaTableTree : schemaTableTreeStack) {
-            for (HasContainer hasContainer : schemaTableTree.getHasContainers()) {
-                if (!sqlgGraph.getSqlDialect().supportsBulkWithinOut() || !isBulkWithinAndOut(sqlgGraph, hasContainer)) {
-                    WhereClause whereClause = WhereClause.from(hasContainer.getPredicate());
-                    whereClause.putKeyValueMap(hasContainer, keyValueMap);
+    /**
+     * @return The type of the values of the P.within or P.without, LONG for ids, or null if the values are not all of the same type.
+     */
+    public static PropertyType bulkWithinAndOutPropertyType(HasContainer hasContainer) {
+        PropertyType result = null;
+        for (Object value : (Collection<?>) hasContainer.getPredicate().getValue()) {
+            if (value instanceof RecordId) {
+                value = ((RecordId) value).getId();
+            }
+            if (value == null) {
+                return null;
+            }
+            PropertyType propertyType = PropertyType.from(value);
+            if (result == null) {
+                result = propertyType;
+            } else if (result != propertyType) {
+                return null;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Bulk P.within and P.without values of more than 'bulk.within.temporary.table.count' are copied into a temporary table,
+     * if the dialect supports streaming batch mode and the transaction is not in batch mode already.
+     */
+    public static boolean isBulkWithinAndOutTemporaryTable(SqlgGraph sqlgGraph, HasContainer hasContainer) {
+        int temporaryTableCount = sqlgGraph.configuration().getInt("bulk.within.temporary.table.count", BULK_WITHIN_TEMPORARY_TABLE_COUNT);
+        return temporaryTableCount > 0 &&
+                sqlgGraph.getSqlDialect().supportsBulkWithinOut() &&
+                sqlgGraph.getSqlDialect().supportsStreamingBatchMode() &&
+                isBulkWithinAndOut(sqlgGraph, hasContainer) &&
+                ((Collection) hasContainer.getPredicate().getValue()).size() > temporaryTableCount &&
+                !sqlgGraph.tx().isInBatchMode() &&
+                bulkWithinAndOutPropertyType(hasContainer) != null;
+    }
+
+    /**
+     * Bulk P.within and P.without values are bound as one array parameter if the dialect supports it and the values are
+     * all of the same type. Else they are written into the sql as a 'VALUES' expression.
+     */
+    public static boolean isBulkWithinAndOutArrayParameter(SqlgGraph sqlgGraph, HasContainer hasContainer) {
+        if (!sqlgGraph.getSqlDialect().supportsBulkWithinOut() ||
+                !sqlgGraph.getSqlDialect().supportsArrayParameterTable() ||
+                !isBulkWithinAndOut(sqlgGraph, hasContainer) ||
+                isBulkWithinAndOutTemporaryTable(sqlgGraph, hasContainer)) {
+            return false;
+        }
+        PropertyType propertyType = bulkWithinAndOutPropertyType(hasContainer);
+        return propertyType != null && BULK_WITHIN_ARRAY_TYPES.containsKey(propertyType);
+    }
+
+    /**
+     * @return The distinct values of the P.within or P.without, ids as their long value.
+     */
+    public static Set<Object> bulkWithinAndOutValues(HasContainer hasContainer) {
+        Collection<?> withInOutList = (Collection<?>) hasContainer.getPredicate().getValue();
+        Set<Object> result = new LinkedHashSet<>(withInOutList.size());
+        for (Object value : withInOutList) {
+            if (value instanceof RecordId) {
+                value = ((RecordId) value).getId();
+            }
+            result.add(value);
+        }
+        return result;
+    }
+
+    private static int setBulkWithinAndOutArrayParameter(SqlgGraph sqlgGraph, HasContainer hasContainer, PreparedStatement preparedStatement, int parameterIndex) throws SQLException {
+        PropertyType propertyType = bulkWithinAndOutPropertyType(hasContainer);
+        Set<Object> values = bulkWithinAndOutValues(hasContainer);
+        if (propertyType == PropertyType.LONG) {
+            long[] ids = new long[values.size()];
+            int i = 0;
+            for (Object value : values) {
+                ids[i++] = (Long) value;
+            }
+            sqlgGraph.getSqlDialect().setLongArrayParameter(preparedStatement, parameterIndex, ids);
+        } else {
+            sqlgGraph.getSqlDialect().setArray(preparedStatement, parameterIndex, BULK_WITHIN_ARRAY_TYPES.get(propertyType), values.toArray());
+        }
+        return parameterIndex + 1;
+    }
+
+    public static int setParametersOnStatement(SqlgGraph sqlgGraph, LinkedList<SchemaTableTree> schemaTableTreeStack, PreparedStatement preparedStatement, int parameterIndex) throws SQLException {
+        SchemaTableTree first = schemaTableTreeStack.peekFirst();
+        //Duplicate paths are selected in sub queries, each with its own joins and where clause.
+        for (LinkedList<SchemaTableTree> subQueryStack : SchemaTableTree.splitIntoSubStacks(schemaTableTreeStack)) {
+            //The bulk P.within and P.without joins precede the parent ids join.
+            for (SchemaTableTree schemaTableTree : subQueryStack) {
+                for (HasContainer hasContainer : schemaTableTree.getHasContainers()) {
+                    if (isBulkWithinAndOutArrayParameter(sqlgGraph, hasContainer)) {
+                        parameterIndex = setBulkWithinAndOutArrayParameter(sqlgGraph, hasContainer, preparedStatement, parameterIndex);
+                    }
                 }
             }
-            for (AndOrHasContainer andOrHasContainer : schemaTableTree.getAndOrHasContainers()) {
-                andOrHasContainer.setParameterOnStatement(keyValueMap);
+            if (first != null && first.isParentIdsAsParameters() && subQueryStack.getFirst() == first) {
+                //The parent ids and indexes join precedes the where clause.
+                sqlgGraph.getSqlDialect().setLongArrayParameter(preparedStatement, parameterIndex++, first.getParentIdsAndIndexes().lefts());
+                sqlgGraph.getSqlDialect().setLongArrayParameter(preparedStatement, parameterIndex++, first.getParentIdsAndIndexes().rights());
+            }
+            Multimap<String, Object> keyValueMap = LinkedListMultimap.create();
+            for (SchemaTableTree schemaTableTree : subQueryStack) {
+                for (HasContainer hasContainer : schemaTableTree.getHasContainers()) {
+                    if (!sqlgGraph.getSqlDialect().supportsBulkWithinOut() || !isBulkWithinAndOut(sqlgGraph, hasContainer)) {
+                        WhereClause whereClause = WhereClause.from(hasContainer.getPredicate());
+                        whereClause.putKeyValueMap(sqlgGraph, hasContainer, keyValueMap);
+                    }
+                }
+                for (AndOrHasContainer andOrHasContainer : schemaTableTree.getAndOrHasContainers()) {
+                    andOrHasContainer.setParameterOnStatement(keyValueMap);
+                }
             }
+            List<ImmutablePair<PropertyType, Object>> typeAndValues = SqlgUtil.transformToTypeAndValue(keyValueMap);
+            //This is for selects
+            parameterIndex = setKeyValuesAsParameter(sqlgGraph, false, parameterIndex, preparedStatement, typeAndValues);
         }
-        List<ImmutablePair<PropertyType, Object>> typeAndValues = SqlgUtil.transformToTypeAndValue(keyValueMap);
-        //This is for selects
-        setKeyValuesAsParameter(sqlgGraph, false, parameterIndex, preparedStatement, typeAndValues);
+        return parameterIndex;
     }
 
 
@@ -722,6 +722,53 @@ public class HsqldbDialect extends BaseSqlDialect implements SqlBulkDialect {
         return true;
     }
 
+    @Override
+    public boolean supportsRecursiveQueries() {
+        return true;
+    }
+
+    @Override
+    public boolean supportsRecursiveUnionAll() {
+        return false;
+    }
+
+    @Override
+    public String recursivePathStart(String column) {
+        //Without the cast the array's maximum cardinality is 1
+        return "CAST(ARRAY[" + column + "] AS BIGINT ARRAY[65536])";
+    }
+
+    @Override
+    public String recursivePathAppend(String path, String column) {
+        return path + " || ARRAY[" + column + "]";
+    }
+
+    @Override
+    public String recursivePathContains(String path, String column) {
+        return "POSITION_ARRAY(" + column + " IN " + path + ") > 0";
+    }
+
+    @Override
+    public boolean supportsArrayParameterIn() {
+        return true;
+    }
+
+    @Override
+    public String arrayParameterIn(String column) {
+        return column + " IN (UNNEST(?))";
+    }
+
+    @Override
+    public boolean supportsArrayParameterTable() {
+        return true;
+    }
+
+    @Override
+    public String arrayParameterTable(PropertyType propertyType, String alias, String column) {
+        //Without the cast the parameter's type is unknown
+        return "UNNEST(CAST(? AS " + propertyTypeToSqlDefinition(propertyType)[0] + " ARRAY)) AS " + alias + "(" + column + ")";
+    }
+
     @Override
     public boolean supportsBulkWithinOut() {
         return true;
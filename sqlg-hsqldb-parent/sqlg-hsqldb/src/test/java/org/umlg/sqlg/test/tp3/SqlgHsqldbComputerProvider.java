@@ -0,0 +1,19 @@
+package org.umlg.sqlg.test.tp3;
+
+import org.apache.tinkerpop.gremlin.GraphProvider;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversalSource;
+import org.apache.tinkerpop.gremlin.structure.Graph;
+import org.umlg.sqlg.computer.SqlgGraphComputer;
+
+/**
+ * The provider of the process computer suite, the suite requires the graph computer's descriptor
+ * and its traversals execute on the graph computer.
+ */
+@GraphProvider.Descriptor(computer = SqlgGraphComputer.class)
+public class SqlgHsqldbComputerProvider extends SqlgHsqldbProvider {
+
+    @Override
+    public GraphTraversalSource traversal(Graph graph) {
+        return graph.traversal().withComputer(SqlgGraphComputer.class);
+    }
+}
@@ -1,12 +1,17 @@
 package org.umlg.sqlg.test.tp3;
 
+import org.apache.commons.configuration.Configuration;
 import org.apache.tinkerpop.gremlin.LoadGraphWith;
+import org.apache.tinkerpop.gremlin.structure.Graph;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.umlg.sqlg.HsqldbPlugin;
 import org.umlg.sqlg.SqlgPlugin;
 import org.umlg.sqlg.structure.SqlgGraph;
+import org.umlg.sqlg.util.SqlgUtil;
 
+import java.sql.Connection;
+import java.sql.DriverManager;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -29,6 +34,23 @@ public class SqlgHsqldbProvider extends SqlgAbstractGraphProvider {
         }};
     }
 
+    /**
+     * Drops the db on a connection of its own. A new pool acquires its connections in the background and hsqldb
+     * deadlocks when a session is opened while a schema is dropped.
+     */
+    @Override
+    public void clear(Graph graph, Configuration configuration) throws Exception {
+        if (graph != null) {
+            if (graph.tx().isOpen()) {
+                graph.tx().rollback();
+            }
+            graph.close();
+        }
+        try (Connection connection = DriverManager.getConnection(configuration.getString("jdbc.url"), configuration.getString("jdbc.username"), configuration.getString("jdbc.password"))) {
+            SqlgUtil.dropDb(getSqlgPlugin().instantiateDialect(), connection);
+        }
+    }
+
     @Override
     public SqlgPlugin getSqlgPlugin() {
         return new HsqldbPlugin();
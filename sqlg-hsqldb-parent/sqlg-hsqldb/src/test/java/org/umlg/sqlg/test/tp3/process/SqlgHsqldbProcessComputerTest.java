@@ -0,0 +1,36 @@
+package org.umlg.sqlg.test.tp3.process;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.tinkerpop.gremlin.GraphProviderClass;
+import org.apache.tinkerpop.gremlin.process.ProcessComputerSuite;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.runner.RunWith;
+import org.umlg.sqlg.structure.SqlgGraph;
+import org.umlg.sqlg.test.tp3.SqlgHsqldbComputerProvider;
+
+import java.io.File;
+import java.io.IOException;
+
+
+/**
+ * Executes the Gremlin Process Computer Test Suite using Hsqldb.
+ */
+@RunWith(ProcessComputerSuite.class)
+@GraphProviderClass(provider = SqlgHsqldbComputerProvider.class, graph = SqlgGraph.class)
+public class SqlgHsqldbProcessComputerTest {
+
+    @BeforeClass
+    public static void setUp() {
+        //ComputerResultStep only attaches the halted traversers' elements to the result graph when testing.
+        System.setProperty("is.testing", "true");
+        try {
+            File db = new File("./src/test/db/");
+            if (db.exists()) {
+                FileUtils.cleanDirectory(db);
+            }
+        } catch (IOException e) {
+            Assert.fail("Failed to delete Hsqldb's db dir at ./src/test/db");
+        }
+    }
+}
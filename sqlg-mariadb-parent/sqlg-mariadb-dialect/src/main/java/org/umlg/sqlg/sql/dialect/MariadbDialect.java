@@ -923,4 +923,13 @@ public class MariadbDialect extends BaseSqlDialect {
     public String getSkipClause(long skip) {
         return " LIMIT " + skip + ", 1000000";
     }
+
+    @Override
+    public Map<String, String> getStatementCacheDataSourceProperties() {
+        Map<String, String> result = new HashMap<>();
+        result.put("cachePrepStmts", "true");
+        result.put("useServerPrepStmts", "true");
+        result.put("prepStmtCacheSize", "500");
+        return result;
+    }
 }
@@ -924,4 +924,14 @@ public class MysqlDialect extends BaseSqlDialect {
     public String getSkipClause(long skip) {
         return " LIMIT " + skip + ", 1000000";
     }
+
+    @Override
+    public Map<String, String> getStatementCacheDataSourceProperties() {
+        Map<String, String> result = new HashMap<>();
+        result.put("cachePrepStmts", "true");
+        result.put("useServerPrepStmts", "true");
+        result.put("prepStmtCacheSize", "500");
+        result.put("prepStmtCacheSqlLimit", "8192");
+        return result;
+    }
 }
@@ -0,0 +1,420 @@
+package org.umlg.sqlg.sql.dialect;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.Sets;
+import org.umlg.sqlg.structure.PropertyType;
+import org.umlg.sqlg.util.SqlgUtil;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Array;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.*;
+import java.time.temporal.ChronoUnit;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TimeZone;
+
+/**
+ * Writes rows in postgres' binary COPY format, i.e. for 'COPY ... FROM STDIN (FORMAT BINARY)'.
+ * The binary format avoids formatting and escaping every value as text and postgres does not have to parse it again.
+ * Every property type that the CSV copy supports is encoded except json and the gis types, see {@link #supports(PropertyType)}.
+ * <p>
+ * Timestamps are encoded the way the CSV copy's text is interpreted, i.e. the {@link LocalDateTime} is taken to be in the
+ * session's time zone, which the jdbc driver sets to the jvm's default time zone.
+ * <p>
+ * As a {@link StreamingSink} it writes the rows of a streaming batch mode copy.
+ *
+ * @see <a href="https://www.postgresql.org/docs/current/static/sql-copy.html">COPY binary format</a>
+ */
+class PostgresBinaryCopyWriter implements StreamingSink {
+
+    private static final byte[] SIGNATURE = {'P', 'G', 'C', 'O', 'P', 'Y', '\n', (byte) 0xff, '\r', '\n', 0};
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final LocalDate POSTGRES_EPOCH = LocalDate.of(2000, 1, 1);
+    private static final long POSTGRES_EPOCH_SECONDS = POSTGRES_EPOCH.atStartOfDay(ZoneOffset.UTC).toEpochSecond();
+    //ndim, has null flag, element oid, dimension size and lower bound
+    private static final int ARRAY_HEADER_BYTES = 5 * Integer.BYTES;
+    private static final Set<PropertyType> UNSUPPORTED = Sets.immutableEnumSet(
+            PropertyType.BYTE,
+            PropertyType.JSON,
+            PropertyType.JSON_ARRAY,
+            PropertyType.POINT,
+            PropertyType.LINESTRING,
+            PropertyType.POLYGON,
+            PropertyType.GEOGRAPHY_POINT,
+            PropertyType.GEOGRAPHY_POLYGON
+    );
+    private static final Set<PropertyType> SUPPORTED = Sets.immutableEnumSet(EnumSet.complementOf(EnumSet.copyOf(UNSUPPORTED)));
+
+    private final OutputStream outputStream;
+    private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+    //The property types of a streaming batch mode copy, taken from the first row.
+    private PropertyType[] streamingPropertyTypes;
+    private int streamingColumns;
+
+    PostgresBinaryCopyWriter(OutputStream outputStream) {
+        this.outputStream = outputStream;
+        this.buffer.put(SIGNATURE);
+        //flags
+        this.buffer.putInt(0);
+        //header extension length
+        this.buffer.putInt(0);
+    }
+
+    static boolean supports(PropertyType propertyType) {
+        return SUPPORTED.contains(propertyType);
+    }
+
+    /**
+     * @return The number of columns the property type is stored in.
+     */
+    static int columnCount(PropertyType propertyType) {
+        return 1 + propertyType.getPostFixes().length;
+    }
+
+    void startRow(int numberOfColumns) throws IOException {
+        ensureCapacity(Short.BYTES);
+        this.buffer.putShort((short) numberOfColumns);
+    }
+
+    void writeLong(long value) throws IOException {
+        ensureCapacity(Integer.BYTES + Long.BYTES);
+        this.buffer.putInt(Long.BYTES);
+        this.buffer.putLong(value);
+    }
+
+    /**
+     * Writes a row of a streaming batch mode copy. The property types are taken from the first row's values,
+     * which must not be null, later rows are encoded with the same types.
+     */
+    @Override
+    public void writeRow(long[] foreignKeys, Map<String, Object> keyValueMap) throws IOException {
+        Collection<Object> values = keyValueMap.values();
+        if (this.streamingPropertyTypes == null) {
+            this.streamingPropertyTypes = new PropertyType[values.size()];
+            int i = 0;
+            for (Object value : values) {
+                Preconditions.checkState(value != null, "The first row of a binary streaming copy may not have null values.");
+                this.streamingPropertyTypes[i] = PropertyType.from(value);
+                this.streamingColumns += columnCount(this.streamingPropertyTypes[i++]);
+            }
+        }
+        Preconditions.checkState(values.size() == this.streamingPropertyTypes.length, "Streaming batch mode requires every row to have the same keys.");
+        startRow(foreignKeys.length + this.streamingColumns);
+        for (long foreignKey : foreignKeys) {
+            writeLong(foreignKey);
+        }
+        int i = 0;
+        for (Object value : values) {
+            write(this.streamingPropertyTypes[i++], value);
+        }
+    }
+
+    void write(PropertyType propertyType, Object value) throws IOException {
+        if (value == null) {
+            for (int i = 0; i < columnCount(propertyType); i++) {
+                writeNull();
+            }
+            return;
+        }
+        switch (propertyType) {
+            case BOOLEAN:
+                ensureCapacity(Integer.BYTES + 1);
+                this.buffer.putInt(1);
+                this.buffer.put((Boolean) value ? (byte) 1 : (byte) 0);
+                break;
+            case SHORT:
+                ensureCapacity(Integer.BYTES + Short.BYTES);
+                this.buffer.putInt(Short.BYTES);
+                this.buffer.putShort(((Number) value).shortValue());
+                break;
+            case INTEGER:
+                ensureCapacity(Integer.BYTES + Integer.BYTES);
+                this.buffer.putInt(Integer.BYTES);
+                this.buffer.putInt(((Number) value).intValue());
+                break;
+            case LONG:
+                writeLong(((Number) value).longValue());
+                break;
+            case FLOAT:
+                ensureCapacity(Integer.BYTES + Float.BYTES);
+                this.buffer.putInt(Float.BYTES);
+                this.buffer.putFloat(((Number) value).floatValue());
+                break;
+            case DOUBLE:
+                ensureCapacity(Integer.BYTES + Double.BYTES);
+                this.buffer.putInt(Double.BYTES);
+                this.buffer.putDouble(((Number) value).doubleValue());
+                break;
+            case STRING:
+                writeField(((String) value).getBytes(StandardCharsets.UTF_8));
+                break;
+            case LOCALDATE:
+                //days since 2000-01-01
+                ensureCapacity(Integer.BYTES + Integer.BYTES);
+                this.buffer.putInt(Integer.BYTES);
+                this.buffer.putInt((int) ChronoUnit.DAYS.between(POSTGRES_EPOCH, (LocalDate) value));
+                break;
+            case LOCALDATETIME:
+                writeLong(timestampMicros((LocalDateTime) value));
+                break;
+            case LOCALTIME:
+                //time with time zone, microseconds since midnight and the zone's offset in seconds west of UTC
+                LocalTime localTime = PostgresDialect.shiftDST((LocalTime) value).toLocalTime();
+                ensureCapacity(Integer.BYTES + Long.BYTES + Integer.BYTES);
+                this.buffer.putInt(Long.BYTES + Integer.BYTES);
+                this.buffer.putLong(localTime.toNanoOfDay() / 1000);
+                this.buffer.putInt(-ZoneId.systemDefault().getRules().getOffset(Instant.now()).getTotalSeconds());
+                break;
+            case ZONEDDATETIME:
+                ZonedDateTime zonedDateTime = (ZonedDateTime) value;
+                writeLong(timestampMicros(zonedDateTime.toLocalDateTime()));
+                write(PropertyType.STRING, TimeZone.getTimeZone(zonedDateTime.getZone()).getID());
+                break;
+            case PERIOD:
+                Period period = (Period) value;
+                write(PropertyType.INTEGER, period.getYears());
+                write(PropertyType.INTEGER, period.getMonths());
+                write(PropertyType.INTEGER, period.getDays());
+                break;
+            case DURATION:
+                Duration duration = (Duration) value;
+                writeLong(duration.getSeconds());
+                write(PropertyType.INTEGER, duration.getNano());
+                break;
+            case byte_ARRAY:
+                writeField((byte[]) value);
+                break;
+            case BYTE_ARRAY:
+                writeField((byte[]) SqlgUtil.convertByteArrayToPrimitiveArray((Byte[]) value));
+                break;
+            case boolean_ARRAY:
+            case BOOLEAN_ARRAY:
+                writeArray(PropertyType.BOOLEAN, value);
+                break;
+            case short_ARRAY:
+            case SHORT_ARRAY:
+                writeArray(PropertyType.SHORT, value);
+                break;
+            case int_ARRAY:
+            case INTEGER_ARRAY:
+                writeArray(PropertyType.INTEGER, value);
+                break;
+            case long_ARRAY:
+            case LONG_ARRAY:
+                writeArray(PropertyType.LONG, value);
+                break;
+            case float_ARRAY:
+            case FLOAT_ARRAY:
+                writeArray(PropertyType.FLOAT, value);
+                break;
+            case double_ARRAY:
+            case DOUBLE_ARRAY:
+                writeArray(PropertyType.DOUBLE, value);
+                break;
+            case STRING_ARRAY:
+                writeArray(PropertyType.STRING, value);
+                break;
+            case LOCALDATE_ARRAY:
+                writeArray(PropertyType.LOCALDATE, value);
+                break;
+            case LOCALDATETIME_ARRAY:
+                writeArray(PropertyType.LOCALDATETIME, value);
+                break;
+            case LOCALTIME_ARRAY:
+                writeArray(PropertyType.LOCALTIME, value);
+                break;
+            case ZONEDDATETIME_ARRAY:
+                ZonedDateTime[] zonedDateTimes = (ZonedDateTime[]) value;
+                LocalDateTime[] localDateTimes = new LocalDateTime[zonedDateTimes.length];
+                String[] zoneIds = new String[zonedDateTimes.length];
+                for (int i = 0; i < zonedDateTimes.length; i++) {
+                    localDateTimes[i] = zonedDateTimes[i].toLocalDateTime();
+                    zoneIds[i] = TimeZone.getTimeZone(zonedDateTimes[i].getZone()).getID();
+                }
+                writeArray(PropertyType.LOCALDATETIME, localDateTimes);
+                writeArray(PropertyType.STRING, zoneIds);
+                break;
+            case PERIOD_ARRAY:
+                Period[] periods = (Period[]) value;
+                int[] years = new int[periods.length];
+                int[] months = new int[periods.length];
+                int[] days = new int[periods.length];
+                for (int i = 0; i < periods.length; i++) {
+                    years[i] = periods[i].getYears();
+                    months[i] = periods[i].getMonths();
+                    days[i] = periods[i].getDays();
+                }
+                writeArray(PropertyType.INTEGER, years);
+                writeArray(PropertyType.INTEGER, months);
+                writeArray(PropertyType.INTEGER, days);
+                break;
+            case DURATION_ARRAY:
+                Duration[] durations = (Duration[]) value;
+                long[] seconds = new long[durations.length];
+                int[] nanos = new int[durations.length];
+                for (int i = 0; i < durations.length; i++) {
+                    seconds[i] = durations[i].getSeconds();
+                    nanos[i] = durations[i].getNano();
+                }
+                writeArray(PropertyType.LONG, seconds);
+                writeArray(PropertyType.INTEGER, nanos);
+                break;
+            default:
+                throw new IllegalStateException("Binary copy does not support " + propertyType.name());
+        }
+    }
+
+    /**
+     * Writes a one dimensional array, the header is followed by the elements each with its length.
+     * The byte size of the array is calculated up front so that the elements can be written straight into the buffer.
+     */
+    private void writeArray(PropertyType elementType, Object array) throws IOException {
+        int length = Array.getLength(array);
+        byte[][] text = elementType == PropertyType.STRING ? new byte[length][] : null;
+        boolean hasNull = false;
+        int bytes = length == 0 ? 3 * Integer.BYTES : ARRAY_HEADER_BYTES;
+        for (int i = 0; i < length; i++) {
+            Object element = Array.get(array, i);
+            bytes += Integer.BYTES;
+            if (element == null) {
+                hasNull = true;
+            } else if (text != null) {
+                text[i] = ((String) element).getBytes(StandardCharsets.UTF_8);
+                bytes += text[i].length;
+            } else {
+                bytes += elementBytes(elementType);
+            }
+        }
+        ensureCapacity(Integer.BYTES + ARRAY_HEADER_BYTES);
+        this.buffer.putInt(bytes);
+        //an empty array has no dimensions
+        this.buffer.putInt(length == 0 ? 0 : 1);
+        this.buffer.putInt(hasNull ? 1 : 0);
+        this.buffer.putInt(elementOid(elementType));
+        if (length > 0) {
+            this.buffer.putInt(length);
+            this.buffer.putInt(1);
+        }
+        for (int i = 0; i < length; i++) {
+            if (text != null) {
+                if (text[i] == null) {
+                    writeNull();
+                } else {
+                    writeField(text[i]);
+                }
+            } else {
+                write(elementType, Array.get(array, i));
+            }
+        }
+    }
+
+    private static int elementBytes(PropertyType elementType) {
+        switch (elementType) {
+            case BOOLEAN:
+                return 1;
+            case SHORT:
+                return Short.BYTES;
+            case INTEGER:
+            case LOCALDATE:
+                return Integer.BYTES;
+            case FLOAT:
+                return Float.BYTES;
+            case LONG:
+            case LOCALDATETIME:
+                return Long.BYTES;
+            case DOUBLE:
+                return Double.BYTES;
+            case LOCALTIME:
+                return Long.BYTES + Integer.BYTES;
+            default:
+                throw new IllegalStateException("Binary copy does not support arrays of " + elementType.name());
+        }
+    }
+
+    /**
+     * @return The oid of postgres' type for the array's elements, see pg_type.
+     */
+    private static int elementOid(PropertyType elementType) {
+        switch (elementType) {
+            case BOOLEAN:
+                return 16;
+            case SHORT:
+                return 21;
+            case INTEGER:
+                return 23;
+            case LONG:
+                return 20;
+            case FLOAT:
+                return 700;
+            case DOUBLE:
+                return 701;
+            case STRING:
+                //text, a String[] column is 'TEXT[]'
+                return 25;
+            case LOCALDATE:
+                return 1082;
+            case LOCALDATETIME:
+                return 1184;
+            case LOCALTIME:
+                return 1266;
+            default:
+                throw new IllegalStateException("Binary copy does not support arrays of " + elementType.name());
+        }
+    }
+
+    /**
+     * @return The microseconds since 2000-01-01 00:00:00 UTC.
+     */
+    private static long timestampMicros(LocalDateTime localDateTime) {
+        Instant instant = localDateTime.atZone(ZoneId.systemDefault()).toInstant();
+        return (instant.getEpochSecond() - POSTGRES_EPOCH_SECONDS) * 1_000_000L + instant.getNano() / 1000;
+    }
+
+    private void writeNull() throws IOException {
+        ensureCapacity(Integer.BYTES);
+        this.buffer.putInt(-1);
+    }
+
+    private void writeField(byte[] bytes) throws IOException {
+        ensureCapacity(Integer.BYTES);
+        this.buffer.putInt(bytes.length);
+        writeBytes(bytes);
+    }
+
+    private void writeBytes(byte[] bytes) throws IOException {
+        int offset = 0;
+        while (offset < bytes.length) {
+            if (!this.buffer.hasRemaining()) {
+                flushBuffer();
+            }
+            int length = Math.min(this.buffer.remaining(), bytes.length - offset);
+            this.buffer.put(bytes, offset, length);
+            offset += length;
+        }
+    }
+
+    private void ensureCapacity(int bytes) throws IOException {
+        if (this.buffer.remaining() < bytes) {
+            flushBuffer();
+        }
+    }
+
+    private void flushBuffer() throws IOException {
+        this.outputStream.write(this.buffer.array(), 0, this.buffer.position());
+        this.buffer.clear();
+    }
+
+    @Override
+    public void close() throws IOException {
+        //file trailer
+        ensureCapacity(Short.BYTES);
+        this.buffer.putShort((short) -1);
+        flushBuffer();
+        this.outputStream.close();
+    }
+}
@@ -28,6 +28,7 @@ import org.umlg.sqlg.structure.topology.*;
 import org.umlg.sqlg.util.SqlgUtil;
 
 import java.io.*;
+import java.nio.charset.StandardCharsets;
 import java.security.SecureRandom;
 import java.sql.*;
 import java.sql.Date;
@@ -50,6 +51,7 @@ public class PostgresDialect extends BaseSqlDialect implements SqlBulkDialect {
 
     private static final String BATCH_NULL = "";
     private static final String COPY_COMMAND_DELIMITER = "\t";
+    private static final String BINARY_COPY_FORMAT = " FROM STDIN (FORMAT BINARY);";
     //this strange character is apparently an illegal json char so its good as a quote
     private static final String COPY_COMMAND_QUOTE = "e'\\x01'";
     private static final char QUOTE = 0x01;
@@ -208,20 +210,41 @@ public class PostgresDialect extends BaseSqlDialect implements SqlBulkDialect {
         Connection con = sqlgGraph.tx().getConnection();
         for (SchemaTable schemaTable : vertexCache.keySet()) {
             Pair<SortedSet<String>, Map<SqlgVertex, Map<String, Object>>> vertices = vertexCache.get(schemaTable);
-            String sql = internalConstructCompleteCopyCommandSqlVertex(sqlgGraph, schemaTable.isTemporary(), schemaTable.getSchema(), schemaTable.getTable(), vertices.getLeft());
+            String sql;
             int numberInserted = 0;
-            try (Writer writer = streamSql(sqlgGraph, sql)) {
-                for (Map<String, Object> keyValueMap : vertices.getRight().values()) {
-                    //The map must contain all the keys, so make a copy with it all.
-                    LinkedHashMap<String, Object> values = new LinkedHashMap<>();
-                    for (String key : vertices.getLeft()) {
-                        values.put(key, keyValueMap.get(key));
+            Map<String, PropertyType> propertyTypeMap = null;
+            if (!schemaTable.isTemporary()) {
+                propertyTypeMap = sqlgGraph.getTopology().getTableFor(schemaTable.withPrefix(VERTEX_PREFIX));
+            }
+            if (propertyTypeMap != null && useBinaryCopy(sqlgGraph, propertyTypeMap, vertices.getLeft())) {
+                sql = constructBinaryCopyCommandSql(schemaTable.getSchema(), VERTEX_PREFIX + schemaTable.getTable(), Collections.emptyList(), vertices.getLeft(), propertyTypeMap);
+                int numberOfColumns = binaryCopyColumnCount(propertyTypeMap, vertices.getLeft());
+                try (PostgresBinaryCopyWriter writer = new PostgresBinaryCopyWriter(copyOutputStream(sqlgGraph, sql))) {
+                    for (Map<String, Object> keyValueMap : vertices.getRight().values()) {
+                        writer.startRow(numberOfColumns);
+                        for (String key : vertices.getLeft()) {
+                            writer.write(propertyTypeMap.get(key), keyValueMap.get(key));
+                        }
+                        numberInserted++;
                     }
-                    writeStreamingVertex(writer, values);
-                    numberInserted++;
+                } catch (IOException e) {
+                    throw new RuntimeException(e);
+                }
+            } else {
+                sql = internalConstructCompleteCopyCommandSqlVertex(sqlgGraph, schemaTable.isTemporary(), schemaTable.getSchema(), schemaTable.getTable(), vertices.getLeft());
+                try (StreamingSink sink = streamSql(sqlgGraph, sql)) {
+                    for (Map<String, Object> keyValueMap : vertices.getRight().values()) {
+                        //The map must contain all the keys, so make a copy with it all.
+                        LinkedHashMap<String, Object> values = new LinkedHashMap<>();
+                        for (String key : vertices.getLeft()) {
+                            values.put(key, keyValueMap.get(key));
+                        }
+                        writeStreamingVertex(sink, values);
+                        numberInserted++;
+                    }
+                } catch (IOException e) {
+                    throw new RuntimeException(e);
                 }
-            } catch (IOException e) {
-                throw new RuntimeException(e);
             }
             if (!schemaTable.isTemporary() && numberInserted > 0) {
                 long endHigh;
@@ -264,7 +287,7 @@ public class PostgresDialect extends BaseSqlDialect implements SqlBulkDialect {
                             globalUniqueIndex.getName(),
                             new HashSet<>(Arrays.asList(GlobalUniqueIndex.GLOBAL_UNIQUE_INDEX_VALUE, GlobalUniqueIndex.GLOBAL_UNIQUE_INDEX_RECORD_ID, GlobalUniqueIndex.GLOBAL_UNIQUE_INDEX_PROPERTY_NAME))
                     );
-                    try (Writer writer = streamSql(sqlgGraph, sql)) {
+                    try (StreamingSink sink = streamSql(sqlgGraph, sql)) {
                         for (Map.Entry<SqlgEdge, Triple<SqlgVertex, SqlgVertex, Map<String, Object>>> sqlgEdgeTripleEntry : edgeMap.entrySet()) {
                             SqlgEdge sqlgEdge = sqlgEdgeTripleEntry.getKey();
                             Triple<SqlgVertex, SqlgVertex, Map<String, Object>> triple = sqlgEdgeTripleEntry.getValue();
@@ -275,12 +298,12 @@ public class PostgresDialect extends BaseSqlDialect implements SqlBulkDialect {
                                 globalUniqueIndexValues.put(GlobalUniqueIndex.GLOBAL_UNIQUE_INDEX_VALUE, value);
                                 globalUniqueIndexValues.put(GlobalUniqueIndex.GLOBAL_UNIQUE_INDEX_RECORD_ID, sqlgEdge.id().toString());
                                 globalUniqueIndexValues.put(GlobalUniqueIndex.GLOBAL_UNIQUE_INDEX_PROPERTY_NAME, propertyColumn.getName());
-                                writeStreamingVertex(writer, globalUniqueIndexValues);
+                                writeStreamingVertex(sink, globalUniqueIndexValues);
                             } else {
                                 globalUniqueIndexValues.put(GlobalUniqueIndex.GLOBAL_UNIQUE_INDEX_VALUE, null);
                                 globalUniqueIndexValues.put(GlobalUniqueIndex.GLOBAL_UNIQUE_INDEX_RECORD_ID, sqlgEdge.id().toString());
                                 globalUniqueIndexValues.put(GlobalUniqueIndex.GLOBAL_UNIQUE_INDEX_PROPERTY_NAME, propertyColumn.getName());
-                                writeStreamingVertex(writer, globalUniqueIndexValues);
+                                writeStreamingVertex(sink, globalUniqueIndexValues);
                             }
                         }
                     } catch (IOException e) {
@@ -307,7 +330,7 @@ public class PostgresDialect extends BaseSqlDialect implements SqlBulkDialect {
                             globalUniqueIndex.getName(),
                             new HashSet<>(Arrays.asList(GlobalUniqueIndex.GLOBAL_UNIQUE_INDEX_VALUE, GlobalUniqueIndex.GLOBAL_UNIQUE_INDEX_RECORD_ID, GlobalUniqueIndex.GLOBAL_UNIQUE_INDEX_PROPERTY_NAME))
                     );
-                    try (Writer writer = streamSql(sqlgGraph, sql)) {
+                    try (StreamingSink sink = streamSql(sqlgGraph, sql)) {
                         Map<SqlgVertex, Map<String, Object>> a = vertices.getRight();
                         for (Map.Entry<SqlgVertex, Map<String, Object>> sqlgVertexMapEntry : a.entrySet()) {
                             SqlgVertex sqlgVertex = sqlgVertexMapEntry.getKey();
@@ -318,12 +341,12 @@ public class PostgresDialect extends BaseSqlDialect implements SqlBulkDialect {
                                 globalUniqueIndexValues.put(GlobalUniqueIndex.GLOBAL_UNIQUE_INDEX_VALUE, value);
                                 globalUniqueIndexValues.put(GlobalUniqueIndex.GLOBAL_UNIQUE_INDEX_RECORD_ID, sqlgVertex.id().toString());
                                 globalUniqueIndexValues.put(GlobalUniqueIndex.GLOBAL_UNIQUE_INDEX_PROPERTY_NAME, propertyColumn.getName());
-                                writeStreamingVertex(writer, globalUniqueIndexValues);
+                                writeStreamingVertex(sink, globalUniqueIndexValues);
                             } else {
                                 globalUniqueIndexValues.put(GlobalUniqueIndex.GLOBAL_UNIQUE_INDEX_VALUE, null);
                                 globalUniqueIndexValues.put(GlobalUniqueIndex.GLOBAL_UNIQUE_INDEX_RECORD_ID, sqlgVertex.id().toString());
                                 globalUniqueIndexValues.put(GlobalUniqueIndex.GLOBAL_UNIQUE_INDEX_PROPERTY_NAME, propertyColumn.getName());
-                                writeStreamingVertex(writer, globalUniqueIndexValues);
+                                writeStreamingVertex(sink, globalUniqueIndexValues);
                             }
                         }
                     } catch (IOException e) {
@@ -341,51 +364,74 @@ public class PostgresDialect extends BaseSqlDialect implements SqlBulkDialect {
             for (MetaEdge metaEdge : edgeCache.keySet()) {
                 Pair<SortedSet<String>, Map<SqlgEdge, Triple<SqlgVertex, SqlgVertex, Map<String, Object>>>> triples = edgeCache.get(metaEdge);
                 Map<String, PropertyType> propertyTypeMap = sqlgGraph.getTopology().getTableFor(metaEdge.getSchemaTable().withPrefix(EDGE_PREFIX));
-
+                long numberInserted = 0;
                 StringBuilder sql = new StringBuilder();
-                sql.append("COPY ");
-                sql.append(maybeWrapInQoutes(metaEdge.getSchemaTable().getSchema()));
-                sql.append(".");
-                sql.append(maybeWrapInQoutes(EDGE_PREFIX + metaEdge.getSchemaTable().getTable()));
-                sql.append(" (");
-                for (Triple<SqlgVertex, SqlgVertex, Map<String, Object>> triple : triples.getRight().values()) {
-                    int count = 1;
-                    sql.append(maybeWrapInQoutes(triple.getLeft().getSchema() + "." + triple.getLeft().getTable() + Topology.OUT_VERTEX_COLUMN_END));
-                    sql.append(", ");
-                    sql.append(maybeWrapInQoutes(triple.getMiddle().getSchema() + "." + triple.getMiddle().getTable() + Topology.IN_VERTEX_COLUMN_END));
-                    for (String key : triples.getLeft()) {
-                        if (count <= triples.getLeft().size()) {
-                            sql.append(", ");
+                if (useBinaryCopy(sqlgGraph, propertyTypeMap, triples.getLeft()) && !triples.getRight().isEmpty()) {
+                    Triple<SqlgVertex, SqlgVertex, Map<String, Object>> first = triples.getRight().values().iterator().next();
+                    sql.append(constructBinaryCopyCommandSql(
+                            metaEdge.getSchemaTable().getSchema(),
+                            EDGE_PREFIX + metaEdge.getSchemaTable().getTable(),
+                            Arrays.asList(
+                                    first.getLeft().getSchema() + "." + first.getLeft().getTable() + Topology.OUT_VERTEX_COLUMN_END,
+                                    first.getMiddle().getSchema() + "." + first.getMiddle().getTable() + Topology.IN_VERTEX_COLUMN_END),
+                            triples.getLeft(),
+                            propertyTypeMap));
+                    int numberOfColumns = binaryCopyColumnCount(propertyTypeMap, triples.getLeft()) + 2;
+                    try (PostgresBinaryCopyWriter writer = new PostgresBinaryCopyWriter(copyOutputStream(sqlgGraph, sql.toString()))) {
+                        for (Triple<SqlgVertex, SqlgVertex, Map<String, Object>> outInVertexKeyValueMap : triples.getRight().values()) {
+                            writer.startRow(numberOfColumns);
+                            writer.writeLong(((RecordId) outInVertexKeyValueMap.getLeft().id()).getId());
+                            writer.writeLong(((RecordId) outInVertexKeyValueMap.getMiddle().id()).getId());
+                            for (String key : triples.getLeft()) {
+                                writer.write(propertyTypeMap.get(key), outInVertexKeyValueMap.getRight().get(key));
+                            }
+                            numberInserted++;
                         }
-                        count++;
-                        appendKeyForStream(propertyTypeMap.get(key), sql, key);
                     }
-                    break;
-                }
-                sql.append(") ");
-
-                sql.append(" FROM stdin CSV DELIMITER '");
-                sql.append(COPY_COMMAND_DELIMITER);
-                sql.append("' ");
-                sql.append("QUOTE ");
-                sql.append(COPY_COMMAND_QUOTE);
-                sql.append(" ESCAPE '");
-                sql.append(ESCAPE);
-                sql.append("';");
-                if (logger.isDebugEnabled()) {
-                    logger.debug(sql.toString());
-                }
-                long numberInserted = 0;
-                try (Writer writer = streamSql(sqlgGraph, sql.toString())) {
-                    for (Map.Entry<SqlgEdge, Triple<SqlgVertex, SqlgVertex, Map<String, Object>>> sqlgEdgeTripleEntry : triples.getRight().entrySet()) {
-                        SqlgEdge sqlgEdge = sqlgEdgeTripleEntry.getKey();
-                        Triple<SqlgVertex, SqlgVertex, Map<String, Object>> outInVertexKeyValueMap = sqlgEdgeTripleEntry.getValue();
-                        LinkedHashMap<String, Object> values = new LinkedHashMap<>();
+                } else {
+                    sql.append("COPY ");
+                    sql.append(maybeWrapInQoutes(metaEdge.getSchemaTable().getSchema()));
+                    sql.append(".");
+                    sql.append(maybeWrapInQoutes(EDGE_PREFIX + metaEdge.getSchemaTable().getTable()));
+                    sql.append(" (");
+                    for (Triple<SqlgVertex, SqlgVertex, Map<String, Object>> triple : triples.getRight().values()) {
+                        int count = 1;
+                        sql.append(maybeWrapInQoutes(triple.getLeft().getSchema() + "." + triple.getLeft().getTable() + Topology.OUT_VERTEX_COLUMN_END));
+                        sql.append(", ");
+                        sql.append(maybeWrapInQoutes(triple.getMiddle().getSchema() + "." + triple.getMiddle().getTable() + Topology.IN_VERTEX_COLUMN_END));
                         for (String key : triples.getLeft()) {
-                            values.put(key, outInVertexKeyValueMap.getRight().get(key));
+                            if (count <= triples.getLeft().size()) {
+                                sql.append(", ");
+                            }
+                            count++;
+                            appendKeyForStream(propertyTypeMap.get(key), sql, key);
+                        }
+                        break;
+                    }
+                    sql.append(") ");
+
+                    sql.append(" FROM stdin CSV DELIMITER '");
+                    sql.append(COPY_COMMAND_DELIMITER);
+                    sql.append("' ");
+                    sql.append("QUOTE ");
+                    sql.append(COPY_COMMAND_QUOTE);
+                    sql.append(" ESCAPE '");
+                    sql.append(ESCAPE);
+                    sql.append("';");
+                    if (logger.isDebugEnabled()) {
+                        logger.debug(sql.toString());
+                    }
+                    try (StreamingSink sink = streamSql(sqlgGraph, sql.toString())) {
+                        for (Map.Entry<SqlgEdge, Triple<SqlgVertex, SqlgVertex, Map<String, Object>>> sqlgEdgeTripleEntry : triples.getRight().entrySet()) {
+                            SqlgEdge sqlgEdge = sqlgEdgeTripleEntry.getKey();
+                            Triple<SqlgVertex, SqlgVertex, Map<String, Object>> outInVertexKeyValueMap = sqlgEdgeTripleEntry.getValue();
+                            LinkedHashMap<String, Object> values = new LinkedHashMap<>();
+                            for (String key : triples.getLeft()) {
+                                values.put(key, outInVertexKeyValueMap.getRight().get(key));
+                            }
+                            writeStreamingEdge(sink, sqlgEdge, outInVertexKeyValueMap.getLeft(), outInVertexKeyValueMap.getMiddle(), values);
+                            numberInserted++;
                         }
-                        writeStreamingEdge(writer, sqlgEdge, outInVertexKeyValueMap.getLeft(), outInVertexKeyValueMap.getMiddle(), values);
-                        numberInserted++;
                     }
                 }
                 long endHigh;
@@ -1232,6 +1278,10 @@ public class PostgresDialect extends BaseSqlDialect implements SqlBulkDialect {
 
     @Override
     public String constructCompleteCopyCommandSqlVertex(SqlgGraph sqlgGraph, SqlgVertex vertex, Map<String, Object> keyValueMap) {
+        Map<String, PropertyType> propertyTypeMap = sqlgGraph.getTopology().getTableFor(SchemaTable.of(vertex.getSchema(), VERTEX_PREFIX + vertex.getTable()));
+        if (useStreamingBinaryCopy(sqlgGraph, propertyTypeMap, keyValueMap)) {
+            return constructBinaryCopyCommandSql(vertex.getSchema(), VERTEX_PREFIX + vertex.getTable(), Collections.emptyList(), keyValueMap.keySet(), propertyTypeMap);
+        }
         return internalConstructCompleteCopyCommandSqlVertex(sqlgGraph, false, vertex, keyValueMap);
     }
 
@@ -1301,6 +1351,16 @@ public class PostgresDialect extends BaseSqlDialect implements SqlBulkDialect {
     @Override
     public String constructCompleteCopyCommandSqlEdge(SqlgGraph sqlgGraph, SqlgEdge sqlgEdge, SqlgVertex outVertex, SqlgVertex inVertex, Map<String, Object> keyValueMap) {
         Map<String, PropertyType> propertyTypeMap = sqlgGraph.getTopology().getTableFor(SchemaTable.of(sqlgEdge.getSchema(), EDGE_PREFIX + sqlgEdge.getTable()));
+        if (useStreamingBinaryCopy(sqlgGraph, propertyTypeMap, keyValueMap)) {
+            return constructBinaryCopyCommandSql(
+                    sqlgEdge.getSchema(),
+                    EDGE_PREFIX + sqlgEdge.getTable(),
+                    Arrays.asList(
+                            outVertex.getSchema() + "." + outVertex.getTable() + Topology.OUT_VERTEX_COLUMN_END,
+                            inVertex.getSchema() + "." + inVertex.getTable() + Topology.IN_VERTEX_COLUMN_END),
+                    keyValueMap.keySet(),
+                    propertyTypeMap);
+        }
         StringBuilder sql = new StringBuilder();
         sql.append("COPY ");
         sql.append(maybeWrapInQoutes(sqlgEdge.getSchema()));
@@ -1410,42 +1470,48 @@ public class PostgresDialect extends BaseSqlDialect implements SqlBulkDialect {
     }
 
     @Override
-    public void writeStreamingVertex(Writer writer, Map<String, Object> keyValueMap) {
+    public void writeStreamingVertex(StreamingSink sink, Map<String, Object> keyValueMap) {
         try {
-            int countKeys = 1;
-            if (keyValueMap.isEmpty()) {
-                writer.write(Integer.toString(1));
-            } else {
-                for (Map.Entry<String, Object> entry : keyValueMap.entrySet()) {
-                    if (countKeys > 1 && countKeys <= keyValueMap.size()) {
-                        writer.write(COPY_COMMAND_DELIMITER);
-                    }
-                    countKeys++;
-                    Object value = entry.getValue();
-                    PropertyType propertyType;
-                    if (value == null) {
-                        propertyType = PropertyType.STRING;
-                    } else {
-                        propertyType = PropertyType.from(value);
-                    }
-                    valueToStreamBytes(writer, propertyType, value);
-                }
-            }
-            writer.write("\n");
+            sink.writeRow(new long[0], keyValueMap);
         } catch (IOException e) {
             throw new RuntimeException(e);
         }
     }
 
     @Override
-    public void writeStreamingEdge(Writer writer, SqlgEdge sqlgEdge, SqlgVertex outVertex, SqlgVertex inVertex, Map<String, Object> keyValueMap) {
-        try {
-            String encoding = "UTF-8";
-            writer.write(((RecordId) outVertex.id()).getId().toString());
-            writer.write(COPY_COMMAND_DELIMITER);
-            writer.write(((RecordId) inVertex.id()).getId().toString());
+    public void writeStreamingEdge(StreamingSink sink, SqlgEdge sqlgEdge, SqlgVertex outVertex, SqlgVertex inVertex, Map<String, Object> keyValueMap) throws IOException {
+        sink.writeRow(new long[]{((RecordId) outVertex.id()).getIdAsLong(), ((RecordId) inVertex.id()).getIdAsLong()}, keyValueMap);
+    }
+
+    /**
+     * The rows of a text format copy, the columns are separated by {@link #COPY_COMMAND_DELIMITER}.
+     */
+    private final class TextCopySink implements StreamingSink {
+
+        private final Writer writer;
+
+        private TextCopySink(Writer writer) {
+            this.writer = writer;
+        }
+
+        @Override
+        public void writeRow(long[] foreignKeys, Map<String, Object> keyValueMap) throws IOException {
+            if (foreignKeys.length == 0 && keyValueMap.isEmpty()) {
+                this.writer.write(Integer.toString(1));
+            }
+            boolean first = true;
+            for (long foreignKey : foreignKeys) {
+                if (!first) {
+                    this.writer.write(COPY_COMMAND_DELIMITER);
+                }
+                first = false;
+                this.writer.write(Long.toString(foreignKey));
+            }
             for (Map.Entry<String, Object> entry : keyValueMap.entrySet()) {
-                writer.write(COPY_COMMAND_DELIMITER);
+                if (!first) {
+                    this.writer.write(COPY_COMMAND_DELIMITER);
+                }
+                first = false;
                 Object value = entry.getValue();
                 PropertyType propertyType;
                 if (value == null) {
@@ -1453,14 +1519,17 @@ public class PostgresDialect extends BaseSqlDialect implements SqlBulkDialect {
                 } else {
                     propertyType = PropertyType.from(value);
                 }
-                if (JSON_ARRAY == propertyType) {
+                if (foreignKeys.length > 0 && JSON_ARRAY == propertyType) {
                     throw SqlgExceptions.invalidPropertyType(propertyType);
                 }
-                valueToStreamBytes(writer, propertyType, value);
+                valueToStreamBytes(this.writer, propertyType, value);
             }
-            writer.write("\n");
-        } catch (Exception e) {
-            throw new RuntimeException(e);
+            this.writer.write("\n");
+        }
+
+        @Override
+        public void close() throws IOException {
+            this.writer.close();
         }
     }
 
@@ -1651,15 +1720,15 @@ public class PostgresDialect extends BaseSqlDialect implements SqlBulkDialect {
                                     .temporaryTableCopyCommandSqlVertex(
                                             sqlgGraph,
                                             SchemaTable.of("public", tmpTableIdentified), tmpColumns.keySet());
-                            Writer writer = ((SqlBulkDialect) sqlgGraph.getSqlDialect()).streamSql(sqlgGraph, copySql);
+                            StreamingSink sink = ((SqlBulkDialect) sqlgGraph.getSqlDialect()).streamSql(sqlgGraph, copySql);
                             for (SqlgVertex sqlgVertex : vertices) {
                                 Map<String, Object> tmpMap = new HashMap<>();
                                 tmpMap.put("recordId", sqlgVertex.id().toString());
                                 tmpMap.put("property", propertyColumn.getName());
-                                ((SqlBulkDialect) sqlgGraph.getSqlDialect()).writeStreamingVertex(writer, tmpMap);
+                                ((SqlBulkDialect) sqlgGraph.getSqlDialect()).writeStreamingVertex(sink, tmpMap);
                             }
                             try {
-                                writer.close();
+                                sink.close();
                             } catch (IOException e) {
                                 throw new RuntimeException(e);
                             }
@@ -1882,6 +1951,35 @@ public class PostgresDialect extends BaseSqlDialect implements SqlBulkDialect {
         return s;
     }
 
+    @Override
+    public boolean supportsUnionAllNullColumns() {
+        return true;
+    }
+
+    /**
+     * Postgres resolves the column types of a 'UNION ALL' one pair of parts at a time,
+     * an untyped NULL in two parts becomes text and then clashes with the part that has the column.
+     */
+    @Override
+    public String unionAllNullColumn(PropertyType propertyType, int index) {
+        return "CAST(NULL AS " + propertyTypeToSqlDefinition(propertyType)[index] + ")";
+    }
+
+    @Override
+    public boolean supportsSnapshotExport() {
+        return true;
+    }
+
+    @Override
+    public String exportSnapshotSql() {
+        return "SELECT pg_export_snapshot()";
+    }
+
+    @Override
+    public String importSnapshotSql(String snapshot) {
+        return "SET TRANSACTION SNAPSHOT '" + snapshot + "'";
+    }
+
     @Override
     public String[] propertyTypeToSqlDefinition(PropertyType propertyType) {
         switch (propertyType) {
@@ -2353,6 +2451,45 @@ public class PostgresDialect extends BaseSqlDialect implements SqlBulkDialect {
         return Boolean.TRUE;
     }
 
+    @Override
+    public boolean supportsTrigramIndex() {
+        return true;
+    }
+
+    @Override
+    public boolean supportsExpressionIndex() {
+        return true;
+    }
+
+    @Override
+    public String indexTypePrerequisiteSql(IndexType indexType) {
+        if (indexType.isTrigram() || indexType.isLower()) {
+            return "CREATE EXTENSION IF NOT EXISTS pg_trgm;";
+        }
+        return null;
+    }
+
+    @Override
+    public String indexAccessMethod(IndexType indexType) {
+        if (IndexType.GIN_TRIGRAM.equals(indexType) || indexType.isLower()) {
+            return "GIN";
+        } else if (IndexType.GIST_TRIGRAM.equals(indexType)) {
+            return "GIST";
+        }
+        return null;
+    }
+
+    @Override
+    public String indexOperatorClass(IndexType indexType) {
+        if (IndexType.GIN_TRIGRAM.equals(indexType) || indexType.isLower()) {
+            //containsCIS is 'lower(column) like lower(?)' with a leading wildcard, which a btree can not serve.
+            return "gin_trgm_ops";
+        } else if (IndexType.GIST_TRIGRAM.equals(indexType)) {
+            return "gist_trgm_ops";
+        }
+        return null;
+    }
+
     @Override
     public boolean needsTimeZone() {
         return Boolean.TRUE;
@@ -2529,18 +2666,93 @@ public class PostgresDialect extends BaseSqlDialect implements SqlBulkDialect {
     }
 
     @Override
-    public Writer streamSql(SqlgGraph sqlgGraph, String sql) {
+    public StreamingSink streamSql(SqlgGraph sqlgGraph, String sql) {
+        OutputStream out = copyOutputStream(sqlgGraph, sql);
+        if (sql.endsWith(BINARY_COPY_FORMAT)) {
+            return new PostgresBinaryCopyWriter(out);
+        }
+        return new TextCopySink(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+    }
+
+    private OutputStream copyOutputStream(SqlgGraph sqlgGraph, String sql) {
         Connection conn = sqlgGraph.tx().getConnection();
-        PGConnection pgConnection;
         try {
-            pgConnection = conn.unwrap(PGConnection.class);
-            OutputStream out = new PGCopyOutputStream(pgConnection, sql);
-            return new OutputStreamWriter(out, "UTF-8");
-        } catch (SQLException | UnsupportedEncodingException e) {
+            PGConnection pgConnection = conn.unwrap(PGConnection.class);
+            return new PGCopyOutputStream(pgConnection, sql);
+        } catch (SQLException e) {
             throw new RuntimeException(e);
         }
     }
 
+    /**
+     * The binary copy is only used when it is configured and every column has a type that
+     * {@link PostgresBinaryCopyWriter} can encode, else the CSV copy is used.
+     */
+    private boolean useBinaryCopy(SqlgGraph sqlgGraph, Map<String, PropertyType> propertyTypeMap, Set<String> keys) {
+        if (!sqlgGraph.isBulkCopyBinary() || keys.isEmpty()) {
+            return false;
+        }
+        for (String key : keys) {
+            PropertyType propertyType = propertyTypeMap.get(key);
+            if (propertyType == null || !PostgresBinaryCopyWriter.supports(propertyType)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * The streaming batch mode's copy command is created with the first row. It is only binary if the first row
+     * has no null values and every value's type is the type of its column, as the later rows are encoded with the first row's types.
+     */
+    private boolean useStreamingBinaryCopy(SqlgGraph sqlgGraph, Map<String, PropertyType> propertyTypeMap, Map<String, Object> keyValueMap) {
+        if (!useBinaryCopy(sqlgGraph, propertyTypeMap, keyValueMap.keySet())) {
+            return false;
+        }
+        for (Map.Entry<String, Object> entry : keyValueMap.entrySet()) {
+            if (entry.getValue() == null || PropertyType.from(entry.getValue()) != propertyTypeMap.get(entry.getKey())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int binaryCopyColumnCount(Map<String, PropertyType> propertyTypeMap, Set<String> keys) {
+        int count = 0;
+        for (String key : keys) {
+            count += PostgresBinaryCopyWriter.columnCount(propertyTypeMap.get(key));
+        }
+        return count;
+    }
+
+    private String constructBinaryCopyCommandSql(String schema, String table, List<String> leadingColumns, Set<String> keys, Map<String, PropertyType> propertyTypeMap) {
+        StringBuilder sql = new StringBuilder();
+        sql.append("COPY ");
+        sql.append(maybeWrapInQoutes(schema));
+        sql.append(".");
+        sql.append(maybeWrapInQoutes(table));
+        sql.append(" (");
+        int count = 1;
+        for (String column : leadingColumns) {
+            sql.append(maybeWrapInQoutes(column));
+            if (count++ < leadingColumns.size() + keys.size()) {
+                sql.append(", ");
+            }
+        }
+        for (String key : keys) {
+            appendKeyForStream(propertyTypeMap.get(key), sql, key);
+            if (count++ < leadingColumns.size() + keys.size()) {
+                sql.append(", ");
+            }
+        }
+        sql.append(")");
+        sql.append(BINARY_COPY_FORMAT);
+        if (logger.isDebugEnabled()) {
+            logger.debug(sql.toString());
+        }
+        return sql.toString();
+    }
+
     private <L, R> void copyInBulkTempEdges(SqlgGraph sqlgGraph, SchemaTable schemaTable, Collection<Pair<L, R>> uids, PropertyType inPropertyType, PropertyType outPropertyType) {
         try {
             StringBuilder sql = new StringBuilder();
@@ -2562,7 +2774,7 @@ public class PostgresDialect extends BaseSqlDialect implements SqlBulkDialect {
             if (logger.isDebugEnabled()) {
                 logger.debug(sql.toString());
             }
-            Writer writer = streamSql(sqlgGraph, sql.toString());
+            Writer writer = new OutputStreamWriter(copyOutputStream(sqlgGraph, sql.toString()), StandardCharsets.UTF_8);
             for (Pair<L, R> uid : uids) {
                 valueToStreamBytes(writer, inPropertyType, uid.getLeft());
                 writer.write(COPY_COMMAND_DELIMITER);
@@ -2762,11 +2974,84 @@ public class PostgresDialect extends BaseSqlDialect implements SqlBulkDialect {
         return result;
     }
 
+    @Override
+    public boolean supportsRecursiveQueries() {
+        return true;
+    }
+
+    @Override
+    public String recursivePathStart(String column) {
+        return "ARRAY[" + column + "]";
+    }
+
+    @Override
+    public String recursivePathAppend(String path, String column) {
+        return path + " || " + column;
+    }
+
+    @Override
+    public String recursivePathContains(String path, String column) {
+        return column + " = ANY(" + path + ")";
+    }
+
+    @Override
+    public boolean supportsArrayParameterIn() {
+        return true;
+    }
+
+    @Override
+    public String arrayParameterIn(String column) {
+        return column + " = ANY(?)";
+    }
+
+    @Override
+    public void setLongArrayParameter(PreparedStatement preparedStatement, int parameterIndex, long[] values) throws SQLException {
+        //written as an array literal, no Long per value.
+        StringBuilder sb = new StringBuilder(values.length * 8 + 2);
+        sb.append("{");
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                sb.append(",");
+            }
+            sb.append(values[i]);
+        }
+        sb.append("}");
+        PGobject array = new PGobject();
+        array.setType("int8[]");
+        array.setValue(sb.toString());
+        preparedStatement.setObject(parameterIndex, array);
+    }
+
+    @Override
+    public boolean supportsArrayParameterValues() {
+        return true;
+    }
+
+    @Override
+    public String arrayParameterValues(String firstColumn, String secondColumn) {
+        return "UNNEST(?::BIGINT[], ?::BIGINT[]) AS tmp(" + firstColumn + ", " + secondColumn + ")";
+    }
+
+    @Override
+    public boolean supportsArrayParameterTable() {
+        return true;
+    }
+
+    @Override
+    public String arrayParameterTable(PropertyType propertyType, String alias, String column) {
+        return "UNNEST(?::" + propertyTypeToSqlDefinition(propertyType)[0] + "[]) AS " + alias + "(" + column + ")";
+    }
+
     @Override
     public boolean supportsBulkWithinOut() {
         return true;
     }
 
+    @Override
+    public boolean supportsRowValueComparison() {
+        return true;
+    }
+
     @Override
     public boolean isPostgresql() {
         return true;
@@ -3213,7 +3498,7 @@ public class PostgresDialect extends BaseSqlDialect implements SqlBulkDialect {
      * @return the time in "winter time" if there is DST in effect today
      */
     @SuppressWarnings("deprecation")
-    private static Time shiftDST(LocalTime lt) {
+    static Time shiftDST(LocalTime lt) {
         Time t = Time.valueOf(lt);
         int offset = Calendar.getInstance().get(Calendar.DST_OFFSET) / 1000;
         // I know this are deprecated methods, but it's so much clearer than alternatives
@@ -3248,7 +3533,8 @@ public class PostgresDialect extends BaseSqlDialect implements SqlBulkDialect {
                 + "    END "
                 + "  END AS TYPE, "
                 + "  (i.keys).n AS ORDINAL_POSITION, "
-                + "  trim(both '\"' from pg_catalog.pg_get_indexdef(ci.oid, (i.keys).n, false)) AS COLUMN_NAME "
+                + "  trim(both '\"' from pg_catalog.pg_get_indexdef(ci.oid, (i.keys).n, false)) AS COLUMN_NAME, "
+                + "  pg_catalog.pg_get_indexdef(ci.oid) AS INDEX_DEFINITION "
                 + "FROM pg_catalog.pg_class ct "
                 + "  JOIN pg_catalog.pg_namespace n ON (ct.relnamespace = n.oid) "
                 + "  JOIN (SELECT i.indexrelid, i.indrelid, i.indoption, "
@@ -3283,10 +3569,11 @@ public class PostgresDialect extends BaseSqlDialect implements SqlBulkDialect {
                     String key = cat + "." + sch + "." + tbl;
                     String indexName = indexRs.getString("INDEX_NAME");
                     boolean nonUnique = indexRs.getBoolean("NON_UNIQUE");
+                    String indexDefinition = indexRs.getString("INDEX_DEFINITION");
 
                     if (lastIndexName == null) {
                         lastIndexName = indexName;
-                        lastIndexType = nonUnique ? IndexType.NON_UNIQUE : IndexType.UNIQUE;
+                        lastIndexType = indexType(nonUnique, indexDefinition);
                         lastKey = key;
                     } else if (!lastIndexName.equals(indexName)) {
                         if (!lastIndexName.endsWith("_pkey") && !lastIndexName.endsWith("_idx")) {
@@ -3299,10 +3586,14 @@ public class PostgresDialect extends BaseSqlDialect implements SqlBulkDialect {
                         }
                         lastColumns.clear();
                         lastIndexName = indexName;
-                        lastIndexType = nonUnique ? IndexType.NON_UNIQUE : IndexType.UNIQUE;
+                        lastIndexType = indexType(nonUnique, indexDefinition);
                     }
 
-                    lastColumns.add(indexRs.getString("COLUMN_NAME"));
+                    String columnName = indexRs.getString("COLUMN_NAME");
+                    if (lastIndexType.isLower() && columnName.startsWith("lower(") && columnName.endsWith(")")) {
+                        columnName = columnName.substring("lower(".length(), columnName.length() - 1).replace("\"", "");
+                    }
+                    lastColumns.add(columnName);
                     lastKey = key;
                 }
                 if (lastIndexName != null && !lastIndexName.endsWith("_pkey") && !lastIndexName.endsWith("_idx")) {
@@ -3320,6 +3611,22 @@ public class PostgresDialect extends BaseSqlDialect implements SqlBulkDialect {
 
     }
 
+    /**
+     * Recognizes the trigram and lower(column) indexes sqlg creates from the index's definition.
+     */
+    private static IndexType indexType(boolean nonUnique, String indexDefinition) {
+        if (indexDefinition != null) {
+            if (nonUnique && indexDefinition.contains("(lower(")) {
+                return IndexType.LOWER;
+            } else if (indexDefinition.contains("gin_trgm_ops")) {
+                return IndexType.GIN_TRIGRAM;
+            } else if (indexDefinition.contains("gist_trgm_ops")) {
+                return IndexType.GIST_TRIGRAM;
+            }
+        }
+        return nonUnique ? IndexType.NON_UNIQUE : IndexType.UNIQUE;
+    }
+
     @Override
     public boolean isSystemIndex(String indexName) {
         return indexName.endsWith("_pkey") || indexName.endsWith("_idx");
@@ -3846,5 +4153,15 @@ public class PostgresDialect extends BaseSqlDialect implements SqlBulkDialect {
     public boolean supportsTruncateMultipleTablesTogether() {
         return true;
     }
-    
+
+    /**
+     * The driver server side prepares a statement on its 5th execution. Keep as many as the SqlCache's query shapes.
+     */
+    @Override
+    public Map<String, String> getStatementCacheDataSourceProperties() {
+        Map<String, String> result = new HashMap<>();
+        result.put("preparedStatementCacheQueries", "1000");
+        result.put("preparedStatementCacheSizeMiB", "10");
+        return result;
+    }
 }
@@ -4,12 +4,15 @@ import org.junit.runner.RunWith;
 import org.junit.runners.Suite;
 import org.umlg.sqlg.test.*;
 import org.umlg.sqlg.test.aggregate.TestAggregate;
+import org.umlg.sqlg.test.aggregate.TestAggregatePushdown;
+import org.umlg.sqlg.test.aggregate.TestGroupByPushdown;
 import org.umlg.sqlg.test.aggregate.TestGroupCount;
 import org.umlg.sqlg.test.aggregate.TestMax;
 import org.umlg.sqlg.test.batch.*;
 import org.umlg.sqlg.test.branchstep.TestSqlgBranchStep;
 import org.umlg.sqlg.test.complex.TestComplex;
 import org.umlg.sqlg.test.complex.TestGithub;
+import org.umlg.sqlg.test.computer.TestSqlgGraphComputer;
 import org.umlg.sqlg.test.edgehas.TestEdgeHas;
 import org.umlg.sqlg.test.edges.*;
 import org.umlg.sqlg.test.event.TestTinkerPopEvent;
@@ -22,12 +25,16 @@ import org.umlg.sqlg.test.filter.or.TestOrStepAfterVertexStepBarrier;
 import org.umlg.sqlg.test.filter.or.barrier.TestOrStepBarrier;
 import org.umlg.sqlg.test.graph.MidTraversalGraphTest;
 import org.umlg.sqlg.test.graph.TestEmptyGraph;
+import org.umlg.sqlg.test.graph.TestGraphElementsIterator;
 import org.umlg.sqlg.test.graph.TestGraphStepWithIds;
 import org.umlg.sqlg.test.gremlincompile.*;
 import org.umlg.sqlg.test.index.TestIndex;
 import org.umlg.sqlg.test.index.TestIndexTopologyTraversal;
+import org.umlg.sqlg.test.index.TestTextIndex;
 import org.umlg.sqlg.test.io.TestIo;
 import org.umlg.sqlg.test.io.TestIoEdge;
+import org.umlg.sqlg.test.io.TestSqlgGraphReader;
+import org.umlg.sqlg.test.io.TestSqlgGraphWriter;
 import org.umlg.sqlg.test.json.TestJson;
 import org.umlg.sqlg.test.json.TestJsonUpdate;
 import org.umlg.sqlg.test.labels.TestHasLabelAndId;
@@ -40,11 +47,16 @@ import org.umlg.sqlg.test.localvertexstep.*;
 import org.umlg.sqlg.test.match.TestMatch;
 import org.umlg.sqlg.test.memory.TestMemoryUsage;
 import org.umlg.sqlg.test.mod.*;
+import org.umlg.sqlg.test.pool.TestHikariDataSource;
+import org.umlg.sqlg.test.preparedStatement.TestPreparedStatementCache;
 import org.umlg.sqlg.test.process.dropstep.TestDropStep;
 import org.umlg.sqlg.test.process.dropstep.TestDropStepBarrier;
 import org.umlg.sqlg.test.process.dropstep.TestDropStepTruncate;
 import org.umlg.sqlg.test.properties.TestEscapedValues;
+import org.umlg.sqlg.test.properties.TestPropertyLayout;
+import org.umlg.sqlg.test.properties.TestRowDecoder;
 import org.umlg.sqlg.test.remove.TestRemoveEdge;
+import org.umlg.sqlg.test.repeatstep.TestRecursiveRepeatStep;
 import org.umlg.sqlg.test.repeatstep.TestUnoptimizedRepeatStep;
 import org.umlg.sqlg.test.rollback.TestRollback;
 import org.umlg.sqlg.test.sack.TestSack;
@@ -235,7 +247,32 @@ import org.umlg.sqlg.test.where.TestTraversalFilterStepBarrier;
         TestDropStepTruncate.class,
         TestTopologyGraph.class,
         TestUnoptimizedRepeatStep.class,
-        TestPropertyReference.class
+        TestPropertyReference.class,
+        TestSqlCache.class,
+        TestPreparedStatementCache.class,
+        TestColumnProjection.class,
+        TestAggregatePushdown.class,
+        TestGroupByPushdown.class,
+        TestRecursiveRepeatStep.class,
+        TestVertexStepChunk.class,
+        TestGraphElementsIterator.class,
+        TestBatchAutoFlush.class,
+        TestBatchBinaryCopy.class,
+        TestTopologySnapshot.class,
+        TestTextIndex.class,
+        TestPropertyLayout.class,
+        TestVertexStepStartIds.class,
+        TestRowDecoder.class,
+        TestHikariDataSource.class,
+        TestSqlgGraphReader.class,
+        TestSqlgGraphWriter.class,
+        TestGlobalUniqueIndexDeferred.class,
+        TestUnionAllQuery.class,
+        TestUnionAllSql.class,
+        TestParallelQueries.class,
+        TestBulkWithinArrayParameter.class,
+        TestKeysetPagination.class,
+        TestSqlgGraphComputer.class
 
 })
 public class AllTest {
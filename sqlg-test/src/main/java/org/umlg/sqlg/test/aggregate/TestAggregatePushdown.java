@@ -0,0 +1,131 @@
+package org.umlg.sqlg.test.aggregate;
+
+import org.apache.tinkerpop.gremlin.process.traversal.P;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.DefaultGraphTraversal;
+import org.apache.tinkerpop.gremlin.structure.T;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.junit.Assert;
+import org.junit.Test;
+import org.umlg.sqlg.step.SqlgAggregateStep;
+import org.umlg.sqlg.step.SqlgGraphStep;
+import org.umlg.sqlg.test.BaseTest;
+
+/**
+ * Test that count, sum, max, min and mean directly after a SqlgGraphStep are calculated by the database.
+ */
+public class TestAggregatePushdown extends BaseTest {
+
+    @Test
+    public void testCount() {
+        for (int i = 0; i < 10; i++) {
+            this.sqlgGraph.addVertex(T.label, "Person", "age", i);
+        }
+        this.sqlgGraph.addVertex(T.label, "Dog", "age", 100);
+        this.sqlgGraph.tx().commit();
+
+        DefaultGraphTraversal<Vertex, Long> traversal = (DefaultGraphTraversal<Vertex, Long>) this.sqlgGraph.traversal().V().hasLabel("Person").has("age", P.gt(4)).count();
+        Assert.assertEquals(3, traversal.getSteps().size());
+        Assert.assertEquals(5L, traversal.next().longValue());
+        Assert.assertFalse(traversal.hasNext());
+        Assert.assertEquals(2, traversal.getSteps().size());
+        Assert.assertTrue(traversal.getSteps().get(0) instanceof SqlgGraphStep);
+        Assert.assertTrue(traversal.getSteps().get(1) instanceof SqlgAggregateStep);
+
+        Assert.assertEquals(11L, this.sqlgGraph.traversal().V().count().next().longValue());
+        Assert.assertEquals(0L, this.sqlgGraph.traversal().V().hasLabel("Person").has("age", P.gt(100)).count().next().longValue());
+        Assert.assertEquals(0L, this.sqlgGraph.traversal().V().hasLabel("Cat").count().next().longValue());
+        Assert.assertEquals(0L, this.sqlgGraph.traversal().E().count().next().longValue());
+    }
+
+    @Test
+    public void testCountAcrossEdges() {
+        Vertex a1 = this.sqlgGraph.addVertex(T.label, "A", "name", "a1");
+        Vertex a2 = this.sqlgGraph.addVertex(T.label, "A", "name", "a2");
+        for (int i = 0; i < 5; i++) {
+            Vertex b = this.sqlgGraph.addVertex(T.label, "B", "name", "b" + i, "weight", i);
+            a1.addEdge("ab", b, "weight", i);
+            a2.addEdge("ab", b, "weight", i * 2);
+            Vertex c = this.sqlgGraph.addVertex(T.label, "C", "name", "c" + i, "weight", i * 10);
+            a1.addEdge("ac", c, "weight", i);
+        }
+        //self loop, the same label occurs twice in the path.
+        a1.addEdge("aa", a2);
+        this.sqlgGraph.tx().commit();
+
+        Assert.assertEquals(16L, this.sqlgGraph.traversal().V().hasLabel("A").out().count().next().longValue());
+        Assert.assertEquals(10L, this.sqlgGraph.traversal().V().hasLabel("A").out("ab").count().next().longValue());
+        Assert.assertEquals(6L, this.sqlgGraph.traversal().V().hasLabel("A").has("name", "a1").out("ab", "aa").count().next().longValue());
+        Assert.assertEquals(5L, this.sqlgGraph.traversal().V().hasLabel("A").out("aa").out("ab").count().next().longValue());
+        Assert.assertEquals(10L, this.sqlgGraph.traversal().V().hasLabel("A").out("aa").out("ab").values("weight").sum().next());
+        Assert.assertEquals(4, this.sqlgGraph.traversal().V().hasLabel("A").out("aa").out("ab").values("weight").max().next());
+        Assert.assertEquals(16L, this.sqlgGraph.traversal().E().count().next().longValue());
+        Assert.assertEquals(10L, this.sqlgGraph.traversal().V().hasLabel("A").outE("ab").count().next().longValue());
+        Assert.assertEquals(5L, this.sqlgGraph.traversal().V().hasLabel("A").as("a").out().as("b").out().count().next().longValue());
+    }
+
+    @Test
+    public void testSumMaxMinMean() {
+        for (int i = 1; i <= 4; i++) {
+            this.sqlgGraph.addVertex(T.label, "Person", "age", i, "height", (double) i / 2);
+            this.sqlgGraph.addVertex(T.label, "Dog", "age", 10L * i);
+        }
+        this.sqlgGraph.addVertex(T.label, "Person", "name", "noAge");
+        this.sqlgGraph.addVertex(T.label, "Cat", "name", "noAge");
+        this.sqlgGraph.tx().commit();
+
+        DefaultGraphTraversal<Vertex, Number> traversal = (DefaultGraphTraversal<Vertex, Number>) this.sqlgGraph.traversal().V().hasLabel("Person").<Number>values("age").sum();
+        Assert.assertEquals(10L, traversal.next());
+        Assert.assertFalse(traversal.hasNext());
+        Assert.assertEquals(2, traversal.getSteps().size());
+        Assert.assertTrue(traversal.getSteps().get(1) instanceof SqlgAggregateStep);
+
+        Assert.assertEquals(4, this.sqlgGraph.traversal().V().hasLabel("Person").values("age").max().next());
+        Assert.assertEquals(1, this.sqlgGraph.traversal().V().hasLabel("Person").values("age").min().next());
+        Assert.assertEquals(2.5d, this.sqlgGraph.traversal().V().hasLabel("Person").values("age").mean().next());
+        Assert.assertEquals(5d, this.sqlgGraph.traversal().V().hasLabel("Person").values("height").sum().next());
+
+        //The result type is the same as TinkerPop's, across labels it is widened.
+        Assert.assertEquals(110L, this.sqlgGraph.traversal().V().values("age").sum().next());
+        Assert.assertEquals(40L, this.sqlgGraph.traversal().V().values("age").max().next());
+        Assert.assertEquals(1L, this.sqlgGraph.traversal().V().values("age").min().next());
+        Assert.assertEquals(13.75d, this.sqlgGraph.traversal().V().values("age").mean().next());
+
+        //No values
+        Assert.assertEquals(0, this.sqlgGraph.traversal().V().hasLabel("Cat").values("age").sum().next());
+        Assert.assertEquals(Integer.MIN_VALUE, this.sqlgGraph.traversal().V().hasLabel("Cat").values("age").max().next());
+        Assert.assertEquals(Integer.MAX_VALUE, this.sqlgGraph.traversal().V().hasLabel("Person").has("age", P.gt(10)).values("age").min().next());
+        Assert.assertTrue(Double.isNaN((Double) this.sqlgGraph.traversal().V().hasLabel("Person").values("unknown").mean().next()));
+    }
+
+    @Test
+    public void testAggregateEdgeProperties() {
+        Vertex a1 = this.sqlgGraph.addVertex(T.label, "A");
+        for (int i = 0; i < 5; i++) {
+            Vertex b = this.sqlgGraph.addVertex(T.label, "B");
+            a1.addEdge("ab", b, "weight", i * 1.5d);
+        }
+        this.sqlgGraph.tx().commit();
+        Assert.assertEquals(15d, this.sqlgGraph.traversal().V().hasLabel("A").outE("ab").values("weight").sum().next());
+        Assert.assertEquals(6d, this.sqlgGraph.traversal().E().hasLabel("ab").values("weight").max().next());
+        Assert.assertEquals(3d, this.sqlgGraph.traversal().E().values("weight").mean().next());
+    }
+
+    @Test
+    public void testNotPushedDown() {
+        for (int i = 0; i < 10; i++) {
+            this.sqlgGraph.addVertex(T.label, "Person", "age", i);
+        }
+        this.sqlgGraph.tx().commit();
+        DefaultGraphTraversal<Vertex, Long> traversal = (DefaultGraphTraversal<Vertex, Long>) this.sqlgGraph.traversal().V().hasLabel("Person").limit(3).count();
+        Assert.assertEquals(3L, traversal.next().longValue());
+        Assert.assertFalse(traversal.getSteps().stream().anyMatch(s -> s instanceof SqlgAggregateStep));
+        Assert.assertEquals(45L, this.sqlgGraph.traversal().V().hasLabel("Person").order().by("age").values("age").sum().next());
+    }
+
+    @Test(expected = ClassCastException.class)
+    public void testSumOnString() {
+        this.sqlgGraph.addVertex(T.label, "Person", "name", "john");
+        this.sqlgGraph.tx().commit();
+        this.sqlgGraph.traversal().V().hasLabel("Person").values("name").sum().next();
+    }
+}
@@ -0,0 +1,105 @@
+package org.umlg.sqlg.test.aggregate;
+
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.DefaultGraphTraversal;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.__;
+import org.apache.tinkerpop.gremlin.structure.T;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.junit.Assert;
+import org.junit.Test;
+import org.umlg.sqlg.step.SqlgAggregateStep;
+import org.umlg.sqlg.test.BaseTest;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Test that groupCount().by(key) and group().by(key).by(aggregate) directly after a SqlgGraphStep are grouped by the database.
+ */
+public class TestGroupByPushdown extends BaseTest {
+
+    @Test
+    public void testGroupCount() {
+        for (int i = 0; i < 10; i++) {
+            this.sqlgGraph.addVertex(T.label, "Person", "country", i % 3 == 0 ? "ZA" : "NL", "age", i);
+        }
+        this.sqlgGraph.addVertex(T.label, "Dog", "country", "ZA");
+        this.sqlgGraph.tx().commit();
+
+        DefaultGraphTraversal<Vertex, Map<Object, Long>> traversal = (DefaultGraphTraversal<Vertex, Map<Object, Long>>) this.sqlgGraph.traversal()
+                .V().hasLabel("Person").groupCount().by("country");
+        Map<Object, Long> groupCount = traversal.next();
+        Assert.assertFalse(traversal.hasNext());
+        Assert.assertTrue(traversal.getSteps().get(1) instanceof SqlgAggregateStep);
+        Assert.assertEquals(2, groupCount.size());
+        Assert.assertEquals(4L, groupCount.get("ZA").longValue());
+        Assert.assertEquals(6L, groupCount.get("NL").longValue());
+
+        //Across labels the groups are merged.
+        groupCount = this.sqlgGraph.traversal().V().hasLabel("Person", "Dog").groupCount().by("country").next();
+        Assert.assertEquals(5L, groupCount.get("ZA").longValue());
+
+        Map<Object, Long> ages = this.sqlgGraph.traversal().V().hasLabel("Person").groupCount().by("age").next();
+        Assert.assertEquals(10, ages.size());
+        Assert.assertEquals(1L, ages.get(3).longValue());
+
+        Assert.assertTrue(this.sqlgGraph.traversal().V().hasLabel("Cat").groupCount().by("country").next().isEmpty());
+    }
+
+    @Test
+    public void testGroupByAggregate() {
+        Vertex a1 = this.sqlgGraph.addVertex(T.label, "A", "name", "a1");
+        for (int i = 0; i < 6; i++) {
+            Vertex b = this.sqlgGraph.addVertex(T.label, "B", "type", i % 2 == 0 ? "even" : "odd", "weight", i);
+            a1.addEdge("ab", b);
+        }
+        this.sqlgGraph.addVertex(T.label, "B", "type", "none");
+        this.sqlgGraph.tx().commit();
+
+        DefaultGraphTraversal<Vertex, Map<Object, Object>> traversal = (DefaultGraphTraversal<Vertex, Map<Object, Object>>) this.sqlgGraph.traversal()
+                .V().hasLabel("B").<Object, Object>group().by("type").by(__.values("weight").sum());
+        Map<Object, Object> sums = traversal.next();
+        Assert.assertTrue(traversal.getSteps().get(1) instanceof SqlgAggregateStep);
+        Assert.assertEquals(3, sums.size());
+        Assert.assertEquals(6L, sums.get("even"));
+        Assert.assertEquals(9L, sums.get("odd"));
+        //The group without values gets the seed, as in TinkerPop.
+        Assert.assertEquals(0, sums.get("none"));
+
+        Map<Object, Object> max = this.sqlgGraph.traversal().V().hasLabel("B").group().by("type").by(__.values("weight").max()).next();
+        Assert.assertEquals(4, max.get("even"));
+        Assert.assertEquals(5, max.get("odd"));
+        Assert.assertEquals(Integer.MIN_VALUE, max.get("none"));
+        Map<Object, Object> min = this.sqlgGraph.traversal().V().hasLabel("B").group().by("type").by(__.values("weight").min()).next();
+        Assert.assertEquals(1, min.get("odd"));
+        Map<Object, Object> mean = this.sqlgGraph.traversal().V().hasLabel("B").group().by("type").by(__.values("weight").mean()).next();
+        Assert.assertEquals(3d, mean.get("odd"));
+        Assert.assertTrue(Double.isNaN((Double) mean.get("none")));
+        Map<Object, Object> count = this.sqlgGraph.traversal().V().hasLabel("A").out("ab").group().by("type").by(__.count()).next();
+        Assert.assertEquals(2, count.size());
+        Assert.assertEquals(3L, count.get("even"));
+    }
+
+    @Test
+    public void testFallback() {
+        this.sqlgGraph.addVertex(T.label, "Person", "born", LocalDate.of(2000, 1, 1), "name", "p1");
+        this.sqlgGraph.addVertex(T.label, "Person", "born", LocalDate.of(2000, 1, 1), "name", "p2");
+        this.sqlgGraph.addVertex(T.label, "Person", "born", LocalDate.of(2001, 1, 1), "name", "p3");
+        this.sqlgGraph.tx().commit();
+
+        //The key's type is not supported, TinkerPop groups in memory.
+        Map<Object, Long> groupCount = this.sqlgGraph.traversal().V().hasLabel("Person").groupCount().by("born").next();
+        Assert.assertEquals(2L, groupCount.get(LocalDate.of(2000, 1, 1)).longValue());
+        Assert.assertEquals(1L, groupCount.get(LocalDate.of(2001, 1, 1)).longValue());
+
+        //The traversal is not translatable, it is not replaced.
+        DefaultGraphTraversal<Vertex, Map<Object, List<Object>>> traversal = (DefaultGraphTraversal<Vertex, Map<Object, List<Object>>>) this.sqlgGraph.traversal()
+                .V().hasLabel("Person").<Object, List<Object>>group().by("born").by("name");
+        Map<Object, List<Object>> names = traversal.next();
+        Assert.assertFalse(traversal.getSteps().stream().anyMatch(s -> s instanceof SqlgAggregateStep));
+        Assert.assertEquals(2, names.get(LocalDate.of(2000, 1, 1)).size());
+        Collection<List<Object>> values = names.values();
+        Assert.assertEquals(2, values.size());
+    }
+}
@@ -0,0 +1,100 @@
+package org.umlg.sqlg.test.batch;
+
+import org.apache.commons.configuration.Configuration;
+import org.apache.tinkerpop.gremlin.structure.T;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.umlg.sqlg.structure.BatchFlushStatistics;
+import org.umlg.sqlg.structure.BatchManager;
+import org.umlg.sqlg.structure.SqlgGraph;
+import org.umlg.sqlg.test.BaseTest;
+
+import java.beans.PropertyVetoException;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Test that normal batch mode flushes its caches when a label reaches 'batch.flush.size' elements.
+ */
+public class TestBatchAutoFlush extends BaseTest {
+
+    @BeforeClass
+    public static void beforeClass() throws ClassNotFoundException, IOException, PropertyVetoException {
+        BaseTest.beforeClass();
+        configuration.addProperty(BatchManager.BATCH_FLUSH_SIZE, 100);
+    }
+
+    @Before
+    public void beforeTest() {
+        Assume.assumeTrue(this.sqlgGraph.getSqlDialect().supportsBatchMode());
+    }
+
+    @Test
+    public void testAutoFlushVertices() {
+        BatchFlushStatistics statistics = this.sqlgGraph.tx().getBatchFlushStatistics();
+        statistics.reset();
+        this.sqlgGraph.tx().normalBatchModeOn();
+        List<Vertex> vertices = new ArrayList<>();
+        for (int i = 0; i < 250; i++) {
+            vertices.add(this.sqlgGraph.addVertex(T.label, "A", "name", "a" + i));
+        }
+        Assert.assertEquals(2, statistics.getAutomaticFlushCount());
+        Assert.assertEquals(2, statistics.getFlushCount());
+        Assert.assertEquals(200, statistics.getFlushedRowCount());
+        //A flushed vertex is updated directly.
+        vertices.get(0).property("name", "changed");
+        this.sqlgGraph.tx().commit();
+        Assert.assertEquals(3, statistics.getFlushCount());
+        Assert.assertEquals(250, statistics.getFlushedRowCount());
+        Assert.assertEquals(250, this.sqlgGraph.traversal().V().hasLabel("A").count().next().intValue());
+        Assert.assertEquals(1, this.sqlgGraph.traversal().V().hasLabel("A").has("name", "changed").count().next().intValue());
+    }
+
+    @Test
+    public void testAutoFlushEdges() {
+        BatchFlushStatistics statistics = this.sqlgGraph.tx().getBatchFlushStatistics();
+        this.sqlgGraph.tx().normalBatchModeOn();
+        Vertex a = this.sqlgGraph.addVertex(T.label, "A", "name", "a");
+        List<Vertex> bs = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            bs.add(this.sqlgGraph.addVertex(T.label, "B", "name", "b" + i));
+        }
+        this.sqlgGraph.tx().commit();
+
+        statistics.reset();
+        this.sqlgGraph.tx().normalBatchModeOn();
+        for (int i = 0; i < 150; i++) {
+            a.addEdge("ab", bs.get(i % 50), "number", i);
+        }
+        Assert.assertEquals(1, statistics.getAutomaticFlushCount());
+        this.sqlgGraph.tx().commit();
+        Assert.assertEquals(2, statistics.getFlushCount());
+        Assert.assertEquals(75d, statistics.getAverageRowsPerFlush(), 0d);
+        Assert.assertEquals(150, this.sqlgGraph.traversal().V(a).out("ab").count().next().intValue());
+        Assert.assertEquals(3, this.sqlgGraph.traversal().V().hasLabel("B").has("name", "b49").in("ab").count().next().intValue());
+    }
+
+    @Test
+    public void testNoAutoFlushByDefault() throws Exception {
+        Configuration defaultConfiguration = getConfigurationClone();
+        defaultConfiguration.clearProperty(BatchManager.BATCH_FLUSH_SIZE);
+        try (SqlgGraph sqlgGraph = SqlgGraph.open(defaultConfiguration)) {
+            BatchFlushStatistics statistics = sqlgGraph.tx().getBatchFlushStatistics();
+            statistics.reset();
+            sqlgGraph.tx().normalBatchModeOn();
+            for (int i = 0; i < 250; i++) {
+                sqlgGraph.addVertex(T.label, "A", "name", "a" + i);
+            }
+            Assert.assertEquals(0, statistics.getAutomaticFlushCount());
+            Assert.assertEquals(0, statistics.getFlushCount());
+            sqlgGraph.tx().commit();
+            Assert.assertEquals(1, statistics.getFlushCount());
+            Assert.assertEquals(250, sqlgGraph.traversal().V().hasLabel("A").count().next().intValue());
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package org.umlg.sqlg.test.batch;
+
+import org.apache.commons.configuration.Configuration;
+import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.T;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+import org.umlg.sqlg.structure.BatchManager;
+import org.umlg.sqlg.structure.SqlgGraph;
+import org.umlg.sqlg.structure.SqlgVertex;
+import org.umlg.sqlg.test.BaseTest;
+
+import java.time.*;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Test that every property type survives the binary copy, 'bulk.copy.binary=true', in normal and streaming batch mode.
+ */
+public class TestBatchBinaryCopy extends BaseTest {
+
+    @Before
+    public void beforeTest() {
+        Assume.assumeTrue(isPostgres());
+    }
+
+    private SqlgGraph openBinaryGraph() {
+        Configuration binaryConfiguration = getConfigurationClone();
+        binaryConfiguration.setProperty("bulk.copy.binary", true);
+        return SqlgGraph.open(binaryConfiguration);
+    }
+
+    @Test
+    public void testPrimitives() throws Exception {
+        assertRoundTrip(true);
+        assertRoundTrip((short) 1);
+        assertRoundTrip(1);
+        assertRoundTrip(1L);
+        assertRoundTrip(1.5F);
+        assertRoundTrip(1.5D);
+        assertRoundTrip("a\tb\n'c\"\\");
+    }
+
+    @Test
+    public void testLocalDate() throws Exception {
+        assertRoundTrip(LocalDate.of(1999, 12, 31));
+    }
+
+    @Test
+    public void testLocalDateTime() throws Exception {
+        assertRoundTrip(LocalDateTime.of(2018, 3, 4, 5, 6, 7, 123_456_000));
+        assertRoundTrip(LocalDateTime.of(1970, 7, 1, 0, 0));
+    }
+
+    @Test
+    public void testLocalTime() throws Exception {
+        assertRoundTrip(LocalTime.of(13, 14, 15));
+    }
+
+    @Test
+    public void testZonedDateTime() throws Exception {
+        assertRoundTrip(ZonedDateTime.of(LocalDateTime.of(2018, 3, 4, 5, 6, 7), ZoneId.of("Africa/Johannesburg")));
+    }
+
+    @Test
+    public void testDuration() throws Exception {
+        assertRoundTrip(Duration.ofSeconds(100, 5));
+    }
+
+    @Test
+    public void testPeriod() throws Exception {
+        assertRoundTrip(Period.of(1, 2, 3));
+    }
+
+    @Test
+    public void testByteArray() throws Exception {
+        assertRoundTrip(new byte[]{1, 2, 3});
+        assertRoundTrip(new Byte[]{1, 2, 3});
+    }
+
+    @Test
+    public void testPrimitiveArrays() throws Exception {
+        assertRoundTrip(new boolean[]{true, false});
+        assertRoundTrip(new Boolean[]{true, false});
+        assertRoundTrip(new short[]{1, 2});
+        assertRoundTrip(new Short[]{1, 2});
+        assertRoundTrip(new int[]{1, 2});
+        assertRoundTrip(new Integer[]{1, 2});
+        assertRoundTrip(new long[]{1L, 2L});
+        assertRoundTrip(new Long[]{1L, 2L});
+        assertRoundTrip(new float[]{1.5F, 2.5F});
+        assertRoundTrip(new Float[]{1.5F, 2.5F});
+        assertRoundTrip(new double[]{1.5D, 2.5D});
+        assertRoundTrip(new Double[]{1.5D, 2.5D});
+        assertRoundTrip(new String[]{"a", "b,c", "{d}"});
+        assertRoundTrip(new int[]{});
+    }
+
+    @Test
+    public void testDateTimeArrays() throws Exception {
+        assertRoundTrip(new LocalDate[]{LocalDate.of(1999, 12, 31), LocalDate.of(2018, 3, 4)});
+        assertRoundTrip(new LocalDateTime[]{LocalDateTime.of(2018, 3, 4, 5, 6, 7, 1000), LocalDateTime.of(1999, 12, 31, 23, 59)});
+        assertRoundTrip(new LocalTime[]{LocalTime.of(13, 14, 15), LocalTime.of(1, 2, 3)});
+        assertRoundTrip(new ZonedDateTime[]{
+                ZonedDateTime.of(LocalDateTime.of(2018, 3, 4, 5, 6, 7), ZoneId.of("Africa/Johannesburg")),
+                ZonedDateTime.of(LocalDateTime.of(2018, 3, 4, 5, 6, 7), ZoneId.of("Europe/Paris"))});
+        assertRoundTrip(new Duration[]{Duration.ofSeconds(100, 5), Duration.ofHours(1)});
+        assertRoundTrip(new Period[]{Period.of(1, 2, 3), Period.ofDays(4)});
+    }
+
+    /**
+     * Copies the value with a vertex and an edge in normal batch mode and in streaming batch mode and reads it back.
+     * The streaming copy's second row has a null value.
+     */
+    private void assertRoundTrip(Object value) throws Exception {
+        String type = value.getClass().getSimpleName().replace("[]", "Array");
+        try (SqlgGraph binaryGraph = openBinaryGraph()) {
+            binaryGraph.tx().batchMode(BatchManager.BatchModeType.NORMAL);
+            Vertex a = binaryGraph.addVertex(T.label, "Normal" + type, "p", value);
+            Vertex b = binaryGraph.addVertex(T.label, "Normal" + type, "p", value);
+            Edge edge = a.addEdge("normal" + type, b, "p", value);
+            binaryGraph.tx().commit();
+            assertEquals(value, binaryGraph.traversal().V(a).values("p").next());
+            assertEquals(value, binaryGraph.traversal().E(edge).values("p").next());
+
+            binaryGraph.tx().streamingBatchModeOn();
+            LinkedHashMap<String, Object> keyValues = new LinkedHashMap<>();
+            keyValues.put("p", value);
+            binaryGraph.streamVertex("Stream" + type, keyValues);
+            keyValues.put("p", null);
+            binaryGraph.streamVertex("Stream" + type, keyValues);
+            binaryGraph.tx().commit();
+            List<Vertex> streamed = binaryGraph.traversal().V().hasLabel("Stream" + type).toList();
+            Assert.assertEquals(2, streamed.size());
+            Assert.assertEquals(1, binaryGraph.traversal().V().hasLabel("Stream" + type).has("p").count().next().intValue());
+            assertEquals(value, binaryGraph.traversal().V().hasLabel("Stream" + type).values("p").next());
+
+            binaryGraph.tx().streamingBatchModeOn();
+            keyValues.put("p", value);
+            ((SqlgVertex) streamed.get(0)).streamEdge("stream" + type, streamed.get(1), keyValues);
+            keyValues.put("p", null);
+            ((SqlgVertex) streamed.get(1)).streamEdge("stream" + type, streamed.get(0), keyValues);
+            binaryGraph.tx().commit();
+            Assert.assertEquals(2, binaryGraph.traversal().E().hasLabel("stream" + type).count().next().intValue());
+            assertEquals(value, binaryGraph.traversal().V(streamed.get(0)).outE("stream" + type).values("p").next());
+            Assert.assertFalse(binaryGraph.traversal().V(streamed.get(1)).outE("stream" + type).values("p").hasNext());
+        }
+    }
+
+    private static void assertEquals(Object expected, Object actual) {
+        Assert.assertTrue(toString(expected) + " != " + toString(actual), Objects.deepEquals(expected, actual));
+    }
+
+    private static String toString(Object value) {
+        return value instanceof Object[] ? Arrays.toString((Object[]) value) : Objects.toString(value);
+    }
+}
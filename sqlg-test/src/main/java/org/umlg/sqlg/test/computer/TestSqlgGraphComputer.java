@@ -0,0 +1,297 @@
+package org.umlg.sqlg.test.computer;
+
+import org.apache.tinkerpop.gremlin.process.computer.*;
+import org.apache.tinkerpop.gremlin.process.computer.ranking.pagerank.PageRankVertexProgram;
+import org.apache.tinkerpop.gremlin.process.traversal.Operator;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversalSource;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.__;
+import org.apache.tinkerpop.gremlin.structure.Graph;
+import org.apache.tinkerpop.gremlin.structure.T;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.junit.Assert;
+import org.junit.Test;
+import org.umlg.sqlg.computer.SqlgGraphComputer;
+import org.umlg.sqlg.test.BaseTest;
+
+import java.util.*;
+
+/**
+ * Vertex programs executed on the in memory snapshot of {@link SqlgGraphComputer}.
+ */
+public class TestSqlgGraphComputer extends BaseTest {
+
+    @Test
+    public void testComputeReturnsSqlgGraphComputer() {
+        Assert.assertTrue(this.sqlgGraph.features().graph().supportsComputer());
+        Assert.assertTrue(this.sqlgGraph.compute() instanceof SqlgGraphComputer);
+        Assert.assertNotNull(this.sqlgGraph.compute(SqlgGraphComputer.class));
+    }
+
+    @Test
+    public void testPageRank() throws Exception {
+        List<Vertex> cycle = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            cycle.add(this.sqlgGraph.addVertex(T.label, "A", "name", "a" + i));
+        }
+        for (int i = 0; i < 3; i++) {
+            cycle.get(i).addEdge("next", cycle.get((i + 1) % 3));
+        }
+        Vertex hub = this.sqlgGraph.addVertex(T.label, "B", "name", "hub");
+        for (int i = 0; i < 5; i++) {
+            this.sqlgGraph.addVertex(T.label, "C", "name", "c" + i).addEdge("link", hub);
+        }
+        this.sqlgGraph.tx().commit();
+
+        ComputerResult result = this.sqlgGraph.compute().workers(2).program(PageRankVertexProgram.build().property("pageRank").create(this.sqlgGraph)).submit().get();
+        Graph graph = result.graph();
+        Assert.assertEquals(9, graph.traversal().V().count().next().intValue());
+        //Persist.VERTEX_PROPERTIES, the new graph has no edges
+        Assert.assertEquals(0, graph.traversal().E().count().next().intValue());
+        double a0 = graph.traversal().V(cycle.get(0).id()).<Double>values("pageRank").next();
+        for (Vertex vertex : cycle) {
+            Assert.assertEquals(a0, graph.traversal().V(vertex.id()).<Double>values("pageRank").next(), 0.0001d);
+        }
+        double hubRank = graph.traversal().V(hub.id()).<Double>values("pageRank").next();
+        for (Vertex c : graph.traversal().V().hasLabel("C").toList()) {
+            Assert.assertTrue(hubRank > c.<Double>value("pageRank"));
+        }
+        //the computation did not change the graph
+        Assert.assertFalse(this.sqlgGraph.traversal().V(hub).next().property("pageRank").isPresent());
+    }
+
+    @Test
+    public void testMessagesMemoryAndWriteBack() throws Exception {
+        Vertex a1 = this.sqlgGraph.addVertex(T.label, "Person", "name", "a1");
+        Vertex a2 = this.sqlgGraph.addVertex(T.label, "Person", "name", "a2");
+        Vertex b1 = this.sqlgGraph.addVertex(T.label, "Pet", "name", "b1");
+        a1.addEdge("knows", a2);
+        a1.addEdge("owns", b1);
+        a2.addEdge("owns", b1);
+        a1.addEdge("knows", a1);
+        this.sqlgGraph.tx().commit();
+
+        ComputerResult result = this.sqlgGraph.compute()
+                .program(new InDegreeVertexProgram("owns"))
+                .result(GraphComputer.ResultGraph.ORIGINAL)
+                .persist(GraphComputer.Persist.VERTEX_PROPERTIES)
+                .submit().get();
+        Assert.assertEquals(2L, result.memory().<Long>get(InDegreeVertexProgram.EDGES).longValue());
+        Assert.assertEquals(1, result.memory().getIteration());
+        Assert.assertSame(this.sqlgGraph, result.graph());
+        Assert.assertEquals(0L, this.sqlgGraph.traversal().V(a1).<Long>values(InDegreeVertexProgram.IN_DEGREE).next().longValue());
+        Assert.assertEquals(2L, this.sqlgGraph.traversal().V(b1).<Long>values(InDegreeVertexProgram.IN_DEGREE).next().longValue());
+        Assert.assertEquals("b1", this.sqlgGraph.traversal().V(b1).<String>values("name").next());
+
+        SqlgGraphComputer sqlgGraphComputer = (SqlgGraphComputer) this.sqlgGraph.compute();
+        sqlgGraphComputer.vertexProperties(__.properties("name"));
+        result = sqlgGraphComputer.program(new InDegreeVertexProgram()).submit().get();
+        Assert.assertEquals(4L, result.memory().<Long>get(InDegreeVertexProgram.EDGES).longValue());
+        Map<String, Long> inDegrees = new HashMap<>();
+        result.graph().traversal().V().forEachRemaining(v -> inDegrees.put(v.value("name"), v.value(InDegreeVertexProgram.IN_DEGREE)));
+        Assert.assertEquals(1L, inDegrees.get("a1").longValue());
+        Assert.assertEquals(1L, inDegrees.get("a2").longValue());
+        Assert.assertEquals(2L, inDegrees.get("b1").longValue());
+    }
+
+    @Test
+    public void testWithComputer() {
+        Vertex a = this.sqlgGraph.addVertex(T.label, "A", "name", "a", "age", 1);
+        Vertex b = this.sqlgGraph.addVertex(T.label, "B", "name", "b", "age", 2);
+        Vertex c = this.sqlgGraph.addVertex(T.label, "B", "name", "c", "age", 3);
+        a.addEdge("ab", b, "weight", 1);
+        a.addEdge("ab", c, "weight", 2);
+        this.sqlgGraph.tx().commit();
+
+        GraphTraversalSource g = this.sqlgGraph.traversal().withComputer();
+        Assert.assertEquals(1L, g.V().has("name", "a").count().next().longValue());
+        Assert.assertEquals(new HashSet<>(Arrays.asList("b", "c")), new HashSet<>(g.V().has("name", "a").out("ab").values("name").toList()));
+        Assert.assertEquals(5, g.V().hasLabel("B").values("age").sum().next().intValue());
+        Assert.assertEquals(Collections.singletonList("c"), g.V().outE("ab").has("weight", 2).inV().values("name").toList());
+        Assert.assertEquals(3, g.V().outE("ab").values("weight").sum().next().intValue());
+        //pageRank's graph computes the rest of the traversal.
+        Assert.assertEquals(3, g.V().pageRank().values(PageRankVertexProgram.PAGE_RANK).toList().size());
+        Assert.assertEquals("a", g.V().pageRank().order().by(PageRankVertexProgram.PAGE_RANK).values("name").next());
+    }
+
+    @Test
+    public void testGraphFilterNotSupported() {
+        GraphComputer graphComputer = this.sqlgGraph.compute();
+        Assert.assertFalse(graphComputer.features().supportsGraphFilter());
+        try {
+            graphComputer.vertices(__.hasLabel("A"));
+            Assert.fail("vertex filters are not supported");
+        } catch (UnsupportedOperationException e) {
+            Assert.assertEquals(GraphComputer.Exceptions.graphFilterNotSupported().getMessage(), e.getMessage());
+        }
+        try {
+            graphComputer.edges(__.bothE("ab"));
+            Assert.fail("edge filters are not supported");
+        } catch (UnsupportedOperationException e) {
+            Assert.assertEquals(GraphComputer.Exceptions.graphFilterNotSupported().getMessage(), e.getMessage());
+        }
+    }
+
+    @Test
+    public void testFeatures() {
+        GraphComputer.Features features = this.sqlgGraph.compute().features();
+        Assert.assertFalse(features.supportsVertexAddition());
+        Assert.assertFalse(features.supportsVertexRemoval());
+        Assert.assertFalse(features.supportsEdgeAddition());
+        Assert.assertFalse(features.supportsEdgeRemoval());
+        Assert.assertFalse(features.supportsEdgePropertyAddition());
+        for (GraphComputer.Persist persist : GraphComputer.Persist.values()) {
+            Assert.assertTrue(features.supportsResultGraphPersistCombination(GraphComputer.ResultGraph.NEW, persist));
+        }
+        Assert.assertTrue(features.supportsResultGraphPersistCombination(GraphComputer.ResultGraph.ORIGINAL, GraphComputer.Persist.NOTHING));
+        Assert.assertTrue(features.supportsResultGraphPersistCombination(GraphComputer.ResultGraph.ORIGINAL, GraphComputer.Persist.VERTEX_PROPERTIES));
+        Assert.assertFalse(features.supportsResultGraphPersistCombination(GraphComputer.ResultGraph.ORIGINAL, GraphComputer.Persist.EDGES));
+    }
+
+    @Test
+    public void testSubmitRejectsUnsupportedResultGraphPersist() {
+        this.sqlgGraph.addVertex(T.label, "A");
+        this.sqlgGraph.tx().commit();
+        try {
+            this.sqlgGraph.compute()
+                    .program(new InDegreeVertexProgram())
+                    .result(GraphComputer.ResultGraph.ORIGINAL)
+                    .persist(GraphComputer.Persist.EDGES)
+                    .submit();
+            Assert.fail("ResultGraph.ORIGINAL with Persist.EDGES is not supported");
+        } catch (IllegalArgumentException e) {
+            //expected
+        }
+    }
+
+    @Test
+    public void testResultGraphNewWithEdges() throws Exception {
+        Vertex a = this.sqlgGraph.addVertex(T.label, "A");
+        Vertex b = this.sqlgGraph.addVertex(T.label, "B");
+        a.addEdge("ab", b, "weight", 1.5D);
+        this.sqlgGraph.tx().commit();
+        Graph graph = this.sqlgGraph.compute()
+                .program(new InDegreeVertexProgram())
+                .result(GraphComputer.ResultGraph.NEW)
+                .persist(GraphComputer.Persist.EDGES)
+                .submit().get().graph();
+        Assert.assertEquals(1, graph.traversal().E().count().next().intValue());
+        //the vertex program did not read the edge's properties, they are loaded before the computation completes
+        Assert.assertEquals(1.5D, graph.traversal().E().<Double>values("weight").next(), 0D);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testVertexPropertyNotLoaded() throws Exception {
+        this.sqlgGraph.addVertex(T.label, "A", "name", "a", "age", 1);
+        this.sqlgGraph.tx().commit();
+        SqlgGraphComputer sqlgGraphComputer = (SqlgGraphComputer) this.sqlgGraph.compute();
+        sqlgGraphComputer.vertexProperties(__.properties("name"));
+        ComputerResult result = sqlgGraphComputer.program(new InDegreeVertexProgram()).submit().get();
+        Vertex vertex = result.graph().vertices().next();
+        Assert.assertEquals("a", vertex.value("name"));
+        vertex.property("age");
+    }
+
+    @Test
+    public void testConfigure() throws Exception {
+        this.sqlgGraph.addVertex(T.label, "A", "name", "a", "age", 1);
+        this.sqlgGraph.tx().commit();
+        ComputerResult result = this.sqlgGraph.compute()
+                .configure(SqlgGraphComputer.WORKERS, 2)
+                .configure(SqlgGraphComputer.VERTEX_PROPERTY_KEYS, Collections.singletonList("name"))
+                .program(new InDegreeVertexProgram())
+                .submit().get();
+        Vertex vertex = result.graph().vertices().next();
+        Assert.assertEquals("a", vertex.value("name"));
+        try {
+            vertex.property("age");
+            Assert.fail("age is not loaded");
+        } catch (IllegalStateException e) {
+            //expected
+        }
+        try {
+            this.sqlgGraph.compute().configure("unknown", 1);
+            Assert.fail("unknown keys are not supported");
+        } catch (IllegalArgumentException e) {
+            //expected
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testSubmitOnlyOnce() throws Exception {
+        this.sqlgGraph.addVertex(T.label, "A");
+        this.sqlgGraph.tx().commit();
+        GraphComputer graphComputer = this.sqlgGraph.compute().program(new InDegreeVertexProgram());
+        graphComputer.submit().get();
+        graphComputer.submit();
+    }
+
+    /**
+     * Every vertex sends a message along its out edges, the vertices count the messages they receive.
+     */
+    private static class InDegreeVertexProgram implements VertexProgram<Long> {
+
+        static final String IN_DEGREE = "inDegree";
+        static final String EDGES = "edges";
+
+        private final MessageScope.Local<Long> messageScope;
+
+        InDegreeVertexProgram(String... edgeLabels) {
+            this.messageScope = MessageScope.Local.of(() -> __.outE(edgeLabels));
+        }
+
+        @Override
+        public void setup(Memory memory) {
+            memory.set(EDGES, 0L);
+        }
+
+        @Override
+        public void execute(Vertex vertex, Messenger<Long> messenger, Memory memory) {
+            if (memory.isInitialIteration()) {
+                messenger.sendMessage(this.messageScope, 1L);
+            } else {
+                long inDegree = 0L;
+                for (Iterator<Long> messages = messenger.receiveMessages(); messages.hasNext(); ) {
+                    inDegree += messages.next();
+                }
+                vertex.property(IN_DEGREE, inDegree);
+                memory.add(EDGES, inDegree);
+            }
+        }
+
+        @Override
+        public boolean terminate(Memory memory) {
+            return !memory.isInitialIteration();
+        }
+
+        @Override
+        public Set<VertexComputeKey> getVertexComputeKeys() {
+            return Collections.singleton(VertexComputeKey.of(IN_DEGREE, false));
+        }
+
+        @Override
+        public Set<MemoryComputeKey> getMemoryComputeKeys() {
+            return Collections.singleton(MemoryComputeKey.of(EDGES, Operator.sum, true, false));
+        }
+
+        @Override
+        public Set<MessageScope> getMessageScopes(Memory memory) {
+            return Collections.singleton(this.messageScope);
+        }
+
+        @SuppressWarnings("CloneDoesntCallSuperClone")
+        @Override
+        public VertexProgram<Long> clone() {
+            return this;
+        }
+
+        @Override
+        public GraphComputer.ResultGraph getPreferredResultGraph() {
+            return GraphComputer.ResultGraph.NEW;
+        }
+
+        @Override
+        public GraphComputer.Persist getPreferredPersist() {
+            return GraphComputer.Persist.VERTEX_PROPERTIES;
+        }
+    }
+}
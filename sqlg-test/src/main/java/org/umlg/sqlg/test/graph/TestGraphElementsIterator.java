@@ -0,0 +1,85 @@
+package org.umlg.sqlg.test.graph;
+
+import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.T;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.util.iterator.IteratorUtils;
+import org.junit.Assert;
+import org.junit.Test;
+import org.umlg.sqlg.test.BaseTest;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Test the lazy iteration of graph.vertices() and graph.edges().
+ */
+public class TestGraphElementsIterator extends BaseTest {
+
+    @Test
+    public void testAllElements() {
+        for (int i = 0; i < 100; i++) {
+            Vertex a = this.sqlgGraph.addVertex(T.label, "A", "name", "a" + i);
+            Vertex b = this.sqlgGraph.addVertex(T.label, "B", "name", "b" + i);
+            a.addEdge("ab", b, "weight", i);
+        }
+        this.sqlgGraph.tx().commit();
+        this.sqlgGraph.tx().setFetchSize(10);
+        Iterator<Vertex> vertices = this.sqlgGraph.vertices();
+        int count = 0;
+        while (vertices.hasNext()) {
+            Vertex vertex = vertices.next();
+            Assert.assertTrue(vertex.<String>value("name").startsWith(vertex.label().toLowerCase()));
+            count++;
+        }
+        Assert.assertEquals(200, count);
+        List<Edge> edges = IteratorUtils.list(this.sqlgGraph.edges());
+        Assert.assertEquals(100, edges.size());
+        Assert.assertTrue(edges.get(0).<Integer>value("weight") < 100);
+        this.sqlgGraph.tx().rollback();
+    }
+
+    @Test
+    public void testManyIds() {
+        List<Object> ids = new ArrayList<>();
+        for (int i = 0; i < 2500; i++) {
+            ids.add(this.sqlgGraph.addVertex(T.label, i % 2 == 0 ? "A" : "B", "name", "v" + i).id());
+        }
+        this.sqlgGraph.addVertex(T.label, "A", "name", "other");
+        this.sqlgGraph.tx().commit();
+
+        List<Vertex> vertices = IteratorUtils.list(this.sqlgGraph.vertices(ids.toArray()));
+        Assert.assertEquals(2500, vertices.size());
+        Assert.assertTrue(vertices.stream().noneMatch(v -> v.value("name").equals("other")));
+        if (this.sqlgGraph.getSqlDialect().supportsArrayParameterIn()) {
+            //The ids are bound as a parameter, the statement is reused.
+            long hits = this.sqlgGraph.tx().getPreparedStatementCacheHits();
+            vertices = IteratorUtils.list(this.sqlgGraph.vertices(ids.subList(0, 10).toArray()));
+            Assert.assertEquals(10, vertices.size());
+            Assert.assertTrue(this.sqlgGraph.tx().getPreparedStatementCacheHits() > hits);
+        }
+        //An id of a label that does not exist.
+        Assert.assertFalse(this.sqlgGraph.vertices("public.C:::1").hasNext());
+    }
+
+    @Test
+    public void testIteratorIsLazy() {
+        for (int i = 0; i < 10; i++) {
+            this.sqlgGraph.addVertex(T.label, "A", "name", "a" + i);
+        }
+        this.sqlgGraph.tx().commit();
+        Iterator<Vertex> vertices = this.sqlgGraph.vertices();
+        Vertex first = vertices.next();
+        //Changes made while iterating do not fail the iteration.
+        first.property("name", "changed");
+        int count = 1;
+        while (vertices.hasNext()) {
+            vertices.next();
+            count++;
+        }
+        Assert.assertEquals(10, count);
+        this.sqlgGraph.tx().commit();
+        Assert.assertEquals(1, this.sqlgGraph.traversal().V().has("name", "changed").count().next().intValue());
+    }
+}
@@ -0,0 +1,103 @@
+package org.umlg.sqlg.test.gremlincompile;
+
+import org.apache.commons.configuration.Configuration;
+import org.apache.tinkerpop.gremlin.process.traversal.P;
+import org.apache.tinkerpop.gremlin.structure.T;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Test;
+import org.umlg.sqlg.sql.parse.SqlCache;
+import org.umlg.sqlg.structure.SqlgGraph;
+import org.umlg.sqlg.test.BaseTest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Bulk P.within and P.without values bound as one array parameter, see 'bulk.within.temporary.table.count'.
+ */
+public class TestBulkWithinArrayParameter extends BaseTest {
+
+    @Test
+    public void testBulkWithinStringsHitsCache() {
+        Assume.assumeTrue(this.sqlgGraph.getSqlDialect().supportsArrayParameterTable());
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            this.sqlgGraph.addVertex(T.label, "A", "name", "a" + i, "index", (long) i);
+            names.add("a" + i);
+        }
+        this.sqlgGraph.tx().commit();
+
+        SqlCache sqlCache = this.sqlgGraph.getSqlCache();
+        sqlCache.resetStatistics();
+        List<Vertex> vertices = this.sqlgGraph.traversal().V().hasLabel("A").has("name", P.within(names.subList(0, 10))).toList();
+        Assert.assertEquals(10, vertices.size());
+        Assert.assertEquals(0, sqlCache.getHits());
+        vertices = this.sqlgGraph.traversal().V().hasLabel("A").has("name", P.within(names.subList(10, 60))).toList();
+        Assert.assertEquals(50, vertices.size());
+        Assert.assertEquals(1, sqlCache.getHits());
+        vertices = this.sqlgGraph.traversal().V().hasLabel("A").has("name", P.without(names.subList(0, 90))).toList();
+        Assert.assertEquals(10, vertices.size());
+        vertices = this.sqlgGraph.traversal().V().hasLabel("A").has("name", P.without(names.subList(0, 30))).toList();
+        Assert.assertEquals(70, vertices.size());
+        Assert.assertEquals(2, sqlCache.getHits());
+    }
+
+    @Test
+    public void testBulkWithinDuplicateValues() {
+        for (int i = 0; i < 10; i++) {
+            this.sqlgGraph.addVertex(T.label, "A", "index", (long) i);
+        }
+        this.sqlgGraph.tx().commit();
+        List<Vertex> vertices = this.sqlgGraph.traversal().V().hasLabel("A").has("index", P.within(1L, 2L, 2L, 3L, 1L)).toList();
+        Assert.assertEquals(3, vertices.size());
+        vertices = this.sqlgGraph.traversal().V().hasLabel("A").has("index", P.without(1L, 2L, 2L, 3L, 1L)).toList();
+        Assert.assertEquals(7, vertices.size());
+    }
+
+    @Test
+    public void testBulkWithinIdsAndVertexStep() {
+        Vertex a = this.sqlgGraph.addVertex(T.label, "A", "name", "a");
+        List<Object> ids = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            Vertex b = this.sqlgGraph.addVertex(T.label, "B", "name", "b" + i, "number", i);
+            a.addEdge("ab", b);
+            if (i % 2 == 0) {
+                ids.add(b.id());
+            }
+        }
+        this.sqlgGraph.tx().commit();
+        List<Vertex> vertices = this.sqlgGraph.traversal().V().hasId(P.within(ids)).toList();
+        Assert.assertEquals(10, vertices.size());
+        vertices = this.sqlgGraph.traversal().V(a).out("ab").has("number", P.within(1, 3, 5)).has("name", P.without("b1", "b2")).toList();
+        Assert.assertEquals(2, vertices.size());
+        vertices = this.sqlgGraph.traversal().V(a).as("a").out("ab").has("number", P.within(1, 3, 5)).as("b").in("ab").as("c").toList();
+        Assert.assertEquals(3, vertices.size());
+        for (Vertex vertex : vertices) {
+            Assert.assertEquals(a, vertex);
+        }
+    }
+
+    @Test
+    public void testBulkWithinTemporaryTable() throws Exception {
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            this.sqlgGraph.addVertex(T.label, "A", "name", "a" + i);
+            names.add("a" + i);
+        }
+        this.sqlgGraph.tx().commit();
+
+        Configuration temporaryTableConfiguration = getConfigurationClone();
+        temporaryTableConfiguration.setProperty("bulk.within.temporary.table.count", 10);
+        try (SqlgGraph temporaryTableGraph = SqlgGraph.open(temporaryTableConfiguration)) {
+            List<Vertex> vertices = temporaryTableGraph.traversal().V().hasLabel("A").has("name", P.within(names.subList(0, 50))).toList();
+            Assert.assertEquals(50, vertices.size());
+            vertices = temporaryTableGraph.traversal().V().hasLabel("A").has("name", P.within(names.subList(50, 55))).toList();
+            Assert.assertEquals(5, vertices.size());
+            vertices = temporaryTableGraph.traversal().V().hasLabel("A").has("name", P.without(names.subList(0, 80))).toList();
+            Assert.assertEquals(20, vertices.size());
+            temporaryTableGraph.tx().rollback();
+        }
+    }
+}
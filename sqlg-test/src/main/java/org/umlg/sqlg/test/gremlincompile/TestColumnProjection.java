@@ -0,0 +1,87 @@
+package org.umlg.sqlg.test.gremlincompile;
+
+import org.apache.tinkerpop.gremlin.process.traversal.Order;
+import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.Property;
+import org.apache.tinkerpop.gremlin.structure.T;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.junit.Assert;
+import org.junit.Test;
+import org.umlg.sqlg.structure.SqlgElement;
+import org.umlg.sqlg.test.BaseTest;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Test that only the columns required by a values, properties or valueMap step are selected.
+ */
+public class TestColumnProjection extends BaseTest {
+
+    @Test
+    public void testValuesSelectsOnlyRequestedColumns() {
+        this.sqlgGraph.addVertex(T.label, "A", "name", "a1", "surname", "s1", "age", 1);
+        this.sqlgGraph.addVertex(T.label, "A", "name", "a2", "surname", "s2", "age", 2);
+        this.sqlgGraph.tx().commit();
+
+        List<Object> names = this.sqlgGraph.traversal().V().hasLabel("A").values("name").toList();
+        Assert.assertEquals(new HashSet<>(Arrays.asList("a1", "a2")), new HashSet<>(names));
+        this.sqlgGraph.tx().rollback();
+
+        List<? extends Property<Object>> properties = this.sqlgGraph.traversal().V().hasLabel("A").has("name", "a1").properties("name").toList();
+        Assert.assertEquals(1, properties.size());
+        Vertex a1 = (Vertex) properties.get(0).element();
+        Assert.assertFalse(((SqlgElement) a1).isFullyLoaded());
+        Assert.assertEquals("a1", a1.value("name"));
+        Assert.assertFalse(((SqlgElement) a1).isFullyLoaded());
+        //lazily loads the rest of the row
+        Assert.assertEquals("s1", a1.value("surname"));
+        Assert.assertEquals(1, a1.<Integer>value("age").intValue());
+        Assert.assertTrue(((SqlgElement) a1).isFullyLoaded());
+        this.sqlgGraph.tx().rollback();
+    }
+
+    @Test
+    public void testValueMapAfterVertexStep() {
+        Vertex a1 = this.sqlgGraph.addVertex(T.label, "A", "name", "a1");
+        Vertex b1 = this.sqlgGraph.addVertex(T.label, "B", "name", "b1", "surname", "s1", "age", 1);
+        Vertex b2 = this.sqlgGraph.addVertex(T.label, "B", "name", "b2", "surname", "s2", "age", 2);
+        a1.addEdge("ab", b1, "weight", 1);
+        a1.addEdge("ab", b2, "weight", 2);
+        this.sqlgGraph.tx().commit();
+
+        List<Map<String, Object>> valueMaps = this.sqlgGraph.traversal().V().hasLabel("A").out("ab").valueMap("name", "age").toList();
+        Assert.assertEquals(2, valueMaps.size());
+        for (Map<String, Object> valueMap : valueMaps) {
+            Assert.assertEquals(2, valueMap.size());
+            Assert.assertTrue(valueMap.containsKey("name"));
+            Assert.assertTrue(valueMap.containsKey("age"));
+        }
+        this.sqlgGraph.tx().rollback();
+
+        List<Object> ordered = this.sqlgGraph.traversal().V().hasLabel("A").out("ab").order().by("age", Order.decr).values("name").toList();
+        Assert.assertEquals(Arrays.asList("b2", "b1"), ordered);
+        this.sqlgGraph.tx().rollback();
+
+        List<? extends Property<Object>> weights = this.sqlgGraph.traversal().V().hasLabel("A").outE("ab").properties("weight").toList();
+        Assert.assertEquals(2, weights.size());
+        Edge edge = (Edge) weights.get(0).element();
+        Assert.assertFalse(((SqlgElement) edge).isFullyLoaded());
+        Assert.assertEquals(a1, edge.outVertex());
+        this.sqlgGraph.tx().rollback();
+    }
+
+    @Test
+    public void testPartiallyLoadedElementUpdate() {
+        this.sqlgGraph.addVertex(T.label, "A", "name", "a1", "surname", "s1");
+        this.sqlgGraph.tx().commit();
+        Vertex a1 = (Vertex) this.sqlgGraph.traversal().V().hasLabel("A").properties("name").next().element();
+        a1.property("name", "a2");
+        Assert.assertEquals("s1", a1.value("surname"));
+        this.sqlgGraph.tx().commit();
+        Assert.assertEquals("a2", this.sqlgGraph.traversal().V().hasLabel("A").values("name").next());
+        Assert.assertEquals("s1", this.sqlgGraph.traversal().V().hasLabel("A").values("surname").next());
+    }
+}
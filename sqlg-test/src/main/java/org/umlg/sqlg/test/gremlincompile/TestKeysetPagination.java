@@ -0,0 +1,115 @@
+package org.umlg.sqlg.test.gremlincompile;
+
+import org.apache.tinkerpop.gremlin.process.traversal.Order;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversal;
+import org.apache.tinkerpop.gremlin.process.traversal.lambda.TokenTraversal;
+import org.apache.tinkerpop.gremlin.structure.T;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.junit.Assert;
+import org.junit.Test;
+import org.umlg.sqlg.predicate.Keyset;
+import org.umlg.sqlg.test.BaseTest;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Keyset pagination, the pages seek past the last element of the previous page instead of skipping rows.
+ */
+public class TestKeysetPagination extends BaseTest {
+
+    @Test
+    public void testKeysetPagesMatchRange() {
+        for (int i = 0; i < 100; i++) {
+            //every score 10 times so that the id decides
+            this.sqlgGraph.addVertex(T.label, "Post", "score", i % 10, "name", "p" + i);
+        }
+        this.sqlgGraph.tx().commit();
+
+        assertPages(Keyset.by("score", Order.incr), Order.incr);
+        assertPages(Keyset.by("score", Order.decr), Order.decr);
+        assertPages(Keyset.by("score", Order.decr).thenById(Order.incr), Order.decr);
+    }
+
+    private void assertPages(Keyset keyset, Order scoreOrder) {
+        List<Vertex> expected = this.sqlgGraph.traversal().V().hasLabel("Post")
+                .order().by("score", scoreOrder).by(new TokenTraversal<>(T.id), keyset.getIdOrder())
+                .toList();
+        Assert.assertEquals(100, expected.size());
+        List<Vertex> paged = new ArrayList<>();
+        String token = null;
+        for (int i = 0; i < 20; i++) {
+            List<Vertex> page = keyset.page(this.sqlgGraph.traversal().V().hasLabel("Post"), token, 7).toList();
+            if (page.isEmpty()) {
+                break;
+            }
+            paged.addAll(page);
+            token = keyset.continuationToken(page.get(page.size() - 1));
+        }
+        Assert.assertEquals(expected, paged);
+    }
+
+    @Test
+    public void testKeysetMultipleKeys() {
+        for (int i = 0; i < 30; i++) {
+            this.sqlgGraph.addVertex(T.label, "Post", "created", i % 3, "name", "p" + (i % 5));
+        }
+        this.sqlgGraph.tx().commit();
+        Keyset keyset = Keyset.by("created", Order.incr).thenBy("name", Order.decr);
+        List<Vertex> expected = this.sqlgGraph.traversal().V().hasLabel("Post")
+                .order().by("created", Order.incr).by("name", Order.decr).by(new TokenTraversal<>(T.id), Order.incr)
+                .toList();
+        List<Vertex> firstPage = keyset.page(this.sqlgGraph.traversal().V().hasLabel("Post"), null, 12).toList();
+        Assert.assertEquals(expected.subList(0, 12), firstPage);
+        String token = keyset.continuationToken(firstPage.get(11));
+        List<Vertex> secondPage = keyset.page(this.sqlgGraph.traversal().V().hasLabel("Post"), token, 12).toList();
+        Assert.assertEquals(expected.subList(12, 24), secondPage);
+        //the token is only valid for its keyset
+        try {
+            Keyset.by("name", Order.incr).after(token);
+            Assert.fail("a token of another keyset must be rejected");
+        } catch (IllegalArgumentException e) {
+            //expected
+        }
+    }
+
+    @Test
+    public void testKeysetLongString() {
+        //DataOutput.writeUTF is limited to 64KB
+        String prefix = String.join("", Collections.nCopies(70000, "\u00e9"));
+        for (int i = 0; i < 3; i++) {
+            this.sqlgGraph.addVertex(T.label, "Post", "name", prefix + i);
+        }
+        this.sqlgGraph.tx().commit();
+        Keyset keyset = Keyset.by("name", Order.incr);
+        List<Vertex> firstPage = keyset.page(this.sqlgGraph.traversal().V().hasLabel("Post"), null, 1).toList();
+        Assert.assertEquals(prefix + 0, firstPage.get(0).value("name"));
+        String token = keyset.continuationToken(firstPage.get(0));
+        List<Vertex> secondPage = keyset.page(this.sqlgGraph.traversal().V().hasLabel("Post"), token, 1).toList();
+        Assert.assertEquals(prefix + 1, secondPage.get(0).value("name"));
+    }
+
+    @Test
+    public void testKeysetAfterVertexStep() {
+        Vertex user = this.sqlgGraph.addVertex(T.label, "User", "name", "u");
+        for (int i = 0; i < 25; i++) {
+            Vertex post = this.sqlgGraph.addVertex(T.label, "Post", "score", i);
+            user.addEdge("posted", post);
+        }
+        this.sqlgGraph.tx().commit();
+        Keyset keyset = Keyset.by("score", Order.decr);
+        GraphTraversal<Vertex, Vertex> traversal = this.sqlgGraph.traversal().V(user).out("posted");
+        List<Vertex> firstPage = keyset.page(traversal, null, 10).toList();
+        Assert.assertEquals(10, firstPage.size());
+        Assert.assertEquals(24, firstPage.get(0).<Integer>value("score").intValue());
+        String token = keyset.continuationToken(firstPage.get(9));
+        List<Vertex> secondPage = keyset.page(this.sqlgGraph.traversal().V(user).out("posted"), token, 10).toList();
+        Assert.assertEquals(10, secondPage.size());
+        Assert.assertEquals(14, secondPage.get(0).<Integer>value("score").intValue());
+        Assert.assertEquals(5, secondPage.get(9).<Integer>value("score").intValue());
+        //the token is not tied to the traversal it came from
+        List<Vertex> vertices = keyset.page(this.sqlgGraph.traversal().V().hasLabel("Post"), token, 100).toList();
+        Assert.assertEquals(15, vertices.size());
+    }
+}
@@ -0,0 +1,112 @@
+package org.umlg.sqlg.test.gremlincompile;
+
+import org.apache.commons.configuration.Configuration;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversalSource;
+import org.apache.tinkerpop.gremlin.structure.T;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Test;
+import org.umlg.sqlg.structure.SqlgGraph;
+import org.umlg.sqlg.test.BaseTest;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Regular queries executed on the transaction's parallel query connections, see 'query.parallel.connections'.
+ */
+public class TestParallelQueries extends BaseTest {
+
+    @Test
+    public void testParallelQueriesLoadInOrder() throws Exception {
+        for (int i = 0; i < 10; i++) {
+            Vertex a = this.sqlgGraph.addVertex(T.label, "A" + i, "name", "a" + i);
+            for (int j = 0; j < 3; j++) {
+                Vertex b = this.sqlgGraph.addVertex(T.label, "B" + j, "name", "b" + i + "_" + j, "index" + j, j);
+                a.addEdge("ab" + j, b);
+            }
+        }
+        this.sqlgGraph.tx().commit();
+
+        Configuration parallelConfiguration = getConfigurationClone();
+        parallelConfiguration.setProperty("query.parallel.connections", 3);
+        try (SqlgGraph parallelGraph = SqlgGraph.open(parallelConfiguration)) {
+            Assert.assertEquals(3, parallelGraph.getParallelQueryConnections());
+            GraphTraversalSource g = parallelGraph.traversal();
+            String[] labels = new String[9];
+            for (int i = 1; i < 10; i++) {
+                labels[i - 1] = "A" + i;
+            }
+            List<String> sequentialNames = g.V().hasLabel("A0", labels).<String>values("name").toList();
+            List<Map<String, Object>> sequentialPaths = g.V().hasLabel("A0", labels).as("a").out().as("b").select("a", "b").by("name").toList();
+            parallelGraph.tx().rollback();
+
+            parallelGraph.tx().setParallelQueries(true);
+            Assert.assertTrue(parallelGraph.tx().isParallelQueries());
+            List<String> parallelNames = g.V().hasLabel("A0", labels).<String>values("name").toList();
+            Assert.assertEquals(10, parallelNames.size());
+            Assert.assertEquals(sequentialNames, parallelNames);
+            List<Map<String, Object>> parallelPaths = g.V().hasLabel("A0", labels).as("a").out().as("b").select("a", "b").by("name").toList();
+            Assert.assertEquals(30, parallelPaths.size());
+            Assert.assertEquals(sequentialPaths, parallelPaths);
+            List<Vertex> bs = g.V().hasLabel("A0", labels).out().toList();
+            for (Vertex b : bs) {
+                int j = Integer.valueOf(b.label().substring(1));
+                Assert.assertEquals(j, b.<Integer>value("index" + j).intValue());
+            }
+            parallelGraph.tx().rollback();
+            Assert.assertFalse(parallelGraph.tx().isParallelQueries());
+        }
+    }
+
+    @Test
+    public void testParallelQueriesAfterWriteWithoutSnapshotExport() throws Exception {
+        Assume.assumeFalse(this.sqlgGraph.getSqlDialect().supportsSnapshotExport());
+        Configuration parallelConfiguration = getConfigurationClone();
+        parallelConfiguration.setProperty("query.parallel.connections", 2);
+        try (SqlgGraph parallelGraph = SqlgGraph.open(parallelConfiguration)) {
+            parallelGraph.addVertex(T.label, "A", "name", "a");
+            try {
+                parallelGraph.tx().setParallelQueries(true);
+                Assert.fail("the parallel query connections would not see the transaction's vertex");
+            } catch (IllegalStateException e) {
+                //expected
+            }
+            Assert.assertFalse(parallelGraph.tx().isParallelQueries());
+            parallelGraph.tx().commit();
+            Assert.assertEquals(1, parallelGraph.traversal().V().hasLabel("A").count().next().intValue());
+            parallelGraph.tx().rollback();
+        }
+    }
+
+    @Test
+    public void testParallelQueriesAreReadOnlyWithoutSnapshotExport() throws Exception {
+        Assume.assumeFalse(this.sqlgGraph.getSqlDialect().supportsSnapshotExport());
+        this.sqlgGraph.addVertex(T.label, "A", "name", "a");
+        this.sqlgGraph.tx().commit();
+        Configuration parallelConfiguration = getConfigurationClone();
+        parallelConfiguration.setProperty("query.parallel.connections", 2);
+        try (SqlgGraph parallelGraph = SqlgGraph.open(parallelConfiguration)) {
+            parallelGraph.tx().setParallelQueries(true);
+            Assert.assertEquals(1, parallelGraph.traversal().V().hasLabel("A").count().next().intValue());
+            try {
+                parallelGraph.addVertex(T.label, "A", "name", "a2");
+                Assert.fail("the transaction is read only");
+            } catch (RuntimeException e) {
+                //expected
+            }
+            parallelGraph.tx().rollback();
+            //the next transaction writes again
+            parallelGraph.addVertex(T.label, "A", "name", "a2");
+            parallelGraph.tx().commit();
+            Assert.assertEquals(2, parallelGraph.traversal().V().hasLabel("A").count().next().intValue());
+            parallelGraph.tx().rollback();
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testParallelQueriesNeedConnections() {
+        this.sqlgGraph.tx().setParallelQueries(true);
+    }
+}
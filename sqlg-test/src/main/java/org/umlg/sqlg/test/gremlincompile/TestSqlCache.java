@@ -0,0 +1,91 @@
+package org.umlg.sqlg.test.gremlincompile;
+
+import org.apache.tinkerpop.gremlin.process.traversal.P;
+import org.apache.tinkerpop.gremlin.structure.T;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.junit.Assert;
+import org.junit.Test;
+import org.umlg.sqlg.sql.parse.SqlCache;
+import org.umlg.sqlg.test.BaseTest;
+
+import java.util.List;
+
+/**
+ * Test the caching of the generated sql per query shape.
+ */
+public class TestSqlCache extends BaseTest {
+
+    @Test
+    public void testSameShapeHitsCache() {
+        Vertex a1 = this.sqlgGraph.addVertex(T.label, "A", "name", "a1");
+        Vertex a2 = this.sqlgGraph.addVertex(T.label, "A", "name", "a2");
+        Vertex b1 = this.sqlgGraph.addVertex(T.label, "B", "name", "b1");
+        a1.addEdge("ab", b1);
+        this.sqlgGraph.tx().commit();
+
+        SqlCache sqlCache = this.sqlgGraph.getSqlCache();
+        sqlCache.resetStatistics();
+        List<Vertex> vertices = this.sqlgGraph.traversal().V().hasLabel("A").has("name", "a1").toList();
+        Assert.assertEquals(1, vertices.size());
+        Assert.assertEquals(a1, vertices.get(0));
+        Assert.assertEquals(0, sqlCache.getHits());
+        Assert.assertEquals(1, sqlCache.getMisses());
+
+        vertices = this.sqlgGraph.traversal().V().hasLabel("A").has("name", "a2").toList();
+        Assert.assertEquals(1, vertices.size());
+        Assert.assertEquals(a2, vertices.get(0));
+        Assert.assertEquals(1, sqlCache.getHits());
+
+        vertices = this.sqlgGraph.traversal().V().hasLabel("A").has("name", P.neq("a2")).toList();
+        Assert.assertEquals(1, vertices.size());
+        Assert.assertEquals(a1, vertices.get(0));
+        Assert.assertEquals(1, sqlCache.getHits());
+        Assert.assertEquals(2, sqlCache.getMisses());
+
+        List<Vertex> bs = this.sqlgGraph.traversal().V().hasLabel("A").has("name", "a1").out("ab").toList();
+        Assert.assertEquals(1, bs.size());
+        Assert.assertEquals(b1, bs.get(0));
+        bs = this.sqlgGraph.traversal().V().hasLabel("A").has("name", "a2").out("ab").toList();
+        Assert.assertEquals(0, bs.size());
+        Assert.assertEquals(2, sqlCache.getHits());
+    }
+
+    @Test
+    public void testTopologyChangeInvalidatesCache() {
+        this.sqlgGraph.addVertex(T.label, "A", "name", "a1");
+        this.sqlgGraph.tx().commit();
+        Assert.assertEquals(1, this.sqlgGraph.traversal().V().hasLabel("A").toList().size());
+        Assert.assertTrue(this.sqlgGraph.getSqlCache().size() > 0);
+
+        this.sqlgGraph.addVertex(T.label, "A", "name", "a2", "surname", "s2");
+        Assert.assertEquals(0, this.sqlgGraph.getSqlCache().size());
+        this.sqlgGraph.tx().commit();
+
+        List<Vertex> vertices = this.sqlgGraph.traversal().V().hasLabel("A").has("name", "a2").toList();
+        Assert.assertEquals(1, vertices.size());
+        Assert.assertEquals("s2", vertices.get(0).value("surname"));
+        vertices = this.sqlgGraph.traversal().V().hasLabel("A").has("name", "a2").toList();
+        Assert.assertEquals("s2", vertices.get(0).value("surname"));
+    }
+
+    @Test
+    public void testTopologyChangeKeepsSqlOfOtherTables() {
+        this.sqlgGraph.addVertex(T.label, "A", "name", "a1");
+        this.sqlgGraph.addVertex(T.label, "B", "name", "b1");
+        this.sqlgGraph.tx().commit();
+        Assert.assertEquals(1, this.sqlgGraph.traversal().V().hasLabel("A").has("name", "a1").toList().size());
+        Assert.assertEquals(1, this.sqlgGraph.traversal().V().hasLabel("B").has("name", "b1").toList().size());
+        int size = this.sqlgGraph.getSqlCache().size();
+
+        this.sqlgGraph.addVertex(T.label, "A", "name", "a2", "surname", "s2");
+        this.sqlgGraph.tx().commit();
+        Assert.assertEquals(size - 1, this.sqlgGraph.getSqlCache().size());
+        SqlCache sqlCache = this.sqlgGraph.getSqlCache();
+        sqlCache.resetStatistics();
+        Assert.assertEquals(1, this.sqlgGraph.traversal().V().hasLabel("B").has("name", "b1").toList().size());
+        Assert.assertEquals(1, sqlCache.getHits());
+        List<Vertex> vertices = this.sqlgGraph.traversal().V().hasLabel("A").has("name", "a2").toList();
+        Assert.assertEquals("s2", vertices.get(0).value("surname"));
+        Assert.assertEquals(1, sqlCache.getHits());
+    }
+}
@@ -0,0 +1,96 @@
+package org.umlg.sqlg.test.gremlincompile;
+
+import org.apache.commons.configuration.Configuration;
+import org.apache.tinkerpop.gremlin.process.traversal.Order;
+import org.apache.tinkerpop.gremlin.structure.T;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Test;
+import org.umlg.sqlg.structure.SqlgGraph;
+import org.umlg.sqlg.test.BaseTest;
+
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * The distinct queries of a step executed as one 'UNION ALL' statement, see 'query.union.all'.
+ */
+public class TestUnionAllQuery extends BaseTest {
+
+    private SqlgGraph unionAllGraph() {
+        Assume.assumeTrue(this.sqlgGraph.getSqlDialect().supportsUnionAllNullColumns());
+        Configuration unionAllConfiguration = getConfigurationClone();
+        unionAllConfiguration.setProperty("query.union.all", true);
+        SqlgGraph unionAllGraph = SqlgGraph.open(unionAllConfiguration);
+        Assert.assertTrue(unionAllGraph.isQueryUnionAll());
+        return unionAllGraph;
+    }
+
+    @Test
+    public void testGraphStepWithManyLabels() throws Exception {
+        ZonedDateTime zonedDateTime = ZonedDateTime.of(2018, 5, 1, 10, 30, 0, 0, ZoneId.of("Africa/Johannesburg"));
+        this.sqlgGraph.addVertex(T.label, "A", "name", "a1", "age", 1);
+        this.sqlgGraph.addVertex(T.label, "A", "name", "a2", "age", 2);
+        this.sqlgGraph.addVertex(T.label, "B", "name", "b1", "created", zonedDateTime);
+        this.sqlgGraph.addVertex(T.label, "C", "weight", 1.5D);
+        this.sqlgGraph.tx().commit();
+        try (SqlgGraph unionAllGraph = unionAllGraph()) {
+            List<Vertex> vertices = unionAllGraph.traversal().V().hasLabel("A", "B", "C").toList();
+            Assert.assertEquals(4, vertices.size());
+            Map<String, Vertex> byLabel = vertices.stream()
+                    .filter(v -> v.property("name").isPresent())
+                    .collect(Collectors.toMap(v -> v.value("name"), v -> v));
+            Assert.assertEquals(1, byLabel.get("a1").<Integer>value("age").intValue());
+            Assert.assertEquals(2, byLabel.get("a2").<Integer>value("age").intValue());
+            Assert.assertEquals(zonedDateTime, byLabel.get("b1").value("created"));
+            Vertex c = vertices.stream().filter(v -> v.label().equals("C")).findAny().orElseThrow(IllegalStateException::new);
+            Assert.assertEquals(1.5D, c.<Double>value("weight"), 0D);
+
+            Assert.assertEquals(1L, unionAllGraph.traversal().V().hasLabel("A", "B", "C").has("name", "a1").count().next().longValue());
+            Assert.assertEquals(1L, unionAllGraph.traversal().V().hasLabel("A", "B").has("name", "b1").count().next().longValue());
+            //ordered queries are executed on their own
+            Assert.assertEquals(
+                    Arrays.asList("b1", "a2", "a1"),
+                    unionAllGraph.traversal().V().hasLabel("A", "B").order().by("name", Order.decr).values("name").toList()
+            );
+            unionAllGraph.tx().rollback();
+        }
+    }
+
+    @Test
+    public void testVertexStepWithManyEdgeLabels() throws Exception {
+        Vertex a1 = this.sqlgGraph.addVertex(T.label, "A", "name", "a1");
+        Vertex a2 = this.sqlgGraph.addVertex(T.label, "A", "name", "a2");
+        Set<String> expected = new HashSet<>();
+        for (int i = 0; i < 10; i++) {
+            Vertex b = this.sqlgGraph.addVertex(T.label, "B" + i, "name", "b" + i, "index" + i, i);
+            a1.addEdge("ab" + i, b, "weight", i);
+            a2.addEdge("ab" + i, b, "weight", i);
+            expected.add("b" + i);
+        }
+        this.sqlgGraph.tx().commit();
+        try (SqlgGraph unionAllGraph = unionAllGraph()) {
+            Vertex unionA1 = unionAllGraph.traversal().V(a1.id()).next();
+            Set<String> names = unionAllGraph.traversal().V(unionA1).out().<String>values("name").toSet();
+            Assert.assertEquals(expected, names);
+
+            List<Map<String, Vertex>> paths = unionAllGraph.traversal().V().hasLabel("A").as("a").out().as("b").<Vertex>select("a", "b").toList();
+            Assert.assertEquals(20, paths.size());
+            for (Map<String, Vertex> path : paths) {
+                Assert.assertEquals("A", path.get("a").label());
+                String name = path.get("b").value("name");
+                int i = Integer.valueOf(name.substring(1));
+                Assert.assertEquals("B" + i, path.get("b").label());
+                Assert.assertEquals(i, path.get("b").<Integer>value("index" + i).intValue());
+            }
+
+            List<Integer> weights = unionAllGraph.traversal().V().hasLabel("A").outE().<Integer>values("weight").toList();
+            Assert.assertEquals(20, weights.size());
+            Assert.assertEquals(90, weights.stream().mapToInt(Integer::intValue).sum());
+            unionAllGraph.tx().rollback();
+        }
+    }
+}
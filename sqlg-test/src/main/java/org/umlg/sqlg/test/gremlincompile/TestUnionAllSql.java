@@ -0,0 +1,133 @@
+package org.umlg.sqlg.test.gremlincompile;
+
+import org.apache.commons.lang3.tuple.Pair;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.DefaultGraphTraversal;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversal;
+import org.apache.tinkerpop.gremlin.structure.T;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.junit.Assert;
+import org.junit.Test;
+import org.umlg.sqlg.sql.dialect.SqlDialect;
+import org.umlg.sqlg.sql.parse.SchemaTableTree;
+import org.umlg.sqlg.sql.parse.UnionPart;
+import org.umlg.sqlg.step.SqlgGraphStep;
+import org.umlg.sqlg.strategy.SqlgSqlExecutor;
+import org.umlg.sqlg.structure.PropertyType;
+import org.umlg.sqlg.test.BaseTest;
+
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.*;
+
+/**
+ * The 'UNION ALL' statement of a step's distinct queries and how its rows are told apart.
+ * The sql is only generated, not executed, so that it is tested for every dialect.
+ */
+public class TestUnionAllSql extends BaseTest {
+
+    @Test
+    public void testUnionAllSql() {
+        ZonedDateTime zonedDateTime = ZonedDateTime.of(2018, 5, 1, 10, 30, 0, 0, ZoneId.of("Africa/Johannesburg"));
+        this.sqlgGraph.addVertex(T.label, "A", "name", "a1", "age", 1);
+        this.sqlgGraph.addVertex(T.label, "B", "name", "b1", "created", zonedDateTime);
+        this.sqlgGraph.addVertex(T.label, "C", "weight", 1.5D);
+        this.sqlgGraph.tx().commit();
+
+        List<UnionPart> unionParts = unionParts(this.sqlgGraph.traversal().V().hasLabel("A", "B", "C"));
+        Assert.assertEquals(3, unionParts.size());
+        Assert.assertEquals(1, SqlgSqlExecutor.unionAllPartColumn(unionParts));
+
+        SqlDialect sqlDialect = this.sqlgGraph.getSqlDialect();
+        String sql = SqlgSqlExecutor.unionAllSql(sqlDialect, unionParts);
+        String[] selects = sql.split("\nUNION ALL");
+        Assert.assertEquals(3, selects.length);
+
+        //Every part selects every column of the statement, in the same order.
+        List<String> unionColumns = new ArrayList<>();
+        for (UnionPart unionPart : unionParts) {
+            Assert.assertFalse(unionPart.hasParentIndex());
+            Assert.assertFalse(unionPart.getColumns().isEmpty());
+            unionColumns.addAll(unionPart.getColumns().values());
+        }
+        Assert.assertEquals(unionColumns.size(), new HashSet<>(unionColumns).size());
+        for (int i = 0; i < unionParts.size(); i++) {
+            UnionPart unionPart = unionParts.get(i);
+            Assert.assertEquals(i + 1, unionPart.getPart());
+            String partAlias = sqlDialect.maybeWrapInQoutes("u" + unionPart.getPart());
+            String select = selects[i];
+            Assert.assertTrue(select, select.startsWith("\nSELECT\n\t"));
+            Assert.assertTrue(select, select.contains("\nFROM (" + unionPart.getSql()));
+            List<String> columns = Arrays.asList(select.substring("\nSELECT\n\t".length(), select.indexOf("\nFROM (")).split(",\n\t"));
+            Assert.assertEquals(unionColumns.size() + 1, columns.size());
+            Assert.assertEquals(unionPart.getPart() + " AS " + sqlDialect.maybeWrapInQoutes("part"), columns.get(0));
+            int column = 1;
+            for (UnionPart columnsUnionPart : unionParts) {
+                for (Map.Entry<String, String> alias : columnsUnionPart.getColumns().entrySet()) {
+                    String expected;
+                    if (columnsUnionPart == unionPart) {
+                        expected = partAlias + "." + sqlDialect.maybeWrapInQoutes(alias.getKey());
+                    } else {
+                        Pair<PropertyType, Integer> columnType = columnsUnionPart.getColumnType(alias.getValue());
+                        expected = sqlDialect.unionAllNullColumn(columnType.getLeft(), columnType.getRight());
+                    }
+                    Assert.assertEquals(expected + " AS " + sqlDialect.maybeWrapInQoutes(alias.getValue()), columns.get(column++));
+                }
+            }
+        }
+
+        //The columns are typed by their property, a ZonedDateTime has a postfix column for its zone.
+        Set<Pair<PropertyType, Integer>> columnTypes = new HashSet<>();
+        for (UnionPart unionPart : unionParts) {
+            for (String unionColumn : unionPart.getColumns().values()) {
+                columnTypes.add(unionPart.getColumnType(unionColumn));
+            }
+        }
+        Assert.assertTrue(columnTypes.contains(Pair.of(PropertyType.LONG, 0)));
+        Assert.assertTrue(columnTypes.contains(Pair.of(PropertyType.STRING, 0)));
+        Assert.assertTrue(columnTypes.contains(Pair.of(PropertyType.INTEGER, 0)));
+        Assert.assertTrue(columnTypes.contains(Pair.of(PropertyType.DOUBLE, 0)));
+        Assert.assertTrue(columnTypes.contains(Pair.of(PropertyType.ZONEDDATETIME, 0)));
+        Assert.assertTrue(columnTypes.contains(Pair.of(PropertyType.ZONEDDATETIME, 1)));
+    }
+
+    @Test
+    public void testUnionPartAliasMaps() {
+        this.sqlgGraph.addVertex(T.label, "A", "name", "a1");
+        this.sqlgGraph.addVertex(T.label, "B", "name", "b1", "age", 1);
+        this.sqlgGraph.tx().commit();
+
+        List<UnionPart> unionParts = unionParts(this.sqlgGraph.traversal().V().hasLabel("A", "B"));
+        Assert.assertEquals(2, unionParts.size());
+        //A row is loaded with the alias maps of its part, they only hold the part's own columns.
+        for (UnionPart unionPart : unionParts) {
+            unionPart.restoreAliasMaps();
+            Map<String, String> aliasColumnNameMap = unionPart.getRootSchemaTableTree().getAliasColumnNameMap();
+            Assert.assertFalse(aliasColumnNameMap.isEmpty());
+            for (String unionColumn : aliasColumnNameMap.keySet()) {
+                Assert.assertTrue(unionColumn, unionPart.getColumns().containsValue(unionColumn));
+            }
+            String table = SchemaTableTree.ALIAS_SEPARATOR + unionPart.getDistinctQueryStack().getLast().getSchemaTable().getTable() + SchemaTableTree.ALIAS_SEPARATOR;
+            for (String columnName : aliasColumnNameMap.values()) {
+                Assert.assertTrue(columnName, columnName.contains(table));
+            }
+        }
+    }
+
+    /**
+     * The union parts of the traversal's SqlgGraphStep, numbered in the order of its distinct queries.
+     */
+    @SuppressWarnings("unchecked")
+    private List<UnionPart> unionParts(GraphTraversal<Vertex, Vertex> traversal) {
+        DefaultGraphTraversal<Vertex, Vertex> defaultGraphTraversal = (DefaultGraphTraversal<Vertex, Vertex>) traversal;
+        defaultGraphTraversal.applyStrategies();
+        SqlgGraphStep<Vertex, ?> sqlgGraphStep = (SqlgGraphStep<Vertex, ?>) defaultGraphTraversal.getStartStep();
+        List<UnionPart> unionParts = new ArrayList<>();
+        for (SchemaTableTree rootSchemaTableTree : sqlgGraphStep.parseForStrategy()) {
+            for (LinkedList<SchemaTableTree> distinctQueryStack : rootSchemaTableTree.constructDistinctQueries()) {
+                Assert.assertTrue(rootSchemaTableTree.isUnionPart(distinctQueryStack));
+                unionParts.add(rootSchemaTableTree.constructUnionPart(distinctQueryStack, unionParts.size() + 1));
+            }
+        }
+        return unionParts;
+    }
+}
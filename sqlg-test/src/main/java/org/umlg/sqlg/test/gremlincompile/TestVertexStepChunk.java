@@ -0,0 +1,107 @@
+package org.umlg.sqlg.test.gremlincompile;
+
+import org.apache.commons.configuration.Configuration;
+import org.apache.tinkerpop.gremlin.process.traversal.Path;
+import org.apache.tinkerpop.gremlin.process.traversal.Traverser;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.__;
+import org.apache.tinkerpop.gremlin.structure.T;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.junit.Assert;
+import org.junit.Test;
+import org.umlg.sqlg.structure.SqlgGraph;
+import org.umlg.sqlg.test.BaseTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Test that a vertex step queries its incoming starts in chunks of 'vertex.step.chunk.size'.
+ */
+public class TestVertexStepChunk extends BaseTest {
+
+    private static final int CHUNK_SIZE = 3;
+
+    private SqlgGraph openChunkedGraph() {
+        Configuration chunkedConfiguration = getConfigurationClone();
+        chunkedConfiguration.setProperty("vertex.step.chunk.size", CHUNK_SIZE);
+        return SqlgGraph.open(chunkedConfiguration);
+    }
+
+    @Test
+    public void testChunkedResultsAreComplete() throws Exception {
+        List<Vertex> bs = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            Vertex a = this.sqlgGraph.addVertex(T.label, i % 2 == 0 ? "A" : "AA", "number", i);
+            for (int j = 0; j < 2; j++) {
+                Vertex b = this.sqlgGraph.addVertex(T.label, "B", "number", i * 2 + j);
+                a.addEdge("ab", b);
+                bs.add(b);
+            }
+        }
+        this.sqlgGraph.tx().commit();
+        try (SqlgGraph chunkedGraph = openChunkedGraph()) {
+            Assert.assertEquals(CHUNK_SIZE, chunkedGraph.getVertexStepChunkSize());
+
+            List<Path> paths = chunkedGraph.traversal().V().hasLabel("A", "AA").out("ab").path().toList();
+            Assert.assertEquals(20, paths.size());
+            for (Path path : paths) {
+                Vertex a = path.get(0);
+                Vertex b = path.get(1);
+                Assert.assertEquals((int) a.value("number"), (int) b.<Integer>value("number") / 2);
+            }
+            List<Vertex> vertices = chunkedGraph.traversal().V().hasLabel("A", "AA").out("ab").toList();
+            Assert.assertEquals(20, vertices.size());
+            Assert.assertTrue(vertices.containsAll(bs));
+            //The starts are not all consumed by a SqlgGraphStep.
+            vertices = chunkedGraph.traversal().V().hasLabel("A", "AA").map(Traverser::get).out("ab").toList();
+            Assert.assertEquals(20, vertices.size());
+            Assert.assertTrue(vertices.containsAll(bs));
+            Assert.assertEquals(10, chunkedGraph.traversal().V().hasLabel("B").in("ab").dedup().count().next().intValue());
+        }
+    }
+
+    @Test
+    public void testLimitDoesNotConsumeAllStarts() throws Exception {
+        for (int i = 0; i < 20; i++) {
+            Vertex a = this.sqlgGraph.addVertex(T.label, "A", "number", i);
+            Vertex b = this.sqlgGraph.addVertex(T.label, "B", "number", i);
+            a.addEdge("ab", b);
+        }
+        this.sqlgGraph.tx().commit();
+        try (SqlgGraph chunkedGraph = openChunkedGraph()) {
+            AtomicInteger starts = new AtomicInteger();
+            List<Vertex> vertices = chunkedGraph.traversal().V().hasLabel("A")
+                    .sideEffect(t -> starts.incrementAndGet())
+                    .out("ab")
+                    .map(Traverser::get)
+                    .limit(1)
+                    .toList();
+            Assert.assertEquals(1, vertices.size());
+            //The vertex step looks one start ahead of the chunk.
+            Assert.assertTrue(String.valueOf(starts.get()), starts.get() <= CHUNK_SIZE + 1);
+        }
+    }
+
+    @Test
+    public void testRepeatWithChunks() throws Exception {
+        Vertex root = this.sqlgGraph.addVertex(T.label, "A", "name", "root");
+        List<Vertex> level1 = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            Vertex a = this.sqlgGraph.addVertex(T.label, "A", "name", "a" + i);
+            root.addEdge("aa", a);
+            level1.add(a);
+            for (int j = 0; j < 2; j++) {
+                a.addEdge("aa", this.sqlgGraph.addVertex(T.label, "A", "name", "a" + i + "_" + j));
+            }
+        }
+        this.sqlgGraph.tx().commit();
+        try (SqlgGraph chunkedGraph = openChunkedGraph()) {
+            List<Vertex> vertices = chunkedGraph.traversal().V(root).repeat(__.out("aa")).emit().toList();
+            Assert.assertEquals(21, vertices.size());
+            Assert.assertTrue(vertices.containsAll(level1));
+            vertices = chunkedGraph.traversal().V(root).repeat(__.out("aa")).times(2).toList();
+            Assert.assertEquals(14, vertices.size());
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package org.umlg.sqlg.test.gremlincompile;
+
+import org.apache.tinkerpop.gremlin.process.traversal.Order;
+import org.apache.tinkerpop.gremlin.process.traversal.Path;
+import org.apache.tinkerpop.gremlin.structure.T;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Test;
+import org.umlg.sqlg.structure.RecordId;
+import org.umlg.sqlg.test.BaseTest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Test that the start ids and indexes of a vertex step are joined on correctly,
+ * whether they are bound as parameters or written into the sql.
+ */
+public class TestVertexStepStartIds extends BaseTest {
+
+    @Test
+    public void testManyStartsWithHasContainer() {
+        for (int i = 0; i < 100; i++) {
+            Vertex a = this.sqlgGraph.addVertex(T.label, "A", "number", i);
+            for (int j = 0; j < 3; j++) {
+                Vertex b = this.sqlgGraph.addVertex(T.label, "B", "number", j, "parent", i);
+                a.addEdge("ab", b);
+            }
+        }
+        this.sqlgGraph.tx().commit();
+        List<Path> paths = this.sqlgGraph.traversal().V().hasLabel("A").order().by("number", Order.decr)
+                .out("ab").has("number", 1)
+                .path()
+                .toList();
+        Assert.assertEquals(100, paths.size());
+        int expected = 99;
+        for (Path path : paths) {
+            Vertex a = path.get(0);
+            Vertex b = path.get(1);
+            Assert.assertEquals(expected--, (int) a.<Integer>value("number"));
+            Assert.assertEquals(a.<Integer>value("number"), b.<Integer>value("parent"));
+            Assert.assertEquals(1, (int) b.<Integer>value("number"));
+        }
+    }
+
+    @Test
+    public void testUnnestStartIdsAndIndexes() {
+        Assume.assumeTrue(this.sqlgGraph.getSqlDialect().isPostgresql());
+        Assert.assertTrue(this.sqlgGraph.getSqlDialect().supportsArrayParameterValues());
+        for (int i = 0; i < 500; i++) {
+            Vertex a = this.sqlgGraph.addVertex(T.label, "A", "number", i);
+            for (int j = 0; j < 2; j++) {
+                a.addEdge("ab", this.sqlgGraph.addVertex(T.label, "B", "number", j));
+            }
+        }
+        this.sqlgGraph.tx().commit();
+        //every A is a start of the in step twice, once per B
+        List<Path> paths = this.sqlgGraph.traversal().V().hasLabel("A").order().by("number", Order.decr)
+                .out("ab").order().by("number").in("ab")
+                .path()
+                .toList();
+        Assert.assertEquals(1000, paths.size());
+        for (int i = 0; i < paths.size(); i++) {
+            Path path = paths.get(i);
+            Assert.assertEquals(path.<Vertex>get(0), path.<Vertex>get(2));
+            Assert.assertEquals(i < 500 ? 0 : 1, (int) path.<Vertex>get(1).<Integer>value("number"));
+        }
+    }
+
+    @Test
+    public void testSingleStart() {
+        Vertex a = this.sqlgGraph.addVertex(T.label, "A");
+        Vertex b1 = this.sqlgGraph.addVertex(T.label, "B", "number", 1);
+        Vertex b2 = this.sqlgGraph.addVertex(T.label, "B", "number", 2);
+        a.addEdge("ab", b1);
+        a.addEdge("ab", b2);
+        this.sqlgGraph.tx().commit();
+        List<Vertex> vertices = this.sqlgGraph.traversal().V(a).out("ab").has("number", 2).toList();
+        Assert.assertEquals(1, vertices.size());
+        Assert.assertEquals(b2, vertices.get(0));
+    }
+
+    @Test
+    public void testVerticesByIdOverLabels() {
+        List<Object> ids = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            ids.add(this.sqlgGraph.addVertex(T.label, i % 2 == 0 ? "A" : "B", "number", i).id());
+        }
+        this.sqlgGraph.tx().commit();
+        List<Vertex> vertices = this.sqlgGraph.traversal().V(ids.toArray()).toList();
+        Assert.assertEquals(50, vertices.size());
+        for (Vertex vertex : vertices) {
+            Assert.assertTrue(ids.contains(vertex.id()));
+            RecordId recordId = (RecordId) vertex.id();
+            Assert.assertEquals(recordId, RecordId.from(recordId.toString()));
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package org.umlg.sqlg.test.index;
+
+import org.apache.tinkerpop.gremlin.structure.T;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Test;
+import org.umlg.sqlg.predicate.Text;
+import org.umlg.sqlg.structure.SqlgGraph;
+import org.umlg.sqlg.structure.topology.Index;
+import org.umlg.sqlg.structure.topology.IndexType;
+import org.umlg.sqlg.structure.topology.VertexLabel;
+import org.umlg.sqlg.test.BaseTest;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Test the trigram and lower(column) indexes for the {@link Text} predicates.
+ */
+public class TestTextIndex extends BaseTest {
+
+    @Test
+    public void testUnsupportedIndexTypeFails() {
+        Assume.assumeFalse(this.sqlgGraph.getSqlDialect().supportsTrigramIndex());
+        this.sqlgGraph.addVertex(T.label, "Person", "name", "John");
+        this.sqlgGraph.tx().commit();
+        VertexLabel vertexLabel = this.sqlgGraph.getTopology().getVertexLabel(this.sqlgGraph.getSqlDialect().getPublicSchema(), "Person").get();
+        try {
+            vertexLabel.ensureIndexExists(IndexType.GIN_TRIGRAM, Collections.singletonList(vertexLabel.getProperty("name").get()));
+            Assert.fail("trigram indexes are not supported by " + this.sqlgGraph.getSqlDialect().dialectName());
+        } catch (IllegalStateException e) {
+            //expected
+        }
+        Assert.assertTrue(vertexLabel.getIndexes().isEmpty());
+    }
+
+    @Test
+    public void testLowerIndex() throws Exception {
+        Assume.assumeTrue(this.sqlgGraph.getSqlDialect().supportsExpressionIndex());
+        Vertex john = this.sqlgGraph.addVertex(T.label, "Person", "name", "John");
+        this.sqlgGraph.addVertex(T.label, "Person", "name", "Peter");
+        this.sqlgGraph.tx().commit();
+        VertexLabel vertexLabel = this.sqlgGraph.getTopology().getVertexLabel(this.sqlgGraph.getSqlDialect().getPublicSchema(), "Person").get();
+        vertexLabel.ensureIndexExists(IndexType.NON_UNIQUE, Collections.singletonList(vertexLabel.getProperty("name").get()));
+        Index lowerIndex = vertexLabel.ensureIndexExists(IndexType.LOWER, Collections.singletonList(vertexLabel.getProperty("name").get()));
+        this.sqlgGraph.tx().commit();
+        Assert.assertEquals(2, vertexLabel.getIndexes().size());
+        Assert.assertEquals(IndexType.LOWER, lowerIndex.getIndexType());
+
+        List<Vertex> vertices = this.sqlgGraph.traversal().V().hasLabel("Person").has("name", Text.containsCIS("OH")).toList();
+        Assert.assertEquals(Collections.singletonList(john), vertices);
+        vertices = this.sqlgGraph.traversal().V().hasLabel("Person").has("name", Text.ncontainsCIS("OH")).toList();
+        Assert.assertEquals(1, vertices.size());
+        Assert.assertNotEquals(john, vertices.get(0));
+
+        //The leading wildcard of containsCIS is served by the index.
+        if (isPostgres()) {
+            Connection conn = this.sqlgGraph.tx().getConnection();
+            try (Statement statement = conn.createStatement()) {
+                //There are too few rows for the planner to choose the index by itself.
+                statement.execute("SET LOCAL enable_seqscan = off");
+                ResultSet rs = statement.executeQuery("EXPLAIN SELECT * FROM \"public\".\"V_Person\" WHERE lower(\"public\".\"V_Person\".\"name\") like lower('%OH%')");
+                StringBuilder plan = new StringBuilder();
+                while (rs.next()) {
+                    plan.append(rs.getString(1)).append("\n");
+                }
+                Assert.assertTrue(plan.toString(), plan.toString().contains(lowerIndex.getName()));
+            }
+            this.sqlgGraph.tx().rollback();
+        }
+
+        this.sqlgGraph.close();
+        this.sqlgGraph = SqlgGraph.open(configuration);
+        vertexLabel = this.sqlgGraph.getTopology().getVertexLabel(this.sqlgGraph.getSqlDialect().getPublicSchema(), "Person").get();
+        Assert.assertEquals(IndexType.LOWER, vertexLabel.getIndex(lowerIndex.getName()).get().getIndexType());
+    }
+
+    @Test
+    public void testTrigramIndex() throws Exception {
+        Assume.assumeTrue(this.sqlgGraph.getSqlDialect().supportsTrigramIndex());
+        Vertex john = this.sqlgGraph.addVertex(T.label, "Person", "name", "John");
+        this.sqlgGraph.addVertex(T.label, "Person", "name", "Peter");
+        this.sqlgGraph.tx().commit();
+        VertexLabel vertexLabel = this.sqlgGraph.getTopology().getVertexLabel(this.sqlgGraph.getSqlDialect().getPublicSchema(), "Person").get();
+        Index ginIndex = vertexLabel.ensureIndexExists(IndexType.GIN_TRIGRAM, Collections.singletonList(vertexLabel.getProperty("name").get()));
+        Index gistIndex = vertexLabel.ensureIndexExists(IndexType.GIST_TRIGRAM, Collections.singletonList(vertexLabel.getProperty("name").get()));
+        this.sqlgGraph.tx().commit();
+        Assert.assertNotEquals(ginIndex.getName(), gistIndex.getName());
+
+        Assert.assertEquals(Collections.singletonList(john), this.sqlgGraph.traversal().V().hasLabel("Person").has("name", Text.contains("oh")).toList());
+        Assert.assertEquals(Collections.singletonList(john), this.sqlgGraph.traversal().V().hasLabel("Person").has("name", Text.startsWith("Jo")).toList());
+        Assert.assertEquals(Collections.singletonList(john), this.sqlgGraph.traversal().V().hasLabel("Person").has("name", Text.containsCIS("OH")).toList());
+
+        this.sqlgGraph.close();
+        this.sqlgGraph = SqlgGraph.open(configuration);
+        vertexLabel = this.sqlgGraph.getTopology().getVertexLabel(this.sqlgGraph.getSqlDialect().getPublicSchema(), "Person").get();
+        Assert.assertEquals(IndexType.GIN_TRIGRAM, vertexLabel.getIndex(ginIndex.getName()).get().getIndexType());
+        Assert.assertEquals(IndexType.GIST_TRIGRAM, vertexLabel.getIndex(gistIndex.getName()).get().getIndexType());
+    }
+}
@@ -0,0 +1,94 @@
+package org.umlg.sqlg.test.io;
+
+import org.apache.tinkerpop.gremlin.AbstractGremlinTest;
+import org.apache.tinkerpop.gremlin.structure.T;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.structure.io.graphson.GraphSONIo;
+import org.apache.tinkerpop.gremlin.structure.io.graphson.GraphSONVersion;
+import org.apache.tinkerpop.gremlin.structure.io.gryo.GryoIo;
+import org.junit.Assert;
+import org.junit.Test;
+import org.umlg.sqlg.structure.SqlgGraphReader;
+import org.umlg.sqlg.test.BaseTest;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+
+/**
+ * Bulk loads tinkerpop's sample graphs with a small batch size so that every label is flushed many times
+ * and the edges are resolved across several spill partitions.
+ */
+public class TestSqlgGraphReader extends BaseTest {
+
+    @Test
+    public void testReadModernGryo() throws IOException {
+        SqlgGraphReader reader = SqlgGraphReader.build()
+                .reader(this.sqlgGraph.io(GryoIo.build()).reader().create())
+                .batchSize(2)
+                .partitions(3)
+                .create();
+        try (InputStream stream = AbstractGremlinTest.class.getResourceAsStream("/tinkerpop-modern.kryo")) {
+            reader.readGraph(stream, this.sqlgGraph);
+        }
+        assertModernGraph(this.sqlgGraph, true, false);
+    }
+
+    @Test
+    public void testReadGratefulDeadGraphSON() throws IOException {
+        SqlgGraphReader reader = SqlgGraphReader.build()
+                .reader(this.sqlgGraph.io(GraphSONIo.build(GraphSONVersion.V3_0)).reader().create())
+                .batchSize(100)
+                .partitions(4)
+                .create();
+        try (InputStream stream = AbstractGremlinTest.class.getResourceAsStream("/grateful-dead-v3d0.json")) {
+            reader.readGraph(stream, this.sqlgGraph);
+        }
+        Assert.assertEquals(808L, this.sqlgGraph.traversal().V().count().next().longValue());
+        Assert.assertEquals(8049L, this.sqlgGraph.traversal().E().count().next().longValue());
+        Assert.assertEquals(8049L, this.sqlgGraph.traversal().V().outE().inV().count().next().longValue());
+        Assert.assertEquals(7047L, this.sqlgGraph.traversal().E().hasLabel("followedBy").count().next().longValue());
+        Assert.assertEquals(501L, this.sqlgGraph.traversal().V().hasLabel("song").out("sungBy").count().next().longValue());
+    }
+
+    /**
+     * One edge label between several pairs of vertex labels. On postgres the edges are streamed, where every pair must be its own stream.
+     */
+    @Test
+    public void testReadEdgeLabelBetweenVertexLabels() throws IOException {
+        for (int i = 0; i < 5; i++) {
+            Vertex a = this.sqlgGraph.addVertex(T.label, "A", "name", "a" + i);
+            Vertex b = this.sqlgGraph.addVertex(T.label, "B", "name", "b" + i);
+            Vertex c = this.sqlgGraph.addVertex(T.label, "C", "name", "c" + i);
+            a.addEdge("link", b, "weight", i);
+            a.addEdge("link", c, "weight", i);
+            c.addEdge("link", b, "weight", i);
+            b.addEdge("link", a, "weight", i);
+        }
+        this.sqlgGraph.tx().commit();
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        this.sqlgGraph.io(GryoIo.build()).writer().create().writeGraph(outputStream, this.sqlgGraph);
+        this.sqlgGraph.traversal().V().drop().iterate();
+        this.sqlgGraph.tx().commit();
+
+        SqlgGraphReader reader = SqlgGraphReader.build()
+                .reader(this.sqlgGraph.io(GryoIo.build()).reader().create())
+                .batchSize(3)
+                .partitions(2)
+                .create();
+        reader.readGraph(new ByteArrayInputStream(outputStream.toByteArray()), this.sqlgGraph);
+        Assert.assertEquals(15L, this.sqlgGraph.traversal().V().count().next().longValue());
+        Assert.assertEquals(20L, this.sqlgGraph.traversal().E().count().next().longValue());
+        for (int i = 0; i < 5; i++) {
+            List<Object> names = this.sqlgGraph.traversal().V().has("A", "name", "a" + i).out("link").values("name").toList();
+            Assert.assertEquals(2, names.size());
+            Assert.assertTrue(names.contains("b" + i));
+            Assert.assertTrue(names.contains("c" + i));
+            Assert.assertEquals("b" + i, this.sqlgGraph.traversal().V().has("C", "name", "c" + i).out("link").values("name").next());
+            Assert.assertEquals("a" + i, this.sqlgGraph.traversal().V().has("B", "name", "b" + i).out("link").values("name").next());
+            Assert.assertEquals(i, this.sqlgGraph.traversal().V().has("B", "name", "b" + i).outE("link").values("weight").next());
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package org.umlg.sqlg.test.io;
+
+import org.apache.tinkerpop.gremlin.structure.Direction;
+import org.apache.tinkerpop.gremlin.structure.T;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.structure.io.GraphReader;
+import org.apache.tinkerpop.gremlin.structure.io.graphson.GraphSONIo;
+import org.apache.tinkerpop.gremlin.structure.io.graphson.GraphSONVersion;
+import org.apache.tinkerpop.gremlin.structure.io.gryo.GryoIo;
+import org.apache.tinkerpop.gremlin.structure.util.Attachable;
+import org.apache.tinkerpop.gremlin.util.iterator.IteratorUtils;
+import org.junit.Assert;
+import org.junit.Test;
+import org.umlg.sqlg.structure.SqlgGraphWriter;
+import org.umlg.sqlg.test.BaseTest;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Exports with a fetch size smaller than the tables so the cursors are read over several round trips.
+ */
+public class TestSqlgGraphWriter extends BaseTest {
+
+    @Test
+    public void testWriteModernGraphSON() throws IOException {
+        loadModern();
+        this.sqlgGraph.tx().commit();
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        SqlgGraphWriter.build()
+                .writer(this.sqlgGraph.io(GraphSONIo.build(GraphSONVersion.V3_0)).writer().create())
+                .fetchSize(2)
+                .create()
+                .writeGraph(outputStream, this.sqlgGraph);
+        this.sqlgGraph.tx().rollback();
+
+        GraphReader reader = this.sqlgGraph.io(GraphSONIo.build(GraphSONVersion.V3_0)).reader().create();
+        Iterator<Vertex> vertices = reader.readVertices(new ByteArrayInputStream(outputStream.toByteArray()), Attachable::get, Attachable::get, Direction.BOTH);
+        int vertexCount = 0;
+        int outEdgeCount = 0;
+        int inEdgeCount = 0;
+        while (vertices.hasNext()) {
+            Vertex vertex = vertices.next();
+            vertexCount++;
+            outEdgeCount += IteratorUtils.count(vertex.edges(Direction.OUT));
+            inEdgeCount += IteratorUtils.count(vertex.edges(Direction.IN));
+            if (vertex.id().equals(convertToVertexId("marko"))) {
+                Assert.assertEquals("person", vertex.label());
+                Assert.assertEquals(29, (int) vertex.value("age"));
+                Assert.assertEquals(3, IteratorUtils.count(vertex.edges(Direction.OUT)));
+                Assert.assertEquals(0, IteratorUtils.count(vertex.edges(Direction.IN)));
+            }
+        }
+        Assert.assertEquals(6, vertexCount);
+        Assert.assertEquals(6, outEdgeCount);
+        Assert.assertEquals(6, inEdgeCount);
+    }
+
+    @Test
+    public void testWriteSelfLoop() throws IOException {
+        Vertex a1 = this.sqlgGraph.addVertex(T.label, "A", "name", "a1");
+        Vertex a2 = this.sqlgGraph.addVertex(T.label, "A", "name", "a2");
+        a1.addEdge("ab", a1, "weight", 1);
+        a1.addEdge("ab", a2, "weight", 2);
+        this.sqlgGraph.tx().commit();
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        SqlgGraphWriter.build()
+                .writer(this.sqlgGraph.io(GraphSONIo.build(GraphSONVersion.V3_0)).writer().create())
+                .create()
+                .writeGraph(outputStream, this.sqlgGraph);
+        this.sqlgGraph.tx().rollback();
+
+        GraphReader reader = this.sqlgGraph.io(GraphSONIo.build(GraphSONVersion.V3_0)).reader().create();
+        Iterator<Vertex> vertices = reader.readVertices(new ByteArrayInputStream(outputStream.toByteArray()), Attachable::get, Attachable::get, Direction.BOTH);
+        int vertexCount = 0;
+        while (vertices.hasNext()) {
+            Vertex vertex = vertices.next();
+            vertexCount++;
+            if (vertex.id().equals(a1.id())) {
+                Assert.assertEquals(2, IteratorUtils.count(vertex.edges(Direction.OUT)));
+                Assert.assertEquals(1, IteratorUtils.count(vertex.edges(Direction.IN)));
+                Assert.assertEquals(1, (int) vertex.edges(Direction.IN).next().<Integer>value("weight"));
+            } else {
+                Assert.assertEquals(0, IteratorUtils.count(vertex.edges(Direction.OUT)));
+                Assert.assertEquals(1, IteratorUtils.count(vertex.edges(Direction.IN)));
+            }
+        }
+        Assert.assertEquals(2, vertexCount);
+    }
+
+    @Test
+    public void testWriteGratefulDeadGryo() throws IOException {
+        loadGratefulDead();
+        this.sqlgGraph.tx().commit();
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        SqlgGraphWriter.build()
+                .writer(this.sqlgGraph.io(GryoIo.build()).writer().create())
+                .fetchSize(100)
+                .create()
+                .writeGraph(outputStream, this.sqlgGraph);
+        this.sqlgGraph.tx().rollback();
+
+        GraphReader reader = this.sqlgGraph.io(GryoIo.build()).reader().create();
+        Iterator<Vertex> vertices = reader.readVertices(new ByteArrayInputStream(outputStream.toByteArray()), Attachable::get, Attachable::get, Direction.BOTH);
+        long vertexCount = 0;
+        long outEdgeCount = 0;
+        long inEdgeCount = 0;
+        while (vertices.hasNext()) {
+            Vertex vertex = vertices.next();
+            vertexCount++;
+            outEdgeCount += IteratorUtils.count(vertex.edges(Direction.OUT));
+            inEdgeCount += IteratorUtils.count(vertex.edges(Direction.IN));
+        }
+        Assert.assertEquals(808L, vertexCount);
+        Assert.assertEquals(8049L, outEdgeCount);
+        Assert.assertEquals(8049L, inEdgeCount);
+    }
+
+    @Test
+    public void testWriteCsv() throws IOException {
+        loadModern();
+        this.sqlgGraph.tx().commit();
+        Path directory = Files.createTempDirectory("sqlg-csv");
+        SqlgGraphWriter.build().fetchSize(2).create().writeCsv(directory, this.sqlgGraph);
+        this.sqlgGraph.tx().rollback();
+        String publicSchema = this.sqlgGraph.getSqlDialect().getPublicSchema();
+        List<String> persons = Files.readAllLines(directory.resolve(publicSchema + ".V_person.csv"), StandardCharsets.UTF_8);
+        Assert.assertEquals(5, persons.size());
+        Assert.assertTrue(persons.get(0).startsWith("ID,"));
+        List<String> knows = Files.readAllLines(directory.resolve(publicSchema + ".E_knows.csv"), StandardCharsets.UTF_8);
+        Assert.assertEquals(3, knows.size());
+        Assert.assertTrue(knows.get(0).startsWith("ID,OUT,IN"));
+        Files.list(directory).forEach(p -> p.toFile().delete());
+        Files.delete(directory);
+    }
+}
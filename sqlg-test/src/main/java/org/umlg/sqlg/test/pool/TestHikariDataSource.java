@@ -0,0 +1,41 @@
+package org.umlg.sqlg.test.pool;
+
+import org.apache.commons.configuration.BaseConfiguration;
+import org.apache.commons.configuration.Configuration;
+import org.apache.commons.configuration.ConfigurationUtils;
+import org.apache.tinkerpop.gremlin.structure.T;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.junit.Assert;
+import org.junit.Test;
+import org.umlg.sqlg.structure.SqlgGraph;
+import org.umlg.sqlg.structure.ds.HikariSqlgDataSource;
+import org.umlg.sqlg.test.BaseTest;
+
+/**
+ * Opens a graph on the HikariCP pool and checks it behaves like the default c3p0 one.
+ */
+public class TestHikariDataSource extends BaseTest {
+
+    @Test
+    public void testHikariPool() throws Exception {
+        Configuration hikariConfiguration = new BaseConfiguration();
+        ConfigurationUtils.copy(configuration, hikariConfiguration);
+        hikariConfiguration.setProperty("jdbc.factory", "org.umlg.sqlg.structure.ds.HikariDataSourceFactory");
+        hikariConfiguration.setProperty("maxPoolSize", 5);
+        try (SqlgGraph hikariGraph = SqlgGraph.open(hikariConfiguration)) {
+            Assert.assertTrue(hikariGraph.getSqlgDataSource() instanceof HikariSqlgDataSource);
+            Vertex a = hikariGraph.addVertex(T.label, "A", "name", "a");
+            hikariGraph.tx().commit();
+            Assert.assertEquals(a, hikariGraph.traversal().V().hasLabel("A").has("name", "a").next());
+            hikariGraph.tx().rollback();
+
+            String stats = hikariGraph.getSqlgDataSource().getPoolStatsAsJson();
+            Assert.assertTrue(stats.contains("\"numMaxPoolSize\":\"5\""));
+            Assert.assertTrue(stats.contains("\"numThreadsAwaitingConnection\""));
+
+            hikariGraph.getSqlgDataSource().softResetPool();
+            Assert.assertEquals(1L, hikariGraph.traversal().V().hasLabel("A").count().next().longValue());
+            hikariGraph.tx().rollback();
+        }
+    }
+}
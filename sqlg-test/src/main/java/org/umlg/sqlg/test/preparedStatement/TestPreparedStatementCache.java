@@ -0,0 +1,93 @@
+package org.umlg.sqlg.test.preparedStatement;
+
+import org.apache.tinkerpop.gremlin.structure.T;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.junit.Assert;
+import org.junit.Test;
+import org.umlg.sqlg.structure.RecordId;
+import org.umlg.sqlg.structure.SqlgVertex;
+import org.umlg.sqlg.test.BaseTest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Test the reuse of prepared statements within a transaction.
+ */
+public class TestPreparedStatementCache extends BaseTest {
+
+    @Test
+    public void testInsertAndUpdateReuseStatement() {
+        this.sqlgGraph.addVertex(T.label, "A", "name", "a");
+        this.sqlgGraph.tx().commit();
+
+        long hits = this.sqlgGraph.tx().getPreparedStatementCacheHits();
+        List<Vertex> vertices = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            vertices.add(this.sqlgGraph.addVertex(T.label, "A", "name", "a" + i));
+        }
+        Assert.assertTrue(this.sqlgGraph.tx().getPreparedStatementCacheHits() - hits >= 9);
+        hits = this.sqlgGraph.tx().getPreparedStatementCacheHits();
+        for (Vertex vertex : vertices) {
+            vertex.property("name", "b");
+        }
+        Assert.assertTrue(this.sqlgGraph.tx().getPreparedStatementCacheHits() - hits >= 9);
+        this.sqlgGraph.tx().commit();
+        Assert.assertTrue(this.sqlgGraph.tx().getPreparedStatementCache().isEmpty());
+        Assert.assertEquals(10, this.sqlgGraph.traversal().V().hasLabel("A").has("name", "b").count().next().intValue());
+    }
+
+    @Test
+    public void testLoadReuseStatement() {
+        List<RecordId> recordIds = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            recordIds.add((RecordId) this.sqlgGraph.addVertex(T.label, "A", "name", "a" + i).id());
+        }
+        this.sqlgGraph.tx().commit();
+        this.sqlgGraph.tx().readWrite();
+        long hits = this.sqlgGraph.tx().getPreparedStatementCacheHits();
+        for (int i = 0; i < 10; i++) {
+            SqlgVertex sqlgVertex = SqlgVertex.of(this.sqlgGraph, recordIds.get(i).getId(), this.sqlgGraph.getSqlDialect().getPublicSchema(), "A");
+            Assert.assertEquals("a" + i, sqlgVertex.value("name"));
+        }
+        Assert.assertTrue(this.sqlgGraph.tx().getPreparedStatementCacheHits() - hits >= 9);
+        Assert.assertTrue(this.sqlgGraph.tx().getPreparedStatementCacheHitRate() > 0d);
+        this.sqlgGraph.tx().rollback();
+    }
+
+    @Test
+    public void testTopologyChangeInvalidatesStatements() {
+        Vertex a1 = this.sqlgGraph.addVertex(T.label, "A", "name", "a1");
+        Vertex a2 = this.sqlgGraph.addVertex(T.label, "A", "name", "a2");
+        this.sqlgGraph.tx().commit();
+        this.sqlgGraph.tx().readWrite();
+        SqlgVertex sqlgVertex = SqlgVertex.of(this.sqlgGraph, ((RecordId) a1.id()).getId(), this.sqlgGraph.getSqlDialect().getPublicSchema(), "A");
+        Assert.assertEquals("a1", sqlgVertex.value("name"));
+        a2.property("surname", "s2");
+        sqlgVertex = SqlgVertex.of(this.sqlgGraph, ((RecordId) a2.id()).getId(), this.sqlgGraph.getSqlDialect().getPublicSchema(), "A");
+        Assert.assertEquals("s2", sqlgVertex.value("surname"));
+        this.sqlgGraph.tx().commit();
+        Assert.assertEquals("s2", this.sqlgGraph.traversal().V(a2.id()).next().value("surname"));
+    }
+
+    @Test
+    public void testTopologyChangeKeepsStatementsOfOtherTables() {
+        Vertex a = this.sqlgGraph.addVertex(T.label, "A", "name", "a");
+        Vertex b = this.sqlgGraph.addVertex(T.label, "B", "name", "b");
+        this.sqlgGraph.tx().commit();
+        this.sqlgGraph.tx().readWrite();
+        String publicSchema = this.sqlgGraph.getSqlDialect().getPublicSchema();
+        Assert.assertEquals("a", SqlgVertex.of(this.sqlgGraph, ((RecordId) a.id()).getId(), publicSchema, "A").value("name"));
+        Assert.assertEquals("b", SqlgVertex.of(this.sqlgGraph, ((RecordId) b.id()).getId(), publicSchema, "B").value("name"));
+
+        //Only the statements that reference 'A' are closed.
+        a.property("surname", "s");
+        long hits = this.sqlgGraph.tx().getPreparedStatementCacheHits();
+        Assert.assertEquals("b", SqlgVertex.of(this.sqlgGraph, ((RecordId) b.id()).getId(), publicSchema, "B").value("name"));
+        Assert.assertEquals(hits + 1, this.sqlgGraph.tx().getPreparedStatementCacheHits());
+        long misses = this.sqlgGraph.tx().getPreparedStatementCacheMisses();
+        Assert.assertEquals("s", SqlgVertex.of(this.sqlgGraph, ((RecordId) a.id()).getId(), publicSchema, "A").value("surname"));
+        Assert.assertEquals(misses + 1, this.sqlgGraph.tx().getPreparedStatementCacheMisses());
+        this.sqlgGraph.tx().commit();
+    }
+}
@@ -0,0 +1,78 @@
+package org.umlg.sqlg.test.properties;
+
+import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.Property;
+import org.apache.tinkerpop.gremlin.structure.T;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.structure.VertexProperty;
+import org.junit.Assert;
+import org.junit.Test;
+import org.umlg.sqlg.structure.RecordId;
+import org.umlg.sqlg.test.BaseTest;
+
+import java.util.*;
+
+/**
+ * Test that elements of the same label sharing a property layout keep their own values.
+ */
+public class TestPropertyLayout extends BaseTest {
+
+    @Test
+    public void testElementsOfALabelKeepTheirOwnProperties() {
+        Vertex a1 = this.sqlgGraph.addVertex(T.label, "A", "name", "a1");
+        Vertex a2 = this.sqlgGraph.addVertex(T.label, "A", "surname", "s2");
+        Vertex a3 = this.sqlgGraph.addVertex(T.label, "A", "name", "a3", "surname", "s3", "age", 3);
+        Edge e = a1.addEdge("A", a2, "name", "e1");
+        this.sqlgGraph.tx().commit();
+
+        List<Vertex> vertices = this.sqlgGraph.traversal().V().hasLabel("A").toList();
+        Assert.assertEquals(3, vertices.size());
+        for (Vertex vertex : vertices) {
+            if (vertex.equals(a1)) {
+                Assert.assertEquals(Collections.singleton("name"), vertex.keys());
+                Assert.assertEquals("a1", vertex.value("name"));
+                Assert.assertFalse(vertex.property("surname").isPresent());
+            } else if (vertex.equals(a2)) {
+                Assert.assertEquals(Collections.singleton("surname"), vertex.keys());
+                Assert.assertEquals("s2", vertex.value("surname"));
+            } else {
+                Assert.assertEquals(new HashSet<>(Arrays.asList("name", "surname", "age")), vertex.keys());
+                Assert.assertEquals(3, (int) vertex.value("age"));
+            }
+        }
+        Edge edge = this.sqlgGraph.traversal().E().hasLabel("A").next();
+        Assert.assertEquals(e, edge);
+        Assert.assertEquals(Collections.singleton("name"), edge.keys());
+        Assert.assertEquals("e1", edge.value("name"));
+        Assert.assertSame(((RecordId) vertices.get(0).id()).getSchemaTable(), ((RecordId) vertices.get(1).id()).getSchemaTable());
+
+        //a property added to one element does not show up on the others.
+        a2.property("age", 2);
+        this.sqlgGraph.tx().commit();
+        Assert.assertEquals(2, (int) this.sqlgGraph.traversal().V(a2).next().value("age"));
+        Assert.assertFalse(this.sqlgGraph.traversal().V(a1).next().property("age").isPresent());
+
+        VertexProperty<String> surname = a3.property("surname");
+        surname.remove();
+        this.sqlgGraph.tx().commit();
+        Vertex vertex = this.sqlgGraph.traversal().V(a3).next();
+        Assert.assertEquals(new HashSet<>(Arrays.asList("name", "age")), vertex.keys());
+        Iterator<? extends Property<Object>> properties = vertex.properties();
+        int count = 0;
+        while (properties.hasNext()) {
+            Assert.assertNotNull(properties.next().value());
+            count++;
+        }
+        Assert.assertEquals(2, count);
+    }
+
+    @Test
+    public void testRollbackClearsProperties() {
+        Vertex a = this.sqlgGraph.addVertex(T.label, "A", "name", "a");
+        this.sqlgGraph.tx().commit();
+        a.property("name", "b");
+        Assert.assertEquals("b", a.value("name"));
+        this.sqlgGraph.tx().rollback();
+        Assert.assertEquals("a", a.value("name"));
+    }
+}
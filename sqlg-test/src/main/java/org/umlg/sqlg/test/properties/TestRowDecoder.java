@@ -0,0 +1,71 @@
+package org.umlg.sqlg.test.properties;
+
+import org.apache.tinkerpop.gremlin.process.traversal.Path;
+import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.T;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.junit.Assert;
+import org.junit.Test;
+import org.umlg.sqlg.test.BaseTest;
+
+import java.time.*;
+import java.util.List;
+
+/**
+ * Test that the columns of a query's rows are loaded into the right properties, also when the columns differ between
+ * the queries on a label.
+ */
+public class TestRowDecoder extends BaseTest {
+
+    @Test
+    public void testPostFixedColumns() {
+        ZonedDateTime zonedDateTime = ZonedDateTime.of(LocalDateTime.of(2018, 1, 2, 3, 4, 5), ZoneId.of("Africa/Harare"));
+        Period period = Period.of(1, 2, 3);
+        Duration duration = Duration.ofSeconds(10, 20);
+        Vertex a = this.sqlgGraph.addVertex(T.label, "A", "name", "a", "zonedDateTime", zonedDateTime, "period", period, "duration", duration);
+        Vertex b = this.sqlgGraph.addVertex(T.label, "B", "name", "b", "zonedDateTime", zonedDateTime, "period", period, "duration", duration);
+        a.addEdge("ab", b, "period", period);
+        this.sqlgGraph.tx().commit();
+
+        List<Path> paths = this.sqlgGraph.traversal().V().hasLabel("A").as("a").outE("ab").as("e").inV().as("b").path().toList();
+        Assert.assertEquals(1, paths.size());
+        Path path = paths.get(0);
+        for (Vertex vertex : new Vertex[]{path.get(0), path.get(2)}) {
+            Assert.assertEquals(zonedDateTime, vertex.value("zonedDateTime"));
+            Assert.assertEquals(period, vertex.value("period"));
+            Assert.assertEquals(duration, vertex.value("duration"));
+        }
+        Assert.assertEquals("a", path.<Vertex>get(0).value("name"));
+        Assert.assertEquals("b", path.<Vertex>get(2).value("name"));
+        Edge edge = path.get(1);
+        Assert.assertEquals(period, edge.value("period"));
+        Assert.assertEquals(a, edge.outVertex());
+        Assert.assertEquals(b, edge.inVertex());
+
+        List<Edge> edges = this.sqlgGraph.traversal().E().toList();
+        Assert.assertEquals(1, edges.size());
+        Assert.assertEquals(period, edges.get(0).value("period"));
+        Assert.assertEquals(a, edges.get(0).outVertex());
+        Assert.assertEquals(b, edges.get(0).inVertex());
+    }
+
+    @Test
+    public void testColumnsAddedBetweenQueries() {
+        this.sqlgGraph.addVertex(T.label, "A", "name", "a1");
+        this.sqlgGraph.tx().commit();
+        List<Vertex> vertices = this.sqlgGraph.traversal().V().hasLabel("A").toList();
+        Assert.assertEquals(1, vertices.size());
+        Assert.assertEquals("a1", vertices.get(0).value("name"));
+
+        this.sqlgGraph.addVertex(T.label, "A", "surname", "s2", "age", 2);
+        this.sqlgGraph.tx().commit();
+        vertices = this.sqlgGraph.traversal().V().hasLabel("A").has("age", 2).toList();
+        Assert.assertEquals(1, vertices.size());
+        Assert.assertEquals("s2", vertices.get(0).value("surname"));
+        Assert.assertEquals(2, (int) vertices.get(0).value("age"));
+        Assert.assertFalse(vertices.get(0).property("name").isPresent());
+        Assert.assertEquals(2, this.sqlgGraph.traversal().V().hasLabel("A").toList().size());
+        List<Vertex> all = this.sqlgGraph.traversal().V().toList();
+        Assert.assertEquals(2, all.size());
+    }
+}
@@ -0,0 +1,177 @@
+package org.umlg.sqlg.test.repeatstep;
+
+import org.apache.tinkerpop.gremlin.process.traversal.P;
+import org.apache.tinkerpop.gremlin.process.traversal.Path;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.DefaultGraphTraversal;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversal;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversalSource;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.__;
+import org.apache.tinkerpop.gremlin.structure.T;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+import org.umlg.sqlg.step.barrier.SqlgRecursiveRepeatStepBarrier;
+import org.umlg.sqlg.strategy.barrier.SqlgRepeatStepStrategy;
+import org.umlg.sqlg.test.BaseTest;
+
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * Test repeat steps over a hierarchy that are executed as one recursive query.
+ * The results are compared to TinkerPop's own RepeatStep.
+ */
+public class TestRecursiveRepeatStep extends BaseTest {
+
+    private Vertex ceo;
+    private Vertex vp1;
+    private Vertex vp2;
+    private Vertex m1;
+    private Vertex m2;
+    private Vertex m3;
+    private Vertex e1;
+
+    @Before
+    public void before() throws Exception {
+        super.before();
+        Assume.assumeTrue(this.sqlgGraph.getSqlDialect().supportsRecursiveQueries());
+    }
+
+    private void loadOrgChart() {
+        this.ceo = this.sqlgGraph.addVertex(T.label, "Employee", "name", "ceo", "level", 0);
+        this.vp1 = this.sqlgGraph.addVertex(T.label, "Employee", "name", "vp1", "level", 1);
+        this.vp2 = this.sqlgGraph.addVertex(T.label, "Employee", "name", "vp2", "level", 1);
+        this.m1 = this.sqlgGraph.addVertex(T.label, "Employee", "name", "m1", "level", 2);
+        this.m2 = this.sqlgGraph.addVertex(T.label, "Employee", "name", "m2", "level", 2);
+        this.m3 = this.sqlgGraph.addVertex(T.label, "Employee", "name", "m3", "level", 2);
+        this.e1 = this.sqlgGraph.addVertex(T.label, "Employee", "name", "e1", "level", 3);
+        this.ceo.addEdge("manages", this.vp1);
+        this.ceo.addEdge("manages", this.vp2);
+        this.vp1.addEdge("manages", this.m1);
+        this.vp1.addEdge("manages", this.m2);
+        this.vp2.addEdge("manages", this.m3);
+        this.m1.addEdge("manages", this.e1);
+        this.sqlgGraph.tx().commit();
+    }
+
+    @Test
+    public void testRepeatUntil() {
+        loadOrgChart();
+        DefaultGraphTraversal<Vertex, Vertex> traversal = (DefaultGraphTraversal<Vertex, Vertex>) this.sqlgGraph.traversal()
+                .V().hasLabel("Employee").has("name", "ceo")
+                .repeat(__.out("manages")).until(__.has("level", 2));
+        List<Vertex> vertices = traversal.toList();
+        Assert.assertTrue(traversal.getSteps().stream().anyMatch(s -> s instanceof SqlgRecursiveRepeatStepBarrier));
+        Assert.assertEquals(3, vertices.size());
+        Assert.assertTrue(vertices.containsAll(Arrays.asList(this.m1, this.m2, this.m3)));
+        //The vertices are loaded by the recursive query.
+        Assert.assertEquals("m1", vertices.get(vertices.indexOf(this.m1)).value("name"));
+
+        List<Vertex> up = this.sqlgGraph.traversal().V(this.e1).repeat(__.in("manages")).until(__.has("level", P.lt(1))).toList();
+        Assert.assertEquals(Collections.singletonList(this.ceo), up);
+
+        assertSameAsTinkerPop(g -> g.V().hasLabel("Employee").repeat(__.out("manages")).until(__.has("level", 3)));
+        assertSameAsTinkerPop(g -> g.V().hasLabel("Employee").repeat(__.in("manages")).until(__.has("level", 0)));
+        //TinkerPop goes back and forth forever, the recursive query does not revisit a vertex.
+        List<Vertex> both = this.sqlgGraph.traversal().V(this.m3).repeat(__.both("manages")).until(__.has("name", "m2")).toList();
+        Assert.assertEquals(Collections.singletonList(this.m2), both);
+    }
+
+    @Test
+    public void testRepeatEmit() {
+        loadOrgChart();
+        List<Vertex> vertices = this.sqlgGraph.traversal().V(this.ceo).repeat(__.out("manages")).emit().toList();
+        Assert.assertEquals(6, vertices.size());
+        assertSameAsTinkerPop(g -> g.V().hasLabel("Employee").repeat(__.out("manages")).emit());
+        assertSameAsTinkerPop(g -> g.V().hasLabel("Employee").emit().repeat(__.out("manages")));
+        assertSameAsTinkerPop(g -> g.V().hasLabel("Employee").repeat(__.out("manages")).emit(__.has("level", P.gte(2))));
+        assertSameAsTinkerPop(g -> g.V().hasLabel("Employee").emit().repeat(__.out("manages")).until(__.has("level", 2)));
+        assertSameAsTinkerPop(g -> g.V().hasLabel("Employee").repeat(__.out("manages")).emit().until(__.has("level", 2)));
+        assertSameAsTinkerPop(g -> g.V().hasLabel("Employee").until(__.has("level", 2)).repeat(__.out("manages")));
+        assertSameAsTinkerPop(g -> g.V().hasLabel("Employee").until(__.has("level", 1)).repeat(__.out("manages")).emit());
+        assertSameAsTinkerPop(g -> g.V().hasLabel("Employee").until(__.has("level", 1)).emit().repeat(__.out("manages")));
+    }
+
+    @Test
+    public void testRepeatPath() {
+        loadOrgChart();
+        List<Path> paths = this.sqlgGraph.traversal().V(this.ceo).repeat(__.out("manages")).until(__.has("level", 3)).path().toList();
+        Assert.assertEquals(1, paths.size());
+        Assert.assertEquals(Arrays.asList(this.ceo, this.vp1, this.m1, this.e1), paths.get(0).objects());
+
+        List<Map<String, Vertex>> selects = this.sqlgGraph.traversal().V(this.ceo).as("a")
+                .repeat(__.out("manages")).until(__.has("level", 2)).as("b")
+                .<Vertex>select("a", "b").toList();
+        Assert.assertEquals(3, selects.size());
+        for (Map<String, Vertex> select : selects) {
+            Assert.assertEquals(this.ceo, select.get("a"));
+        }
+    }
+
+    @Test
+    public void testRepeatCycle() {
+        Vertex a1 = this.sqlgGraph.addVertex(T.label, "A", "name", "a1");
+        Vertex a2 = this.sqlgGraph.addVertex(T.label, "A", "name", "a2");
+        Vertex a3 = this.sqlgGraph.addVertex(T.label, "A", "name", "a3");
+        a1.addEdge("aa", a2);
+        a2.addEdge("aa", a3);
+        a3.addEdge("aa", a1);
+        this.sqlgGraph.tx().commit();
+        //TinkerPop never stops, the recursive query does not go around the cycle.
+        List<Vertex> vertices = this.sqlgGraph.traversal().V(a1).repeat(__.out("aa")).emit().toList();
+        Assert.assertEquals(3, vertices.size());
+        Assert.assertTrue(vertices.containsAll(Arrays.asList(a1, a2, a3)));
+        //The until is still checked on the vertex that closes the cycle.
+        vertices = this.sqlgGraph.traversal().V(a1).repeat(__.out("aa")).until(__.has("name", "a1")).toList();
+        Assert.assertEquals(Collections.singletonList(a1), vertices);
+    }
+
+    @Test
+    public void testStartIdsAreParameters() {
+        loadOrgChart();
+        List<Vertex> vertices = this.sqlgGraph.traversal().V(this.vp1).repeat(__.out("manages")).emit().toList();
+        Assert.assertEquals(3, vertices.size());
+        //Only the start id differs so the recursive query's statement is reused.
+        long hits = this.sqlgGraph.tx().getPreparedStatementCacheHits();
+        vertices = this.sqlgGraph.traversal().V(this.vp2).repeat(__.out("manages")).emit().toList();
+        Assert.assertEquals(Collections.singletonList(this.m3), vertices);
+        Assert.assertTrue(this.sqlgGraph.tx().getPreparedStatementCacheHits() > hits);
+    }
+
+    @Test
+    public void testFallbackToBarrier() {
+        loadOrgChart();
+        //Employee no longer only manages employees.
+        Vertex department = this.sqlgGraph.addVertex(T.label, "Department", "name", "sales", "level", 2);
+        this.vp2.addEdge("manages", department);
+        //The until on a property that is not comparable in sql
+        Vertex a1 = this.sqlgGraph.addVertex(T.label, "A", "name", "a1", "level", "one");
+        Vertex a2 = this.sqlgGraph.addVertex(T.label, "A", "name", "a2", "level", "two");
+        a1.addEdge("manages", a2);
+        this.sqlgGraph.tx().commit();
+
+        List<Vertex> vertices = this.sqlgGraph.traversal().V(this.ceo).repeat(__.out("manages")).until(__.has("level", 2)).toList();
+        Assert.assertEquals(4, vertices.size());
+        Assert.assertTrue(vertices.contains(department));
+        vertices = this.sqlgGraph.traversal().V(a1).repeat(__.out("manages")).until(__.has("name", "a2")).toList();
+        Assert.assertEquals(Collections.singletonList(a2), vertices);
+        assertSameAsTinkerPop(g -> g.V().repeat(__.out("manages")).emit().until(__.has("level", 2)));
+    }
+
+    private void assertSameAsTinkerPop(Function<GraphTraversalSource, GraphTraversal<Vertex, Vertex>> traversal) {
+        DefaultGraphTraversal<Vertex, Vertex> recursive = (DefaultGraphTraversal<Vertex, Vertex>) traversal.apply(this.sqlgGraph.traversal());
+        List<Vertex> recursiveResult = recursive.toList();
+        List<Vertex> tinkerPopResult = traversal.apply(this.sqlgGraph.traversal().withoutStrategies(SqlgRepeatStepStrategy.class)).toList();
+        Assert.assertEquals(recursive.toString(), count(tinkerPopResult), count(recursiveResult));
+    }
+
+    private static Map<Vertex, Integer> count(List<Vertex> vertices) {
+        Map<Vertex, Integer> result = new HashMap<>();
+        for (Vertex vertex : vertices) {
+            result.merge(vertex, 1, Integer::sum);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,102 @@
+package org.umlg.sqlg.test.schema;
+
+import org.apache.commons.configuration.Configuration;
+import org.apache.tinkerpop.gremlin.structure.T;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.junit.Assert;
+import org.junit.Test;
+import org.umlg.sqlg.structure.PropertyType;
+import org.umlg.sqlg.structure.SqlgGraph;
+import org.umlg.sqlg.structure.topology.GlobalUniqueIndex;
+import org.umlg.sqlg.structure.topology.PropertyColumn;
+import org.umlg.sqlg.structure.topology.Schema;
+import org.umlg.sqlg.structure.topology.VertexLabel;
+import org.umlg.sqlg.test.BaseTest;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+
+import static org.junit.Assert.fail;
+
+/**
+ * Global unique index rows written at commit, see 'global.unique.index.deferred'.
+ */
+public class TestGlobalUniqueIndexDeferred extends BaseTest {
+
+    @Test
+    public void testDeferredGlobalUniqueIndex() throws Exception {
+        Configuration deferredConfiguration = getConfigurationClone();
+        deferredConfiguration.setProperty("global.unique.index.deferred", true);
+        try (SqlgGraph deferredGraph = SqlgGraph.open(deferredConfiguration)) {
+            Assert.assertTrue(deferredGraph.isGlobalUniqueIndexDeferred());
+            Map<String, PropertyType> properties = new HashMap<>();
+            properties.put("name", PropertyType.STRING);
+            VertexLabel aVertexLabel = deferredGraph.getTopology().getPublicSchema().ensureVertexLabelExist("A", properties);
+            PropertyColumn name = aVertexLabel.getProperty("name").orElseThrow(IllegalStateException::new);
+            GlobalUniqueIndex globalUniqueIndex = deferredGraph.getTopology().ensureGlobalUniqueIndexExist(new HashSet<>(Collections.singletonList(name)));
+            deferredGraph.addVertex(T.label, "B", "name", "notIndexed");
+            deferredGraph.tx().commit();
+            String globalUniqueIndexLabel = Schema.GLOBAL_UNIQUE_INDEX_SCHEMA + "." + globalUniqueIndex.getName();
+
+            //Only the last value of a property reaches the index.
+            Vertex a1 = deferredGraph.addVertex(T.label, "A", "name", "a1");
+            a1.property("name", "a11");
+            a1.property("name", "a111");
+            Vertex a2 = deferredGraph.addVertex(T.label, "A", "name", "a2");
+            Vertex a3 = deferredGraph.addVertex(T.label, "A", "name", "a3");
+            a3.remove();
+            deferredGraph.tx().commit();
+            Assert.assertEquals(2L, deferredGraph.globalUniqueIndexes().V().hasLabel(globalUniqueIndexLabel).count().next().longValue());
+            Assert.assertEquals(1L, deferredGraph.globalUniqueIndexes().V().hasLabel(globalUniqueIndexLabel).has(GlobalUniqueIndex.GLOBAL_UNIQUE_INDEX_VALUE, "a111").count().next().longValue());
+            deferredGraph.tx().rollback();
+
+            //Swapping values within a transaction is fine as the deletes run before the inserts.
+            a1.property("name", "a2");
+            a2.property("name", "a111");
+            deferredGraph.tx().commit();
+            Assert.assertEquals(a2.id().toString(), deferredGraph.globalUniqueIndexes().V().hasLabel(globalUniqueIndexLabel)
+                    .has(GlobalUniqueIndex.GLOBAL_UNIQUE_INDEX_VALUE, "a111")
+                    .<String>values(GlobalUniqueIndex.GLOBAL_UNIQUE_INDEX_RECORD_ID).next());
+            deferredGraph.tx().rollback();
+
+            //Pending rows are flushed before the global unique indexes are queried.
+            a2.remove();
+            Assert.assertEquals(1L, deferredGraph.globalUniqueIndexes().V().hasLabel(globalUniqueIndexLabel).count().next().longValue());
+            deferredGraph.tx().commit();
+
+            //A violation surfaces at commit.
+            deferredGraph.addVertex(T.label, "A", "name", "a2");
+            try {
+                deferredGraph.tx().commit();
+                fail("GlobalUniqueIndex should not allow this to happen");
+            } catch (Exception e) {
+                //swallow
+            }
+            Assert.assertEquals(1L, deferredGraph.traversal().V().hasLabel("A").count().next().longValue());
+            Assert.assertEquals(1L, deferredGraph.globalUniqueIndexes().V().hasLabel(globalUniqueIndexLabel).count().next().longValue());
+            deferredGraph.tx().rollback();
+        }
+    }
+
+    @Test
+    public void testLabelWithoutGlobalUniqueIndexSkipsIt() {
+        Map<String, PropertyType> properties = new HashMap<>();
+        properties.put("name", PropertyType.STRING);
+        VertexLabel aVertexLabel = this.sqlgGraph.getTopology().getPublicSchema().ensureVertexLabelExist("A", properties);
+        PropertyColumn name = aVertexLabel.getProperty("name").orElseThrow(IllegalStateException::new);
+        GlobalUniqueIndex globalUniqueIndex = this.sqlgGraph.getTopology().ensureGlobalUniqueIndexExist(new HashSet<>(Collections.singletonList(name)));
+        this.sqlgGraph.tx().commit();
+        Vertex b = this.sqlgGraph.addVertex(T.label, "B", "name", "b");
+        b.property("name", "bb");
+        Vertex a = this.sqlgGraph.addVertex(T.label, "A", "name", "bb");
+        a.property("name", "aa");
+        b.remove();
+        this.sqlgGraph.tx().commit();
+        Assert.assertEquals(1L, this.sqlgGraph.globalUniqueIndexes().V()
+                .hasLabel(Schema.GLOBAL_UNIQUE_INDEX_SCHEMA + "." + globalUniqueIndex.getName())
+                .has(GlobalUniqueIndex.GLOBAL_UNIQUE_INDEX_VALUE, "aa")
+                .count().next().longValue());
+    }
+}
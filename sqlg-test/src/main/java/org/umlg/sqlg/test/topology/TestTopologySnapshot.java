@@ -0,0 +1,62 @@
+package org.umlg.sqlg.test.topology;
+
+import org.apache.tinkerpop.gremlin.structure.T;
+import org.junit.Assert;
+import org.junit.Test;
+import org.umlg.sqlg.structure.PropertyType;
+import org.umlg.sqlg.structure.SchemaTable;
+import org.umlg.sqlg.structure.topology.PropertyColumn;
+import org.umlg.sqlg.structure.topology.VertexLabel;
+import org.umlg.sqlg.test.BaseTest;
+
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Test that threads not changing the topology read the committed topology from its snapshot.
+ */
+public class TestTopologySnapshot extends BaseTest {
+
+    @Test
+    public void testCommittedTopologyIsShared() {
+        this.sqlgGraph.addVertex(T.label, "A", "name", "a");
+        this.sqlgGraph.tx().commit();
+        VertexLabel vertexLabel = this.sqlgGraph.getTopology().getPublicSchema().getVertexLabel("A").get();
+        Map<String, PropertyColumn> properties = vertexLabel.getProperties();
+        Assert.assertSame(properties, vertexLabel.getProperties());
+        Assert.assertSame(this.sqlgGraph.getTopology().getAllTables(), this.sqlgGraph.getTopology().getAllTables());
+
+        this.sqlgGraph.addVertex(T.label, "A", "name", "a", "surname", "b");
+        this.sqlgGraph.tx().commit();
+        Assert.assertNotSame(properties, vertexLabel.getProperties());
+        Assert.assertTrue(vertexLabel.getProperties().containsKey("surname"));
+        Map<String, PropertyType> table = this.sqlgGraph.getTopology().getTableFor(SchemaTable.of(this.sqlgGraph.getSqlDialect().getPublicSchema(), "V_A"));
+        Assert.assertEquals(PropertyType.STRING, table.get("surname"));
+    }
+
+    @Test
+    public void testUncommittedTopologyOnlyVisibleToWriter() throws ExecutionException, InterruptedException {
+        this.sqlgGraph.addVertex(T.label, "A", "name", "a");
+        this.sqlgGraph.tx().commit();
+        VertexLabel vertexLabel = this.sqlgGraph.getTopology().getPublicSchema().getVertexLabel("A").get();
+        this.sqlgGraph.addVertex(T.label, "A", "name", "a", "surname", "b");
+        this.sqlgGraph.addVertex(T.label, "B", "name", "b");
+        Assert.assertTrue(vertexLabel.getProperties().containsKey("surname"));
+        Assert.assertTrue(this.sqlgGraph.getTopology().getAllTables().containsKey(this.sqlgGraph.getSqlDialect().getPublicSchema() + ".V_B"));
+
+        ExecutorService executorService = Executors.newSingleThreadExecutor();
+        try {
+            Assert.assertFalse(executorService.submit(() -> vertexLabel.getProperties().containsKey("surname")).get());
+            Assert.assertFalse(executorService.submit(() ->
+                    this.sqlgGraph.getTopology().getAllTables().containsKey(this.sqlgGraph.getSqlDialect().getPublicSchema() + ".V_B")).get());
+            this.sqlgGraph.tx().commit();
+            Assert.assertTrue(executorService.submit(() -> vertexLabel.getProperties().containsKey("surname")).get());
+            Assert.assertTrue(executorService.submit(() ->
+                    this.sqlgGraph.getTopology().getAllTables().containsKey(this.sqlgGraph.getSqlDialect().getPublicSchema() + ".V_B")).get());
+        } finally {
+            executorService.shutdown();
+        }
+    }
+}